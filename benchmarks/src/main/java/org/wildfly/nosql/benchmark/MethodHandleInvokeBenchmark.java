@@ -0,0 +1,132 @@
+/*
+ * Copyright 2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wildfly.nosql.benchmark;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+import com.datastax.driver.core.Cluster;
+import com.mongodb.MongoClient;
+import com.mongodb.client.MongoDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wildfly.nosql.common.MethodHandleBuilder;
+
+/**
+ * MethodHandleInvokeBenchmark compares calling the driver methods that the Interaction classes use, via
+ * MethodHandle.invoke with Object typed arguments (as before MethodHandleBuilder.erase), via invokeExact on an
+ * erased handle and via a direct call.
+ *
+ * The handles are held in (non static) final fields, the same as in the Interaction classes.  MongoClient.getDatabase
+ * and Cluster.Builder.withClusterName don't need a running server.  Cluster.connect (clusterConnectMethod) is not
+ * measured, as connecting to a Cassandra cluster would dominate the call overhead, the handle is adapted the same way.
+ *
+ * Run with:
+ *   mvn -Pbenchmarks -pl common,benchmarks install
+ *   java -jar benchmarks/target/benchmarks.jar MethodHandleInvokeBenchmark
+ *
+ * @author Scott Marlow
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodHandleInvokeBenchmark {
+
+    private static final String DATABASE_NAME = "benchmark";
+    private static final String CLUSTER_NAME = "benchmark";
+
+    private final MethodHandle getDatabaseMethod =
+            findVirtual(MongoClient.class, "getDatabase", MethodType.methodType(MongoDatabase.class, String.class));
+    private final MethodHandle erasedGetDatabaseMethod = MethodHandleBuilder.erase(getDatabaseMethod);
+    private final MethodHandle withClusterNameMethod =
+            findVirtual(Cluster.Builder.class, "withClusterName", MethodType.methodType(Cluster.Builder.class, String.class));
+    private final MethodHandle erasedWithClusterNameMethod = MethodHandleBuilder.erase(withClusterNameMethod);
+
+    private MongoClient mongoClient;
+    private Object mongoClientObject;   // Interaction classes only have Object references to driver instances
+
+    private Cluster.Builder clusterBuilder;
+    private Object clusterBuilderObject;
+
+    @Setup
+    public void setup() {
+        // the MongoClient doesn't connect until a command is sent
+        mongoClient = new MongoClient("localhost");
+        mongoClientObject = mongoClient;
+
+        clusterBuilder = Cluster.builder();
+        clusterBuilderObject = clusterBuilder;
+    }
+
+    @TearDown
+    public void tearDown() {
+        mongoClient.close();
+    }
+
+    @Benchmark
+    public Object getDatabaseInvoke() throws Throwable {
+        return getDatabaseMethod.invoke(mongoClientObject, DATABASE_NAME);
+    }
+
+    @Benchmark
+    public Object getDatabaseInvokeExact() throws Throwable {
+        return (Object) erasedGetDatabaseMethod.invokeExact(mongoClientObject, DATABASE_NAME);
+    }
+
+    @Benchmark
+    public Object getDatabaseDirect() {
+        return mongoClient.getDatabase(DATABASE_NAME);
+    }
+
+    @Benchmark
+    public Object withClusterNameInvoke() throws Throwable {
+        return withClusterNameMethod.invoke(clusterBuilderObject, CLUSTER_NAME);
+    }
+
+    @Benchmark
+    public Object withClusterNameInvokeExact() throws Throwable {
+        return (Object) erasedWithClusterNameMethod.invokeExact(clusterBuilderObject, CLUSTER_NAME);
+    }
+
+    @Benchmark
+    public Object withClusterNameDirect() {
+        return clusterBuilder.withClusterName(CLUSTER_NAME);
+    }
+
+    private static MethodHandle findVirtual(Class<?> targetClass, String methodName, MethodType methodType) {
+        try {
+            return MethodHandles.lookup().findVirtual(targetClass, methodName, methodType);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("could not get '" + methodName + "' method from " + targetClass.getName(), e);
+        }
+    }
+}
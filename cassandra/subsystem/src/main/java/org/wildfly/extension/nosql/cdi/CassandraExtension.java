@@ -20,7 +20,11 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -28,6 +32,7 @@ import javax.enterprise.context.Dependent;
 import javax.enterprise.context.spi.CreationalContext;
 import javax.enterprise.event.Observes;
 import javax.enterprise.inject.spi.AfterBeanDiscovery;
+import javax.enterprise.inject.spi.AfterDeploymentValidation;
 import javax.enterprise.inject.spi.Bean;
 import javax.enterprise.inject.spi.BeanAttributes;
 import javax.enterprise.inject.spi.BeanManager;
@@ -35,16 +40,22 @@ import javax.enterprise.inject.spi.Extension;
 import javax.enterprise.inject.spi.InjectionPoint;
 import javax.enterprise.inject.spi.InjectionTarget;
 import javax.enterprise.inject.spi.InjectionTargetFactory;
+import javax.enterprise.inject.spi.ProcessInjectionPoint;
 
 import org.jboss.as.server.CurrentServiceContainer;
+import org.jboss.modules.ModuleIdentifier;
+import org.wildfly.extension.nosql.driver.cassandra.PreparedStatementCache;
 import org.wildfly.extension.nosql.subsystem.cassandra.CassandraSubsystemService;
 import org.wildfly.nosql.common.ConnectionServiceAccess;
+import org.wildfly.nosql.common.MethodHandleBuilder;
+import org.wildfly.nosql.common.NoSQLConstants;
 import org.wildfly.nosql.common.SubsystemService;
 import org.wildfly.nosql.common.spi.NoSQLConnection;
 
 
 /**
- * This CDI Extension registers a <code>Session,Cluster</code>
+ * This CDI Extension registers a <code>Session,Cluster,PreparedStatementCache</code>
+ * and a <code>PreparedStatement</code> per distinct @Cql qualifier, which is prepared at deployment time.
  * Registration will be aborted if user defines her own <code>Session,Cluster</code> bean or producer
  *
  * @author Antoine Sabot-Durand
@@ -56,14 +67,63 @@ public class CassandraExtension implements Extension {
 
     private final Class sessionClass;
     private final Class clusterClass;
+    // @Cql qualifiers of the deployment injection points, with the injected types.
+    // Concurrent as Weld may process the deployment beans in parallel.
+    private final Map<Cql, Set<Type>> cqlRefs = new ConcurrentHashMap<>();
+    // @Cql statements that are being prepared, started in AfterBeanDiscovery and awaited in AfterDeploymentValidation
+    private final Map<Cql, CompletableFuture<Object>> prepares = new ConcurrentHashMap<>();
 
     public CassandraExtension(Class clusterClass, Class sessionClass) {
         this.clusterClass = clusterClass;
         this.sessionClass = sessionClass;
     }
+
+    <T, X> void collectCqlRefs(@Observes ProcessInjectionPoint<T, X> pip) {
+        for (Annotation qualifier : pip.getInjectionPoint().getQualifiers()) {
+            if (qualifier instanceof Cql) {
+                cqlRefs.computeIfAbsent((Cql) qualifier, ignore -> ConcurrentHashMap.newKeySet())
+                        .add(pip.getInjectionPoint().getType());
+            }
+        }
+    }
+
+    /**
+     * wait for the @Cql statements to be prepared, a statement that cannot be prepared fails the deployment.
+     */
+    void awaitCqlPrepares(@Observes AfterDeploymentValidation adv) {
+        for (Map.Entry<Cql, CompletableFuture<Object>> prepare : prepares.entrySet()) {
+            final Cql cql = prepare.getKey();
+            try {
+                prepare.getValue().join();
+            } catch (CompletionException e) {
+                adv.addDeploymentProblem(new IllegalStateException(
+                        "could not prepare @Cql \"" + cql.value() + "\" with Cassandra profile " + cql.profile(), e.getCause()));
+            }
+        }
+        prepares.clear();
+    }
+
     /**
      */
     void registerNoSQLSourceBeans(@Observes AfterBeanDiscovery abd, BeanManager bm) {
+        // one PreparedStatement bean per distinct @Cql, all statements are prepared in parallel
+        for (Map.Entry<Cql, Set<Type>> cqlRef : cqlRefs.entrySet()) {
+            final Cql cql = cqlRef.getKey();
+            log.log(Level.INFO, "Registering PreparedStatement bean for {0}", cql);
+            // only profiles of the Cassandra subsystem are resolved, another NoSQL subsystem can have a profile with the same name
+            final String moduleName = getService().moduleNameFromProfile(cql.profile());
+            prepares.put(cql, prepareAsync(cql, moduleName));
+            final Class preparedStatementClass = moduleName != null ?
+                    new MethodHandleBuilder().classLoader(ModuleIdentifier.fromString(moduleName))
+                            .className(NoSQLConstants.CASSANDRAPREPAREDSTATEMENTCLASS).getTargetClass() :
+                    Object.class;  // unknown profile, the failed prepare is reported as a deployment problem
+            Set<Type> types = new HashSet<>(cqlRef.getValue());
+            types.add(Object.class);
+            abd.addBean(bm.createBean(
+                    new CqlBeanAttributes(cql, types),
+                    preparedStatementClass, new CqlProducerFactory(cql)));
+        }
+        cqlRefs.clear();
 
         if (bm.getBeans(clusterClass, DefaultLiteral.INSTANCE).isEmpty()) {
             // Iterate profiles and create Cluster/Session bean for each profile, that application code can @Inject
@@ -75,12 +135,29 @@ public class CassandraExtension implements Extension {
                 abd.addBean(bm.createBean(
                         new SessionBeanAttributes(bm.createBeanAttributes(bm.createAnnotatedType(sessionClass)), profile),
                         sessionClass, new SessionProducerFactory(profile, sessionClass)));
+                abd.addBean(bm.createBean(
+                        new SessionBeanAttributes(bm.createBeanAttributes(bm.createAnnotatedType(PreparedStatementCache.class)), profile),
+                        PreparedStatementCache.class, new SessionProducerFactory(profile, PreparedStatementCache.class)));
             }
          } else {
             log.log(Level.INFO, "Application contains a default Cluster Bean, automatic registration will be disabled");
         }
     }
 
+    private static CompletableFuture<Object> prepareAsync(Cql cql, String moduleName) {
+        try {
+            if (moduleName == null) {
+                throw new IllegalArgumentException("unknown Cassandra profile " + cql.profile());
+            }
+            final PreparedStatementCache preparedStatementCache = ConnectionServiceAccess.connection(cql.profile()).unwrap(PreparedStatementCache.class);
+            return preparedStatementCache.prepareAsync(cql.value()).toCompletableFuture();
+        } catch (RuntimeException e) {
+            final CompletableFuture<Object> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
     private SubsystemService getService() {
         return (SubsystemService) CurrentServiceContainer.getServiceContainer().getService(CassandraSubsystemService.serviceName()).getValue();
     }
@@ -263,4 +340,93 @@ public class CassandraExtension implements Extension {
         }
     }
 
+    private static class CqlBeanAttributes<T> implements BeanAttributes<T> {
+
+        private final Cql cql;
+        private final Set<Type> types;
+
+        CqlBeanAttributes(Cql cql, Set<Type> types) {
+            this.cql = cql;
+            this.types = types;
+        }
+
+        @Override
+        public String getName() {
+            return null;
+        }
+
+        @Override
+        public Set<Annotation> getQualifiers() {
+            Set<Annotation> qualifiers = new HashSet<>();
+            qualifiers.add(cql);
+            qualifiers.add(AnyLiteral.INSTANCE);
+            return qualifiers;
+        }
+
+        @Override
+        public Class<? extends Annotation> getScope() {
+            // not ApplicationScoped, as a restarted profile prepares the statement again with the new Cluster
+            return Dependent.class;
+        }
+
+        @Override
+        public Set<Class<? extends Annotation>> getStereotypes() {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public Set<Type> getTypes() {
+            return types;
+        }
+
+        @Override
+        public boolean isAlternative() {
+            return false;
+        }
+    }
+
+    private static class CqlProducerFactory<T>
+            implements InjectionTargetFactory<T> {
+
+        private final Cql cql;
+
+        CqlProducerFactory(Cql cql) {
+            this.cql = cql;
+        }
+
+        @Override
+        public InjectionTarget<T> createInjectionTarget(Bean<T> bean) {
+            return new InjectionTarget<T>() {
+                @Override
+                public void inject(T instance, CreationalContext<T> ctx) {
+                }
+
+                @Override
+                public void postConstruct(T instance) {
+                }
+
+                @Override
+                public void preDestroy(T instance) {
+                }
+
+                @Override
+                public T produce(CreationalContext<T> ctx) {
+                    // already prepared at deployment time, unless evicted from the cache
+                    NoSQLConnection noSQLConnection = ConnectionServiceAccess.connection(cql.profile());
+                    return (T) noSQLConnection.unwrap(PreparedStatementCache.class).prepare(cql.value());
+                }
+
+                @Override
+                public void dispose(T preparedStatement) {
+
+                }
+
+                @Override
+                public Set<InjectionPoint> getInjectionPoints() {
+                    return Collections.EMPTY_SET;
+                }
+            };
+        }
+    }
+
 }
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wildfly.extension.nosql.cdi;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.PARAMETER;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import javax.inject.Qualifier;
+
+/**
+ * Qualifier for injecting a PreparedStatement of a Cassandra profile.  The statements of all @Cql injection points
+ * are prepared in parallel (via the profile PreparedStatementCache) when the application is deployed, so that the
+ * first request doesn't wait for the statement to be prepared.  The deployment fails if a statement cannot be
+ * prepared.
+ *
+ * Ex:
+ * <pre>
+ *   &#064;Inject &#064;Cql(profile = "MyCassandra", value = "SELECT * FROM users WHERE id = ?")
+ *   PreparedStatement selectUser;
+ * </pre>
+ *
+ * @author Scott Marlow
+ */
+@Qualifier
+@Documented
+@Retention(RUNTIME)
+@Target({FIELD, METHOD, PARAMETER})
+public @interface Cql {
+
+    /**
+     * @return Cassandra profile id, the statement is prepared with the profile Session (keyspace)
+     */
+    String profile();
+
+    /**
+     * @return CQL text
+     */
+    String value();
+}
@@ -30,6 +30,8 @@ import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
 import org.jboss.security.SubjectFactory;
 import org.wildfly.extension.nosql.subsystem.cassandra.CassandraSubsystemService;
+import org.wildfly.nosql.common.ConnectionServiceAccess;
+import org.wildfly.nosql.common.ConnectionServiceStarter;
 import org.wildfly.nosql.common.spi.NoSQLConnection;
 
 /**
@@ -45,8 +47,10 @@ public class CassandraClientConnectionsService implements Service<CassandraClien
     private final CassandraInteraction cassandraInteraction;
     private final Class clusterClass;
     private final Class sessionClass;
-    private Object cluster;  // represents connection into Cassandra
-    private Object session;  // only set if keyspaceName is specified
+    private volatile Object cluster;  // represents connection into Cassandra
+    private volatile Object session;  // only set if keyspaceName is specified
+    private boolean started;  // guarded by this, cluster is only created between start + stop
+    private PreparedStatementCache preparedStatementCache;  // guarded by this, created on first use
     private final InjectedValue<CassandraSubsystemService> cassandraSubsystemServiceInjectedValue = new InjectedValue<>();
     private final InjectedValue<SubjectFactory> subjectFactory = new InjectedValue<>();
 
@@ -71,7 +75,10 @@ public class CassandraClientConnectionsService implements Service<CassandraClien
 
     @Override
     public void start(StartContext startContext) throws StartException {
+        ConnectionServiceStarter.start(startContext, configurationBuilder.getDescription(), configurationBuilder.isAsyncStart(), this::startCluster);
+    }
 
+    private void startCluster() {
         try {
             // maintain a mapping from JNDI name to NoSQL module name, that we will use during deployment time to
             // identify the static module name to add to the deployment.
@@ -99,30 +106,88 @@ public class CassandraClientConnectionsService implements Service<CassandraClien
                 cassandraInteraction.withSSL();
             }
 
-            cluster = cassandraInteraction.build();
-
-            String keySpace = configurationBuilder.getKeySpace();
-            if (keySpace != null) {
-                session = cassandraInteraction.connect(cluster, keySpace);
-            }
+            cassandraInteraction.withPoolingOptions(configurationBuilder);
+            cassandraInteraction.withLoadBalancingPolicy(configurationBuilder);
+            cassandraInteraction.withSpeculativeExecutionPolicy(configurationBuilder);
         } catch (Throwable throwable) {
             throw new RuntimeException("could not setup Cassandra connection " + configurationBuilder.getDescription(), throwable);
         }
+        synchronized (this) {
+            started = true;
+        }
+        if (!configurationBuilder.isLazyConnect()) {
+            connect();
+        }
+        ConnectionServiceAccess.started(configurationBuilder.getDescription(), this);
+    }
+
+    /**
+     * build the Cluster (and connect the Session), if not already built.
+     */
+    private void connect() {
+        if (cluster != null) {
+            return;
+        }
+        synchronized (this) {
+            if (cluster != null) {
+                return;
+            }
+            if (!started) {
+                throw new IllegalStateException("Cassandra profile " + configurationBuilder.getDescription() + " is not started");
+            }
+            try {
+                Object newCluster = cassandraInteraction.build();
+
+                String keySpace = configurationBuilder.getKeySpace();
+                if (keySpace != null) {
+                    try {
+                        session = cassandraInteraction.connect(newCluster, keySpace);
+                    } catch (Throwable throwable) {
+                        // don't leak the Cluster (connection pools + threads) of the failed attempt
+                        try {
+                            cassandraInteraction.clusterClose(newCluster);
+                        } catch (Throwable closeFailure) {
+                            throwable.addSuppressed(closeFailure);
+                        }
+                        throw throwable;
+                    }
+                }
+                // cluster is published last, so that readers that see the cluster also see the session
+                cluster = newCluster;
+            } catch (Throwable throwable) {
+                throw new RuntimeException("could not setup Cassandra connection " + configurationBuilder.getDescription(), throwable);
+            }
+        }
     }
 
     @Override
     public void stop(StopContext stopContext) {
+        ConnectionServiceAccess.stopped(configurationBuilder.getDescription(), this);
         try {
             cassandraSubsystemServiceInjectedValue.getValue().removeModuleNameFromJndi(configurationBuilder.getJNDIName());
             cassandraSubsystemServiceInjectedValue.getValue().removeModuleNameFromProfile(configurationBuilder.getDescription());
+            disconnect();
+        } catch (Throwable throwable) {
+            ROOT_LOGGER.driverFailedToStop(throwable);
+        }
+    }
+
+    private synchronized void disconnect() throws Throwable {
+        started = false;
+        try {
             if (session != null) {
                 cassandraInteraction.sessionClose(session);
-                session = null;
             }
-            cassandraInteraction.clusterClose(cluster);
+            if (cluster != null) {
+                cassandraInteraction.clusterClose(cluster);
+            }
+        } finally {
+            session = null;
             cluster = null;
-        } catch (Throwable throwable) {
-            ROOT_LOGGER.driverFailedToStop(throwable);
+            if (preparedStatementCache != null) {
+                // statements are prepared per Cluster, a restarted profile prepares them again
+                preparedStatementCache.clear();
+            }
         }
     }
 
@@ -132,20 +197,52 @@ public class CassandraClientConnectionsService implements Service<CassandraClien
     }
 
     public Object getCluster() {
+        connect();
         return cluster;
     }
 
     public Object getSession() {
+        connect();
         return session;
     }
 
+    /**
+     * @return the PreparedStatementCache of this profile
+     */
+    public synchronized PreparedStatementCache getPreparedStatementCache() {
+        if (!started) {
+            throw new IllegalStateException("Cassandra profile " + configurationBuilder.getDescription() + " is not started");
+        }
+        if (preparedStatementCache == null) {
+            preparedStatementCache = new PreparedStatementCache(this, configurationBuilder);
+        }
+        return preparedStatementCache;
+    }
+
+    /**
+     * @return the PreparedStatementCache if it was used since the profile was started, otherwise null
+     */
+    public synchronized PreparedStatementCache getPreparedStatementCacheIfCreated() {
+        return preparedStatementCache;
+    }
+
+    /**
+     * @return the speculative execution counters, null if the profile doesn't enable speculative executions
+     */
+    public SpeculativeExecutionMetrics getSpeculativeExecutionMetrics() {
+        return cassandraInteraction.getSpeculativeExecutionMetrics();
+    }
+
     @Override
     public <T> T unwrap(Class<T> clazz) {
+        if (PreparedStatementCache.class.equals(clazz)) {
+            return (T) getPreparedStatementCache();
+        }
         if ( clusterClass.isAssignableFrom( clazz ) ) {
-            return (T) cluster;
+            return (T) getCluster();
         }
         if ( sessionClass.isAssignableFrom( clazz)) {
-            return (T) session;
+            return (T) getSession();
         }
         throw ROOT_LOGGER.unassignable(clazz);
     }
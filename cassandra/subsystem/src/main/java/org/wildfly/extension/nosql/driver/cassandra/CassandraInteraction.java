@@ -19,7 +19,9 @@ import static org.wildfly.nosql.common.NoSQLLogger.ROOT_LOGGER;
 
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodType;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.resource.spi.security.PasswordCredential;
 import javax.security.auth.Subject;
@@ -36,6 +38,8 @@ import org.wildfly.nosql.common.NoSQLConstants;
  */
 public class CassandraInteraction {
 
+    private static final long HIGHEST_TRACKABLE_LATENCY_MILLIS = 15000;
+
     private final Class clusterClass;
     private final Class sessionClass;
 
@@ -49,6 +53,33 @@ public class CassandraInteraction {
     private final MethodHandle builderWithCredentials;
     private final MethodHandle builderAddContactPointMethod;
     private final MethodHandle builderwithSSLMethod;
+    private final MethodHandle builderWithPoolingOptionsMethod;
+    private final MethodHandle poolingOptionsCtor;
+    private final MethodHandle setCoreConnectionsPerHostMethod;
+    private final MethodHandle setMaxConnectionsPerHostMethod;
+    private final MethodHandle setMaxRequestsPerConnectionMethod;
+    private final MethodHandle setPoolTimeoutMillisMethod;
+    private final MethodHandle setHeartbeatIntervalSecondsMethod;
+    private final Object /* HostDistance */ localDistance;
+    private final Object /* HostDistance */ remoteDistance;
+    private final MethodHandle builderWithLoadBalancingPolicyMethod;
+    private final MethodHandle dcAwarePolicyBuilderMethod;
+    private final MethodHandle withLocalDcMethod;
+    private final MethodHandle withUsedHostsPerRemoteDcMethod;
+    private final MethodHandle dcAwarePolicyBuildMethod;
+    private final MethodHandle tokenAwarePolicyCtor;
+    private final MethodHandle latencyAwarePolicyBuilderMethod;
+    private final MethodHandle withExclusionThresholdMethod;
+    private final MethodHandle latencyAwarePolicyBuildMethod;
+    private final MethodHandle builderWithSpeculativeExecutionPolicyMethod;
+    private final MethodHandle constantSpeculativeExecutionPolicyCtor;
+    private final MethodHandle percentileSpeculativeExecutionPolicyCtor;
+    private final MethodHandle perHostPercentileTrackerBuilderMethod;
+    private final MethodHandle perHostPercentileTrackerBuildMethod;
+    private final MethodHandle clusterRegisterMethod;
+    private volatile SpeculativeExecutionMetrics speculativeExecutionMetrics;
+    // registered with the Cluster after it is built, which may be on another thread (lazy-connect)
+    private final List<Object> latencyTrackers = new CopyOnWriteArrayList<>();
     private final MethodHandle sessionCloseMethod;
     private Object clusterBuilder;
     private volatile SubjectFactory subjectFactory;
@@ -57,48 +88,210 @@ public class CassandraInteraction {
     public CassandraInteraction(ConfigurationBuilder configurationBuilder) {
         MethodHandleBuilder methodHandleBuilder = new MethodHandleBuilder();
         methodHandleBuilder.classLoader(ModuleIdentifier.fromString(configurationBuilder.getModuleName()));
+        Class hostDistanceClass = methodHandleBuilder.className(NoSQLConstants.CASSANDRAHOSTDISTANCECLASS).getTargetClass();
+        MethodHandle localField = MethodHandleBuilder.erase(methodHandleBuilder.staticField("LOCAL"));
+        MethodHandle remoteField = MethodHandleBuilder.erase(methodHandleBuilder.staticField("REMOTE"));
+        Class poolingOptionsClass = methodHandleBuilder.className(NoSQLConstants.CASSANDRAPOOLINGOPTIONSCLASS).getTargetClass();
+        poolingOptionsCtor = MethodHandleBuilder.erase(methodHandleBuilder.constructor(MethodType.methodType(void.class)));
+        setCoreConnectionsPerHostMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("setCoreConnectionsPerHost", hostDistanceClass, int.class));
+        setMaxConnectionsPerHostMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("setMaxConnectionsPerHost", hostDistanceClass, int.class));
+        setMaxRequestsPerConnectionMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("setMaxRequestsPerConnection", hostDistanceClass, int.class));
+        setPoolTimeoutMillisMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("setPoolTimeoutMillis", int.class));
+        setHeartbeatIntervalSecondsMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("setHeartbeatIntervalSeconds", int.class));
+        Class loadBalancingPolicyClass = methodHandleBuilder.className(NoSQLConstants.CASSANDRALOADBALANCINGPOLICYCLASS).getTargetClass();
+        Class dcAwarePolicyBuilderClass = methodHandleBuilder.className(NoSQLConstants.CASSANDRADCAWAREPOLICYBUILDERCLASS).getTargetClass();
+        withLocalDcMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("withLocalDc", String.class));
+        withUsedHostsPerRemoteDcMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("withUsedHostsPerRemoteDc", int.class));
+        dcAwarePolicyBuildMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("build"));
+        methodHandleBuilder.className(NoSQLConstants.CASSANDRADCAWAREPOLICYCLASS);
+        dcAwarePolicyBuilderMethod = MethodHandleBuilder.erase(methodHandleBuilder.staticMethod("builder", MethodType.methodType(dcAwarePolicyBuilderClass)));
+        methodHandleBuilder.className(NoSQLConstants.CASSANDRATOKENAWAREPOLICYCLASS);
+        tokenAwarePolicyCtor = MethodHandleBuilder.erase(methodHandleBuilder.constructor(MethodType.methodType(void.class, loadBalancingPolicyClass, boolean.class)));
+        Class latencyAwarePolicyBuilderClass = methodHandleBuilder.className(NoSQLConstants.CASSANDRALATENCYAWAREPOLICYBUILDERCLASS).getTargetClass();
+        withExclusionThresholdMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("withExclusionThreshold", double.class));
+        latencyAwarePolicyBuildMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("build"));
+        methodHandleBuilder.className(NoSQLConstants.CASSANDRALATENCYAWAREPOLICYCLASS);
+        latencyAwarePolicyBuilderMethod = MethodHandleBuilder.erase(methodHandleBuilder.staticMethod("builder", MethodType.methodType(latencyAwarePolicyBuilderClass, loadBalancingPolicyClass)));
+        Class speculativeExecutionPolicyClass = methodHandleBuilder.className(NoSQLConstants.CASSANDRASPECULATIVEEXECUTIONPOLICYCLASS).getTargetClass();
+        Class latencyTrackerClass = methodHandleBuilder.className(NoSQLConstants.CASSANDRALATENCYTRACKERCLASS).getTargetClass();
+        methodHandleBuilder.className(NoSQLConstants.CASSANDRACONSTANTSPECULATIVEEXECUTIONPOLICYCLASS);
+        constantSpeculativeExecutionPolicyCtor = MethodHandleBuilder.erase(methodHandleBuilder.constructor(MethodType.methodType(void.class, long.class, int.class)));
+        Class percentileTrackerClass = methodHandleBuilder.className(NoSQLConstants.CASSANDRAPERCENTILETRACKERCLASS).getTargetClass();
+        methodHandleBuilder.className(NoSQLConstants.CASSANDRAPERCENTILESPECULATIVEEXECUTIONPOLICYCLASS);
+        percentileSpeculativeExecutionPolicyCtor = MethodHandleBuilder.erase(methodHandleBuilder.constructor(MethodType.methodType(void.class, percentileTrackerClass, double.class, int.class)));
+        Class perHostPercentileTrackerBuilderClass = methodHandleBuilder.className(NoSQLConstants.CASSANDRAPERHOSTPERCENTILETRACKERBUILDERCLASS).getTargetClass();
+        perHostPercentileTrackerBuildMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("build"));
+        methodHandleBuilder.className(NoSQLConstants.CASSANDRAPERHOSTPERCENTILETRACKERCLASS);
+        perHostPercentileTrackerBuilderMethod = MethodHandleBuilder.erase(methodHandleBuilder.staticMethod("builder", MethodType.methodType(perHostPercentileTrackerBuilderClass, long.class)));
+        try {
+            localDistance = (Object) localField.invokeExact();
+            remoteDistance = (Object) remoteField.invokeExact();
+        } catch (Throwable throwable) {
+            throw new RuntimeException("could not get HostDistance from " + configurationBuilder.getModuleName(), throwable);
+        }
         clusterBuilderClass = methodHandleBuilder.className(NoSQLConstants.CASSANDRACLUSTERBUILDERCLASS).getTargetClass();
-        builderBuildMethod = methodHandleBuilder.method("build");
-        builderWithClusterNameMethod = methodHandleBuilder.method("withClusterName", String.class);
-        builderWithCredentials = methodHandleBuilder.method("withCredentials", String.class, String.class);
-        builderWithPortMethod = methodHandleBuilder.method("withPort", int.class);
-        builderAddContactPointMethod = methodHandleBuilder.method("addContactPoint", String.class);
-        builderwithSSLMethod = methodHandleBuilder.method("withSSL");
+        builderBuildMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("build"));
+        builderWithClusterNameMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("withClusterName", String.class));
+        builderWithCredentials = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("withCredentials", String.class, String.class));
+        builderWithPortMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("withPort", int.class));
+        builderAddContactPointMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("addContactPoint", String.class));
+        builderwithSSLMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("withSSL"));
+        builderWithPoolingOptionsMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("withPoolingOptions", poolingOptionsClass));
+        builderWithLoadBalancingPolicyMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("withLoadBalancingPolicy", loadBalancingPolicyClass));
+        builderWithSpeculativeExecutionPolicyMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("withSpeculativeExecutionPolicy", speculativeExecutionPolicyClass));
 
         clusterClass = methodHandleBuilder.className(NoSQLConstants.CASSANDRACLUSTERCLASS).getTargetClass();
-        clusterConnectMethod = methodHandleBuilder.method("connect", String.class);
-        clusterCloseMethod = methodHandleBuilder.method("close");
-        clusterBuilderMethod = methodHandleBuilder.staticMethod("builder", MethodType.methodType(clusterBuilderClass));
+        clusterConnectMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("connect", String.class));
+        clusterCloseMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("close"));
+        clusterRegisterMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("register", latencyTrackerClass));
+        clusterBuilderMethod = MethodHandleBuilder.erase(methodHandleBuilder.staticMethod("builder", MethodType.methodType(clusterBuilderClass)));
         sessionClass = methodHandleBuilder.className(NoSQLConstants.CASSANDRASESSIONCLASS).getTargetClass();
-        sessionCloseMethod = methodHandleBuilder.method("close");
+        sessionCloseMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("close"));
         securityDomain = configurationBuilder.getSecurityDomain();
     }
 
     private Object getBuilder() throws Throwable {
         if (clusterBuilder == null) {
-            this.clusterBuilder =  clusterBuilderMethod.invoke(); // Cluster.builder();
+            this.clusterBuilder = (Object) clusterBuilderMethod.invokeExact(); // Cluster.builder();
         }
         return clusterBuilder;
     }
 
     protected Object /* Cluster */ build() throws Throwable {
-        return builderBuildMethod.invoke(getBuilder());
+        final Object cluster = (Object) builderBuildMethod.invokeExact(getBuilder());
+        for (Object latencyTracker : latencyTrackers) {
+            clusterRegisterMethod.invokeExact(cluster, latencyTracker);
+        }
+        return cluster;
     }
 
     protected Object connect(Object cluster, String keySpace) throws Throwable {
-        return clusterConnectMethod.invoke(cluster, keySpace);
+        return (Object) clusterConnectMethod.invokeExact(cluster, keySpace);
     }
 
     protected void withClusterName(String clusterName) throws Throwable {
-        builderWithClusterNameMethod.invoke(getBuilder(), clusterName);
+        builderWithClusterNameMethod.invokeExact(getBuilder(), clusterName);
     }
 
     protected void withPort(int port) throws Throwable {
-        builderWithPortMethod.invoke(getBuilder(), port);
+        builderWithPortMethod.invokeExact(getBuilder(), port);
     }
 
     protected void withSSL() throws Throwable {
-        builderwithSSLMethod.invoke(getBuilder());
+        builderwithSSLMethod.invokeExact(getBuilder());
+    }
+
+    /**
+     * apply the profile connection pool settings, the driver defaults are kept for the settings that are not specified.
+     */
+    protected void withPoolingOptions(ConfigurationBuilder configurationBuilder) throws Throwable {
+        if (!configurationBuilder.hasPoolingOptions()) {
+            return;
+        }
+        final Object poolingOptions = (Object) poolingOptionsCtor.invokeExact();
+        // max connections are set before core connections, as the driver rejects core connections greater than max
+        if (configurationBuilder.getLocalMaxConnections() != null) {
+            setMaxConnectionsPerHostMethod.invokeExact(poolingOptions, localDistance, (int) configurationBuilder.getLocalMaxConnections());
+        }
+        if (configurationBuilder.getLocalCoreConnections() != null) {
+            setCoreConnectionsPerHostMethod.invokeExact(poolingOptions, localDistance, (int) configurationBuilder.getLocalCoreConnections());
+        }
+        if (configurationBuilder.getLocalMaxRequestsPerConnection() != null) {
+            setMaxRequestsPerConnectionMethod.invokeExact(poolingOptions, localDistance, (int) configurationBuilder.getLocalMaxRequestsPerConnection());
+        }
+        if (configurationBuilder.getRemoteMaxConnections() != null) {
+            setMaxConnectionsPerHostMethod.invokeExact(poolingOptions, remoteDistance, (int) configurationBuilder.getRemoteMaxConnections());
+        }
+        if (configurationBuilder.getRemoteCoreConnections() != null) {
+            setCoreConnectionsPerHostMethod.invokeExact(poolingOptions, remoteDistance, (int) configurationBuilder.getRemoteCoreConnections());
+        }
+        if (configurationBuilder.getRemoteMaxRequestsPerConnection() != null) {
+            setMaxRequestsPerConnectionMethod.invokeExact(poolingOptions, remoteDistance, (int) configurationBuilder.getRemoteMaxRequestsPerConnection());
+        }
+        if (configurationBuilder.getPoolTimeout() != null) {
+            setPoolTimeoutMillisMethod.invokeExact(poolingOptions, (int) configurationBuilder.getPoolTimeout());
+        }
+        if (configurationBuilder.getHeartbeatInterval() != null) {
+            setHeartbeatIntervalSecondsMethod.invokeExact(poolingOptions, (int) configurationBuilder.getHeartbeatInterval());
+        }
+        builderWithPoolingOptionsMethod.invokeExact(getBuilder(), poolingOptions);
+    }
+
+    /**
+     * apply the profile load balancing policy, which is TokenAwarePolicy(LatencyAwarePolicy(DCAwareRoundRobinPolicy)),
+     * where the token and latency aware policies are optional.
+     */
+    protected void withLoadBalancingPolicy(ConfigurationBuilder configurationBuilder) throws Throwable {
+        if (!configurationBuilder.hasLoadBalancingPolicy()) {
+            return;
+        }
+        final Object dcAwarePolicyBuilder = (Object) dcAwarePolicyBuilderMethod.invokeExact();
+        if (configurationBuilder.getLocalDc() != null) {
+            withLocalDcMethod.invokeExact(dcAwarePolicyBuilder, configurationBuilder.getLocalDc());
+        }
+        if (configurationBuilder.getUsedHostsPerRemoteDc() != null) {
+            withUsedHostsPerRemoteDcMethod.invokeExact(dcAwarePolicyBuilder, (int) configurationBuilder.getUsedHostsPerRemoteDc());
+        }
+        Object policy = (Object) dcAwarePolicyBuildMethod.invokeExact(dcAwarePolicyBuilder);
+        if (Boolean.TRUE.equals(configurationBuilder.getLatencyAware())) {
+            final Object latencyAwarePolicyBuilder = (Object) latencyAwarePolicyBuilderMethod.invokeExact(policy);
+            if (configurationBuilder.getLatencyExclusionThreshold() != null) {
+                withExclusionThresholdMethod.invokeExact(latencyAwarePolicyBuilder, (double) configurationBuilder.getLatencyExclusionThreshold());
+            }
+            policy = (Object) latencyAwarePolicyBuildMethod.invokeExact(latencyAwarePolicyBuilder);
+        }
+        // token aware is the outermost policy, so that replicas are tried first (in latency + datacenter order)
+        if (!Boolean.FALSE.equals(configurationBuilder.getTokenAware())) {
+            policy = (Object) tokenAwarePolicyCtor.invokeExact(policy, !Boolean.FALSE.equals(configurationBuilder.getShuffleReplicas()));
+        }
+        builderWithLoadBalancingPolicyMethod.invokeExact(getBuilder(), policy);
+    }
+
+    /**
+     * apply the profile speculative execution policy, which is wrapped to count the speculative executions.
+     */
+    protected void withSpeculativeExecutionPolicy(ConfigurationBuilder configurationBuilder) throws Throwable {
+        latencyTrackers.clear();
+        if (configurationBuilder.getSpeculativeExecution() == null) {
+            return;
+        }
+        final String profile = configurationBuilder.getDescription();
+        final int maxExecutions = configurationBuilder.getSpeculativeExecutionMaxExecutions() != null ?
+                configurationBuilder.getSpeculativeExecutionMaxExecutions() : 1;
+        final Object policy;
+        switch (SpeculativeExecutionType.fromName(configurationBuilder.getSpeculativeExecution())) {
+            case CONSTANT:
+                if (configurationBuilder.getSpeculativeExecutionDelay() == null) {
+                    throw new IllegalArgumentException("Cassandra profile " + profile + " constant speculative-execution requires the speculative-execution-delay");
+                }
+                policy = (Object) constantSpeculativeExecutionPolicyCtor.invokeExact((long) configurationBuilder.getSpeculativeExecutionDelay(), maxExecutions);
+                break;
+            case PERCENTILE:
+                if (configurationBuilder.getSpeculativeExecutionPercentile() == null) {
+                    throw new IllegalArgumentException("Cassandra profile " + profile + " percentile speculative-execution requires the speculative-execution-percentile");
+                }
+                // latencies above the highest trackable latency are ignored, the driver default read timeout is 12 seconds
+                final Object trackerBuilder = (Object) perHostPercentileTrackerBuilderMethod.invokeExact(HIGHEST_TRACKABLE_LATENCY_MILLIS);
+                final Object tracker = (Object) perHostPercentileTrackerBuildMethod.invokeExact(trackerBuilder);
+                latencyTrackers.add(tracker);
+                policy = (Object) percentileSpeculativeExecutionPolicyCtor.invokeExact(tracker, (double) configurationBuilder.getSpeculativeExecutionPercentile(), maxExecutions);
+                break;
+            default:
+                throw new IllegalArgumentException(configurationBuilder.getSpeculativeExecution());
+        }
+        if (speculativeExecutionMetrics == null) {
+            // counters are kept when the profile is restarted
+            speculativeExecutionMetrics = new SpeculativeExecutionMetrics(ModuleIdentifier.fromString(configurationBuilder.getModuleName()));
+        }
+        latencyTrackers.add(speculativeExecutionMetrics.latencyTracker());
+        builderWithSpeculativeExecutionPolicyMethod.invokeExact(getBuilder(), speculativeExecutionMetrics.wrap(policy));
+    }
+
+    /**
+     * @return the speculative execution counters, null if speculative executions are not enabled
+     */
+    public SpeculativeExecutionMetrics getSpeculativeExecutionMetrics() {
+        return speculativeExecutionMetrics;
     }
 
     protected void setCredential(String securityDomain) throws Throwable {
@@ -120,19 +313,19 @@ public class CassandraInteraction {
 
 
     private void withCredentials(String user, String password) throws Throwable {
-        builderWithCredentials.invoke(getBuilder(), user, password);
+        builderWithCredentials.invokeExact(getBuilder(), user, password);
     }
 
     protected void addContactPoint(String host) throws Throwable {
-        builderAddContactPointMethod.invoke(getBuilder(), host);
+        builderAddContactPointMethod.invokeExact(getBuilder(), host);
     }
 
     protected void clusterClose(Object cluster) throws Throwable {
-        clusterCloseMethod.invoke(cluster);
+        clusterCloseMethod.invokeExact(cluster);
     }
 
     protected void sessionClose(Object session) throws Throwable {
-        sessionCloseMethod.invoke(session);
+        sessionCloseMethod.invokeExact(session);
     }
 
     public Class getClusterClass() {
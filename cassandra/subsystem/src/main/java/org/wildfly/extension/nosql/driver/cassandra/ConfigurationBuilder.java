@@ -27,6 +27,30 @@ public class ConfigurationBuilder {
     private String keyspace;    // optional Cassandra keyspace
     private String securityDomain;
     private boolean withSSL;
+    private boolean asyncStart;
+    private boolean lazyConnect;
+    // PoolingOptions, null for the driver default
+    private Integer localCoreConnections;
+    private Integer localMaxConnections;
+    private Integer localMaxRequestsPerConnection;
+    private Integer remoteCoreConnections;
+    private Integer remoteMaxConnections;
+    private Integer remoteMaxRequestsPerConnection;
+    private Integer poolTimeout;        // milliseconds
+    private Integer heartbeatInterval;  // seconds
+    // LoadBalancingPolicy, null for the driver default
+    private String localDc;
+    private Integer usedHostsPerRemoteDc;
+    private Boolean tokenAware;
+    private Boolean shuffleReplicas;
+    private Boolean latencyAware;
+    private Double latencyExclusionThreshold;
+    private Integer preparedStatementCacheSize;
+    // SpeculativeExecutionPolicy, null for no speculative executions
+    private String speculativeExecution;
+    private Long speculativeExecutionDelay;       // milliseconds
+    private Double speculativeExecutionPercentile;
+    private Integer speculativeExecutionMaxExecutions;
 
     private static final String defaultModuleName = "com.datastax.cassandra.driver-core";
     private String moduleName = // name of Cassandra static module
@@ -80,4 +104,189 @@ public class ConfigurationBuilder {
         this.withSSL = withSSL;
     }
 
+    public boolean isAsyncStart() {
+        return asyncStart;
+    }
+
+    public void setAsyncStart(boolean asyncStart) {
+        this.asyncStart = asyncStart;
+    }
+
+    /**
+     * @return true if any of the connection pool settings is specified
+     */
+    public boolean hasPoolingOptions() {
+        return localCoreConnections != null || localMaxConnections != null || localMaxRequestsPerConnection != null ||
+                remoteCoreConnections != null || remoteMaxConnections != null || remoteMaxRequestsPerConnection != null ||
+                poolTimeout != null || heartbeatInterval != null;
+    }
+
+    /**
+     * @return true if any of the load balancing settings is specified
+     */
+    public boolean hasLoadBalancingPolicy() {
+        return localDc != null || usedHostsPerRemoteDc != null || tokenAware != null || shuffleReplicas != null ||
+                latencyAware != null || latencyExclusionThreshold != null;
+    }
+
+    public boolean isLazyConnect() {
+        return lazyConnect;
+    }
+
+    public void setLazyConnect(boolean lazyConnect) {
+        this.lazyConnect = lazyConnect;
+    }
+
+    public Integer getLocalCoreConnections() {
+        return localCoreConnections;
+    }
+
+    public void setLocalCoreConnections(Integer localCoreConnections) {
+        this.localCoreConnections = localCoreConnections;
+    }
+
+    public Integer getLocalMaxConnections() {
+        return localMaxConnections;
+    }
+
+    public void setLocalMaxConnections(Integer localMaxConnections) {
+        this.localMaxConnections = localMaxConnections;
+    }
+
+    public Integer getLocalMaxRequestsPerConnection() {
+        return localMaxRequestsPerConnection;
+    }
+
+    public void setLocalMaxRequestsPerConnection(Integer localMaxRequestsPerConnection) {
+        this.localMaxRequestsPerConnection = localMaxRequestsPerConnection;
+    }
+
+    public Integer getRemoteCoreConnections() {
+        return remoteCoreConnections;
+    }
+
+    public void setRemoteCoreConnections(Integer remoteCoreConnections) {
+        this.remoteCoreConnections = remoteCoreConnections;
+    }
+
+    public Integer getRemoteMaxConnections() {
+        return remoteMaxConnections;
+    }
+
+    public void setRemoteMaxConnections(Integer remoteMaxConnections) {
+        this.remoteMaxConnections = remoteMaxConnections;
+    }
+
+    public Integer getRemoteMaxRequestsPerConnection() {
+        return remoteMaxRequestsPerConnection;
+    }
+
+    public void setRemoteMaxRequestsPerConnection(Integer remoteMaxRequestsPerConnection) {
+        this.remoteMaxRequestsPerConnection = remoteMaxRequestsPerConnection;
+    }
+
+    public Integer getPoolTimeout() {
+        return poolTimeout;
+    }
+
+    public void setPoolTimeout(Integer poolTimeout) {
+        this.poolTimeout = poolTimeout;
+    }
+
+    public Integer getHeartbeatInterval() {
+        return heartbeatInterval;
+    }
+
+    public void setHeartbeatInterval(Integer heartbeatInterval) {
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    public String getLocalDc() {
+        return localDc;
+    }
+
+    public void setLocalDc(String localDc) {
+        this.localDc = localDc;
+    }
+
+    public Integer getUsedHostsPerRemoteDc() {
+        return usedHostsPerRemoteDc;
+    }
+
+    public void setUsedHostsPerRemoteDc(Integer usedHostsPerRemoteDc) {
+        this.usedHostsPerRemoteDc = usedHostsPerRemoteDc;
+    }
+
+    public Boolean getTokenAware() {
+        return tokenAware;
+    }
+
+    public void setTokenAware(Boolean tokenAware) {
+        this.tokenAware = tokenAware;
+    }
+
+    public Boolean getShuffleReplicas() {
+        return shuffleReplicas;
+    }
+
+    public void setShuffleReplicas(Boolean shuffleReplicas) {
+        this.shuffleReplicas = shuffleReplicas;
+    }
+
+    public Boolean getLatencyAware() {
+        return latencyAware;
+    }
+
+    public void setLatencyAware(Boolean latencyAware) {
+        this.latencyAware = latencyAware;
+    }
+
+    public Double getLatencyExclusionThreshold() {
+        return latencyExclusionThreshold;
+    }
+
+    public void setLatencyExclusionThreshold(Double latencyExclusionThreshold) {
+        this.latencyExclusionThreshold = latencyExclusionThreshold;
+    }
+
+    public Integer getPreparedStatementCacheSize() {
+        return preparedStatementCacheSize;
+    }
+
+    public void setPreparedStatementCacheSize(Integer preparedStatementCacheSize) {
+        this.preparedStatementCacheSize = preparedStatementCacheSize;
+    }
+
+    public String getSpeculativeExecution() {
+        return speculativeExecution;
+    }
+
+    public void setSpeculativeExecution(String speculativeExecution) {
+        this.speculativeExecution = speculativeExecution;
+    }
+
+    public Long getSpeculativeExecutionDelay() {
+        return speculativeExecutionDelay;
+    }
+
+    public void setSpeculativeExecutionDelay(Long speculativeExecutionDelay) {
+        this.speculativeExecutionDelay = speculativeExecutionDelay;
+    }
+
+    public Double getSpeculativeExecutionPercentile() {
+        return speculativeExecutionPercentile;
+    }
+
+    public void setSpeculativeExecutionPercentile(Double speculativeExecutionPercentile) {
+        this.speculativeExecutionPercentile = speculativeExecutionPercentile;
+    }
+
+    public Integer getSpeculativeExecutionMaxExecutions() {
+        return speculativeExecutionMaxExecutions;
+    }
+
+    public void setSpeculativeExecutionMaxExecutions(Integer speculativeExecutionMaxExecutions) {
+        this.speculativeExecutionMaxExecutions = speculativeExecutionMaxExecutions;
+    }
+
 }
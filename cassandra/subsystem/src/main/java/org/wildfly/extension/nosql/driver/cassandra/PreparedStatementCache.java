@@ -0,0 +1,272 @@
+/*
+ * Copyright 2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wildfly.extension.nosql.driver.cassandra;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.jboss.modules.ModuleIdentifier;
+import org.wildfly.nosql.common.MethodHandleBuilder;
+import org.wildfly.nosql.common.NoSQLConstants;
+
+/**
+ * PreparedStatementCache keeps the PreparedStatements of a Cassandra profile, keyed by (keyspace, CQL text), so that
+ * each statement is only prepared once per Cluster, instead of once per deployment (and again after each redeploy).
+ *
+ * Concurrent callers of the same statement share the one Session.prepareAsync call.  Statements are evicted (by
+ * Caffeine, which approximates least recently used eviction) when the prepared-statement-cache-size is reached.
+ *
+ * Obtain the cache of a Cassandra profile via NoSQLConnection.unwrap(PreparedStatementCache.class) or inject it.
+ *
+ * Ex:
+ * <pre>
+ *   &#064;Inject &#064;Named("MyCassandra") PreparedStatementCache statements;
+ *
+ *   PreparedStatement select = (PreparedStatement) statements.prepare("SELECT * FROM users WHERE id = ?");
+ *   session.execute(select.bind(id));
+ * </pre>
+ *
+ * The returned CompletionStage may be completed by a driver I/O thread, use the *Async CompletionStage methods for
+ * anything more than trivial work.
+ *
+ * @author Scott Marlow
+ */
+public class PreparedStatementCache {
+
+    private static final int DEFAULT_MAX_SIZE = 1000;
+    private static final Executor SAME_THREAD = Runnable::run;
+
+    private final CassandraClientConnectionsService connectionsService;
+    private final String profile;
+    private final Cache<Key, CompletableFuture<Object>> statements;
+
+    private final MethodHandle prepareAsyncMethod;
+    private final MethodHandle getLoggedKeyspaceMethod;
+    private final MethodHandle addListenerMethod;
+
+    // metrics, the hit/miss/eviction counts are recorded by Caffeine
+    private final LongAdder prepares = new LongAdder();
+    private final LongAdder prepareNanos = new LongAdder();
+    private final AtomicLong maxPrepareNanos = new AtomicLong();
+
+    PreparedStatementCache(CassandraClientConnectionsService connectionsService, ConfigurationBuilder configurationBuilder) {
+        this.connectionsService = connectionsService;
+        this.profile = configurationBuilder.getDescription();
+        final int maxSize = configurationBuilder.getPreparedStatementCacheSize() != null ? configurationBuilder.getPreparedStatementCacheSize() : DEFAULT_MAX_SIZE;
+        this.statements = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+
+        MethodHandleBuilder methodHandleBuilder = new MethodHandleBuilder();
+        methodHandleBuilder.classLoader(ModuleIdentifier.fromString(configurationBuilder.getModuleName()));
+        methodHandleBuilder.className(NoSQLConstants.CASSANDRASESSIONCLASS);
+        // ListenableFuture<PreparedStatement> prepareAsync(String query)
+        prepareAsyncMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("prepareAsync", String.class));
+        getLoggedKeyspaceMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("getLoggedKeyspace"));
+        methodHandleBuilder.className(NoSQLConstants.CASSANDRALISTENABLEFUTURECLASS);
+        addListenerMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("addListener", Runnable.class, Executor.class));
+    }
+
+    /**
+     * prepare the statement with the profile Session (keyspace), or get the already prepared statement.
+     *
+     * @param cql is the CQL text
+     * @return com.datastax.driver.core.PreparedStatement
+     */
+    public Object /* PreparedStatement */ prepare(String cql) {
+        return join(prepareAsync(cql));
+    }
+
+    /**
+     * prepare the statement with the specified Session of the profile Cluster, or get the already prepared statement.
+     *
+     * @param session is the com.datastax.driver.core.Session
+     * @param cql is the CQL text
+     * @return com.datastax.driver.core.PreparedStatement
+     */
+    public Object /* PreparedStatement */ prepare(Object /* Session */ session, String cql) {
+        return join(prepareAsync(session, cql));
+    }
+
+    /**
+     * @param cql is the CQL text
+     * @return completed with the com.datastax.driver.core.PreparedStatement
+     */
+    public CompletionStage<Object> prepareAsync(String cql) {
+        final Object session = connectionsService.getSession();
+        if (session == null) {
+            throw new IllegalStateException("Cassandra profile " + profile + " doesn't specify a keyspace (database), the Session to prepare with is required");
+        }
+        return prepareAsync(session, cql);
+    }
+
+    /**
+     * @param session is the com.datastax.driver.core.Session
+     * @param cql is the CQL text
+     * @return completed with the com.datastax.driver.core.PreparedStatement
+     */
+    public CompletionStage<Object> prepareAsync(Object /* Session */ session, String cql) {
+        final Key key;
+        try {
+            key = new Key((String) getLoggedKeyspaceMethod.invokeExact(session), cql);
+        } catch (Throwable throwable) {
+            throw new RuntimeException("could not get keyspace of Cassandra profile " + profile + " Session", throwable);
+        }
+        final CompletableFuture<Object>[] created = new CompletableFuture[1];
+        final CompletableFuture<Object> result = statements.get(key, ignore -> created[0] = new CompletableFuture<>());
+        if (result == created[0]) {
+            // started outside of the mapping function, as a failed prepare removes the entry (maybe on this thread)
+            prepare(session, key, result);
+        }
+        // a dependent stage, so that callers can't complete (or obtrude) the shared future
+        return result.thenApply(Function.identity());
+    }
+
+    private void prepare(Object session, Key key, CompletableFuture<Object> result) {
+        final long start = System.nanoTime();
+        try {
+            final Future future = (Future) (Object) prepareAsyncMethod.invokeExact(session, key.cql);
+            final Runnable listener = () -> {
+                try {
+                    final Object preparedStatement = future.get();  // already done
+                    recordPrepare(System.nanoTime() - start);
+                    result.complete(preparedStatement);
+                } catch (ExecutionException e) {
+                    failed(key, result, e.getCause());
+                } catch (Throwable throwable) {
+                    failed(key, result, throwable);
+                }
+            };
+            addListenerMethod.invokeExact((Object) future, listener, SAME_THREAD);
+        } catch (Throwable throwable) {
+            failed(key, result, throwable);
+        }
+    }
+
+    /**
+     * failed prepares are not cached, so that the next caller prepares again.
+     */
+    private void failed(Key key, CompletableFuture<Object> result, Throwable throwable) {
+        statements.asMap().remove(key, result);
+        result.completeExceptionally(throwable);
+    }
+
+    private void recordPrepare(long nanos) {
+        prepares.increment();
+        prepareNanos.add(nanos);
+        long max = maxPrepareNanos.get();
+        while (nanos > max && !maxPrepareNanos.compareAndSet(max, nanos)) {
+            max = maxPrepareNanos.get();
+        }
+    }
+
+    private static Object join(CompletionStage<Object> stage) {
+        try {
+            return stage.toCompletableFuture().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * remove all statements, which are only valid for the Cluster that prepared them.
+     */
+    void clear() {
+        statements.invalidateAll();
+    }
+
+    public long getSize() {
+        return statements.estimatedSize();
+    }
+
+    public long getHitCount() {
+        return statements.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return statements.stats().missCount();
+    }
+
+    public long getEvictionCount() {
+        return statements.stats().evictionCount();
+    }
+
+    /**
+     * @return number of completed Session.prepareAsync calls
+     */
+    public long getPrepareCount() {
+        return prepares.sum();
+    }
+
+    public long getPrepareNanos() {
+        return prepareNanos.sum();
+    }
+
+    public long getMaxPrepareNanos() {
+        return maxPrepareNanos.get();
+    }
+
+    /**
+     * @return average Session.prepareAsync time in microseconds
+     */
+    public long getAveragePrepareMicros() {
+        final long count = prepares.sum();
+        return count > 0 ? TimeUnit.NANOSECONDS.toMicros(prepareNanos.sum() / count) : 0L;
+    }
+
+    private static final class Key {
+        private final String keyspace;  // null if the Session is not connected to a keyspace
+        private final String cql;
+
+        private Key(String keyspace, String cql) {
+            this.keyspace = keyspace;
+            this.cql = cql;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) other;
+            return Objects.equals(keyspace, key.keyspace) && cql.equals(key.cql);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(keyspace) + cql.hashCode();
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wildfly.extension.nosql.driver.cassandra;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jboss.modules.ModuleIdentifier;
+import org.wildfly.nosql.common.MethodHandleBuilder;
+import org.wildfly.nosql.common.NoSQLConstants;
+
+/**
+ * SpeculativeExecutionMetrics counts the speculative executions of a Cassandra profile and how many of them won
+ * (returned the result before the initial execution).
+ *
+ * The driver doesn't expose which execution won, so the profile SpeculativeExecutionPolicy is wrapped, to record the
+ * host of each execution of a statement, and a LatencyTracker is registered, that is notified with the host of the
+ * execution that returned the result.  Executions are correlated by Statement instance, so concurrent executions of
+ * the same Statement instance may be counted as wins of the other execution.  The executions of a statement are
+ * forgotten when the first execution returns, either the result or an error, so a speculative execution that returns
+ * the result after the initial execution failed isn't counted as a win.
+ *
+ * @author Scott Marlow
+ */
+public class SpeculativeExecutionMetrics {
+
+    // statements that never return (e.g. cancelled statements) are dropped after the driver read timeout has long expired
+    private static final long STALE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final Object[] NO_HOSTS = new Object[0];
+
+    private final Class speculativeExecutionPolicyClass;
+    private final Class speculativeExecutionPlanClass;
+    private final Class latencyTrackerClass;
+    private final MethodHandle initMethod;
+    private final MethodHandle newPlanMethod;
+    private final MethodHandle closeMethod;
+    private final MethodHandle nextExecutionMethod;
+    // the executions of each statement that is running, removed when the statement completes
+    private final ConcurrentHashMap<StatementKey, Executions> running = new ConcurrentHashMap<>();
+    private final AtomicLong lastPurge = new AtomicLong(System.nanoTime());
+
+    private final LongAdder speculativeExecutions = new LongAdder();
+    private final LongAdder wins = new LongAdder();
+
+    SpeculativeExecutionMetrics(ModuleIdentifier moduleIdentifier) {
+        MethodHandleBuilder methodHandleBuilder = new MethodHandleBuilder();
+        methodHandleBuilder.classLoader(moduleIdentifier);
+        Class clusterClass = methodHandleBuilder.className(NoSQLConstants.CASSANDRACLUSTERCLASS).getTargetClass();
+        Class hostClass = methodHandleBuilder.className(NoSQLConstants.CASSANDRAHOSTCLASS).getTargetClass();
+        Class statementClass = methodHandleBuilder.className(NoSQLConstants.CASSANDRASTATEMENTCLASS).getTargetClass();
+        latencyTrackerClass = methodHandleBuilder.className(NoSQLConstants.CASSANDRALATENCYTRACKERCLASS).getTargetClass();
+        speculativeExecutionPlanClass = methodHandleBuilder.className(NoSQLConstants.CASSANDRASPECULATIVEEXECUTIONPLANCLASS).getTargetClass();
+        nextExecutionMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("nextExecution", hostClass));
+        speculativeExecutionPolicyClass = methodHandleBuilder.className(NoSQLConstants.CASSANDRASPECULATIVEEXECUTIONPOLICYCLASS).getTargetClass();
+        initMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("init", clusterClass));
+        newPlanMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("newPlan", String.class, statementClass));
+        closeMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("close"));
+    }
+
+    /**
+     * @param policy is the com.datastax.driver.core.policies.SpeculativeExecutionPolicy
+     * @return SpeculativeExecutionPolicy that records the executions of policy
+     */
+    Object /* SpeculativeExecutionPolicy */ wrap(Object policy) {
+        return proxy(speculativeExecutionPolicyClass, (method, args) -> {
+            switch (method.getName()) {
+                case "newPlan":
+                    // SpeculativeExecutionPlan newPlan(String loggedKeyspace, Statement statement)
+                    final Object plan = (Object) newPlanMethod.invokeExact(policy, (String) args[0], args[1]);
+                    final Executions executions = new Executions();
+                    purgeStale(executions.created);
+                    running.put(new StatementKey(args[1]), executions);
+                    return wrapPlan(plan, executions);
+                case "init":
+                    initMethod.invokeExact(policy, args[0]);
+                    return null;
+                case "close":
+                    closeMethod.invokeExact(policy);
+                    return null;
+                default:
+                    throw new UnsupportedOperationException(method.toString());
+            }
+        });
+    }
+
+    private Object wrapPlan(Object plan, Executions executions) {
+        return proxy(speculativeExecutionPlanClass, (method, args) -> {
+            // long nextExecution(Host lastQueried) is called with the host of each execution, after it is sent
+            if (executions.started(args[0])) {
+                speculativeExecutions.increment();
+            }
+            return (long) nextExecutionMethod.invokeExact(plan, args[0]);
+        });
+    }
+
+    /**
+     * @return com.datastax.driver.core.LatencyTracker to register with the Cluster
+     */
+    Object /* LatencyTracker */ latencyTracker() {
+        return proxy(latencyTrackerClass, (method, args) -> {
+            if ("update".equals(method.getName())) {
+                // void update(Host host, Statement statement, Exception exception, long newLatencyNanos)
+                final Executions executions = running.remove(new StatementKey(args[1]));
+                if (executions != null && args[2] == null && executions.isSpeculative(args[0])) {
+                    wins.increment();
+                }
+            }
+            return null;  // update, onRegister + onUnregister are void
+        });
+    }
+
+    /**
+     * @return number of speculative executions that were sent
+     */
+    public long getSpeculativeExecutionCount() {
+        return speculativeExecutions.sum();
+    }
+
+    /**
+     * @return number of statements that completed with the result of a speculative execution
+     */
+    public long getWinCount() {
+        return wins.sum();
+    }
+
+    /**
+     * drop the statements that were started more than STALE_NANOS ago, at most once per STALE_NANOS.
+     */
+    private void purgeStale(long now) {
+        final long last = lastPurge.get();
+        if (now - last > STALE_NANOS && lastPurge.compareAndSet(last, now)) {
+            final long staleBefore = now - STALE_NANOS;
+            running.values().removeIf(executions -> executions.created - staleBefore < 0);
+        }
+    }
+
+    private static Object proxy(Class driverInterface, Handler handler) {
+        return Proxy.newProxyInstance(driverInterface.getClassLoader(), new Class[]{driverInterface}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                // Cluster.register keeps the LatencyTracker in a Set
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        return driverInterface.getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+                }
+            }
+            return handler.invoke(method, args);
+        });
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object invoke(Method method, Object[] args) throws Throwable;
+    }
+
+    /**
+     * Statement compared by identity, as the driver Statement classes don't define equality.
+     */
+    private static final class StatementKey {
+        private final Object statement;
+
+        StatementKey(Object statement) {
+            this.statement = statement;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof StatementKey && ((StatementKey) other).statement == statement;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(statement);
+        }
+    }
+
+    /**
+     * executions of a statement, the first is the initial execution and the following are speculative.
+     */
+    private static final class Executions {
+        private final long created = System.nanoTime();
+        private final AtomicInteger count = new AtomicInteger();
+        // hosts of the speculative executions, only written when a speculative execution is sent
+        private final AtomicReference<Object[]> speculativeHosts = new AtomicReference<>(NO_HOSTS);
+
+        /**
+         * @return true if host is the host of a speculative execution
+         */
+        boolean started(Object host) {
+            if (count.getAndIncrement() == 0) {
+                return false;
+            }
+            Object[] hosts;
+            Object[] added;
+            do {
+                hosts = speculativeHosts.get();
+                added = Arrays.copyOf(hosts, hosts.length + 1);
+                added[hosts.length] = host;
+            } while (!speculativeHosts.compareAndSet(hosts, added));
+            return true;
+        }
+
+        boolean isSpeculative(Object host) {
+            for (Object speculativeHost : speculativeHosts.get()) {
+                if (speculativeHost.equals(host)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
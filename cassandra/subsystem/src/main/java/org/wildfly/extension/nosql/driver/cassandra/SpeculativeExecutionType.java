@@ -0,0 +1,39 @@
+/*
+ * Copyright 2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wildfly.extension.nosql.driver.cassandra;
+
+import java.util.Locale;
+
+/**
+ * SpeculativeExecutionType is the Cassandra SpeculativeExecutionPolicy of a profile.
+ *
+ * @author Scott Marlow
+ */
+public enum SpeculativeExecutionType {
+    CONSTANT,   // ConstantSpeculativeExecutionPolicy, speculative-execution-delay after the previous execution
+    PERCENTILE; // PercentileSpeculativeExecutionPolicy, after the speculative-execution-percentile latency of the host
+
+    public static SpeculativeExecutionType fromName(String name) {
+        return valueOf(name.toUpperCase(Locale.ENGLISH));
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase(Locale.ENGLISH);
+    }
+}
@@ -35,7 +35,12 @@ import org.jboss.as.controller.PersistentResourceDefinition;
 import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.EnumValidator;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.naming.ServiceBasedNamingStore;
 import org.jboss.as.naming.ValueManagedReferenceFactory;
@@ -51,10 +56,10 @@ import org.jboss.msc.inject.Injector;
 import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
-import org.jboss.msc.value.ImmediateValue;
 import org.jboss.security.SubjectFactory;
 import org.wildfly.extension.nosql.driver.cassandra.CassandraClientConnectionsService;
 import org.wildfly.extension.nosql.driver.cassandra.ConfigurationBuilder;
+import org.wildfly.extension.nosql.driver.cassandra.SpeculativeExecutionType;
 import org.wildfly.nosql.common.ConnectionServiceAccess;
 
 /**
@@ -108,13 +113,222 @@ public class CassandraDefinition extends PersistentResourceDefinition {
                     .setAllowExpression(true)
                     .build();
 
+    protected static final SimpleAttributeDefinition ASYNC_START =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.ASYNC_START, ModelType.BOOLEAN, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setDefaultValue(new ModelNode(false))
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition LAZY_CONNECT =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.LAZY_CONNECT, ModelType.BOOLEAN, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setDefaultValue(new ModelNode(false))
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition LOCAL_CORE_CONNECTIONS =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.LOCAL_CORE_CONNECTIONS, ModelType.INT, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setValidator(new IntRangeValidator(1, true, true))
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition LOCAL_MAX_CONNECTIONS =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.LOCAL_MAX_CONNECTIONS, ModelType.INT, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setValidator(new IntRangeValidator(1, true, true))
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition LOCAL_MAX_REQUESTS_PER_CONNECTION =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.LOCAL_MAX_REQUESTS_PER_CONNECTION, ModelType.INT, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setValidator(new IntRangeValidator(1, true, true))
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition REMOTE_CORE_CONNECTIONS =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.REMOTE_CORE_CONNECTIONS, ModelType.INT, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setValidator(new IntRangeValidator(1, true, true))
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition REMOTE_MAX_CONNECTIONS =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.REMOTE_MAX_CONNECTIONS, ModelType.INT, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setValidator(new IntRangeValidator(1, true, true))
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition REMOTE_MAX_REQUESTS_PER_CONNECTION =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.REMOTE_MAX_REQUESTS_PER_CONNECTION, ModelType.INT, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setValidator(new IntRangeValidator(1, true, true))
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition POOL_TIMEOUT =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.POOL_TIMEOUT, ModelType.INT, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setValidator(new IntRangeValidator(0, true, true))
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition HEARTBEAT_INTERVAL =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.HEARTBEAT_INTERVAL, ModelType.INT, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setValidator(new IntRangeValidator(0, true, true))
+                    .setMeasurementUnit(MeasurementUnit.SECONDS)
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition LOCAL_DC =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.LOCAL_DC, ModelType.STRING, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition USED_HOSTS_PER_REMOTE_DC =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.USED_HOSTS_PER_REMOTE_DC, ModelType.INT, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setValidator(new IntRangeValidator(0, true, true))
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition TOKEN_AWARE =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.TOKEN_AWARE, ModelType.BOOLEAN, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setDefaultValue(new ModelNode(true))
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition SHUFFLE_REPLICAS =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.SHUFFLE_REPLICAS, ModelType.BOOLEAN, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setDefaultValue(new ModelNode(true))
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition LATENCY_AWARE =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.LATENCY_AWARE, ModelType.BOOLEAN, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setDefaultValue(new ModelNode(false))
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition LATENCY_EXCLUSION_THRESHOLD =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.LATENCY_EXCLUSION_THRESHOLD, ModelType.DOUBLE, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setValidator(new DoubleRangeValidator(1))
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition PREPARED_STATEMENT_CACHE_SIZE =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.PREPARED_STATEMENT_CACHE_SIZE, ModelType.INT, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setValidator(new IntRangeValidator(1, true, true))
+                    .setDefaultValue(new ModelNode(1000))
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition SPECULATIVE_EXECUTION =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.SPECULATIVE_EXECUTION, ModelType.STRING, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setValidator(new EnumValidator<>(SpeculativeExecutionType.class, true, true))
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition SPECULATIVE_EXECUTION_DELAY =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.SPECULATIVE_EXECUTION_DELAY, ModelType.LONG, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setValidator(new LongRangeValidator(0, true, true))
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition SPECULATIVE_EXECUTION_PERCENTILE =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.SPECULATIVE_EXECUTION_PERCENTILE, ModelType.DOUBLE, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setValidator(new DoubleRangeValidator(0, 100, true))
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition SPECULATIVE_EXECUTION_MAX_EXECUTIONS =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.SPECULATIVE_EXECUTION_MAX_EXECUTIONS, ModelType.INT, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setValidator(new IntRangeValidator(1, true, true))
+                    .setDefaultValue(new ModelNode(1))
+                    .setAllowExpression(true)
+                    .build();
+
     protected static List<SimpleAttributeDefinition> ATTRIBUTES = Arrays.asList(
             ID_NAME,
             JNDI_NAME,
             DATABASE,
             MODULE,
             SECURITY_DOMAIN,
-            SSL);
+            SSL,
+            ASYNC_START,
+            LAZY_CONNECT,
+            LOCAL_CORE_CONNECTIONS,
+            LOCAL_MAX_CONNECTIONS,
+            LOCAL_MAX_REQUESTS_PER_CONNECTION,
+            REMOTE_CORE_CONNECTIONS,
+            REMOTE_MAX_CONNECTIONS,
+            REMOTE_MAX_REQUESTS_PER_CONNECTION,
+            POOL_TIMEOUT,
+            HEARTBEAT_INTERVAL,
+            LOCAL_DC,
+            USED_HOSTS_PER_REMOTE_DC,
+            TOKEN_AWARE,
+            SHUFFLE_REPLICAS,
+            LATENCY_AWARE,
+            LATENCY_EXCLUSION_THRESHOLD,
+            PREPARED_STATEMENT_CACHE_SIZE,
+            SPECULATIVE_EXECUTION,
+            SPECULATIVE_EXECUTION_DELAY,
+            SPECULATIVE_EXECUTION_PERCENTILE,
+            SPECULATIVE_EXECUTION_MAX_EXECUTIONS);
+
+    // attributes added in the 1.1 namespace and model version
+    static final AttributeDefinition[] ATTRIBUTES_1_1 = {
+            ASYNC_START,
+            LAZY_CONNECT,
+            LOCAL_CORE_CONNECTIONS,
+            LOCAL_MAX_CONNECTIONS,
+            LOCAL_MAX_REQUESTS_PER_CONNECTION,
+            REMOTE_CORE_CONNECTIONS,
+            REMOTE_MAX_CONNECTIONS,
+            REMOTE_MAX_REQUESTS_PER_CONNECTION,
+            POOL_TIMEOUT,
+            HEARTBEAT_INTERVAL,
+            LOCAL_DC,
+            USED_HOSTS_PER_REMOTE_DC,
+            TOKEN_AWARE,
+            SHUFFLE_REPLICAS,
+            LATENCY_AWARE,
+            LATENCY_EXCLUSION_THRESHOLD,
+            PREPARED_STATEMENT_CACHE_SIZE,
+            SPECULATIVE_EXECUTION,
+            SPECULATIVE_EXECUTION_DELAY,
+            SPECULATIVE_EXECUTION_PERCENTILE,
+            SPECULATIVE_EXECUTION_MAX_EXECUTIONS};
+
+    // runtime metrics
+    static final List<SimpleAttributeDefinition> PREPARED_STATEMENT_METRICS = Arrays.asList(
+            runtimeMetric(CommonAttributes.PREPARED_STATEMENT_CACHE_HIT_COUNT, MeasurementUnit.NONE),
+            runtimeMetric(CommonAttributes.PREPARED_STATEMENT_CACHE_MISS_COUNT, MeasurementUnit.NONE),
+            runtimeMetric(CommonAttributes.PREPARED_STATEMENT_CACHE_HIT_RATIO, MeasurementUnit.PERCENTAGE),
+            runtimeMetric(CommonAttributes.PREPARED_STATEMENT_CACHE_EVICTION_COUNT, MeasurementUnit.NONE),
+            runtimeMetric(CommonAttributes.PREPARED_STATEMENT_AVERAGE_PREPARE_TIME, MeasurementUnit.MICROSECONDS),
+            runtimeMetric(CommonAttributes.PREPARED_STATEMENT_MAX_PREPARE_TIME, MeasurementUnit.MICROSECONDS));
+
+    static final List<SimpleAttributeDefinition> SPECULATIVE_EXECUTION_METRICS = Arrays.asList(
+            runtimeMetric(CommonAttributes.SPECULATIVE_EXECUTION_COUNT, MeasurementUnit.NONE),
+            runtimeMetric(CommonAttributes.SPECULATIVE_EXECUTION_WIN_COUNT, MeasurementUnit.NONE));
 
     static final Map<String, AttributeDefinition> ATTRIBUTES_MAP = new HashMap<>();
 
@@ -132,6 +346,24 @@ public class CassandraDefinition extends PersistentResourceDefinition {
         return ATTRIBUTES_MAP.values();
     }
 
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        for (SimpleAttributeDefinition metric : PREPARED_STATEMENT_METRICS) {
+            resourceRegistration.registerMetric(metric, ProfileMetricsHandler.INSTANCE);
+        }
+        for (SimpleAttributeDefinition metric : SPECULATIVE_EXECUTION_METRICS) {
+            resourceRegistration.registerMetric(metric, ProfileMetricsHandler.INSTANCE);
+        }
+    }
+
+    private static SimpleAttributeDefinition runtimeMetric(String name, MeasurementUnit measurementUnit) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.LONG, true)
+                .setStorageRuntime()
+                .setMeasurementUnit(measurementUnit)
+                .build();
+    }
+
     @Override
     public List<? extends PersistentResourceDefinition> getChildren() {
         return CHILDREN;
@@ -152,6 +384,36 @@ public class CassandraDefinition extends PersistentResourceDefinition {
             super(ATTRIBUTES);
         }
 
+        @Override
+        protected void populateModel(ModelNode operation, ModelNode model) throws OperationFailedException {
+            super.populateModel(operation, model);
+            validateSpeculativeExecution(model);
+        }
+
+        /**
+         * the speculative execution policy attribute(s) of the speculative-execution type are required.
+         */
+        private static void validateSpeculativeExecution(ModelNode model) throws OperationFailedException {
+            final ModelNode type = model.get(CommonAttributes.SPECULATIVE_EXECUTION);
+            if (!type.isDefined() || type.getType() == ModelType.EXPRESSION) {
+                return;
+            }
+            final String required;
+            switch (SpeculativeExecutionType.fromName(type.asString())) {
+                case CONSTANT:
+                    required = CommonAttributes.SPECULATIVE_EXECUTION_DELAY;
+                    break;
+                case PERCENTILE:
+                    required = CommonAttributes.SPECULATIVE_EXECUTION_PERCENTILE;
+                    break;
+                default:
+                    return;
+            }
+            if (!model.hasDefined(required)) {
+                throw new OperationFailedException(required + " is required for " + CommonAttributes.SPECULATIVE_EXECUTION + "=" + type.asString());
+            }
+        }
+
         @Override
         protected void performRuntime(OperationContext context, ModelNode operation, ModelNode model) throws OperationFailedException {
 
@@ -173,6 +435,69 @@ public class CassandraDefinition extends PersistentResourceDefinition {
             if (profileEntry.hasDefined(CommonAttributes.SSL)) {
                 builder.setWithSSL(profileEntry.get(CommonAttributes.SSL).asBoolean());
             }
+            if (profileEntry.hasDefined(CommonAttributes.ASYNC_START)) {
+                builder.setAsyncStart(profileEntry.get(CommonAttributes.ASYNC_START).asBoolean());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.LAZY_CONNECT)) {
+                builder.setLazyConnect(profileEntry.get(CommonAttributes.LAZY_CONNECT).asBoolean());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.LOCAL_CORE_CONNECTIONS)) {
+                builder.setLocalCoreConnections(profileEntry.get(CommonAttributes.LOCAL_CORE_CONNECTIONS).asInt());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.LOCAL_MAX_CONNECTIONS)) {
+                builder.setLocalMaxConnections(profileEntry.get(CommonAttributes.LOCAL_MAX_CONNECTIONS).asInt());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.LOCAL_MAX_REQUESTS_PER_CONNECTION)) {
+                builder.setLocalMaxRequestsPerConnection(profileEntry.get(CommonAttributes.LOCAL_MAX_REQUESTS_PER_CONNECTION).asInt());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.REMOTE_CORE_CONNECTIONS)) {
+                builder.setRemoteCoreConnections(profileEntry.get(CommonAttributes.REMOTE_CORE_CONNECTIONS).asInt());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.REMOTE_MAX_CONNECTIONS)) {
+                builder.setRemoteMaxConnections(profileEntry.get(CommonAttributes.REMOTE_MAX_CONNECTIONS).asInt());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.REMOTE_MAX_REQUESTS_PER_CONNECTION)) {
+                builder.setRemoteMaxRequestsPerConnection(profileEntry.get(CommonAttributes.REMOTE_MAX_REQUESTS_PER_CONNECTION).asInt());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.POOL_TIMEOUT)) {
+                builder.setPoolTimeout(profileEntry.get(CommonAttributes.POOL_TIMEOUT).asInt());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.HEARTBEAT_INTERVAL)) {
+                builder.setHeartbeatInterval(profileEntry.get(CommonAttributes.HEARTBEAT_INTERVAL).asInt());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.LOCAL_DC)) {
+                builder.setLocalDc(profileEntry.get(CommonAttributes.LOCAL_DC).asString());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.USED_HOSTS_PER_REMOTE_DC)) {
+                builder.setUsedHostsPerRemoteDc(profileEntry.get(CommonAttributes.USED_HOSTS_PER_REMOTE_DC).asInt());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.TOKEN_AWARE)) {
+                builder.setTokenAware(profileEntry.get(CommonAttributes.TOKEN_AWARE).asBoolean());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.SHUFFLE_REPLICAS)) {
+                builder.setShuffleReplicas(profileEntry.get(CommonAttributes.SHUFFLE_REPLICAS).asBoolean());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.LATENCY_AWARE)) {
+                builder.setLatencyAware(profileEntry.get(CommonAttributes.LATENCY_AWARE).asBoolean());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.LATENCY_EXCLUSION_THRESHOLD)) {
+                builder.setLatencyExclusionThreshold(profileEntry.get(CommonAttributes.LATENCY_EXCLUSION_THRESHOLD).asDouble());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.PREPARED_STATEMENT_CACHE_SIZE)) {
+                builder.setPreparedStatementCacheSize(profileEntry.get(CommonAttributes.PREPARED_STATEMENT_CACHE_SIZE).asInt());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.SPECULATIVE_EXECUTION)) {
+                builder.setSpeculativeExecution(profileEntry.get(CommonAttributes.SPECULATIVE_EXECUTION).asString());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.SPECULATIVE_EXECUTION_DELAY)) {
+                builder.setSpeculativeExecutionDelay(profileEntry.get(CommonAttributes.SPECULATIVE_EXECUTION_DELAY).asLong());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.SPECULATIVE_EXECUTION_PERCENTILE)) {
+                builder.setSpeculativeExecutionPercentile(profileEntry.get(CommonAttributes.SPECULATIVE_EXECUTION_PERCENTILE).asDouble());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.SPECULATIVE_EXECUTION_MAX_EXECUTIONS)) {
+                builder.setSpeculativeExecutionMaxExecutions(profileEntry.get(CommonAttributes.SPECULATIVE_EXECUTION_MAX_EXECUTIONS).asInt());
+            }
             if (profileEntry.hasDefined(CommonAttributes.HOST_DEF)) {
                 ModelNode hostModels = profileEntry.get(CommonAttributes.HOST_DEF);
                 for (ModelNode host : hostModels.asList()) {
@@ -204,7 +529,8 @@ public class CassandraDefinition extends PersistentResourceDefinition {
                             @Override
                             public void inject(final CassandraClientConnectionsService value) throws
                                     InjectionException {
-                                binderService.getManagedObjectInjector().inject(new ValueManagedReferenceFactory(new ImmediateValue<>(value.getSession() != null ? value.getSession() : value.getCluster())));
+                                // the cluster is obtained on each lookup, as it might not be created yet (lazy-connect)
+                                binderService.getManagedObjectInjector().inject(new ValueManagedReferenceFactory(() -> value.getSession() != null ? value.getSession() : value.getCluster()));
                             }
 
                             @Override
@@ -26,6 +26,11 @@ import org.jboss.as.controller.descriptions.StandardResourceDescriptionResolver;
 import org.jboss.as.controller.operations.common.GenericSubsystemDescribeHandler;
 import org.jboss.as.controller.parsing.ExtensionParsingContext;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.transform.description.DiscardAttributeChecker;
+import org.jboss.as.controller.transform.description.RejectAttributeChecker;
+import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
+import org.jboss.as.controller.transform.description.TransformationDescription;
+import org.jboss.as.controller.transform.description.TransformationDescriptionBuilder;
 
 /**
  * CassandraDriverExtension
@@ -39,8 +44,8 @@ public class CassandraDriverExtension implements Extension {
     protected static final PathElement PROFILE_PATH = PathElement.pathElement(CommonAttributes.PROFILE);
     protected static final PathElement HOST_PATH = PathElement.pathElement(CommonAttributes.HOST_DEF);
 
-    public static final String NAMESPACE = "urn:jboss:domain:cassandradriver:1.0";
-    public static final Namespace CURRENT = Namespace.CASSANDRA_1_0;
+    public static final String NAMESPACE = "urn:jboss:domain:cassandradriver:1.1";
+    public static final Namespace CURRENT = Namespace.CASSANDRA_1_1;
     public static final String RESOURCE_NAME = CassandraDriverExtension.class.getPackage().getName() + ".LocalDescriptions";
 
     static StandardResourceDescriptionResolver getResourceDescriptionResolver(final String... keyPrefix) {
@@ -53,7 +58,9 @@ public class CassandraDriverExtension implements Extension {
 
     private static final CassandraDriverSubsystemParser parser = CassandraDriverSubsystemParser.INSTANCE;
 
-    private static final ModelVersion CURRENT_MODEL_VERSION = ModelVersion.create(1, 0, 0);
+    private static final ModelVersion CURRENT_MODEL_VERSION = ModelVersion.create(1, 1, 0);
+
+    private static final ModelVersion MODEL_VERSION_1_0_0 = ModelVersion.create(1, 0, 0);
 
     static ResourceDescriptionResolver getResourceDescriptionResolver(final String keyPrefix) {
         return new StandardResourceDescriptionResolver(keyPrefix, RESOURCE_NAME, CassandraDriverExtension.class.getClassLoader(), true, false);
@@ -68,6 +75,20 @@ public class CassandraDriverExtension implements Extension {
         final ManagementResourceRegistration registration = subsystem.registerSubsystemModel(CassandraDriverDefinition.INSTANCE);
         registration.registerOperationHandler(GenericSubsystemDescribeHandler.DEFINITION, GenericSubsystemDescribeHandler.INSTANCE);
         subsystem.registerXMLElementWriter(parser);
+        if (context.isRegisterTransformers()) {
+            registerTransformers(subsystem);
+        }
+    }
+
+    // legacy (1.0.0) hosts only know the original profile attributes, so the ones added in 1.1.0 can only be
+    // dropped when they are not set
+    private static void registerTransformers(SubsystemRegistration subsystem) {
+        ResourceTransformationDescriptionBuilder builder = TransformationDescriptionBuilder.Factory.createSubsystemInstance();
+        builder.addChildResource(PROFILE_PATH).getAttributeBuilder()
+                .setDiscard(DiscardAttributeChecker.UNDEFINED, CassandraDefinition.ATTRIBUTES_1_1)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, CassandraDefinition.ATTRIBUTES_1_1)
+                .end();
+        TransformationDescription.Tools.register(builder.build(), subsystem, MODEL_VERSION_1_0_0);
     }
 
     /**
@@ -75,6 +96,7 @@ public class CassandraDriverExtension implements Extension {
      */
     @Override
     public void initializeParsers(ExtensionParsingContext context) {
+        context.setSubsystemXmlMapping(SUBSYSTEM_NAME, Namespace.CASSANDRA_1_0.getUriString(), CassandraDriverSubsystemParser.INSTANCE_1_0);
         context.setSubsystemXmlMapping(SUBSYSTEM_NAME, NAMESPACE, parser);
     }
 
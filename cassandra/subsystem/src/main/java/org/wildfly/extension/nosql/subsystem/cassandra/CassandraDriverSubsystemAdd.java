@@ -24,6 +24,7 @@ import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.operations.validation.ParametersValidator;
 import org.wildfly.nosql.common.DriverDependencyProcessor;
 import org.wildfly.nosql.common.DriverScanDependencyProcessor;
+import org.wildfly.nosql.common.NoSQLConstants;
 import org.jboss.as.server.AbstractDeploymentChainStep;
 import org.jboss.as.server.DeploymentProcessorTarget;
 import org.jboss.as.server.deployment.Phase;
@@ -39,10 +40,17 @@ public class CassandraDriverSubsystemAdd extends AbstractBoottimeAddStepHandler
 
     public static final CassandraDriverSubsystemAdd INSTANCE = new CassandraDriverSubsystemAdd();
     private final ParametersValidator runtimeValidator = new ParametersValidator();
+    // kept across reloads, so that the deployment scan metrics of the subsystem are not reset
+    private final DriverScanDependencyProcessor scanDependencyProcessor = new DriverScanDependencyProcessor("cassandrasubsystem",
+            NoSQLConstants.CASSANDRACQLANNOTATION);
 
     private CassandraDriverSubsystemAdd() {
     }
 
+    DriverScanDependencyProcessor getScanDependencyProcessor() {
+        return scanDependencyProcessor;
+    }
+
     protected void populateModel(ModelNode operation, ModelNode model) throws OperationFailedException {
         for (AttributeDefinition def : CassandraDriverDefinition.INSTANCE.getAttributes()) {
             def.validateAndSet(operation, model);
@@ -58,7 +66,7 @@ public class CassandraDriverSubsystemAdd extends AbstractBoottimeAddStepHandler
                 final int PARSE_CASSANDRA_DRIVER                      = 0x4C02;
                 final int DEPENDENCIES_CASSANDRA_DRIVER               = 0x1F12;
                 // TODO: use Phase.PARSE_CASSANDRA_DRIVER
-                processorTarget.addDeploymentProcessor(CassandraDriverExtension.SUBSYSTEM_NAME, Phase.PARSE, PARSE_CASSANDRA_DRIVER, new DriverScanDependencyProcessor("cassandrasubsystem"));
+                processorTarget.addDeploymentProcessor(CassandraDriverExtension.SUBSYSTEM_NAME, Phase.PARSE, PARSE_CASSANDRA_DRIVER, scanDependencyProcessor);
                 // TODO: use Phase.DEPENDENCIES_CASSANDRA_DRIVER
                 processorTarget.addDeploymentProcessor(CassandraDriverExtension.SUBSYSTEM_NAME, Phase.DEPENDENCIES, DEPENDENCIES_CASSANDRA_DRIVER, DriverDependencyProcessor.getInstance());
             }
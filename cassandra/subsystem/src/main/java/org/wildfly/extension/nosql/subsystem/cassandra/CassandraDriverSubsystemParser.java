@@ -27,20 +27,26 @@ import org.jboss.as.controller.PersistentResourceXMLParser;
  * @author Scott Marlow
  */
 final class CassandraDriverSubsystemParser extends PersistentResourceXMLParser {
-    protected static final CassandraDriverSubsystemParser INSTANCE = new CassandraDriverSubsystemParser();
-    private static final PersistentResourceXMLDescription xmlDescription;
+    protected static final CassandraDriverSubsystemParser INSTANCE = new CassandraDriverSubsystemParser(CassandraDriverExtension.CURRENT);
+    static final CassandraDriverSubsystemParser INSTANCE_1_0 = new CassandraDriverSubsystemParser(Namespace.CASSANDRA_1_0);
 
-    static {
-        xmlDescription = builder(CassandraDriverDefinition.INSTANCE, CassandraDriverExtension.CURRENT.getUriString()).
+    private final PersistentResourceXMLDescription xmlDescription;
+
+    private CassandraDriverSubsystemParser(Namespace namespace) {
+        PersistentResourceXMLDescription.PersistentResourceXMLBuilder profile = builder(CassandraDefinition.INSTANCE)
+                .addAttributes(
+                        CassandraDefinition.ID_NAME,
+                        CassandraDefinition.JNDI_NAME,
+                        CassandraDefinition.DATABASE,
+                        CassandraDefinition.MODULE,
+                        CassandraDefinition.SSL
+                );
+        if (namespace != Namespace.CASSANDRA_1_0) {
+            profile.addAttributes(CassandraDefinition.ATTRIBUTES_1_1);
+        }
+        xmlDescription = builder(CassandraDriverDefinition.INSTANCE, namespace.getUriString()).
                 addChild(
-                        builder(CassandraDefinition.INSTANCE)
-                                .addAttributes(
-                                        CassandraDefinition.ID_NAME,
-                                        CassandraDefinition.JNDI_NAME,
-                                        CassandraDefinition.DATABASE,
-                                        CassandraDefinition.MODULE,
-                                        CassandraDefinition.SSL
-                                )
+                        profile
                                 .addChild(builder(HostDefinition.INSTANCE)
                                         .addAttributes(
                                                 HostDefinition.OUTBOUND_SOCKET_BINDING_REF
@@ -20,6 +20,7 @@ import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.wildfly.nosql.common.MethodHandleCache;
 import org.wildfly.nosql.common.SubsystemService;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceName;
@@ -68,7 +69,7 @@ public class CassandraSubsystemService implements Service<SubsystemService>, Sub
     }
 
     public void removeModuleNameFromProfile(String profile) {
-        profileNameToModuleName.remove(profile);
+        MethodHandleCache.evictUnused(profileNameToModuleName.remove(profile), profileNameToModuleName.values());
     }
 
     @Override
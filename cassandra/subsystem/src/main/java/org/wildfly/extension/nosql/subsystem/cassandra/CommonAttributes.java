@@ -31,4 +31,33 @@ public interface CommonAttributes {
     String PROFILE = "cassandra";
     String SECURITY_DOMAIN = "security-domain";
     String SSL = "ssl";
+    String ASYNC_START = "async-start";
+    String LAZY_CONNECT = "lazy-connect";
+    String LOCAL_CORE_CONNECTIONS = "local-core-connections";
+    String LOCAL_MAX_CONNECTIONS = "local-max-connections";
+    String LOCAL_MAX_REQUESTS_PER_CONNECTION = "local-max-requests-per-connection";
+    String REMOTE_CORE_CONNECTIONS = "remote-core-connections";
+    String REMOTE_MAX_CONNECTIONS = "remote-max-connections";
+    String REMOTE_MAX_REQUESTS_PER_CONNECTION = "remote-max-requests-per-connection";
+    String POOL_TIMEOUT = "pool-timeout";
+    String HEARTBEAT_INTERVAL = "heartbeat-interval";
+    String LOCAL_DC = "local-dc";
+    String USED_HOSTS_PER_REMOTE_DC = "used-hosts-per-remote-dc";
+    String TOKEN_AWARE = "token-aware";
+    String SHUFFLE_REPLICAS = "shuffle-replicas";
+    String LATENCY_AWARE = "latency-aware";
+    String LATENCY_EXCLUSION_THRESHOLD = "latency-exclusion-threshold";
+    String PREPARED_STATEMENT_CACHE_SIZE = "prepared-statement-cache-size";
+    String PREPARED_STATEMENT_CACHE_HIT_COUNT = "prepared-statement-cache-hit-count";
+    String PREPARED_STATEMENT_CACHE_MISS_COUNT = "prepared-statement-cache-miss-count";
+    String PREPARED_STATEMENT_CACHE_HIT_RATIO = "prepared-statement-cache-hit-ratio";
+    String PREPARED_STATEMENT_CACHE_EVICTION_COUNT = "prepared-statement-cache-eviction-count";
+    String PREPARED_STATEMENT_AVERAGE_PREPARE_TIME = "prepared-statement-average-prepare-time";
+    String PREPARED_STATEMENT_MAX_PREPARE_TIME = "prepared-statement-max-prepare-time";
+    String SPECULATIVE_EXECUTION_COUNT = "speculative-execution-count";
+    String SPECULATIVE_EXECUTION_WIN_COUNT = "speculative-execution-win-count";
+    String SPECULATIVE_EXECUTION = "speculative-execution";
+    String SPECULATIVE_EXECUTION_DELAY = "speculative-execution-delay";
+    String SPECULATIVE_EXECUTION_PERCENTILE = "speculative-execution-percentile";
+    String SPECULATIVE_EXECUTION_MAX_EXECUTIONS = "speculative-execution-max-executions";
 }
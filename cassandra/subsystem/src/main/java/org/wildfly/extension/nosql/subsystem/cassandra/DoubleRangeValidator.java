@@ -0,0 +1,59 @@
+/*
+ * Copyright 2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wildfly.extension.nosql.subsystem.cassandra;
+
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.operations.validation.ModelTypeValidator;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * DoubleRangeValidator validates that a DOUBLE attribute is in the [min, max] (or [min, max) if max is exclusive)
+ * range, as WildFly only provides int + long range validators.
+ *
+ * @author Scott Marlow
+ */
+class DoubleRangeValidator extends ModelTypeValidator {
+
+    private final double min;
+    private final double max;
+    private final boolean maxExclusive;
+
+    DoubleRangeValidator(double min) {
+        this(min, Double.MAX_VALUE, false);
+    }
+
+    DoubleRangeValidator(double min, double max, boolean maxExclusive) {
+        super(ModelType.DOUBLE, true, true);
+        this.min = min;
+        this.max = max;
+        this.maxExclusive = maxExclusive;
+    }
+
+    @Override
+    public void validateParameter(String parameterName, ModelNode value) throws OperationFailedException {
+        super.validateParameter(parameterName, value);
+        if (value.isDefined() && value.getType() != ModelType.EXPRESSION) {
+            final double doubleValue = value.asDouble();
+            if (Double.isNaN(doubleValue) || doubleValue < min || doubleValue > max || (maxExclusive && doubleValue == max)) {
+                throw new OperationFailedException("Invalid value of " + parameterName + ": " + value +
+                        " (must be at least " + min + (max < Double.MAX_VALUE ? " and " + (maxExclusive ? "less than " : "at most ") + max : "") + ")");
+            }
+        }
+    }
+}
@@ -26,7 +26,8 @@ import java.util.Map;
 enum Namespace {
     // must be first
     UNKNOWN(null),
-    CASSANDRA_1_0("urn:jboss:domain:cassandradriver:1.0"),;
+    CASSANDRA_1_0("urn:jboss:domain:cassandradriver:1.0"),
+    CASSANDRA_1_1("urn:jboss:domain:cassandradriver:1.1"),;
 
     private final String name;
 
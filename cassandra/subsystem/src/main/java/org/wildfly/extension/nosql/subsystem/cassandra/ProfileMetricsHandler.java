@@ -0,0 +1,112 @@
+/*
+ * Copyright 2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wildfly.extension.nosql.subsystem.cassandra;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+import org.wildfly.extension.nosql.driver.cassandra.CassandraClientConnectionsService;
+import org.wildfly.extension.nosql.driver.cassandra.PreparedStatementCache;
+import org.wildfly.extension.nosql.driver.cassandra.SpeculativeExecutionMetrics;
+import org.wildfly.nosql.common.ConnectionServiceAccess;
+
+/**
+ * ProfileMetricsHandler reads the runtime metrics of a started Cassandra profile.  The result is undefined if the
+ * profile is not started.
+ *
+ * @author Scott Marlow
+ */
+class ProfileMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+    static final ProfileMetricsHandler INSTANCE = new ProfileMetricsHandler();
+
+    private ProfileMetricsHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final CassandraClientConnectionsService service = connectionsService(context);
+        if (service != null) {
+            final String attributeName = operation.require(NAME).asString();
+            if (attributeName.startsWith("speculative-execution-")) {
+                context.getResult().set(speculativeExecutionMetric(service.getSpeculativeExecutionMetrics(), attributeName));
+            } else {
+                context.getResult().set(preparedStatementMetric(service.getPreparedStatementCacheIfCreated(), attributeName));
+            }
+        }
+        context.stepCompleted();
+    }
+
+    static CassandraClientConnectionsService connectionsService(OperationContext context) {
+        final ModelNode model = context.readResource(PathAddress.EMPTY_ADDRESS).getModel();
+        if (!model.hasDefined(CommonAttributes.ID_NAME)) {
+            return null;
+        }
+        final ServiceController<?> controller = context.getServiceRegistry(false)
+                .getService(ConnectionServiceAccess.serviceName(model.get(CommonAttributes.ID_NAME).asString()));
+        if (controller == null || controller.getState() != ServiceController.State.UP) {
+            return null;
+        }
+        return (CassandraClientConnectionsService) controller.getValue();
+    }
+
+    private static long preparedStatementMetric(PreparedStatementCache cache, String attributeName) {
+        if (cache == null) {
+            return 0L;  // no statements prepared yet
+        }
+        switch (attributeName) {
+            case CommonAttributes.PREPARED_STATEMENT_CACHE_HIT_COUNT:
+                return cache.getHitCount();
+            case CommonAttributes.PREPARED_STATEMENT_CACHE_MISS_COUNT:
+                return cache.getMissCount();
+            case CommonAttributes.PREPARED_STATEMENT_CACHE_HIT_RATIO:
+                final long hits = cache.getHitCount();
+                final long requests = hits + cache.getMissCount();
+                return requests > 0 ? hits * 100 / requests : 0L;
+            case CommonAttributes.PREPARED_STATEMENT_CACHE_EVICTION_COUNT:
+                return cache.getEvictionCount();
+            case CommonAttributes.PREPARED_STATEMENT_AVERAGE_PREPARE_TIME:
+                return cache.getAveragePrepareMicros();
+            case CommonAttributes.PREPARED_STATEMENT_MAX_PREPARE_TIME:
+                return TimeUnit.NANOSECONDS.toMicros(cache.getMaxPrepareNanos());
+            default:
+                throw new IllegalArgumentException(attributeName);
+        }
+    }
+
+    private static long speculativeExecutionMetric(SpeculativeExecutionMetrics metrics, String attributeName) {
+        if (metrics == null) {
+            return 0L;  // speculative executions not enabled
+        }
+        switch (attributeName) {
+            case CommonAttributes.SPECULATIVE_EXECUTION_COUNT:
+                return metrics.getSpeculativeExecutionCount();
+            case CommonAttributes.SPECULATIVE_EXECUTION_WIN_COUNT:
+                return metrics.getWinCount();
+            default:
+                throw new IllegalArgumentException(attributeName);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wildfly.extension.nosql.subsystem.cassandra;
+
+import java.io.IOException;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.subsystem.test.AbstractSubsystemBaseTest;
+import org.jboss.as.subsystem.test.AdditionalInitialization;
+import org.junit.Test;
+
+/**
+ * Parses and marshals the subsystem XML (the current namespace is tested by {@link #testSubsystem()}).
+ *
+ * @author Scott Marlow
+ */
+public class CassandraDriverSubsystemParsingTestCase extends AbstractSubsystemBaseTest {
+
+    public CassandraDriverSubsystemParsingTestCase() {
+        super(CassandraDriverExtension.SUBSYSTEM_NAME, new CassandraDriverExtension());
+    }
+
+    @Override
+    protected String getSubsystemXml() throws IOException {
+        return readResource("cassandra-1.1.xml");
+    }
+
+    @Override
+    protected AdditionalInitialization createAdditionalInitialization() {
+        return AdditionalInitialization.withCapabilities(RuntimeCapability.buildDynamicCapabilityName(
+                CassandraDriverDefinition.OUTBOUND_SOCKET_BINDING_CAPABILITY_NAME, "casstesthost"));
+    }
+
+    @Test
+    public void testParseSubsystem_1_0() throws Exception {
+        // the 1.0 configuration is marshalled with the current namespace, so the XML is not compared
+        standardSubsystemTest("cassandra-1.0.xml", false);
+    }
+
+    @Test(expected = XMLStreamException.class)
+    public void testNewAttributeRejectedBy_1_0() throws Exception {
+        parse(readResource("cassandra-1.0.xml").replace("<cassandra ", "<cassandra lazy-connect=\"true\" "));
+    }
+}
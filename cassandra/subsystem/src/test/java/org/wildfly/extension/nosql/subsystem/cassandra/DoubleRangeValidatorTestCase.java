@@ -0,0 +1,87 @@
+/*
+ * Copyright 2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wildfly.extension.nosql.subsystem.cassandra;
+
+import static org.junit.Assert.fail;
+
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ValueExpression;
+import org.junit.Test;
+
+/**
+ * DoubleRangeValidatorTestCase
+ *
+ * @author Scott Marlow
+ */
+public class DoubleRangeValidatorTestCase {
+
+    private static final String PARAMETER = CommonAttributes.SPECULATIVE_EXECUTION_PERCENTILE;
+
+    private static void invalid(DoubleRangeValidator validator, ModelNode value) {
+        try {
+            validator.validateParameter(PARAMETER, value);
+            fail(value + " should be rejected");
+        } catch (OperationFailedException expected) {
+        }
+    }
+
+    @Test
+    public void testMinimum() throws OperationFailedException {
+        final DoubleRangeValidator validator = new DoubleRangeValidator(1);
+        validator.validateParameter(PARAMETER, new ModelNode(1.0));
+        validator.validateParameter(PARAMETER, new ModelNode(2.5));
+        validator.validateParameter(PARAMETER, new ModelNode(Double.MAX_VALUE));
+        invalid(validator, new ModelNode(0.99));
+        invalid(validator, new ModelNode(-1.0));
+    }
+
+    @Test
+    public void testInclusiveMaximum() throws OperationFailedException {
+        final DoubleRangeValidator validator = new DoubleRangeValidator(0, 100, false);
+        validator.validateParameter(PARAMETER, new ModelNode(0.0));
+        validator.validateParameter(PARAMETER, new ModelNode(100.0));
+        invalid(validator, new ModelNode(100.01));
+    }
+
+    @Test
+    public void testExclusiveMaximum() throws OperationFailedException {
+        final DoubleRangeValidator validator = new DoubleRangeValidator(0, 100, true);
+        validator.validateParameter(PARAMETER, new ModelNode(99.9));
+        invalid(validator, new ModelNode(100.0));
+        invalid(validator, new ModelNode(100));
+    }
+
+    @Test
+    public void testNaN() {
+        invalid(new DoubleRangeValidator(0, 100, true), new ModelNode(Double.NaN));
+    }
+
+    @Test
+    public void testUndefinedAndExpression() throws OperationFailedException {
+        final DoubleRangeValidator validator = new DoubleRangeValidator(0, 100, true);
+        validator.validateParameter(PARAMETER, new ModelNode());
+        // expressions are only validated once resolved
+        validator.validateParameter(PARAMETER, new ModelNode(new ValueExpression("${cassandra.percentile:99.0}")));
+    }
+
+    @Test
+    public void testWrongType() {
+        invalid(new DoubleRangeValidator(0), new ModelNode("many"));
+    }
+}
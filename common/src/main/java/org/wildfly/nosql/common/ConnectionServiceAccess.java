@@ -16,6 +16,9 @@
 
 package org.wildfly.nosql.common;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import org.jboss.as.server.CurrentServiceContainer;
 import org.jboss.msc.service.ServiceName;
 import org.wildfly.nosql.common.spi.NoSQLConnection;
@@ -23,18 +26,51 @@ import org.wildfly.nosql.common.spi.NoSQLConnection;
 /**
  * ConnectionServiceAccess
  *
+ * Started NoSQL connection services are cached by profile name, so that resolving a connection (e.g. for each
+ * RequestScoped CDI bean) doesn't need a service registry lookup.  Connection services publish themselves
+ * via {@link #started(String, NoSQLConnection)} at the end of start and remove themselves via
+ * {@link #stopped(String, NoSQLConnection)}
+ * at the beginning of stop, so that a profile restart is picked up.
+ *
  * @author Scott Marlow
  */
 public class ConnectionServiceAccess {
 
     private static final ServiceName SERVICENAME = ServiceName.JBOSS.append("NoSQLClientConnectionService");
+    private static final ConcurrentMap<String, NoSQLConnection> connections = new ConcurrentHashMap<>();
 
     public static ServiceName serviceName(String id) {
         return SERVICENAME.append(id);
     }
 
     public static NoSQLConnection connection(String id) {
+        NoSQLConnection connection = connections.get(id);
+        if (connection != null) {
+            return connection;
+        }
+        // profile is not (yet) started, the service registry reports the reason
         return (NoSQLConnection) CurrentServiceContainer.getServiceContainer().getRequiredService(SERVICENAME.append(id)).getValue();
     }
 
+    /**
+     * called by the connection service after it is started.
+     *
+     * @param id is the profile name
+     * @param connection is the started connection service
+     */
+    public static void started(String id, NoSQLConnection connection) {
+        connections.put(id, connection);
+    }
+
+    /**
+     * called by the connection service when it is stopping.  Only removes the connection of the calling service, as a
+     * restarted service with the same profile name may already have published itself.
+     *
+     * @param id is the profile name
+     * @param connection is the stopping connection service
+     */
+    public static void stopped(String id, NoSQLConnection connection) {
+        connections.remove(id, connection);
+    }
+
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.nosql.common;
+
+import static org.wildfly.nosql.common.NoSQLLogger.ROOT_LOGGER;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+
+/**
+ * ConnectionServiceStarter starts the NoSQL client connection services, either on the MSC thread (blocking) or on a
+ * bounded executor (async), so that profiles connect to their database servers in parallel.
+ *
+ * @author Scott Marlow
+ */
+public final class ConnectionServiceStarter {
+
+    private static final int MAX_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final ThreadPoolExecutor executor;
+
+    static {
+        // idle threads are not kept after the profiles are started
+        executor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new StartThreadFactory());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Driver specific start logic of a client connection service.
+     */
+    public interface StartTask {
+        void start() throws StartException;
+    }
+
+    private ConnectionServiceStarter() {
+    }
+
+    /**
+     * start the client connection service.
+     *
+     * @param context is the service start context
+     * @param profile is the NoSQL profile name
+     * @param async if true, start is completed on the executor, otherwise start is completed on the calling thread.
+     * @param startTask is the driver specific start logic
+     * @throws StartException if blocking start failed
+     */
+    public static void start(final StartContext context, final String profile, boolean async, final StartTask startTask) throws StartException {
+        if (!async) {
+            final long startTime = System.nanoTime();
+            startTask.start();
+            ROOT_LOGGER.profileStarted(profile, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+            return;
+        }
+
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        context.asynchronous();
+        try {
+            executor.execute(() -> {
+                final long startTime = System.nanoTime();
+                final Thread thread = Thread.currentThread();
+                final ClassLoader previous = thread.getContextClassLoader();
+                thread.setContextClassLoader(contextClassLoader);
+                try {
+                    startTask.start();
+                    ROOT_LOGGER.profileStarted(profile, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+                    context.complete();
+                } catch (StartException startException) {
+                    context.failed(startException);
+                } catch (Throwable throwable) {
+                    context.failed(new StartException(throwable));
+                } finally {
+                    thread.setContextClassLoader(previous);
+                }
+            });
+        } catch (RejectedExecutionException rejected) {
+            context.failed(new StartException(rejected));
+        }
+    }
+
+    private static final class StartThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "NoSQL driver start " + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -27,7 +27,6 @@ import org.jboss.as.server.deployment.module.ModuleDependency;
 import org.jboss.as.server.deployment.module.ModuleSpecification;
 import org.jboss.modules.Module;
 import org.jboss.modules.ModuleIdentifier;
-import org.jboss.modules.ModuleLoadException;
 import org.jboss.modules.ModuleLoader;
 
 /**
@@ -52,73 +51,23 @@ public class DriverDependencyProcessor implements DeploymentUnitProcessor {
         if (nosqlDriverModuleNameMap == null) {
             return;
         }
+        final ModuleSpecification moduleSpecification = deploymentUnit.getAttachment(Attachments.MODULE_SPECIFICATION);
+        final ModuleLoader moduleLoader = Module.getBootModuleLoader();
         for (String nosqlDriverModuleName : nosqlDriverModuleNameMap.values()) {
             if (nosqlDriverModuleName != null) {
-                final ModuleSpecification moduleSpecification = deploymentUnit.getAttachment(Attachments.MODULE_SPECIFICATION);
-                final ModuleLoader moduleLoader = Module.getBootModuleLoader();
                 addDependency(moduleSpecification, moduleLoader, ModuleIdentifier.fromString(nosqlDriverModuleName));
-                addMongoCDIDependency(moduleSpecification, moduleLoader, nosqlDriverModuleName);
-                addCassandraCDIDependency(moduleSpecification, moduleLoader, nosqlDriverModuleName);
-                addNeo4jCDIDependency(moduleSpecification, moduleLoader, nosqlDriverModuleName);
-                addOrientCDIDependency(moduleSpecification, moduleLoader, nosqlDriverModuleName);
+                addCDIDependency(moduleSpecification, moduleLoader, nosqlDriverModuleName);
             }
         }
     }
 
-    private void addMongoCDIDependency(ModuleSpecification moduleSpecification, ModuleLoader moduleLoader, String nosqlDriverModuleName) {
-        try {
-            moduleLoader.loadModule(ModuleIdentifier.fromString(nosqlDriverModuleName)).getClassLoader().loadClass(NoSQLConstants.MONGOCLIENTCLASS);
-        } catch (ClassNotFoundException expected) {
-            // ignore CNFE which just means that module is not a MongoDB module
+    private void addCDIDependency(ModuleSpecification moduleSpecification, ModuleLoader moduleLoader, String nosqlDriverModuleName) {
+        final DriverVendor vendor = DriverVendor.fromModuleName(nosqlDriverModuleName);
+        if (vendor.getCdiExtensionModule() == null) {
+            // module is not a known NoSQL driver
             return;
-        } catch (ModuleLoadException e) {
-            throw new RuntimeException("could not load NoSQL driver module " + nosqlDriverModuleName, e);
         }
-        // only reach this point if module is a MongoDB driver
-        ModuleIdentifier mongoCDIExtensionModule = ModuleIdentifier.create(NoSQLConstants.MONGOCDIEXTENSIONMODULE);
-        addDependency(moduleSpecification, moduleLoader, mongoCDIExtensionModule);
-    }
-
-    private void addNeo4jCDIDependency(ModuleSpecification moduleSpecification, ModuleLoader moduleLoader, String nosqlDriverModuleName) {
-        try {
-            moduleLoader.loadModule(ModuleIdentifier.fromString(nosqlDriverModuleName)).getClassLoader().loadClass(NoSQLConstants.NEO4JDRIVERCLASS);
-        } catch (ClassNotFoundException expected) {
-            // ignore CNFE which just means that module is not a Neo4j module
-            return;
-        } catch (ModuleLoadException e) {
-            throw new RuntimeException("could not load NoSQL driver module " + nosqlDriverModuleName, e);
-        }
-        // only reach this point if module is a Neo4j driver
-        ModuleIdentifier mongoCDIExtensionModule = ModuleIdentifier.create(NoSQLConstants.NEO4JCDIEXTENSIONMODULE);
-        addDependency(moduleSpecification, moduleLoader, mongoCDIExtensionModule);
-    }
-
-    private void addCassandraCDIDependency(ModuleSpecification moduleSpecification, ModuleLoader moduleLoader, String nosqlDriverModuleName) {
-        try {
-            moduleLoader.loadModule(ModuleIdentifier.fromString(nosqlDriverModuleName)).getClassLoader().loadClass(NoSQLConstants.CASSANDRACLUSTERCLASS);
-        } catch (ClassNotFoundException expected) {
-            // ignore CNFE which just means that module is not a Cassandra module
-            return;
-        } catch (ModuleLoadException e) {
-            throw new RuntimeException("could not load NoSQL driver module " + nosqlDriverModuleName, e);
-        }
-        // only reach this point if module is a Cassandra driver
-        ModuleIdentifier mongoCDIExtensionModule = ModuleIdentifier.create(NoSQLConstants.CASSANDRACDIEXTENSIONMODULE);
-        addDependency(moduleSpecification, moduleLoader, mongoCDIExtensionModule);
-    }
-
-    private void addOrientCDIDependency(ModuleSpecification moduleSpecification, ModuleLoader moduleLoader, String nosqlDriverModuleName) {
-        try {
-            moduleLoader.loadModule(ModuleIdentifier.fromString(nosqlDriverModuleName)).getClassLoader().loadClass(NoSQLConstants.ORIENTDBPARTIONEDDBPOOLCLASS);
-        } catch (ClassNotFoundException expected) {
-            // ignore CNFE which just means that module is not a OrientDB module
-            return;
-        } catch (ModuleLoadException e) {
-            throw new RuntimeException("could not load NoSQL driver module " + nosqlDriverModuleName, e);
-        }
-        // only reach this point if module is a OrientDB driver
-        ModuleIdentifier mongoCDIExtensionModule = ModuleIdentifier.create(NoSQLConstants.ORIENTDBCDIEXTENSIONMODULE);
-        addDependency(moduleSpecification, moduleLoader, mongoCDIExtensionModule);
+        addDependency(moduleSpecification, moduleLoader, ModuleIdentifier.create(vendor.getCdiExtensionModule()));
     }
 
     private void addDependency(ModuleSpecification moduleSpecification, ModuleLoader moduleLoader,
@@ -20,9 +20,15 @@ import static org.wildfly.nosql.common.NoSQLLogger.ROOT_LOGGER;
 
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.List;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 
 import javax.annotation.Resource;
 import javax.annotation.Resources;
@@ -46,10 +52,7 @@ import org.jboss.jandex.ClassInfo;
 import org.jboss.jandex.DotName;
 import org.jboss.jandex.FieldInfo;
 import org.jboss.jandex.MethodInfo;
-import org.jboss.modules.Module;
 import org.jboss.modules.ModuleIdentifier;
-import org.jboss.modules.ModuleLoadException;
-import org.jboss.modules.ModuleLoader;
 import org.jboss.msc.service.ServiceName;
 
 /**
@@ -66,149 +69,169 @@ public class DriverScanDependencyProcessor implements DeploymentUnitProcessor {
     // For example, you cannot include two different/separate MongoDB driver modules in a deployment.
     private static final AttachmentKey<Map<String, String>> perModuleNameKey = AttachmentKey.create(Map.class);
 
+    // nanoseconds spent in deploy() + number of deploy() calls, of the subsystem that registered this processor
+    private final LongAdder processingTime = new LongAdder();
+    private final LongAdder scannedDeployments = new LongAdder();
+
     private ServiceName serviceName;
 
-    public DriverScanDependencyProcessor(String serviceName) {
+    // NoSQL CDI qualifiers of this subsystem's vendor, that reference a profile via their profile value
+    private final DotName[] profileQualifierAnnotationNames;
+
+    /**
+     * @param serviceName is the name of the subsystem's {@link SubsystemService}
+     * @param profileQualifierAnnotations is the class names of the vendor CDI qualifiers (e.g. @MongoCollectionRef) that
+     *                                    reference a profile of this subsystem via their profile value
+     */
+    public DriverScanDependencyProcessor(String serviceName, String... profileQualifierAnnotations) {
         this.serviceName = ServiceName.JBOSS.append(serviceName);
+        this.profileQualifierAnnotationNames = new DotName[profileQualifierAnnotations.length];
+        for (int i = 0; i < profileQualifierAnnotations.length; i++) {
+            profileQualifierAnnotationNames[i] = DotName.createSimple(profileQualifierAnnotations[i]);
+        }
     }
 
     /**
      * Add dependencies for modules required for NoSQL deployments
      */
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
+        final long startTime = System.nanoTime();
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
+
+        // collect the distinct @Resource/@Resources lookup + @Named values in one pass over the annotations,
+        // so that each is only resolved once, no matter how many injection points reference it.
+        final Set<String> lookups = new LinkedHashSet<>();
+        final Set<String> profiles = new LinkedHashSet<>();
+
+        try {
+            scan(deploymentUnit, lookups, profiles);
+        } finally {
+            // also counts deployments that failed, such as a deployment that references two driver modules
+            final long elapsed = System.nanoTime() - startTime;
+            processingTime.add(elapsed);
+            scannedDeployments.increment();
+            ROOT_LOGGER.scannedDeployment(deploymentUnit.getName(), lookups.size(), profiles.size(),
+                    TimeUnit.NANOSECONDS.toMicros(elapsed));
+        }
+    }
+
+    private void scan(DeploymentUnit deploymentUnit, Set<String> lookups, Set<String> profiles) throws DeploymentUnitProcessingException {
         final CompositeIndex index = deploymentUnit.getAttachment(Attachments.COMPOSITE_ANNOTATION_INDEX);
 
         // handle @Resource
-        final List<AnnotationInstance> resourceAnnotations = index.getAnnotations(RESOURCE_ANNOTATION_NAME);
-        for (AnnotationInstance annotation : resourceAnnotations) {
-            final AnnotationTarget annotationTarget = annotation.target();
-            final AnnotationValue lookupValue = annotation.value("lookup");
-            final String lookup = lookupValue != null ? lookupValue.asString() : null;
-            if (lookup != null) {
-                if (annotationTarget instanceof FieldInfo) {
-                    processFieldResource(deploymentUnit, lookup);
-                } else if (annotationTarget instanceof MethodInfo) {
-                    final MethodInfo methodInfo = (MethodInfo) annotationTarget;
-                    processMethodResource(deploymentUnit, methodInfo, lookup);
-                } else if (annotationTarget instanceof ClassInfo) {
-                    processClassResource(deploymentUnit, lookup);
-                }
-            }
+        for (AnnotationInstance annotation : index.getAnnotations(RESOURCE_ANNOTATION_NAME)) {
+            addResourceLookup(annotation, annotation.target() instanceof ClassInfo, lookups);
         }
 
         // handle @Resources
-        final List<AnnotationInstance> resourcesAnnotations = index.getAnnotations(RESOURCES_ANNOTATION_NAME);
-        for (AnnotationInstance outerAnnotation : resourcesAnnotations) {
-            final AnnotationTarget annotationTarget = outerAnnotation.target();
-            if (annotationTarget instanceof ClassInfo) {
-                final AnnotationInstance[] values = outerAnnotation.value("value").asNestedArray();
-                for (AnnotationInstance annotation : values) {
-                    final AnnotationValue lookupValue = annotation.value("lookup");
-                    final String lookup = lookupValue != null ? lookupValue.asString() : null;
-                    if (lookup != null) {
-                        processClassResource(deploymentUnit, lookup);
-                    }
+        for (AnnotationInstance outerAnnotation : index.getAnnotations(RESOURCES_ANNOTATION_NAME)) {
+            if (outerAnnotation.target() instanceof ClassInfo) {
+                for (AnnotationInstance annotation : outerAnnotation.value("value").asNestedArray()) {
+                    addResourceLookup(annotation, true, lookups);
                 }
             }
         }
 
         // handle CDI @Named for @Inject, look for any @Named value that matches a NoSQL profile name
-        final List<AnnotationInstance> namedAnnotations = index.getAnnotations(NAMED_ANNOTATION_NAME);
-        for (AnnotationInstance annotation : namedAnnotations) {
+        for (AnnotationInstance annotation : index.getAnnotations(NAMED_ANNOTATION_NAME)) {
             final AnnotationTarget annotationTarget = annotation.target();
-            final AnnotationValue profileValue = annotation.value("value");
-            final String profile = profileValue != null ? profileValue.asString() : null;
-
-            if (annotationTarget instanceof FieldInfo) {
-                processFieldNamedQualifier(deploymentUnit, profile);
-            } else if (annotationTarget instanceof MethodInfo) {
-                final MethodInfo methodInfo = (MethodInfo) annotationTarget;
-                processMethodNamedQualifier(deploymentUnit, methodInfo, profile);
-            } else if (annotationTarget instanceof ClassInfo) {
-                processClassNamedQualifier(deploymentUnit, profile);
+            if (annotationTarget instanceof FieldInfo || annotationTarget instanceof MethodInfo || annotationTarget instanceof ClassInfo) {
+                final AnnotationValue profileValue = annotation.value("value");
+                final String profile = profileValue != null ? profileValue.asString() : null;
+                if (isEmpty(profile)) {
+                    ROOT_LOGGER.annotationAttributeMissing("@Named", "value");
+                } else {
+                    profiles.add(profile);
+                }
             }
         }
-    }
-
-    private void processClassNamedQualifier(DeploymentUnit deploymentUnit, String profile) {
-        if (isEmpty(profile)) {
-            ROOT_LOGGER.annotationAttributeMissing("@Named", "value");
-            return;
-        }
-        SubsystemService service = getService();
-        String moduleName = service.moduleNameFromProfile(profile);
-        if (moduleName != null) {
-            savePerDeploymentModuleName(deploymentUnit, moduleName, service.vendorKey());
-            ROOT_LOGGER.scannedNamedQualifier(profile, moduleName);
-        } else {
-            ROOT_LOGGER.ignoringNamedQualifier(profile,getService().profileNames());
-        }
-
-
-    }
 
-    private void processMethodNamedQualifier(DeploymentUnit deploymentUnit, MethodInfo methodInfo, String profile) {
-
-        SubsystemService service = getService();
-        String moduleName = getService().moduleNameFromProfile(profile);
-        if (moduleName != null) {
-            savePerDeploymentModuleName(deploymentUnit, moduleName, service.vendorKey());
-            ROOT_LOGGER.scannedNamedQualifier(profile, moduleName);
-        } else {
-            ROOT_LOGGER.ignoringNamedQualifier(profile,getService().profileNames());
+        // handle NoSQL CDI qualifiers (e.g. @MongoCollectionRef(profile = "...", name = "...")), only the qualifiers of
+        // this subsystem's vendor are resolved, as the profile names of different vendors can be the same
+        for (DotName qualifierName : profileQualifierAnnotationNames) {
+            for (AnnotationInstance annotation : index.getAnnotations(qualifierName)) {
+                final AnnotationValue profileValue = annotation.value("profile");
+                final String profile = profileValue != null ? profileValue.asString() : null;
+                if (isEmpty(profile)) {
+                    ROOT_LOGGER.annotationAttributeMissing("@" + qualifierName, "profile");
+                } else {
+                    profiles.add(profile);
+                }
+            }
         }
 
-    }
-
-    private void processFieldNamedQualifier(DeploymentUnit deploymentUnit, String profile) {
-        SubsystemService service = getService();
-        String moduleName = getService().moduleNameFromProfile(profile);
-        if (moduleName != null) {
-            savePerDeploymentModuleName(deploymentUnit, moduleName, service.vendorKey());
-            ROOT_LOGGER.scannedNamedQualifier(profile, moduleName);
-        } else {
-            ROOT_LOGGER.ignoringNamedQualifier(profile,getService().profileNames());
+        if (!lookups.isEmpty() || !profiles.isEmpty()) {
+            // resolve against a snapshot of the subsystem JNDI/profile names, taken once for the deployment
+            final SubsystemService service = getService();
+            final String vendorKey = service.vendorKey();
+            final Map<String, String> jndiNameToModuleName = snapshot(service.jndiNames(), service::moduleNameFromJndi);
+            final Map<String, String> profileNameToModuleName = snapshot(service.profileNames(), service::moduleNameFromProfile);
+
+            for (String lookup : lookups) {
+                String moduleName = jndiNameToModuleName.get(lookup);
+                if (moduleName != null) {
+                    savePerDeploymentModuleName(deploymentUnit, moduleName, vendorKey);
+                    ROOT_LOGGER.scannedResourceLookup(lookup, moduleName);
+                } else {
+                    ROOT_LOGGER.ignoringResourceLookup(lookup, jndiNameToModuleName.keySet());
+                }
+            }
+            for (String profile : profiles) {
+                String moduleName = profileNameToModuleName.get(profile);
+                if (moduleName == null && profile.indexOf('/') > 0) {
+                    // @Named("profile/name") references a named part of the profile, such as a MongoDB database
+                    moduleName = profileNameToModuleName.get(profile.substring(0, profile.indexOf('/')));
+                }
+                if (moduleName != null) {
+                    savePerDeploymentModuleName(deploymentUnit, moduleName, vendorKey);
+                    ROOT_LOGGER.scannedNamedQualifier(profile, moduleName);
+                } else {
+                    ROOT_LOGGER.ignoringNamedQualifier(profile, profileNameToModuleName.keySet());
+                }
+            }
         }
     }
 
-    protected void processFieldResource(final DeploymentUnit deploymentUnit, String lookup) throws DeploymentUnitProcessingException {
-        SubsystemService service = getService();
-        String moduleName = getService().moduleNameFromJndi(lookup);
-        if (moduleName != null) {
-            savePerDeploymentModuleName(deploymentUnit, moduleName, service.vendorKey());
-            ROOT_LOGGER.scannedResourceLookup(lookup, moduleName);
-        } else {
-            ROOT_LOGGER.ignoringResourceLookup(lookup, getService().jndiNames());
-        }
-
+    /**
+     * get the total number of nanoseconds spent scanning deployments for NoSQL references, by this processor.
+     *
+     * @return nanoseconds spent in {@link #deploy(DeploymentPhaseContext)}
+     */
+    public long getProcessingTimeNanos() {
+        return processingTime.sum();
     }
 
-    protected void processMethodResource(final DeploymentUnit deploymentUnit, final MethodInfo methodInfo, final String lookup) throws DeploymentUnitProcessingException {
-        SubsystemService service = getService();
-        String moduleName = getService().moduleNameFromJndi(lookup);
-        if (moduleName != null) {
-            savePerDeploymentModuleName(deploymentUnit, moduleName, service.vendorKey());
-            ROOT_LOGGER.scannedResourceLookup(lookup, moduleName);
-        } else {
-            ROOT_LOGGER.ignoringResourceLookup(lookup, getService().jndiNames());
-        }
+    /**
+     * get the number of deployments (including failed deployments) that were scanned for NoSQL references, by this
+     * processor.
+     *
+     * @return number of {@link #deploy(DeploymentPhaseContext)} calls
+     */
+    public long getScannedDeploymentCount() {
+        return scannedDeployments.sum();
     }
 
-    protected void processClassResource(final DeploymentUnit deploymentUnit, final String lookup) throws DeploymentUnitProcessingException {
+    private void addResourceLookup(AnnotationInstance annotation, boolean classLevel, Set<String> lookups) {
+        final AnnotationValue lookupValue = annotation.value("lookup");
+        final String lookup = lookupValue != null ? lookupValue.asString() : null;
         if (isEmpty(lookup)) {
-            ROOT_LOGGER.annotationAttributeMissing("@Resource", "lookup");
+            if (classLevel) {
+                ROOT_LOGGER.annotationAttributeMissing("@Resource", "lookup");
+            }
             return;
         }
+        lookups.add(lookup);
+    }
 
-        SubsystemService service = getService();
-        String moduleName = getService().moduleNameFromJndi(lookup);
-        if (moduleName != null) {
-            savePerDeploymentModuleName(deploymentUnit, moduleName, service.vendorKey());
-            ROOT_LOGGER.scannedResourceLookup(lookup, moduleName);
-        } else {
-            ROOT_LOGGER.ignoringResourceLookup(lookup, getService().jndiNames());
+    private static Map<String, String> snapshot(Collection<String> names, Function<String, String> moduleName) {
+        final Map<String, String> result = new HashMap<>();
+        for (String name : names) {
+            String module = moduleName.apply(name);
+            if (module != null) {  // ignore names removed since names was read
+                result.put(name, module);
+            }
         }
+        return result;
     }
 
     private void savePerDeploymentModuleName(DeploymentUnit deploymentUnit, String module, String vendorKey) {
@@ -230,15 +253,14 @@ public class DriverScanDependencyProcessor implements DeploymentUnitProcessor {
                 // deployment is using two different MongoDB (or whichever database type) driver modules, fail deployment.
                 throw ROOT_LOGGER.cannotAddReferenceToModule(module, currentValue.get(vendorKey), deploymentUnit.getName());
             }
-            currentValue.put(vendorKey, module);
+            if (currentValue.put(vendorKey, module) != null) {
+                // CDI extension was already registered for this deployment + vendor
+                return;
+            }
         }
 
-        // register CDI extensions for each NoSQL driver that is used by deployment
-        final ModuleLoader moduleLoader = Module.getBootModuleLoader();
-        mongoSetup(deploymentUnit, moduleLoader, module);
-        cassandraSetup(deploymentUnit, moduleLoader, module);
-        neo4jSetup(deploymentUnit, moduleLoader, module);
-        orientSetup(deploymentUnit, moduleLoader, module);
+        // register CDI extension for the NoSQL driver that is used by deployment
+        cdiSetup(deploymentUnit, module);
     }
 
     protected static Map<String,String> getPerDeploymentDeploymentModuleName(DeploymentUnit deploymentUnit) {
@@ -250,126 +272,31 @@ public class DriverScanDependencyProcessor implements DeploymentUnitProcessor {
         }
     }
 
-    private void mongoSetup(DeploymentUnit deploymentUnit, ModuleLoader moduleLoader, String nosqlDriverModuleName) {
-        Class mongoClientClass, mongoDatabaseClass;
-        MethodHandleBuilder methodHandleBuilder = new MethodHandleBuilder();
-        try {
-            mongoClientClass = moduleLoader.loadModule(ModuleIdentifier.fromString(nosqlDriverModuleName)).getClassLoader().loadClass(NoSQLConstants.MONGOCLIENTCLASS);
-            mongoDatabaseClass = moduleLoader.loadModule(ModuleIdentifier.fromString(nosqlDriverModuleName)).getClassLoader().loadClass(NoSQLConstants.MONGODATABASECLASS);
-
-        } catch (ClassNotFoundException expected) {
-            // ignore CNFE which just means that module is not a MongoDB module
-            return;
-        } catch (ModuleLoadException e) {
-            throw new RuntimeException("could not load NoSQL driver module " + nosqlDriverModuleName, e);
-        }
-        // only reach this point if module is a MongoDB driver
-        try {
-            final DeploymentUnit parent = deploymentUnit.getParent() == null ? deploymentUnit : deploymentUnit.getParent();
-            if (WeldDeploymentMarker.isPartOfWeldDeployment(deploymentUnit)) {
-                WeldPortableExtensions extensions = WeldPortableExtensions.getPortableExtensions(parent);
-                ModuleIdentifier mongoCDIExtensionModule = ModuleIdentifier.create(NoSQLConstants.MONGOCDIEXTENSIONMODULE);
-                methodHandleBuilder.classLoader(mongoCDIExtensionModule);
-                methodHandleBuilder.className(NoSQLConstants.MONGOCDIEXTENSIONCLASS);
-                MethodHandle extensionCtor = methodHandleBuilder.constructor(MethodType.methodType(void.class, Class.class, Class.class));
-
-                Extension extension = (Extension) extensionCtor.invoke(mongoClientClass, mongoDatabaseClass);
-                extensions.registerExtensionInstance(extension, parent);
-            }
-        } catch (Throwable throwable) {
-            throw new RuntimeException("unexpected error constructing " + methodHandleBuilder.getTargetClass().getName(), throwable);
-        }
-    }
-
-    private void orientSetup(DeploymentUnit deploymentUnit, ModuleLoader moduleLoader, String nosqlDriverModuleName) {
-        Class oPartitionedDatabasePoolClass;
-        MethodHandleBuilder methodHandleBuilder = new MethodHandleBuilder();
-        try {
-            oPartitionedDatabasePoolClass = moduleLoader.loadModule(ModuleIdentifier.fromString(nosqlDriverModuleName)).getClassLoader().loadClass(NoSQLConstants.ORIENTDBPARTIONEDDBPOOLCLASS);
-        } catch (ClassNotFoundException expected) {
-            // ignore CNFE which just means that module is not a OrientDB module
-            return;
-        } catch (ModuleLoadException e) {
-            throw new RuntimeException("could not load NoSQL driver module " + nosqlDriverModuleName, e);
-        }
-        // only reach this point if module is a Orient driver
-        try {
-            final DeploymentUnit parent = deploymentUnit.getParent() == null ? deploymentUnit : deploymentUnit.getParent();
-            if (WeldDeploymentMarker.isPartOfWeldDeployment(deploymentUnit)) {
-                WeldPortableExtensions extensions = WeldPortableExtensions.getPortableExtensions(parent);
-                ModuleIdentifier cdiExtensionModule = ModuleIdentifier.create(NoSQLConstants.ORIENTDBCDIEXTENSIONMODULE);
-                methodHandleBuilder.classLoader(cdiExtensionModule);
-                methodHandleBuilder.className(NoSQLConstants.ORIENTCDIEXTENSIONCLASS);
-                MethodHandle extensionCtor = methodHandleBuilder.constructor(MethodType.methodType(void.class, Class.class));
-
-                Extension extension = (Extension) extensionCtor.invoke(oPartitionedDatabasePoolClass);
-                extensions.registerExtensionInstance(extension, parent);
-            }
-        } catch (Throwable throwable) {
-            throw new RuntimeException("unexpected error constructing " + methodHandleBuilder.getTargetClass().getName(), throwable);
-        }
-    }
-
-    private void neo4jSetup(DeploymentUnit deploymentUnit, ModuleLoader moduleLoader, String nosqlDriverModuleName) {
-        Class driverClass;
-        MethodHandleBuilder methodHandleBuilder = new MethodHandleBuilder();
-        try {
-            driverClass = moduleLoader.loadModule(ModuleIdentifier.fromString(nosqlDriverModuleName)).getClassLoader().loadClass(NoSQLConstants.NEO4JDRIVERCLASS);
-        } catch (ClassNotFoundException expected) {
-            // ignore CNFE which just means that module is not a Neo4j module
+    private void cdiSetup(DeploymentUnit deploymentUnit, String nosqlDriverModuleName) {
+        final DriverVendor vendor = DriverVendor.fromModuleName(nosqlDriverModuleName);
+        if (vendor.getCdiExtensionClass() == null) {
+            // module is not a known NoSQL driver
             return;
-        } catch (ModuleLoadException e) {
-            throw new RuntimeException("could not load NoSQL driver module " + nosqlDriverModuleName, e);
         }
-        // only reach this point if module is a Neo4j driver
         try {
             final DeploymentUnit parent = deploymentUnit.getParent() == null ? deploymentUnit : deploymentUnit.getParent();
             if (WeldDeploymentMarker.isPartOfWeldDeployment(deploymentUnit)) {
-                WeldPortableExtensions extensions = WeldPortableExtensions.getPortableExtensions(parent);
-                ModuleIdentifier cdiExtensionModule = ModuleIdentifier.create(NoSQLConstants.NEO4JCDIEXTENSIONMODULE);
-                methodHandleBuilder.classLoader(cdiExtensionModule);
-                methodHandleBuilder.className(NoSQLConstants.NEO4JCDIEXTENSIONCLASS);
-                MethodHandle extensionCtor = methodHandleBuilder.constructor(MethodType.methodType(void.class, Class.class));
-
-                Extension extension = (Extension) extensionCtor.invoke(driverClass);
-                extensions.registerExtensionInstance(extension, parent);
-            }
-        } catch (Throwable throwable) {
-            throw new RuntimeException("unexpected error constructing " + methodHandleBuilder.getTargetClass().getName(), throwable);
-        }
-    }
+                final Class[] driverClasses = vendor.driverClasses(nosqlDriverModuleName);
+                final Class[] ctorParameterTypes = new Class[driverClasses.length];
+                Arrays.fill(ctorParameterTypes, Class.class);
 
-    private void cassandraSetup(DeploymentUnit deploymentUnit, ModuleLoader moduleLoader, String nosqlDriverModuleName) {
-        Class clusterClass;
-        Class sessionClass;
-
-        MethodHandleBuilder methodHandleBuilder = new MethodHandleBuilder();
-        try {
-            clusterClass = moduleLoader.loadModule(ModuleIdentifier.fromString(nosqlDriverModuleName)).getClassLoader().loadClass(NoSQLConstants.CASSANDRACLUSTERCLASS);
-            sessionClass = moduleLoader.loadModule(ModuleIdentifier.fromString(nosqlDriverModuleName)).getClassLoader().loadClass(NoSQLConstants.CASSANDRASESSIONCLASS);
-        } catch (ClassNotFoundException expected) {
-            // ignore CNFE which just means that module is not a Cassandra module
-            return;
-        } catch (ModuleLoadException e) {
-            throw new RuntimeException("could not load NoSQL driver module " + nosqlDriverModuleName, e);
-        }
-        // only reach this point if module is a Cassandra driver
-        try {
-            final DeploymentUnit parent = deploymentUnit.getParent() == null ? deploymentUnit : deploymentUnit.getParent();
-            if (WeldDeploymentMarker.isPartOfWeldDeployment(deploymentUnit)) {
                 WeldPortableExtensions extensions = WeldPortableExtensions.getPortableExtensions(parent);
-                ModuleIdentifier cdiExtensionModule = ModuleIdentifier.create(NoSQLConstants.CASSANDRACDIEXTENSIONMODULE);
-                methodHandleBuilder.classLoader(cdiExtensionModule);
-                methodHandleBuilder.className(NoSQLConstants.CASSANDRACDIEXTENSIONCLASS);
-                MethodHandle extensionCtor = methodHandleBuilder.constructor(MethodType.methodType(void.class, Class.class, Class.class));
+                MethodHandleBuilder methodHandleBuilder = new MethodHandleBuilder();
+                methodHandleBuilder.classLoader(ModuleIdentifier.create(vendor.getCdiExtensionModule()));
+                methodHandleBuilder.className(vendor.getCdiExtensionClass());
+                MethodHandle extensionCtor = methodHandleBuilder.constructor(MethodType.methodType(void.class, ctorParameterTypes));
 
-                Extension extension = (Extension) extensionCtor.invoke(clusterClass, sessionClass);
+                Extension extension = (Extension) extensionCtor.invokeWithArguments((Object[]) driverClasses);
                 extensions.registerExtensionInstance(extension, parent);
             }
         } catch (Throwable throwable) {
-            throw new RuntimeException("unexpected error constructing " + methodHandleBuilder.getTargetClass().getName(), throwable);
+            throw new RuntimeException("unexpected error constructing " + vendor.getCdiExtensionClass(), throwable);
         }
-
     }
 
     private SubsystemService getService() {
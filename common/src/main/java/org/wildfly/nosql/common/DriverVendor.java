@@ -0,0 +1,114 @@
+/*
+ * Copyright 2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.nosql.common;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.modules.ModuleIdentifier;
+
+/**
+ * DriverVendor identifies which NoSQL database vendor a driver module is for, along with the CDI extension that
+ * is registered for deployments that use the driver module.
+ *
+ * The vendor of each driver module is only probed once while the module is used by a profile, as probing means
+ * loading the module and trying to load each vendor driver class (most of which fail with ClassNotFoundException).
+ *
+ * @author Scott Marlow
+ */
+public enum DriverVendor {
+
+    // CDI extension constructors are passed the driver classes, in the order listed here.
+    MONGODB(NoSQLConstants.MONGOCDIEXTENSIONMODULE, NoSQLConstants.MONGOCDIEXTENSIONCLASS,
+            NoSQLConstants.MONGOCLIENTCLASS, NoSQLConstants.MONGODATABASECLASS, NoSQLConstants.MONGOCOLLECTIONCLASS),
+    CASSANDRA(NoSQLConstants.CASSANDRACDIEXTENSIONMODULE, NoSQLConstants.CASSANDRACDIEXTENSIONCLASS,
+            NoSQLConstants.CASSANDRACLUSTERCLASS, NoSQLConstants.CASSANDRASESSIONCLASS),
+    NEO4J(NoSQLConstants.NEO4JCDIEXTENSIONMODULE, NoSQLConstants.NEO4JCDIEXTENSIONCLASS,
+            NoSQLConstants.NEO4JDRIVERCLASS),
+    ORIENTDB(NoSQLConstants.ORIENTDBCDIEXTENSIONMODULE, NoSQLConstants.ORIENTCDIEXTENSIONCLASS,
+            NoSQLConstants.ORIENTDBPARTIONEDDBPOOLCLASS),
+    UNKNOWN(null, null);   // module doesn't contain a known NoSQL driver
+
+    private static final ConcurrentMap<String, DriverVendor> vendorFromModuleName = new ConcurrentHashMap<>();
+
+    private final String cdiExtensionModule;
+    private final String cdiExtensionClass;
+    private final String[] driverClassNames;
+
+    DriverVendor(String cdiExtensionModule, String cdiExtensionClass, String... driverClassNames) {
+        this.cdiExtensionModule = cdiExtensionModule;
+        this.cdiExtensionClass = cdiExtensionClass;
+        this.driverClassNames = driverClassNames;
+    }
+
+    /**
+     * get the vendor of the specified NoSQL driver module.
+     *
+     * @param nosqlDriverModuleName is the NoSQL driver module name
+     * @return vendor of the driver module or UNKNOWN if the module doesn't contain a known NoSQL driver.
+     */
+    public static DriverVendor fromModuleName(String nosqlDriverModuleName) {
+        return vendorFromModuleName.computeIfAbsent(nosqlDriverModuleName, DriverVendor::probe);
+    }
+
+    /**
+     * forget the vendor of a driver module that is no longer used by any profile.
+     *
+     * @param nosqlDriverModuleName is the NoSQL driver module name
+     */
+    static void evict(String nosqlDriverModuleName) {
+        vendorFromModuleName.remove(nosqlDriverModuleName);
+    }
+
+    private static DriverVendor probe(String nosqlDriverModuleName) {
+        final ClassLoader classLoader = MethodHandleCache.classLoader(ModuleIdentifier.fromString(nosqlDriverModuleName));
+        for (DriverVendor vendor : values()) {
+            if (vendor.driverClassNames.length > 0) {
+                try {
+                    classLoader.loadClass(vendor.driverClassNames[0]);
+                    return vendor;
+                } catch (ClassNotFoundException expected) {
+                    // ignore CNFE which just means that module is not for this vendor
+                }
+            }
+        }
+        return UNKNOWN;
+    }
+
+    public String getCdiExtensionModule() {
+        return cdiExtensionModule;
+    }
+
+    public String getCdiExtensionClass() {
+        return cdiExtensionClass;
+    }
+
+    /**
+     * load the driver classes that are passed to the vendor CDI extension constructor.
+     *
+     * @param nosqlDriverModuleName is the NoSQL driver module name
+     * @return driver classes
+     */
+    public Class[] driverClasses(String nosqlDriverModuleName) {
+        final ModuleIdentifier moduleIdentifier = ModuleIdentifier.fromString(nosqlDriverModuleName);
+        final Class[] result = new Class[driverClassNames.length];
+        for (int index = 0; index < driverClassNames.length; index++) {
+            result[index] = MethodHandleCache.loadClass(moduleIdentifier, driverClassNames[index]);
+        }
+        return result;
+    }
+}
@@ -22,10 +22,10 @@ import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.function.Supplier;
 
-import org.jboss.modules.Module;
 import org.jboss.modules.ModuleIdentifier;
-import org.jboss.modules.ModuleLoadException;
 
 /**
  * MethodHandleBuilder helps construct a series of MethodHandle's.
@@ -37,24 +37,21 @@ import org.jboss.modules.ModuleLoadException;
  * mhb.className("otherClassName");
  * MethodHandle otherMethod = mhb.method("otherMethod", Integer.class);
  *
+ * Classes and MethodHandles are shared with other MethodHandleBuilder instances via {@link MethodHandleCache}.
+ *
  * @author Scott Marlow
  */
 public class MethodHandleBuilder {
 
-    private ClassLoader classLoader; // caller can switch to a new classloader at any time, which impacts the next call to MethodHandleBuilder
+    private ModuleIdentifier moduleIdentifier; // caller can switch to a new module at any time, which impacts the next call to MethodHandleBuilder
+    private ClassLoader classLoader;
     private Class targetClass;  // caller can switch to a new targetClass at any time, which impacts the next call to MethodHandleBuilder
 
     private final MethodHandles.Lookup lookup = MethodHandles.lookup();
 
     public MethodHandleBuilder classLoader(ModuleIdentifier moduleIdentifier) {
-        Module module;
-        try {
-            module = Module.getBootModuleLoader().loadModule(moduleIdentifier);
-        } catch (ModuleLoadException e) {
-            // TODO: use NoSQLLogger for all exceptions created here
-            throw new RuntimeException("Could not load module " + moduleIdentifier.getName(), e);
-        }
-        this.classLoader = module.getClassLoader();
+        this.classLoader = MethodHandleCache.classLoader(moduleIdentifier);
+        this.moduleIdentifier = moduleIdentifier;
         return this;
     }
 
@@ -62,11 +59,7 @@ public class MethodHandleBuilder {
         if (classLoader == null) {
             throw new IllegalStateException("ClassLoader needs to be specified");
         }
-        try {
-            targetClass = classLoader.loadClass(className);
-        } catch (ClassNotFoundException e) {
-            throw new RuntimeException("Could not load " + className, e);
-        }
+        targetClass = MethodHandleCache.loadClass(moduleIdentifier, className);
         return this;
     }
 
@@ -75,6 +68,10 @@ public class MethodHandleBuilder {
     }
 
     public MethodHandle method(String methodName, Class<?>... parameterTypes) {
+        return cached("method " + methodName + Arrays.toString(parameterTypes), () -> unreflectMethod(methodName, parameterTypes));
+    }
+
+    private MethodHandle unreflectMethod(String methodName, Class<?>... parameterTypes) {
         try {
             Method method = targetClass.getMethod(methodName, parameterTypes);
             return lookup.unreflect(method);
@@ -86,6 +83,10 @@ public class MethodHandleBuilder {
     }
 
     public MethodHandle declaredMethod(String methodName, Class<?>... parameterTypes) {
+        return cached("declaredMethod " + methodName + Arrays.toString(parameterTypes), () -> unreflectDeclaredMethod(methodName, parameterTypes));
+    }
+
+    private MethodHandle unreflectDeclaredMethod(String methodName, Class<?>... parameterTypes) {
         try {
             Method method = targetClass.getDeclaredMethod(methodName, parameterTypes);
             return lookup.unreflect(method);
@@ -98,6 +99,10 @@ public class MethodHandleBuilder {
 
 
     public MethodHandle declaredConstructor(Class<?>... parameterTypes) {
+        return cached("declaredConstructor " + Arrays.toString(parameterTypes), () -> unreflectDeclaredConstructor(parameterTypes));
+    }
+
+    private MethodHandle unreflectDeclaredConstructor(Class<?>... parameterTypes) {
         try {
             Constructor ctor = targetClass.getDeclaredConstructor(parameterTypes);
             return lookup.unreflectConstructor(ctor);
@@ -109,6 +114,10 @@ public class MethodHandleBuilder {
     }
 
     public MethodHandle constructor(MethodType methodType) {
+        return cached("constructor " + methodType, () -> findConstructor(methodType));
+    }
+
+    private MethodHandle findConstructor(MethodType methodType) {
         try {
              return lookup.findConstructor(targetClass, methodType);
         } catch (NoSuchMethodException e) {
@@ -119,6 +128,10 @@ public class MethodHandleBuilder {
     }
 
     public MethodHandle staticField(String name) {
+        return cached("staticField " + name, () -> unreflectStaticField(name));
+    }
+
+    private MethodHandle unreflectStaticField(String name) {
         try {
             Field field = targetClass.getField(name);
             return lookup.unreflectGetter(field);
@@ -130,6 +143,10 @@ public class MethodHandleBuilder {
     }
 
     public MethodHandle staticMethod(String name, MethodType methodType) {
+        return cached("staticMethod " + name + methodType, () -> unreflectStaticMethod(name, methodType));
+    }
+
+    private MethodHandle unreflectStaticMethod(String name, MethodType methodType) {
         try {
             return lookup.unreflect(targetClass.getMethod(name, methodType.parameterArray()));
         } catch (NoSuchMethodException e) {
@@ -139,4 +156,76 @@ public class MethodHandleBuilder {
         }
     }
 
+    private MethodHandle cached(String member, Supplier<MethodHandle> unreflect) {
+        return MethodHandleCache.methodHandle(moduleIdentifier, targetClass, member, unreflect);
+    }
+
+    /**
+     * Adapt the MethodHandle so that it can be called with invokeExact, from code that cannot statically reference
+     * the NoSQL driver classes.  Parameter and return types loaded by the NoSQL driver module are erased to Object,
+     * while primitive types and JDK types (e.g. String, List, char[]) are kept as is.
+     *
+     * Ex:
+     * MethodHandle getDatabaseMethod = MethodHandleBuilder.erase(mhb.declaredMethod("getDatabase", String.class));
+     * Object database = (Object) getDatabaseMethod.invokeExact(client, databaseName);
+     *
+     * @param methodHandle is the MethodHandle to adapt
+     * @return MethodHandle of type (Object|JDK type|primitive...)Object|JDK type|primitive|void
+     */
+    public static MethodHandle erase(MethodHandle methodHandle) {
+        return methodHandle.asType(erase(methodHandle.type()));
+    }
+
+    /**
+     * Same as {@link #erase(MethodHandle)} but also discards the return value, which is intended for the
+     * fluent builder methods that return the builder instance that the caller already has.
+     *
+     * Ex:
+     * MethodHandle withPortMethod = MethodHandleBuilder.eraseToVoid(mhb.method("withPort", int.class));
+     * withPortMethod.invokeExact(builder, port);
+     *
+     * @param methodHandle is the MethodHandle to adapt
+     * @return MethodHandle of type (Object|JDK type|primitive...)void
+     */
+    public static MethodHandle eraseToVoid(MethodHandle methodHandle) {
+        return methodHandle.asType(erase(methodHandle.type()).changeReturnType(void.class));
+    }
+
+    /**
+     * Adapt the MethodHandle to the fully generic (Object...)Object type.
+     *
+     * @param methodHandle is the MethodHandle to adapt
+     * @return MethodHandle that accepts and returns Object
+     */
+    public static MethodHandle generic(MethodHandle methodHandle) {
+        return methodHandle.asType(methodHandle.type().generic());
+    }
+
+    /**
+     * Adapt the MethodHandle to the caller declared MethodType, so that the caller can use invokeExact.
+     *
+     * @param methodHandle is the MethodHandle to adapt
+     * @param methodType is the type that the caller will use with invokeExact
+     * @return MethodHandle of type methodType
+     */
+    public static MethodHandle exact(MethodHandle methodHandle, MethodType methodType) {
+        return methodHandle.asType(methodType);
+    }
+
+    private static MethodType erase(MethodType methodType) {
+        MethodType result = methodType.changeReturnType(erase(methodType.returnType()));
+        for (int index = 0; index < methodType.parameterCount(); index++) {
+            result = result.changeParameterType(index, erase(methodType.parameterType(index)));
+        }
+        return result;
+    }
+
+    private static Class<?> erase(Class<?> type) {
+        // JDK classes (String, List, char[]...) are loaded by the bootstrap class loader and can be referenced by callers
+        if (type.isPrimitive() || type.getClassLoader() == null) {
+            return type;
+        }
+        return Object.class;
+    }
+
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.nosql.common;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.jboss.modules.Module;
+import org.jboss.modules.ModuleIdentifier;
+import org.jboss.modules.ModuleLoadException;
+
+/**
+ * MethodHandleCache is the process wide cache of the driver classes and MethodHandles that are created by
+ * {@link MethodHandleBuilder}, so that each NoSQL profile that uses the same driver module, shares the same
+ * Class + MethodHandle instances.
+ *
+ * Cached entries are keyed by (module identifier, class name, member signature).  All entries for a module are
+ * evicted by {@link #evictUnused(String, Collection)} when the last profile that uses the module is removed, so that
+ * the module ClassLoader isn't kept alive by the cache.  The module is only loaded (via the boot module loader) when
+ * it is not cached.
+ *
+ * @author Scott Marlow
+ */
+public final class MethodHandleCache {
+
+    private static final ConcurrentMap<ModuleIdentifier, ModuleEntry> modules = new ConcurrentHashMap<>();
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+
+    private MethodHandleCache() {
+    }
+
+    static ClassLoader classLoader(ModuleIdentifier moduleIdentifier) {
+        return entry(moduleIdentifier).classLoader;
+    }
+
+    static Class loadClass(ModuleIdentifier moduleIdentifier, String className) {
+        final ModuleEntry entry = entry(moduleIdentifier);
+        Class result = entry.classes.get(className);
+        if (result != null) {
+            hits.increment();
+            return result;
+        }
+        misses.increment();
+        return entry.classes.computeIfAbsent(className, name -> {
+            try {
+                return entry.classLoader.loadClass(name);
+            } catch (ClassNotFoundException e) {
+                throw new RuntimeException("Could not load " + name, e);
+            }
+        });
+    }
+
+    static MethodHandle methodHandle(ModuleIdentifier moduleIdentifier, Class targetClass, String member, Supplier<MethodHandle> unreflect) {
+        final ModuleEntry entry = entry(moduleIdentifier);
+        final String key = targetClass.getName() + '#' + member;
+        MethodHandle result = entry.methodHandles.get(key);
+        if (result != null) {
+            hits.increment();
+            return result;
+        }
+        misses.increment();
+        return entry.methodHandles.computeIfAbsent(key, ignore -> unreflect.get());
+    }
+
+    /**
+     * Remove all cached classes + MethodHandles for the specified module.
+     *
+     * @param moduleIdentifier is the NoSQL driver module
+     */
+    public static void evict(ModuleIdentifier moduleIdentifier) {
+        modules.remove(moduleIdentifier);
+    }
+
+    /**
+     * Remove all cached classes + MethodHandles (and the cached {@link DriverVendor}) for the specified module, if it
+     * is no longer used by any profile.
+     *
+     * @param moduleName is the NoSQL driver module name of a removed profile
+     * @param moduleNamesInUse are the driver module names of the remaining profiles
+     */
+    public static void evictUnused(String moduleName, Collection<String> moduleNamesInUse) {
+        if (moduleName != null && !moduleNamesInUse.contains(moduleName)) {
+            evict(ModuleIdentifier.fromString(moduleName));
+            DriverVendor.evict(moduleName);
+        }
+    }
+
+    /**
+     * @return number of class + MethodHandle lookups that were satisfied from the cache
+     */
+    public static long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of class + MethodHandle lookups that had to load the class or unreflect the member
+     */
+    public static long getMissCount() {
+        return misses.sum();
+    }
+
+    private static ModuleEntry entry(ModuleIdentifier moduleIdentifier) {
+        final ModuleEntry entry = modules.get(moduleIdentifier);
+        if (entry != null) {
+            return entry;
+        }
+        final ClassLoader classLoader;
+        try {
+            classLoader = Module.getBootModuleLoader().loadModule(moduleIdentifier).getClassLoader();
+        } catch (ModuleLoadException e) {
+            // TODO: use NoSQLLogger for all exceptions created here
+            throw new RuntimeException("Could not load module " + moduleIdentifier.getName(), e);
+        }
+        // first use of the module (since it was evicted), concurrent callers share the first entry
+        return modules.computeIfAbsent(moduleIdentifier, key -> new ModuleEntry(classLoader));
+    }
+
+    private static final class ModuleEntry {
+        private final ClassLoader classLoader;
+        private final ConcurrentMap<String, Class> classes = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, MethodHandle> methodHandles = new ConcurrentHashMap<>();
+
+        private ModuleEntry(ClassLoader classLoader) {
+            this.classLoader = classLoader;
+        }
+    }
+}
@@ -27,7 +27,28 @@ public class NoSQLConstants {
     public static final String CASSANDRACLUSTERCLASS = "com.datastax.driver.core.Cluster";
     public static final String CASSANDRACLUSTERBUILDERCLASS = "com.datastax.driver.core.Cluster$Builder";
     public static final String CASSANDRASESSIONCLASS = "com.datastax.driver.core.Session";
+    public static final String CASSANDRAPREPAREDSTATEMENTCLASS = "com.datastax.driver.core.PreparedStatement";
+    public static final String CASSANDRAPOOLINGOPTIONSCLASS = "com.datastax.driver.core.PoolingOptions";
+    public static final String CASSANDRAHOSTDISTANCECLASS = "com.datastax.driver.core.HostDistance";
+    public static final String CASSANDRAHOSTCLASS = "com.datastax.driver.core.Host";
+    public static final String CASSANDRASTATEMENTCLASS = "com.datastax.driver.core.Statement";
+    public static final String CASSANDRALISTENABLEFUTURECLASS = "com.google.common.util.concurrent.ListenableFuture";
+    public static final String CASSANDRALOADBALANCINGPOLICYCLASS = "com.datastax.driver.core.policies.LoadBalancingPolicy";
+    public static final String CASSANDRADCAWAREPOLICYCLASS = "com.datastax.driver.core.policies.DCAwareRoundRobinPolicy";
+    public static final String CASSANDRADCAWAREPOLICYBUILDERCLASS = "com.datastax.driver.core.policies.DCAwareRoundRobinPolicy$Builder";
+    public static final String CASSANDRATOKENAWAREPOLICYCLASS = "com.datastax.driver.core.policies.TokenAwarePolicy";
+    public static final String CASSANDRALATENCYAWAREPOLICYCLASS = "com.datastax.driver.core.policies.LatencyAwarePolicy";
+    public static final String CASSANDRALATENCYAWAREPOLICYBUILDERCLASS = "com.datastax.driver.core.policies.LatencyAwarePolicy$Builder";
+    public static final String CASSANDRASPECULATIVEEXECUTIONPOLICYCLASS = "com.datastax.driver.core.policies.SpeculativeExecutionPolicy";
+    public static final String CASSANDRASPECULATIVEEXECUTIONPLANCLASS = "com.datastax.driver.core.policies.SpeculativeExecutionPolicy$SpeculativeExecutionPlan";
+    public static final String CASSANDRACONSTANTSPECULATIVEEXECUTIONPOLICYCLASS = "com.datastax.driver.core.policies.ConstantSpeculativeExecutionPolicy";
+    public static final String CASSANDRAPERCENTILESPECULATIVEEXECUTIONPOLICYCLASS = "com.datastax.driver.core.policies.PercentileSpeculativeExecutionPolicy";
+    public static final String CASSANDRAPERCENTILETRACKERCLASS = "com.datastax.driver.core.PercentileTracker";
+    public static final String CASSANDRAPERHOSTPERCENTILETRACKERCLASS = "com.datastax.driver.core.PerHostPercentileTracker";
+    public static final String CASSANDRAPERHOSTPERCENTILETRACKERBUILDERCLASS = "com.datastax.driver.core.PerHostPercentileTracker$Builder";
+    public static final String CASSANDRALATENCYTRACKERCLASS = "com.datastax.driver.core.LatencyTracker";
     public static final String CASSANDRACDIEXTENSIONCLASS = "org.wildfly.extension.nosql.cdi.CassandraExtension";
+    public static final String CASSANDRACQLANNOTATION = "org.wildfly.extension.nosql.cdi.Cql";
 
     // Neo4j constants
     public static final String NEO4JCDIEXTENSIONMODULE = "org.wildfly.extension.nosql.neo4j";
@@ -47,12 +68,74 @@ public class NoSQLConstants {
     public static String MONGOCLIENTCLASS = "com.mongodb.MongoClient";
     public static final String MONGOCLIENTOPTIONSCLASS = "com.mongodb.MongoClientOptions";
     public static final String MONGODATABASECLASS = "com.mongodb.client.MongoDatabase";
+    public static final String MONGOCOLLECTIONCLASS = "com.mongodb.client.MongoCollection";
     public static final String MONGOBUILDERCLASS = "com.mongodb.MongoClientOptions$Builder";
     public static final String MONGOWRITECONCERNCLASS = "com.mongodb.WriteConcern";
     public static final String MONGOREADCONCERNCLASS = "com.mongodb.ReadConcern";
     public static final String MONGOREADCONCERNLEVELCLASS = "com.mongodb.ReadConcernLevel";
+    public static final String MONGOREADPREFERENCECLASS = "com.mongodb.ReadPreference";
+    public static final String MONGOTAGSETCLASS = "com.mongodb.TagSet";
+    public static final String MONGOTAGCLASS = "com.mongodb.Tag";
+    public static final String MONGOCOMMANDLISTENERCLASS = "com.mongodb.event.CommandListener";
+    public static final String MONGOCOMMANDEVENTCLASS = "com.mongodb.event.CommandEvent";
+    public static final String MONGOCOMMANDSUCCEEDEDEVENTCLASS = "com.mongodb.event.CommandSucceededEvent";
+    public static final String MONGOCOMMANDFAILEDEVENTCLASS = "com.mongodb.event.CommandFailedEvent";
+    public static final String MONGOCONNECTIONPOOLLISTENERCLASS = "com.mongodb.event.ConnectionPoolListener";
+    public static final String MONGOBSONCLASS = "org.bson.conversions.Bson";
+    public static final String MONGOBSONDOCUMENTCLASS = "org.bson.BsonDocument";
+    public static final String MONGOFINDITERABLECLASS = "com.mongodb.client.FindIterable";
+    public static final String MONGOITERABLECLASS = "com.mongodb.client.MongoIterable";
+    public static final String MONGOCURSORCLASS = "com.mongodb.client.MongoCursor";
+    public static final String MONGOCURSORTYPECLASS = "com.mongodb.CursorType";
+    public static final String MONGODOCUMENTCLASS = "org.bson.Document";
+    public static final String MONGOBSONTIMESTAMPCLASS = "org.bson.BsonTimestamp";
+    public static final String MONGOBULKWRITEOPTIONSCLASS = "com.mongodb.client.model.BulkWriteOptions";
+    public static final String MONGOINSERTONEMODELCLASS = "com.mongodb.client.model.InsertOneModel";
+    public static final String MONGOUPDATEONEMODELCLASS = "com.mongodb.client.model.UpdateOneModel";
+    public static final String MONGOBULKWRITEEXCEPTIONCLASS = "com.mongodb.MongoBulkWriteException";
+    public static final String MONGOBULKWRITEERRORCLASS = "com.mongodb.bulk.BulkWriteError";
+    public static final String MONGOSERVEREXCEPTIONCLASS = "com.mongodb.MongoServerException";
+    public static final String MONGOSECURITYEXCEPTIONCLASS = "com.mongodb.MongoSecurityException";
+    public static final String MONGOCODECREGISTRYCLASS = "org.bson.codecs.configuration.CodecRegistry";
+    public static final String MONGOCODECREGISTRIESCLASS = "org.bson.codecs.configuration.CodecRegistries";
+    public static final String MONGORAWBSONDOCUMENTCLASS = "org.bson.RawBsonDocument";
+    public static final String MONGORAWBSONDOCUMENTCODECCLASS = "org.bson.codecs.RawBsonDocumentCodec";
+    public static final String MONGOBYTEBUFCLASS = "org.bson.ByteBuf";
+    public static final String MONGOBSONREADERCLASS = "org.bson.BsonReader";
+    public static final String MONGOBSONBINARYREADERCLASS = "org.bson.BsonBinaryReader";
+    public static final String MONGOJSONWRITERCLASS = "org.bson.json.JsonWriter";
+    public static final String MONGOJSONWRITERSETTINGSCLASS = "org.bson.json.JsonWriterSettings";
+    public static final String MONGOJSONMODECLASS = "org.bson.json.JsonMode";
+    public static final String MONGOSTREAMFACTORYFACTORYCLASS = "com.mongodb.connection.StreamFactoryFactory";
+    public static final String MONGONETTYSTREAMFACTORYFACTORYCLASS = "com.mongodb.connection.netty.NettyStreamFactoryFactory";
+    public static final String MONGONETTYSTREAMFACTORYFACTORYBUILDERCLASS = "com.mongodb.connection.netty.NettyStreamFactoryFactory$Builder";
+    public static final String NETTYEVENTLOOPGROUPCLASS = "io.netty.channel.EventLoopGroup";
+    public static final String NETTYNIOEVENTLOOPGROUPCLASS = "io.netty.channel.nio.NioEventLoopGroup";
+    public static final String NETTYEPOLLCLASS = "io.netty.channel.epoll.Epoll";
+    public static final String NETTYEPOLLEVENTLOOPGROUPCLASS = "io.netty.channel.epoll.EpollEventLoopGroup";
+    public static final String NETTYEPOLLSOCKETCHANNELCLASS = "io.netty.channel.epoll.EpollSocketChannel";
+    public static final String NETTYBYTEBUFALLOCATORCLASS = "io.netty.buffer.ByteBufAllocator";
+    public static final String NETTYPOOLEDBYTEBUFALLOCATORCLASS = "io.netty.buffer.PooledByteBufAllocator";
+    public static final String MONGOASYNCCLIENTCLASS = "com.mongodb.async.client.MongoClient";
+    public static final String MONGOASYNCDATABASECLASS = "com.mongodb.async.client.MongoDatabase";
+    public static final String MONGOASYNCCOLLECTIONCLASS = "com.mongodb.async.client.MongoCollection";
+    public static final String MONGOASYNCCLIENTSCLASS = "com.mongodb.async.client.MongoClients";
+    public static final String MONGOASYNCCLIENTSETTINGSCLASS = "com.mongodb.async.client.MongoClientSettings";
+    public static final String MONGOASYNCCLIENTSETTINGSBUILDERCLASS = "com.mongodb.async.client.MongoClientSettings$Builder";
+    public static final String MONGOCLUSTERSETTINGSCLASS = "com.mongodb.connection.ClusterSettings";
+    public static final String MONGOCLUSTERSETTINGSBUILDERCLASS = "com.mongodb.connection.ClusterSettings$Builder";
+    public static final String MONGOCLUSTERCONNECTIONMODECLASS = "com.mongodb.connection.ClusterConnectionMode";
+    public static final String MONGOCONNECTIONPOOLSETTINGSCLASS = "com.mongodb.connection.ConnectionPoolSettings";
+    public static final String MONGOCONNECTIONPOOLSETTINGSBUILDERCLASS = "com.mongodb.connection.ConnectionPoolSettings$Builder";
+    public static final String MONGOSOCKETSETTINGSCLASS = "com.mongodb.connection.SocketSettings";
+    public static final String MONGOSOCKETSETTINGSBUILDERCLASS = "com.mongodb.connection.SocketSettings$Builder";
+    public static final String MONGOSERVERSETTINGSCLASS = "com.mongodb.connection.ServerSettings";
+    public static final String MONGOSERVERSETTINGSBUILDERCLASS = "com.mongodb.connection.ServerSettings$Builder";
+    public static final String MONGOSSLSETTINGSCLASS = "com.mongodb.connection.SslSettings";
+    public static final String MONGOSSLSETTINGSBUILDERCLASS = "com.mongodb.connection.SslSettings$Builder";
     public static final String MONGOSERVERADDRESSCLASS = "com.mongodb.ServerAddress";
     public static final String MONGOCREDENTIALCLASS = "com.mongodb.MongoCredential";
     public static final String MONGOCDIEXTENSIONMODULE = "org.wildfly.extension.nosql.mongodb";
     public static final String MONGOCDIEXTENSIONCLASS = "org.wildfly.extension.nosql.cdi.MongoExtension";
+    public static final String MONGOCOLLECTIONREFANNOTATION = "org.wildfly.extension.nosql.cdi.MongoCollectionRef";
 }
@@ -19,6 +19,7 @@ package org.wildfly.nosql.common;
 import static org.jboss.logging.Logger.Level.ERROR;
 import static org.jboss.logging.Logger.Level.DEBUG;
 import static org.jboss.logging.Logger.Level.INFO;
+import static org.jboss.logging.Logger.Level.WARN;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -98,4 +99,28 @@ public interface NoSQLLogger extends BasicLogger {
     @Message(id = 9, value = "Scanned @Resource lookup %s, which refers to NoSQL module %s")
     void scannedResourceLookup(String lookup, String moduleName);
 
+    @LogMessage(level = DEBUG)
+    @Message(id = 10, value = "Scanned deployment %s for NoSQL references (%d distinct @Resource lookups, %d distinct @Named values) in %d microseconds")
+    void scannedDeployment(String deploymentName, int lookups, int profiles, long micros);
+
+    @LogMessage(level = INFO)
+    @Message(id = 11, value = "Started NoSQL profile %s in %d ms")
+    void profileStarted(String profile, long millis);
+
+    @LogMessage(level = WARN)
+    @Message(id = 12, value = "Oplog tailer of NoSQL profile %s failed, will resume from the last checkpoint in %d ms")
+    void oplogTailerFailed(String profile, long retryMillis, @Cause Throwable cause);
+
+    @LogMessage(level = WARN)
+    @Message(id = 13, value = "Could not save oplog checkpoint of NoSQL profile %s to %s")
+    void oplogCheckpointFailed(String profile, String file, @Cause Throwable cause);
+
+    @LogMessage(level = WARN)
+    @Message(id = 14, value = "Oplog listener %s of NoSQL profile %s failed for %s")
+    void oplogListenerFailed(Object listener, String profile, Object event, @Cause Throwable cause);
+
+    @LogMessage(level = WARN)
+    @Message(id = 15, value = "Oplog tailer of NoSQL profile %s cannot read the oplog (%s), will retry with an increasing delay of up to %d ms and log further failures at DEBUG level")
+    void oplogUnavailable(String profile, String reason, long maxRetryMillis);
+
 }
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wildfly.nosql.common;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * SubsystemMetricsHandler reads the runtime metrics that all NoSQL driver subsystems have.  The MethodHandle cache is
+ * shared by the subsystems, the deployment scan metrics are of the subsystem deployment processor.
+ *
+ * @author Scott Marlow
+ */
+public class SubsystemMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+    public static final String METHOD_HANDLE_CACHE_HIT_COUNT = "method-handle-cache-hit-count";
+    public static final String METHOD_HANDLE_CACHE_MISS_COUNT = "method-handle-cache-miss-count";
+    public static final String DEPLOYMENT_SCAN_COUNT = "deployment-scan-count";
+    public static final String DEPLOYMENT_SCAN_TIME = "deployment-scan-time";
+
+    static final List<SimpleAttributeDefinition> METRICS = Arrays.asList(
+            runtimeMetric(METHOD_HANDLE_CACHE_HIT_COUNT, MeasurementUnit.NONE),
+            runtimeMetric(METHOD_HANDLE_CACHE_MISS_COUNT, MeasurementUnit.NONE),
+            runtimeMetric(DEPLOYMENT_SCAN_COUNT, MeasurementUnit.NONE),
+            runtimeMetric(DEPLOYMENT_SCAN_TIME, MeasurementUnit.NANOSECONDS));
+
+    private final DriverScanDependencyProcessor scanDependencyProcessor;
+
+    private SubsystemMetricsHandler(DriverScanDependencyProcessor scanDependencyProcessor) {
+        this.scanDependencyProcessor = scanDependencyProcessor;
+    }
+
+    /**
+     * Register the runtime metrics on the subsystem root resource.
+     *
+     * @param resourceRegistration is the subsystem root resource registration
+     * @param scanDependencyProcessor is the deployment processor of the subsystem
+     */
+    public static void registerMetrics(ManagementResourceRegistration resourceRegistration, DriverScanDependencyProcessor scanDependencyProcessor) {
+        final SubsystemMetricsHandler handler = new SubsystemMetricsHandler(scanDependencyProcessor);
+        for (SimpleAttributeDefinition metric : METRICS) {
+            resourceRegistration.registerMetric(metric, handler);
+        }
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final String attributeName = operation.require(NAME).asString();
+        switch (attributeName) {
+            case METHOD_HANDLE_CACHE_HIT_COUNT:
+                context.getResult().set(MethodHandleCache.getHitCount());
+                break;
+            case METHOD_HANDLE_CACHE_MISS_COUNT:
+                context.getResult().set(MethodHandleCache.getMissCount());
+                break;
+            case DEPLOYMENT_SCAN_COUNT:
+                context.getResult().set(scanDependencyProcessor.getScannedDeploymentCount());
+                break;
+            case DEPLOYMENT_SCAN_TIME:
+                context.getResult().set(scanDependencyProcessor.getProcessingTimeNanos());
+                break;
+            default:
+                throw new IllegalArgumentException(attributeName);
+        }
+        context.stepCompleted();
+    }
+
+    private static SimpleAttributeDefinition runtimeMetric(String name, MeasurementUnit measurementUnit) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.LONG, true)
+                .setStorageRuntime()
+                .setMeasurementUnit(measurementUnit)
+                .build();
+    }
+}
@@ -24,4 +24,16 @@ package org.wildfly.nosql.common.spi;
 public interface NoSQLConnection {
 
     <T> T unwrap(Class<T> t);
+
+    /**
+     * unwrap a named part of the connection, for example a MongoDB database by database name.
+     *
+     * @param t is the expected class
+     * @param name identifies the part of the connection to return
+     * @return instance of t
+     * @throws IllegalArgumentException if the connection doesn't have named parts of class t
+     */
+    default <T> T unwrap(Class<T> t, String name) {
+        throw new IllegalArgumentException(t.getName() + " '" + name + "' is not available from " + getClass().getName());
+    }
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.nosql.cdi;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.PARAMETER;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import javax.inject.Qualifier;
+
+/**
+ * Qualifier for injecting a MongoCollection of a MongoDB profile.  The MongoCollection is an ApplicationScoped
+ * bean, that is only created once per deployment.  A CachedCollection may also be injected, if the profile
+ * query-cache-max-size is specified.
+ *
+ * Ex:
+ * <pre>
+ *   &#064;Inject &#064;MongoCollectionRef(profile = "MyMongoDB", name = "orders")
+ *   MongoCollection&lt;Document&gt; orders;
+ *
+ *   &#064;Inject &#064;MongoCollectionRef(profile = "MyMongoDB", database = "reporting", name = "orders", documentClass = Order.class)
+ *   MongoCollection&lt;Order&gt; orderReports;
+ *
+ *   &#064;Inject &#064;MongoCollectionRef(profile = "MyMongoDB", name = "countries")
+ *   CachedCollection&lt;Document&gt; countries;
+ * </pre>
+ *
+ * @author Scott Marlow
+ */
+@Qualifier
+@Documented
+@Retention(RUNTIME)
+@Target({FIELD, METHOD, PARAMETER})
+public @interface MongoCollectionRef {
+
+    /**
+     * @return MongoDB profile id
+     */
+    String profile();
+
+    /**
+     * @return database name, the profile database is used if not specified
+     */
+    String database() default "";
+
+    /**
+     * @return collection name
+     */
+    String name();
+
+    /**
+     * @return class of the collection documents, org.bson.Document is used if not specified
+     */
+    Class<?> documentClass() default Object.class;
+}
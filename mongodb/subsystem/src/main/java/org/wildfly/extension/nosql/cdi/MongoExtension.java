@@ -17,29 +17,46 @@
 package org.wildfly.extension.nosql.cdi;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Dependent;
 import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.event.Event;
 import javax.enterprise.event.Observes;
 import javax.enterprise.inject.spi.AfterBeanDiscovery;
+import javax.enterprise.inject.spi.AfterDeploymentValidation;
 import javax.enterprise.inject.spi.Bean;
 import javax.enterprise.inject.spi.BeanAttributes;
 import javax.enterprise.inject.spi.BeanManager;
+import javax.enterprise.inject.spi.BeforeShutdown;
 import javax.enterprise.inject.spi.Extension;
 import javax.enterprise.inject.spi.InjectionPoint;
 import javax.enterprise.inject.spi.InjectionTarget;
 import javax.enterprise.inject.spi.InjectionTargetFactory;
+import javax.enterprise.inject.spi.ProcessInjectionPoint;
+import javax.enterprise.inject.spi.ProcessObserverMethod;
 
 import org.jboss.as.server.CurrentServiceContainer;
+import org.jboss.modules.ModuleIdentifier;
+import org.wildfly.extension.nosql.driver.mongodb.CachedCollection;
+import org.wildfly.extension.nosql.driver.mongodb.ClientType;
+import org.wildfly.extension.nosql.driver.mongodb.MongoClientConnectionsService;
+import org.wildfly.extension.nosql.driver.mongodb.OplogEvent;
+import org.wildfly.extension.nosql.driver.mongodb.OplogListener;
+import org.wildfly.extension.nosql.driver.mongodb.OplogTailer;
 import org.wildfly.extension.nosql.subsystem.mongodb.MongoSubsystemService;
 import org.wildfly.nosql.common.ConnectionServiceAccess;
-import org.wildfly.nosql.common.SubsystemService;
+import org.wildfly.nosql.common.MethodHandleBuilder;
+import org.wildfly.nosql.common.NoSQLConstants;
 import org.wildfly.nosql.common.spi.NoSQLConnection;
 
 
@@ -55,33 +72,140 @@ public class MongoExtension implements Extension {
 
     private final Class mongoClientClass;
     private final Class mongoDatabaseClass;
-
-    public MongoExtension(Class mongoClientClass, Class mongoDatabaseClass) {
+    private final Class mongoCollectionClass;
+    // @MongoCollectionRef qualifiers of the deployment injection points, with the injected MongoCollection types.
+    // Concurrent as Weld may process the deployment beans in parallel.
+    private final Map<MongoCollectionRef, Set<Type>> collectionRefs = new ConcurrentHashMap<>();
+    // @MongoCollectionRef qualifiers of the CachedCollection injection points
+    private final Map<MongoCollectionRef, Set<Type>> cachedCollectionRefs = new ConcurrentHashMap<>();
+    // OplogEvent observers of the deployment, which are notified via OplogTailer listeners that are removed on undeploy
+    private volatile boolean oplogEventObserved;
+    private final Map<OplogTailer, OplogListener> oplogListeners = new ConcurrentHashMap<>();
+
+    public MongoExtension(Class mongoClientClass, Class mongoDatabaseClass, Class mongoCollectionClass) {
         this.mongoClientClass = mongoClientClass;
         this.mongoDatabaseClass = mongoDatabaseClass;
+        this.mongoCollectionClass = mongoCollectionClass;
     }
 
     private static final Logger log = Logger.getLogger(MongoExtension.class.getName());
 
+    <T, X> void collectMongoCollectionRefs(@Observes ProcessInjectionPoint<T, X> pip) {
+        for (Annotation qualifier : pip.getInjectionPoint().getQualifiers()) {
+            if (qualifier instanceof MongoCollectionRef) {
+                final Type type = pip.getInjectionPoint().getType();
+                final Type rawType = type instanceof ParameterizedType ? ((ParameterizedType) type).getRawType() : type;
+                (CachedCollection.class.equals(rawType) ? cachedCollectionRefs : collectionRefs)
+                        .computeIfAbsent((MongoCollectionRef) qualifier, ignore -> ConcurrentHashMap.newKeySet())
+                        .add(type);
+            }
+        }
+    }
+
+    <X> void detectOplogEventObservers(@Observes ProcessObserverMethod<OplogEvent, X> pom) {
+        oplogEventObserved = true;
+    }
+
+    void registerOplogListeners(@Observes AfterDeploymentValidation adv, BeanManager bm) {
+        if (!oplogEventObserved) {
+            return;
+        }
+        for (String profile : getService().profileNames()) {
+            final OplogTailer oplogTailer;
+            try {
+                oplogTailer = ((MongoClientConnectionsService) ConnectionServiceAccess.connection(profile)).getOplogTailerIfCreated();
+            } catch (IllegalStateException notStarted) {
+                continue;
+            }
+            if (oplogTailer != null) {
+                log.log(Level.INFO, "Registering OplogEvent listener for profile {0}", profile);
+                // OplogEvent observers use @ObservesAsync @Named(profile)
+                final Event<OplogEvent> event = bm.getEvent().select(OplogEvent.class, new NamedLiteral(profile));
+                final OplogListener listener = event::fireAsync;
+                oplogTailer.addListener(null, listener);
+                oplogListeners.put(oplogTailer, listener);
+            }
+        }
+    }
+
+    void unregisterOplogListeners(@Observes BeforeShutdown bs) {
+        oplogListeners.forEach(OplogTailer::removeListener);
+        oplogListeners.clear();
+    }
+
     void registerNoSQLSourceBeans(@Observes AfterBeanDiscovery abd, BeanManager bm) {
+        // one ApplicationScoped MongoCollection bean per distinct @MongoCollectionRef
+        for (Map.Entry<MongoCollectionRef, Set<Type>> collectionRef : collectionRefs.entrySet()) {
+            if (!isMongoProfile(abd, collectionRef.getKey())) {
+                continue;
+            }
+            log.log(Level.INFO, "Registering MongoCollection bean for {0}", collectionRef.getKey());
+            Set<Type> types = new HashSet<>(collectionRef.getValue());
+            types.add(Object.class);
+            abd.addBean(bm.createBean(
+                    new MongoCollectionBeanAttributes(collectionRef.getKey(), types, ApplicationScoped.class),
+                    mongoCollectionClass, new MongoCollectionProducerFactory(collectionRef.getKey(), false)));
+        }
+        collectionRefs.clear();
+        // CachedCollection beans share the qualifier with the MongoCollection bean, so only have the injected types.
+        // CachedCollection isn't proxyable, so the beans are Dependent, the QueryCache has one instance per collection.
+        for (Map.Entry<MongoCollectionRef, Set<Type>> collectionRef : cachedCollectionRefs.entrySet()) {
+            if (!isMongoProfile(abd, collectionRef.getKey())) {
+                continue;
+            }
+            log.log(Level.INFO, "Registering CachedCollection bean for {0}", collectionRef.getKey());
+            abd.addBean(bm.createBean(
+                    new MongoCollectionBeanAttributes(collectionRef.getKey(), collectionRef.getValue(), Dependent.class),
+                    CachedCollection.class, new MongoCollectionProducerFactory(collectionRef.getKey(), true)));
+        }
+        cachedCollectionRefs.clear();
+
         if (bm.getBeans(mongoClientClass, DefaultLiteral.INSTANCE).isEmpty()) {
             // Iterate profiles and create Cluster/Session bean for each profile, that application code can @Inject
             for(String profile: getService().profileNames()) {
                 log.log(Level.INFO, "Registering bean for profile {0}", profile);
+                Class clientClass = mongoClientClass;
+                Class databaseClass = mongoDatabaseClass;
+                if (getService().clientTypeFromProfile(profile) == ClientType.ASYNC) {
+                    // async profile beans have the com.mongodb.async.client types of the profile driver module
+                    MethodHandleBuilder methodHandleBuilder = new MethodHandleBuilder()
+                            .classLoader(ModuleIdentifier.fromString(getService().moduleNameFromProfile(profile)));
+                    clientClass = methodHandleBuilder.className(NoSQLConstants.MONGOASYNCCLIENTCLASS).getTargetClass();
+                    databaseClass = methodHandleBuilder.className(NoSQLConstants.MONGOASYNCDATABASECLASS).getTargetClass();
+                }
                 abd.addBean(bm.createBean(
-                        new MongoClientBeanAttributes(bm.createBeanAttributes(bm.createAnnotatedType(mongoClientClass)), profile),
-                        mongoClientClass, new MongoClientProducerFactory(profile, mongoClientClass)));
+                        new MongoClientBeanAttributes(bm.createBeanAttributes(bm.createAnnotatedType(clientClass)), profile),
+                        clientClass, new MongoClientProducerFactory(profile, clientClass)));
                 abd.addBean(bm.createBean(
-                        new MongoDatabaseBeanAttributes(bm.createBeanAttributes(bm.createAnnotatedType(mongoDatabaseClass)), profile),
-                        mongoDatabaseClass, new MongoDatabaseProducerFactory(profile, mongoDatabaseClass)));
+                        new MongoDatabaseBeanAttributes(bm.createBeanAttributes(bm.createAnnotatedType(databaseClass)), profile),
+                        databaseClass, new MongoDatabaseProducerFactory(profile, null, databaseClass)));
+                // additional databases of the profile are named profile/database
+                for (String databaseName : getService().databaseNamesFromProfile(profile)) {
+                    abd.addBean(bm.createBean(
+                            new MongoDatabaseBeanAttributes(bm.createBeanAttributes(bm.createAnnotatedType(databaseClass)), profile + "/" + databaseName),
+                            databaseClass, new MongoDatabaseProducerFactory(profile, databaseName, databaseClass)));
+                }
             }
          } else {
             log.log(Level.INFO, "Application contains a default MongoClient Bean, automatic registration will be disabled");
         }
     }
 
-    private SubsystemService getService() {
-        return (SubsystemService) CurrentServiceContainer.getServiceContainer().getService(MongoSubsystemService.serviceName()).getValue();
+    /**
+     * only profiles of the MongoDB subsystem are resolved, another NoSQL subsystem can have a profile with the same name
+     * (whose connection would be returned by ConnectionServiceAccess).
+     */
+    private boolean isMongoProfile(AfterBeanDiscovery abd, MongoCollectionRef collectionRef) {
+        if (getService().moduleNameFromProfile(collectionRef.profile()) != null) {
+            return true;
+        }
+        abd.addDefinitionError(new IllegalArgumentException(collectionRef + " references unknown MongoDB profile " +
+                collectionRef.profile() + ", the MongoDB profiles are " + getService().profileNames()));
+        return false;
+    }
+
+    private MongoSubsystemService getService() {
+        return (MongoSubsystemService) CurrentServiceContainer.getServiceContainer().getService(MongoSubsystemService.serviceName()).getValue();
     }
 
     private static class MongoClientBeanAttributes<T> implements BeanAttributes<T> {
@@ -172,10 +296,106 @@ public class MongoExtension implements Extension {
         }
     }
 
+    private static class MongoCollectionBeanAttributes<T> implements BeanAttributes<T> {
+
+        private final MongoCollectionRef collectionRef;
+        private final Set<Type> types;
+        private final Class<? extends Annotation> scope;
+
+        MongoCollectionBeanAttributes(MongoCollectionRef collectionRef, Set<Type> types, Class<? extends Annotation> scope) {
+            this.collectionRef = collectionRef;
+            this.types = types;
+            this.scope = scope;
+        }
+
+        @Override
+        public String getName() {
+            return null;
+        }
+
+        @Override
+        public Set<Annotation> getQualifiers() {
+            Set<Annotation> qualifiers = new HashSet<>();
+            qualifiers.add(collectionRef);
+            qualifiers.add(AnyLiteral.INSTANCE);
+            return qualifiers;
+        }
+
+        @Override
+        public Class<? extends Annotation> getScope() {
+            return scope;
+        }
+
+        @Override
+        public Set<Class<? extends Annotation>> getStereotypes() {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public Set<Type> getTypes() {
+            return types;
+        }
+
+        @Override
+        public boolean isAlternative() {
+            return false;
+        }
+    }
+
+    private static class MongoCollectionProducerFactory<T>
+            implements InjectionTargetFactory<T> {
+        private final MongoCollectionRef collectionRef;
+        private final boolean cached;  // produce a CachedCollection instead of the MongoCollection
+
+        MongoCollectionProducerFactory(MongoCollectionRef collectionRef, boolean cached) {
+            this.collectionRef = collectionRef;
+            this.cached = cached;
+        }
+
+        @Override
+        public InjectionTarget<T> createInjectionTarget(Bean<T> bean) {
+            return new InjectionTarget<T>() {
+                @Override
+                public void inject(T instance, CreationalContext<T> ctx) {
+                }
+
+                @Override
+                public void postConstruct(T instance) {
+                }
+
+                @Override
+                public void preDestroy(T instance) {
+                }
+
+                @Override
+                public T produce(CreationalContext<T> ctx) {
+                    MongoClientConnectionsService connectionsService =
+                            (MongoClientConnectionsService) ConnectionServiceAccess.connection(collectionRef.profile());
+                    final String databaseName = collectionRef.database().isEmpty() ? null : collectionRef.database();
+                    final Class documentClass = collectionRef.documentClass() == Object.class ? null : collectionRef.documentClass();
+                    if (cached) {
+                        return (T) connectionsService.getCachedCollection(databaseName, collectionRef.name(), documentClass);
+                    }
+                    return (T) connectionsService.getCollection(databaseName, collectionRef.name(), documentClass);
+                }
+
+                @Override
+                public void dispose(T collection) {
+
+                }
+
+                @Override
+                public Set<InjectionPoint> getInjectionPoints() {
+                    return Collections.EMPTY_SET;
+                }
+            };
+        }
+    }
+
     private static class MongoDatabaseBeanAttributes<T> implements BeanAttributes<T> {
 
         private BeanAttributes<T> delegate;
-        private final String profile;
+        private final String profile;  // profile or profile/database name
 
         MongoDatabaseBeanAttributes(BeanAttributes<T> beanAttributes, String profile) {
             delegate = beanAttributes;
@@ -219,10 +439,12 @@ public class MongoExtension implements Extension {
     private static class MongoDatabaseProducerFactory<T>
             implements InjectionTargetFactory<T> {
         private final String profile;
+        private final String databaseName;  // null for the profile database
         private final Class mongoDatabaseClass;
 
-        MongoDatabaseProducerFactory(String profile, Class mongoDatabaseClass) {
+        MongoDatabaseProducerFactory(String profile, String databaseName, Class mongoDatabaseClass) {
             this.profile = profile;
+            this.databaseName = databaseName;
             this.mongoDatabaseClass = mongoDatabaseClass;
         }
 
@@ -244,6 +466,9 @@ public class MongoExtension implements Extension {
                 @Override
                 public T produce(CreationalContext<T> ctx) {
                     NoSQLConnection noSQLConnection = ConnectionServiceAccess.connection(profile);
+                    if (databaseName != null) {
+                        return (T)noSQLConnection.unwrap(mongoDatabaseClass, databaseName);
+                    }
                     return (T)noSQLConnection.unwrap(mongoDatabaseClass);
                 }
 
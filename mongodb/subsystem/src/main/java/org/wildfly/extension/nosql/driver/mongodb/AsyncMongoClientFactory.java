@@ -0,0 +1,321 @@
+/*
+ * Copyright 2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.nosql.driver.mongodb;
+
+import static org.wildfly.nosql.common.NoSQLLogger.ROOT_LOGGER;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.wildfly.nosql.common.MethodHandleBuilder;
+import org.wildfly.nosql.common.NoSQLConstants;
+
+/**
+ * AsyncMongoClientFactory creates the com.mongodb.async.client.MongoClient of a client-type="async" profile, from
+ * the same profile settings that {@link MongoInteraction} applies to the synchronous MongoClientOptions.
+ *
+ * The async driver is configured with the MongoClientSettings builder, which groups the settings into cluster,
+ * connection pool, socket, server and SSL settings.  The default (AsynchronousSocketChannel) stream factory of the
+ * async driver doesn't support SSL, so ssl="true" profiles always use the Netty transport.
+ *
+ * @author Scott Marlow
+ */
+class AsyncMongoClientFactory {
+
+    // MongoDB driver defaults, for computing the wait queue size from connectionsPerHost * threadsAllowedToBlockMultiplier
+    private static final int DEFAULT_CONNECTIONS_PER_HOST = 100;
+    private static final int DEFAULT_THREADS_ALLOWED_TO_BLOCK_MULTIPLIER = 5;
+
+    private final MongoInteraction mongoInteraction;
+    private final ConfigurationBuilder configurationBuilder;
+
+    private final MethodHandle createMethod;
+
+    private final MethodHandle settingsBuilderMethod;
+    private final MethodHandle clusterSettingsMethod;
+    private final MethodHandle credentialListMethod;
+    private final MethodHandle connectionPoolSettingsMethod;
+    private final MethodHandle socketSettingsMethod;
+    private final MethodHandle serverSettingsMethod;
+    private final MethodHandle sslSettingsMethod;
+    private final MethodHandle writeConcernMethod;
+    private final MethodHandle readConcernMethod;
+    private final MethodHandle readPreferenceMethod;
+    private final MethodHandle codecRegistryMethod;
+    private final MethodHandle streamFactoryFactoryMethod;
+    private final MethodHandle addCommandListenerMethod;  // null for MongoDB drivers older than 3.3
+    private final MethodHandle settingsBuildMethod;
+
+    private final MethodHandle clusterBuilderMethod;
+    private final MethodHandle hostsMethod;
+    private final MethodHandle modeMethod;
+    private final Object /* ClusterConnectionMode */ multipleMode;
+    private final MethodHandle descriptionMethod;
+    private final MethodHandle serverSelectionTimeoutMethod;
+    private final MethodHandle clusterBuildMethod;
+
+    private final MethodHandle poolBuilderMethod;
+    private final MethodHandle minSizeMethod;
+    private final MethodHandle maxSizeMethod;
+    private final MethodHandle maxWaitQueueSizeMethod;
+    private final MethodHandle maxWaitTimeMethod;
+    private final MethodHandle maxConnectionIdleTimeMethod;
+    private final MethodHandle maxConnectionLifeTimeMethod;
+    private final MethodHandle addConnectionPoolListenerMethod;  // null for MongoDB drivers older than 3.5
+    private final MethodHandle poolBuildMethod;
+
+    private final MethodHandle socketBuilderMethod;
+    private final MethodHandle connectTimeoutMethod;
+    private final MethodHandle readTimeoutMethod;
+    private final MethodHandle keepAliveMethod;  // null for MongoDB drivers that removed keepAlive
+    private final MethodHandle socketBuildMethod;
+
+    private final MethodHandle serverBuilderMethod;
+    private final MethodHandle heartbeatFrequencyMethod;
+    private final MethodHandle minHeartbeatFrequencyMethod;
+    private final MethodHandle serverBuildMethod;
+
+    private final MethodHandle sslBuilderMethod;
+    private final MethodHandle enabledMethod;
+    private final MethodHandle sslBuildMethod;
+
+    AsyncMongoClientFactory(MethodHandleBuilder methodHandleBuilder, MongoInteraction mongoInteraction) {
+        this.mongoInteraction = mongoInteraction;
+        // the interaction configuration is assigned before the interaction creates the factory
+        this.configurationBuilder = mongoInteraction.getConfigurationBuilder();
+
+        Class settingsClass = methodHandleBuilder.className(NoSQLConstants.MONGOASYNCCLIENTSETTINGSCLASS).getTargetClass();
+        Class settingsBuilderClass = methodHandleBuilder.className(NoSQLConstants.MONGOASYNCCLIENTSETTINGSBUILDERCLASS).getTargetClass();
+        Class clusterSettingsClass = methodHandleBuilder.className(NoSQLConstants.MONGOCLUSTERSETTINGSCLASS).getTargetClass();
+        Class clusterBuilderClass = methodHandleBuilder.className(NoSQLConstants.MONGOCLUSTERSETTINGSBUILDERCLASS).getTargetClass();
+        Class clusterConnectionModeClass = methodHandleBuilder.className(NoSQLConstants.MONGOCLUSTERCONNECTIONMODECLASS).getTargetClass();
+        Class poolSettingsClass = methodHandleBuilder.className(NoSQLConstants.MONGOCONNECTIONPOOLSETTINGSCLASS).getTargetClass();
+        Class poolBuilderClass = methodHandleBuilder.className(NoSQLConstants.MONGOCONNECTIONPOOLSETTINGSBUILDERCLASS).getTargetClass();
+        Class socketSettingsClass = methodHandleBuilder.className(NoSQLConstants.MONGOSOCKETSETTINGSCLASS).getTargetClass();
+        Class socketBuilderClass = methodHandleBuilder.className(NoSQLConstants.MONGOSOCKETSETTINGSBUILDERCLASS).getTargetClass();
+        Class serverSettingsClass = methodHandleBuilder.className(NoSQLConstants.MONGOSERVERSETTINGSCLASS).getTargetClass();
+        Class serverBuilderClass = methodHandleBuilder.className(NoSQLConstants.MONGOSERVERSETTINGSBUILDERCLASS).getTargetClass();
+        Class sslSettingsClass = methodHandleBuilder.className(NoSQLConstants.MONGOSSLSETTINGSCLASS).getTargetClass();
+        Class sslBuilderClass = methodHandleBuilder.className(NoSQLConstants.MONGOSSLSETTINGSBUILDERCLASS).getTargetClass();
+        Class writeConcernClass = methodHandleBuilder.className(NoSQLConstants.MONGOWRITECONCERNCLASS).getTargetClass();
+        Class readConcernClass = methodHandleBuilder.className(NoSQLConstants.MONGOREADCONCERNCLASS).getTargetClass();
+        Class readPreferenceClass = methodHandleBuilder.className(NoSQLConstants.MONGOREADPREFERENCECLASS).getTargetClass();
+        Class codecRegistryClass = methodHandleBuilder.className(NoSQLConstants.MONGOCODECREGISTRYCLASS).getTargetClass();
+        Class streamFactoryFactoryClass = methodHandleBuilder.className(NoSQLConstants.MONGOSTREAMFACTORYFACTORYCLASS).getTargetClass();
+        Class commandListenerClass = methodHandleBuilder.className(NoSQLConstants.MONGOCOMMANDLISTENERCLASS).getTargetClass();
+        Class connectionPoolListenerClass = methodHandleBuilder.className(NoSQLConstants.MONGOCONNECTIONPOOLLISTENERCLASS).getTargetClass();
+        Class asyncClientClass = methodHandleBuilder.className(NoSQLConstants.MONGOASYNCCLIENTCLASS).getTargetClass();
+
+        methodHandleBuilder.className(NoSQLConstants.MONGOASYNCCLIENTSCLASS);
+        // public static MongoClient create(MongoClientSettings settings)
+        createMethod = MethodHandleBuilder.erase(methodHandleBuilder.staticMethod("create", MethodType.methodType(asyncClientClass, settingsClass)));
+
+        methodHandleBuilder.className(NoSQLConstants.MONGOASYNCCLIENTSETTINGSCLASS);
+        settingsBuilderMethod = MethodHandleBuilder.erase(methodHandleBuilder.staticMethod("builder", MethodType.methodType(settingsBuilderClass)));
+        methodHandleBuilder.className(NoSQLConstants.MONGOASYNCCLIENTSETTINGSBUILDERCLASS);
+        clusterSettingsMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("clusterSettings", clusterSettingsClass));
+        credentialListMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("credentialList", List.class));
+        connectionPoolSettingsMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("connectionPoolSettings", poolSettingsClass));
+        socketSettingsMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("socketSettings", socketSettingsClass));
+        serverSettingsMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("serverSettings", serverSettingsClass));
+        sslSettingsMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("sslSettings", sslSettingsClass));
+        writeConcernMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("writeConcern", writeConcernClass));
+        readConcernMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("readConcern", readConcernClass));
+        readPreferenceMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("readPreference", readPreferenceClass));
+        codecRegistryMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("codecRegistry", codecRegistryClass));
+        streamFactoryFactoryMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("streamFactoryFactory", streamFactoryFactoryClass));
+        addCommandListenerMethod = optional(() -> MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("addCommandListener", commandListenerClass)));
+        settingsBuildMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("build"));
+
+        methodHandleBuilder.className(NoSQLConstants.MONGOCLUSTERSETTINGSCLASS);
+        clusterBuilderMethod = MethodHandleBuilder.erase(methodHandleBuilder.staticMethod("builder", MethodType.methodType(clusterBuilderClass)));
+        methodHandleBuilder.className(NoSQLConstants.MONGOCLUSTERSETTINGSBUILDERCLASS);
+        hostsMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("hosts", List.class));
+        modeMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("mode", clusterConnectionModeClass));
+        descriptionMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("description", String.class));
+        serverSelectionTimeoutMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("serverSelectionTimeout", long.class, TimeUnit.class));
+        clusterBuildMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("build"));
+        // same as the synchronous MongoClient(List<ServerAddress>), which always discovers the replica set members
+        multipleMode = Enum.valueOf(clusterConnectionModeClass, "MULTIPLE");
+
+        methodHandleBuilder.className(NoSQLConstants.MONGOCONNECTIONPOOLSETTINGSCLASS);
+        poolBuilderMethod = MethodHandleBuilder.erase(methodHandleBuilder.staticMethod("builder", MethodType.methodType(poolBuilderClass)));
+        methodHandleBuilder.className(NoSQLConstants.MONGOCONNECTIONPOOLSETTINGSBUILDERCLASS);
+        minSizeMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("minSize", int.class));
+        maxSizeMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("maxSize", int.class));
+        maxWaitQueueSizeMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("maxWaitQueueSize", int.class));
+        maxWaitTimeMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("maxWaitTime", long.class, TimeUnit.class));
+        maxConnectionIdleTimeMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("maxConnectionIdleTime", long.class, TimeUnit.class));
+        maxConnectionLifeTimeMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("maxConnectionLifeTime", long.class, TimeUnit.class));
+        addConnectionPoolListenerMethod = optional(() -> MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("addConnectionPoolListener", connectionPoolListenerClass)));
+        poolBuildMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("build"));
+
+        methodHandleBuilder.className(NoSQLConstants.MONGOSOCKETSETTINGSCLASS);
+        socketBuilderMethod = MethodHandleBuilder.erase(methodHandleBuilder.staticMethod("builder", MethodType.methodType(socketBuilderClass)));
+        methodHandleBuilder.className(NoSQLConstants.MONGOSOCKETSETTINGSBUILDERCLASS);
+        connectTimeoutMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("connectTimeout", int.class, TimeUnit.class));
+        readTimeoutMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("readTimeout", int.class, TimeUnit.class));
+        keepAliveMethod = optional(() -> MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("keepAlive", boolean.class)));
+        socketBuildMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("build"));
+
+        methodHandleBuilder.className(NoSQLConstants.MONGOSERVERSETTINGSCLASS);
+        serverBuilderMethod = MethodHandleBuilder.erase(methodHandleBuilder.staticMethod("builder", MethodType.methodType(serverBuilderClass)));
+        methodHandleBuilder.className(NoSQLConstants.MONGOSERVERSETTINGSBUILDERCLASS);
+        heartbeatFrequencyMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("heartbeatFrequency", long.class, TimeUnit.class));
+        minHeartbeatFrequencyMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("minHeartbeatFrequency", long.class, TimeUnit.class));
+        serverBuildMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("build"));
+
+        methodHandleBuilder.className(NoSQLConstants.MONGOSSLSETTINGSCLASS);
+        sslBuilderMethod = MethodHandleBuilder.erase(methodHandleBuilder.staticMethod("builder", MethodType.methodType(sslBuilderClass)));
+        methodHandleBuilder.className(NoSQLConstants.MONGOSSLSETTINGSBUILDERCLASS);
+        enabledMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("enabled", boolean.class));
+        sslBuildMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("build"));
+    }
+
+    private static MethodHandle optional(Supplier<MethodHandle> lookup) {
+        try {
+            return lookup.get();
+        } catch (RuntimeException olderDriver) {
+            return null;
+        }
+    }
+
+    /**
+     * create the async MongoClient.
+     *
+     * @param serverAddressList is the List<ServerAddress> of the profile hosts
+     * @param mongoCredential is the List<MongoCredential> or null
+     * @return com.mongodb.async.client.MongoClient
+     */
+    Object /* com.mongodb.async.client.MongoClient */ mongoClient(List serverAddressList, List mongoCredential) throws Throwable {
+        Object builder = (Object) settingsBuilderMethod.invokeExact();
+        clusterSettingsMethod.invokeExact(builder, clusterSettings(serverAddressList));
+        if (mongoCredential != null && mongoCredential.size() > 0) {
+            credentialListMethod.invokeExact(builder, mongoCredential);
+        }
+        connectionPoolSettingsMethod.invokeExact(builder, connectionPoolSettings());
+        socketSettingsMethod.invokeExact(builder, socketSettings());
+        serverSettingsMethod.invokeExact(builder, serverSettings());
+        if (configurationBuilder.isSSL()) {
+            Object sslBuilder = (Object) sslBuilderMethod.invokeExact();
+            enabledMethod.invokeExact(sslBuilder, true);
+            sslSettingsMethod.invokeExact(builder, (Object) sslBuildMethod.invokeExact(sslBuilder));
+        }
+        if (configurationBuilder.getWriteConcern() != null) {
+            writeConcernMethod.invokeExact(builder, mongoInteraction.writeConcern());
+        }
+        if (configurationBuilder.getReadConcern() != null) {
+            readConcernMethod.invokeExact(builder, mongoInteraction.readConcern());
+        }
+        if (mongoInteraction.hasReadPreference()) {
+            readPreferenceMethod.invokeExact(builder, mongoInteraction.readPreference());
+        }
+        if (configurationBuilder.isRawBson()) {
+            codecRegistryMethod.invokeExact(builder, mongoInteraction.rawBsonCodecRegistry());
+        }
+        if (mongoInteraction.isNettyTransport() || configurationBuilder.isSSL()) {
+            if (!mongoInteraction.isNettyTransport()) {
+                ROOT_LOGGER.debugf("async MongoDB profile %s uses the Netty transport for SSL", configurationBuilder.getDescription());
+            }
+            streamFactoryFactoryMethod.invokeExact(builder, mongoInteraction.nettyStreamFactoryFactory());
+        }
+        if (addCommandListenerMethod != null) {
+            addCommandListenerMethod.invokeExact(builder, mongoInteraction.getCommandListener());
+        } else {
+            ROOT_LOGGER.debugf("command metrics are not available for async MongoDB profile %s", configurationBuilder.getDescription());
+        }
+        Object settings = (Object) settingsBuildMethod.invokeExact(builder);
+        return (Object) createMethod.invokeExact(settings);
+    }
+
+    private Object /* ClusterSettings */ clusterSettings(List serverAddressList) throws Throwable {
+        Object builder = (Object) clusterBuilderMethod.invokeExact();
+        hostsMethod.invokeExact(builder, serverAddressList);
+        modeMethod.invokeExact(builder, multipleMode);
+        descriptionMethod.invokeExact(builder, configurationBuilder.getDescription());
+        if (configurationBuilder.getServerSelectionTimeout() != null) {
+            serverSelectionTimeoutMethod.invokeExact(builder, configurationBuilder.getServerSelectionTimeout().longValue(), TimeUnit.MILLISECONDS);
+        }
+        if (configurationBuilder.getLocalThreshold() != null) {
+            // ClusterSettings localThreshold is not available in the MongoDB 3.x async driver
+            ROOT_LOGGER.debugf("localThreshold is ignored by async MongoDB profile %s", configurationBuilder.getDescription());
+        }
+        return (Object) clusterBuildMethod.invokeExact(builder);
+    }
+
+    private Object /* ConnectionPoolSettings */ connectionPoolSettings() throws Throwable {
+        Object builder = (Object) poolBuilderMethod.invokeExact();
+        if (configurationBuilder.getMinConnectionsPerHost() != null) {
+            minSizeMethod.invokeExact(builder, configurationBuilder.getMinConnectionsPerHost().intValue());
+        }
+        if (configurationBuilder.getConnectionsPerHost() != null) {
+            maxSizeMethod.invokeExact(builder, configurationBuilder.getConnectionsPerHost().intValue());
+        }
+        if (configurationBuilder.getConnectionsPerHost() != null || configurationBuilder.getThreadsAllowedToBlockMultiplier() != null) {
+            // MongoClientOptions derives the wait queue size the same way
+            final int connectionsPerHost = configurationBuilder.getConnectionsPerHost() != null ?
+                    configurationBuilder.getConnectionsPerHost() : DEFAULT_CONNECTIONS_PER_HOST;
+            final int multiplier = configurationBuilder.getThreadsAllowedToBlockMultiplier() != null ?
+                    configurationBuilder.getThreadsAllowedToBlockMultiplier() : DEFAULT_THREADS_ALLOWED_TO_BLOCK_MULTIPLIER;
+            maxWaitQueueSizeMethod.invokeExact(builder, connectionsPerHost * multiplier);
+        }
+        if (configurationBuilder.getMaxWaitTime() != null) {
+            maxWaitTimeMethod.invokeExact(builder, configurationBuilder.getMaxWaitTime().longValue(), TimeUnit.MILLISECONDS);
+        }
+        if (configurationBuilder.getMaxConnectionIdleTime() != null) {
+            maxConnectionIdleTimeMethod.invokeExact(builder, configurationBuilder.getMaxConnectionIdleTime().longValue(), TimeUnit.MILLISECONDS);
+        }
+        if (configurationBuilder.getMaxConnectionLifeTime() != null) {
+            maxConnectionLifeTimeMethod.invokeExact(builder, configurationBuilder.getMaxConnectionLifeTime().longValue(), TimeUnit.MILLISECONDS);
+        }
+        if (addConnectionPoolListenerMethod != null) {
+            addConnectionPoolListenerMethod.invokeExact(builder, mongoInteraction.getConnectionPoolListener());
+        }
+        return (Object) poolBuildMethod.invokeExact(builder);
+    }
+
+    private Object /* SocketSettings */ socketSettings() throws Throwable {
+        Object builder = (Object) socketBuilderMethod.invokeExact();
+        if (configurationBuilder.getConnectTimeout() != null) {
+            connectTimeoutMethod.invokeExact(builder, configurationBuilder.getConnectTimeout().intValue(), TimeUnit.MILLISECONDS);
+        }
+        if (configurationBuilder.getSocketTimeout() != null) {
+            readTimeoutMethod.invokeExact(builder, configurationBuilder.getSocketTimeout().intValue(), TimeUnit.MILLISECONDS);
+        }
+        if (configurationBuilder.getSocketKeepAlive() != null) {
+            if (keepAliveMethod == null) {
+                throw new RuntimeException("socketKeepAlive is not supported by the MongoDB Java driver, keep alive is always enabled");
+            }
+            keepAliveMethod.invokeExact(builder, configurationBuilder.getSocketKeepAlive().booleanValue());
+        }
+        return (Object) socketBuildMethod.invokeExact(builder);
+    }
+
+    private Object /* ServerSettings */ serverSettings() throws Throwable {
+        Object builder = (Object) serverBuilderMethod.invokeExact();
+        if (configurationBuilder.getHeartbeatFrequency() != null) {
+            heartbeatFrequencyMethod.invokeExact(builder, configurationBuilder.getHeartbeatFrequency().longValue(), TimeUnit.MILLISECONDS);
+        }
+        if (configurationBuilder.getMinHeartbeatFrequency() != null) {
+            minHeartbeatFrequencyMethod.invokeExact(builder, configurationBuilder.getMinHeartbeatFrequency().longValue(), TimeUnit.MILLISECONDS);
+        }
+        return (Object) serverBuildMethod.invokeExact(builder);
+    }
+}
@@ -0,0 +1,383 @@
+/*
+ * Copyright 2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.nosql.driver.mongodb;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jboss.modules.ModuleIdentifier;
+import org.wildfly.nosql.common.MethodHandleBuilder;
+import org.wildfly.nosql.common.NoSQLConstants;
+
+/**
+ * BulkWriteCoalescer collects the writes of many threads into per collection queues, that are sent as unordered
+ * MongoCollection.bulkWrite calls, when the bulk-write-batch-size is reached or after the bulk-write-flush-interval.
+ *
+ * Obtain the coalescer of a MongoDB profile via NoSQLConnection.unwrap(BulkWriteCoalescer.class).  Collections are
+ * named "collection" (in the profile database) or "database/collection".
+ *
+ * Ex:
+ * <pre>
+ *   BulkWriteCoalescer coalescer = ConnectionServiceAccess.connection("MyMongoDB").unwrap(BulkWriteCoalescer.class);
+ *   coalescer.insertOne("events", new Document("type", "click")).whenComplete(...);
+ * </pre>
+ *
+ * The returned CompletionStage is completed by the flushing thread, use the *Async CompletionStage methods for
+ * anything more than trivial work.  As the bulk writes are unordered, writes to the same collection may be applied
+ * in a different order than they were submitted.
+ *
+ * @author Scott Marlow
+ */
+public class BulkWriteCoalescer {
+
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final int DEFAULT_FLUSH_INTERVAL = 10;  // milliseconds
+    private static final int FLUSH_THREADS = 2;
+
+    private final MongoClientConnectionsService connectionsService;
+    private final String profile;
+    private final int batchSize;
+    private final ConcurrentMap<String, WriteQueue> queues = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor executor;
+    private volatile boolean closed;
+
+    private final MethodHandle bulkWriteMethod;
+    private final MethodHandle insertOneModelCtor;
+    private final MethodHandle updateOneModelCtor;
+    private final Class bulkWriteExceptionClass;
+    private final MethodHandle getWriteErrorsMethod;
+    private final MethodHandle getWriteConcernErrorMethod;
+    private final MethodHandle getIndexMethod;
+    private final Object /* BulkWriteOptions */ unorderedOptions;
+
+    // metrics
+    private final LongAdder queueDepth = new LongAdder();
+    private final LongAdder flushCount = new LongAdder();
+    private final LongAdder flushedWrites = new LongAdder();
+    private final LongAdder flushNanos = new LongAdder();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+
+    BulkWriteCoalescer(MongoClientConnectionsService connectionsService, ConfigurationBuilder configurationBuilder) {
+        this.connectionsService = connectionsService;
+        this.profile = configurationBuilder.getDescription();
+        this.batchSize = configurationBuilder.getBulkWriteBatchSize() != null ? configurationBuilder.getBulkWriteBatchSize() : DEFAULT_BATCH_SIZE;
+        final int flushInterval = configurationBuilder.getBulkWriteFlushInterval() != null ? configurationBuilder.getBulkWriteFlushInterval() : DEFAULT_FLUSH_INTERVAL;
+
+        MethodHandleBuilder methodHandleBuilder = new MethodHandleBuilder();
+        methodHandleBuilder.classLoader(ModuleIdentifier.fromString(configurationBuilder.getModuleName()));
+        Class bsonClass = methodHandleBuilder.className(NoSQLConstants.MONGOBSONCLASS).getTargetClass();
+        Class bulkWriteOptionsClass = methodHandleBuilder.className(NoSQLConstants.MONGOBULKWRITEOPTIONSCLASS).getTargetClass();
+        MethodHandle bulkWriteOptionsCtor = MethodHandleBuilder.erase(methodHandleBuilder.constructor(MethodType.methodType(void.class)));
+        MethodHandle orderedMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("ordered", boolean.class));
+        methodHandleBuilder.className(NoSQLConstants.MONGOCOLLECTIONCLASS);
+        // BulkWriteResult bulkWrite(List<? extends WriteModel<? extends TDocument>> requests, BulkWriteOptions options)
+        // the BulkWriteResult is not needed, the pending writes are completed with null
+        bulkWriteMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("bulkWrite", List.class, bulkWriteOptionsClass));
+        methodHandleBuilder.className(NoSQLConstants.MONGOINSERTONEMODELCLASS);
+        insertOneModelCtor = MethodHandleBuilder.erase(methodHandleBuilder.constructor(MethodType.methodType(void.class, Object.class)));
+        methodHandleBuilder.className(NoSQLConstants.MONGOUPDATEONEMODELCLASS);
+        updateOneModelCtor = MethodHandleBuilder.erase(methodHandleBuilder.constructor(MethodType.methodType(void.class, bsonClass, bsonClass)));
+        bulkWriteExceptionClass = methodHandleBuilder.className(NoSQLConstants.MONGOBULKWRITEEXCEPTIONCLASS).getTargetClass();
+        getWriteErrorsMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("getWriteErrors"));
+        getWriteConcernErrorMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("getWriteConcernError"));
+        methodHandleBuilder.className(NoSQLConstants.MONGOBULKWRITEERRORCLASS);
+        getIndexMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("getIndex"));
+        try {
+            unorderedOptions = (Object) bulkWriteOptionsCtor.invokeExact();
+            orderedMethod.invokeExact(unorderedOptions, false);
+        } catch (Throwable throwable) {
+            throw new RuntimeException("could not create BulkWriteOptions for " + profile, throwable);
+        }
+
+        final AtomicInteger threadNumber = new AtomicInteger(1);
+        executor = new ScheduledThreadPoolExecutor(FLUSH_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "MongoDB bulk write " + profile + " " + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::flushAll, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * queue a write for the next bulkWrite call of the collection.
+     *
+     * @param collectionName is "collection" or "database/collection"
+     * @param writeModel is the com.mongodb.client.model.WriteModel (e.g. InsertOneModel, UpdateOneModel, DeleteOneModel)
+     * @return completed when the write is acknowledged or failed
+     */
+    public CompletionStage<Void> write(String collectionName, Object /* WriteModel */ writeModel) {
+        final PendingWrite pendingWrite = new PendingWrite(writeModel);
+        if (closed) {
+            pendingWrite.completeExceptionally(new IllegalStateException("MongoDB profile " + profile + " is stopped"));
+            return pendingWrite;
+        }
+        WriteQueue queue = queues.get(collectionName);
+        if (queue == null) {
+            queue = queues.computeIfAbsent(collectionName, WriteQueue::new);
+        }
+        queue.writes.add(pendingWrite);
+        queueDepth.increment();
+        final int size = queue.size.incrementAndGet();
+        if (closed) {
+            // close() raced with this write and may have done its final drain before the write was queued.
+            // Either take the write back and fail it, or the drain already took it and completes it.
+            if (queue.writes.remove(pendingWrite)) {
+                queue.size.decrementAndGet();
+                queueDepth.decrement();
+                pendingWrite.completeExceptionally(new IllegalStateException("MongoDB profile " + profile + " is stopped"));
+            }
+            return pendingWrite;
+        }
+        if (size >= batchSize) {
+            queue.scheduleFlush();
+        }
+        return pendingWrite;
+    }
+
+    /**
+     * queue an insertOne for the next bulkWrite call of the collection.
+     *
+     * @param collectionName is "collection" or "database/collection"
+     * @param document is the document to insert
+     * @return completed when the insert is acknowledged or failed
+     */
+    public CompletionStage<Void> insertOne(String collectionName, Object document) {
+        final Object writeModel;
+        try {
+            writeModel = (Object) insertOneModelCtor.invokeExact(document);
+        } catch (Throwable throwable) {
+            return failed(throwable);
+        }
+        return write(collectionName, writeModel);
+    }
+
+    /**
+     * queue an updateOne for the next bulkWrite call of the collection.
+     *
+     * @param collectionName is "collection" or "database/collection"
+     * @param filter is the org.bson.conversions.Bson filter
+     * @param update is the org.bson.conversions.Bson update
+     * @return completed when the update is acknowledged or failed
+     */
+    public CompletionStage<Void> updateOne(String collectionName, Object /* Bson */ filter, Object /* Bson */ update) {
+        final Object writeModel;
+        try {
+            writeModel = (Object) updateOneModelCtor.invokeExact(filter, update);
+        } catch (Throwable throwable) {
+            return failed(throwable);
+        }
+        return write(collectionName, writeModel);
+    }
+
+    private static CompletionStage<Void> failed(Throwable throwable) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        result.completeExceptionally(throwable);
+        return result;
+    }
+
+    private void flushAll() {
+        for (WriteQueue queue : queues.values()) {
+            if (queue.size.get() > 0 && queue.flushing.compareAndSet(false, true)) {
+                queue.flush();
+            }
+        }
+    }
+
+    private void bulkWrite(String collectionName, List<PendingWrite> batch) {
+        final long startTime = System.nanoTime();
+        try {
+            final List writeModels = new ArrayList(batch.size());
+            for (PendingWrite pendingWrite : batch) {
+                writeModels.add(pendingWrite.writeModel);
+            }
+            final int separator = collectionName.indexOf('/');
+            final Object collection = separator > 0 ?
+                    connectionsService.getCollection(collectionName.substring(0, separator), collectionName.substring(separator + 1), null) :
+                    connectionsService.getCollection(null, collectionName, null);
+            bulkWriteMethod.invokeExact(collection, writeModels, unorderedOptions);
+            for (PendingWrite pendingWrite : batch) {
+                pendingWrite.complete(null);
+            }
+        } catch (Throwable throwable) {
+            failed(batch, throwable);
+        } finally {
+            final long elapsed = System.nanoTime() - startTime;
+            flushCount.increment();
+            flushedWrites.add(batch.size());
+            flushNanos.add(elapsed);
+            long max = maxFlushNanos.get();
+            while (elapsed > max && !maxFlushNanos.compareAndSet(max, elapsed)) {
+                max = maxFlushNanos.get();
+            }
+        }
+    }
+
+    private void failed(List<PendingWrite> batch, Throwable throwable) {
+        try {
+            if (bulkWriteExceptionClass.isInstance(throwable) && (Object) getWriteConcernErrorMethod.invokeExact((Object) throwable) == null) {
+                // the bulk write is unordered, so only the writes that have a write error failed
+                for (Object writeError : (List) getWriteErrorsMethod.invokeExact((Object) throwable)) {
+                    batch.get((int) getIndexMethod.invokeExact(writeError)).completeExceptionally(throwable);
+                }
+                for (PendingWrite pendingWrite : batch) {
+                    pendingWrite.complete(null);  // no-op for the failed writes
+                }
+                return;
+            }
+        } catch (Throwable unexpected) {
+            throwable.addSuppressed(unexpected);
+        }
+        for (PendingWrite pendingWrite : batch) {
+            pendingWrite.completeExceptionally(throwable);
+        }
+    }
+
+    /**
+     * flush the pending writes and stop accepting new writes, called when the profile is stopped.  closed is set
+     * before the final drain, so a write that doesn't see closed after queueing itself is seen by the drain.
+     */
+    void close() {
+        closed = true;
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        // writes that were queued while closing
+        for (WriteQueue queue : queues.values()) {
+            if (queue.flushing.compareAndSet(false, true)) {
+                queue.flush();
+            }
+            PendingWrite pendingWrite;
+            while ((pendingWrite = queue.writes.poll()) != null) {
+                queueDepth.decrement();
+                pendingWrite.completeExceptionally(new IllegalStateException("MongoDB profile " + profile + " is stopped"));
+            }
+        }
+    }
+
+    /**
+     * @return number of writes that are waiting to be flushed
+     */
+    public long getQueueDepth() {
+        return queueDepth.sum();
+    }
+
+    /**
+     * @return number of bulkWrite calls
+     */
+    public long getFlushCount() {
+        return flushCount.sum();
+    }
+
+    /**
+     * @return number of writes that were flushed
+     */
+    public long getFlushedWrites() {
+        return flushedWrites.sum();
+    }
+
+    /**
+     * @return total time spent in bulkWrite calls
+     */
+    public long getFlushNanos() {
+        return flushNanos.sum();
+    }
+
+    /**
+     * @return longest bulkWrite call
+     */
+    public long getMaxFlushNanos() {
+        return maxFlushNanos.get();
+    }
+
+    private static final class PendingWrite extends CompletableFuture<Void> {
+        private final Object writeModel;
+
+        private PendingWrite(Object writeModel) {
+            this.writeModel = writeModel;
+        }
+    }
+
+    private final class WriteQueue {
+        private final String collectionName;
+        private final ConcurrentLinkedQueue<PendingWrite> writes = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean flushing = new AtomicBoolean();  // only one flush per queue at a time
+
+        private WriteQueue(String collectionName) {
+            this.collectionName = collectionName;
+        }
+
+        private void scheduleFlush() {
+            if (closed) {
+                return;  // the executor is (being) shut down, close() does the final flush
+            }
+            if (flushing.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::flush);
+                } catch (RejectedExecutionException closing) {
+                    flushing.set(false);
+                }
+            }
+        }
+
+        /**
+         * send the writes that are queued when the flush starts, in batches of up to batchSize writes.
+         * The caller must have set flushing.
+         */
+        private void flush() {
+            try {
+                int remaining = size.get();
+                while (remaining > 0) {
+                    final List<PendingWrite> batch = new ArrayList<>(Math.min(remaining, batchSize));
+                    PendingWrite pendingWrite;
+                    while (batch.size() < batchSize && (pendingWrite = writes.poll()) != null) {
+                        batch.add(pendingWrite);
+                    }
+                    if (batch.isEmpty()) {
+                        break;
+                    }
+                    size.addAndGet(-batch.size());
+                    queueDepth.add(-batch.size());
+                    remaining -= batch.size();
+                    bulkWrite(collectionName, batch);
+                }
+            } finally {
+                flushing.set(false);
+            }
+            if (size.get() >= batchSize && !closed) {
+                scheduleFlush();
+            }
+        }
+    }
+}
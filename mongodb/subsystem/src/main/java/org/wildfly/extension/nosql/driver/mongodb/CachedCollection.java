@@ -0,0 +1,181 @@
+/*
+ * Copyright 2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wildfly.extension.nosql.driver.mongodb;
+
+import java.util.List;
+
+/**
+ * CachedCollection is the {@link QueryCache} view of a MongoCollection.  Query results are read through the query
+ * cache of the MongoDB profile, while writes go to the MongoCollection and then evict the cached results of the
+ * collection.
+ *
+ * Ex:
+ * <pre>
+ *   &#064;Inject &#064;MongoCollectionRef(profile = "MyMongoDB", name = "countries")
+ *   CachedCollection&lt;Document&gt; countries;
+ *
+ *   List&lt;Document&gt; europe = countries.find(Filters.eq("continent", "Europe"), null, Sorts.ascending("name"), 0);
+ * </pre>
+ *
+ * The returned lists are shared with other callers and are unmodifiable, the documents should not be modified either.
+ *
+ * @param <TDocument> is the class of the collection documents
+ * @author Scott Marlow
+ */
+public class CachedCollection<TDocument> {
+
+    private final QueryCache queryCache;
+    private final String namespace;  // database/collection
+    private final Object /* MongoCollection */ collection;
+    final Class documentClass;
+    final Object /* CodecRegistry */ codecRegistry;
+
+    CachedCollection(QueryCache queryCache, String namespace, Object collection, Class documentClass, Object codecRegistry) {
+        this.queryCache = queryCache;
+        this.namespace = namespace;
+        this.collection = collection;
+        this.documentClass = documentClass;
+        this.codecRegistry = codecRegistry;
+    }
+
+    /**
+     * @param filter is the org.bson.conversions.Bson query filter or null for all documents
+     * @return matching documents
+     */
+    public List<TDocument> find(Object /* Bson */ filter) {
+        return find(filter, null, null, 0);
+    }
+
+    /**
+     * @param filter is the org.bson.conversions.Bson query filter or null for all documents
+     * @param projection is the org.bson.conversions.Bson projection or null for the complete documents
+     * @param sort is the org.bson.conversions.Bson sort criteria or null
+     * @param limit is the maximum number of documents or 0 for no limit
+     * @return matching documents
+     */
+    public List<TDocument> find(Object /* Bson */ filter, Object /* Bson */ projection, Object /* Bson */ sort, int limit) {
+        return (List<TDocument>) queryCache.find(this, filter, projection, sort, limit);
+    }
+
+    public void insertOne(TDocument document) {
+        try {
+            queryCache.insertOneMethod.invokeExact(collection, (Object) document);
+        } catch (Throwable throwable) {
+            throw QueryCache.propagate(throwable);
+        } finally {
+            invalidate();
+        }
+    }
+
+    public void insertMany(List<? extends TDocument> documents) {
+        try {
+            queryCache.insertManyMethod.invokeExact(collection, (List) documents);
+        } catch (Throwable throwable) {
+            throw QueryCache.propagate(throwable);
+        } finally {
+            invalidate();
+        }
+    }
+
+    /**
+     * @return com.mongodb.client.result.UpdateResult
+     */
+    public Object updateOne(Object /* Bson */ filter, Object /* Bson */ update) {
+        try {
+            return (Object) queryCache.updateOneMethod.invokeExact(collection, filter, update);
+        } catch (Throwable throwable) {
+            throw QueryCache.propagate(throwable);
+        } finally {
+            invalidate();
+        }
+    }
+
+    /**
+     * @return com.mongodb.client.result.UpdateResult
+     */
+    public Object updateMany(Object /* Bson */ filter, Object /* Bson */ update) {
+        try {
+            return (Object) queryCache.updateManyMethod.invokeExact(collection, filter, update);
+        } catch (Throwable throwable) {
+            throw QueryCache.propagate(throwable);
+        } finally {
+            invalidate();
+        }
+    }
+
+    /**
+     * @return com.mongodb.client.result.UpdateResult
+     */
+    public Object replaceOne(Object /* Bson */ filter, TDocument replacement) {
+        try {
+            return (Object) queryCache.replaceOneMethod.invokeExact(collection, filter, (Object) replacement);
+        } catch (Throwable throwable) {
+            throw QueryCache.propagate(throwable);
+        } finally {
+            invalidate();
+        }
+    }
+
+    /**
+     * @return com.mongodb.client.result.DeleteResult
+     */
+    public Object deleteOne(Object /* Bson */ filter) {
+        try {
+            return (Object) queryCache.deleteOneMethod.invokeExact(collection, filter);
+        } catch (Throwable throwable) {
+            throw QueryCache.propagate(throwable);
+        } finally {
+            invalidate();
+        }
+    }
+
+    /**
+     * @return com.mongodb.client.result.DeleteResult
+     */
+    public Object deleteMany(Object /* Bson */ filter) {
+        try {
+            return (Object) queryCache.deleteManyMethod.invokeExact(collection, filter);
+        } catch (Throwable throwable) {
+            throw QueryCache.propagate(throwable);
+        } finally {
+            invalidate();
+        }
+    }
+
+    /**
+     * evict the cached results of this collection, which is needed after writing to the collection without
+     * using this CachedCollection.
+     */
+    public void invalidate() {
+        queryCache.invalidate(namespace);
+    }
+
+    /**
+     * @return "database/collection" name
+     */
+    public String getNamespace() {
+        return namespace;
+    }
+
+    /**
+     * @return the underlying com.mongodb.client.MongoCollection, writes made to it are not seen by the query cache
+     */
+    public Object /* MongoCollection */ getCollection() {
+        return collection;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.nosql.driver.mongodb;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.wildfly.nosql.common.MethodHandleBuilder;
+import org.wildfly.nosql.common.NoSQLConstants;
+
+/**
+ * CommandMetrics records the count, failures and latency of each MongoDB command (find, insert, update...) that is
+ * sent by the MongoClient, via a com.mongodb.event.CommandListener.
+ *
+ * Latencies are counted in log-linear buckets, each power of two range of microseconds [2^N, 2^(N+1)) is split into
+ * four linear buckets, so the bucket width is a quarter of its lower bound (one microsecond below 8 microseconds).
+ * The last bucket is for commands that took 2^22 microseconds (~4.2 seconds) or more and has no upper bound.
+ * Recording a command only allocates the first time that the command name is seen.
+ *
+ * @author Scott Marlow
+ */
+public class CommandMetrics implements InvocationHandler {
+
+    // linear sub-buckets per power of two
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // last bounded bucket is < 2^22 microseconds (~4.2 seconds)
+    private static final int MAX_EXPONENT = 22;
+    public static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + 1;
+
+    private final ConcurrentMap<String, CommandStatistics> commands = new ConcurrentHashMap<>();
+    private final Class commandListenerClass;
+    private final MethodHandle getCommandNameMethod;
+    private final MethodHandle succeededElapsedTimeMethod;
+    private final MethodHandle failedElapsedTimeMethod;
+
+    CommandMetrics(MethodHandleBuilder methodHandleBuilder) {
+        commandListenerClass = methodHandleBuilder.className(NoSQLConstants.MONGOCOMMANDLISTENERCLASS).getTargetClass();
+        methodHandleBuilder.className(NoSQLConstants.MONGOCOMMANDEVENTCLASS);
+        getCommandNameMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("getCommandName"));
+        methodHandleBuilder.className(NoSQLConstants.MONGOCOMMANDSUCCEEDEDEVENTCLASS);
+        succeededElapsedTimeMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("getElapsedTime", TimeUnit.class));
+        methodHandleBuilder.className(NoSQLConstants.MONGOCOMMANDFAILEDEVENTCLASS);
+        failedElapsedTimeMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("getElapsedTime", TimeUnit.class));
+    }
+
+    /**
+     * @return com.mongodb.event.CommandListener that records into this CommandMetrics
+     */
+    Object /* CommandListener */ listener() {
+        return Proxy.newProxyInstance(commandListenerClass.getClassLoader(), new Class[]{commandListenerClass}, this);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "commandSucceeded":
+                record(args[0], (long) succeededElapsedTimeMethod.invokeExact(args[0], TimeUnit.NANOSECONDS), false);
+                return null;
+            case "commandFailed":
+                record(args[0], (long) failedElapsedTimeMethod.invokeExact(args[0], TimeUnit.NANOSECONDS), true);
+                return null;
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return getClass().getSimpleName();
+            default:  // commandStarted
+                return null;
+        }
+    }
+
+    private void record(Object /* CommandEvent */ event, long elapsedNanos, boolean failed) throws Throwable {
+        final String commandName = (String) getCommandNameMethod.invokeExact(event);
+        CommandStatistics statistics = commands.get(commandName);
+        if (statistics == null) {
+            statistics = commands.computeIfAbsent(commandName, name -> new CommandStatistics());
+        }
+        statistics.record(elapsedNanos, failed);
+    }
+
+    /**
+     * @return statistics of each command name that was sent since the profile was started
+     */
+    public Map<String, CommandStatistics> getCommands() {
+        return Collections.unmodifiableMap(commands);
+    }
+
+    /**
+     * @param bucket is the latency bucket index
+     * @return exclusive upper bound (in microseconds) of the bucket or -1 for the last (unbounded) bucket
+     */
+    public static long bucketUpperBoundMicros(int bucket) {
+        if (bucket >= BUCKETS - 1) {
+            return -1;
+        }
+        if (bucket < SUB_BUCKETS) {
+            return bucket + 1;
+        }
+        // bucket group G covers [2^(G + SUB_BUCKET_BITS - 1), 2^(G + SUB_BUCKET_BITS)) in buckets of width 2^(G - 1)
+        final int group = bucket / SUB_BUCKETS;
+        final long width = 1L << (group - 1);
+        return (1L << (group + SUB_BUCKET_BITS - 1)) + (bucket % SUB_BUCKETS + 1) * width;
+    }
+
+    static int bucket(long elapsedNanos) {
+        final long micros = TimeUnit.NANOSECONDS.toMicros(elapsedNanos);
+        if (micros < SUB_BUCKETS) {
+            return (int) Math.max(micros, 0);
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent >= MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        // the SUB_BUCKET_BITS below the highest one bit select the linear sub-bucket
+        final int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    public static final class CommandStatistics {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLongArray latencyBuckets = new AtomicLongArray(BUCKETS);
+
+        private void record(long elapsedNanos, boolean failed) {
+            count.increment();
+            if (failed) {
+                failures.increment();
+            }
+            totalNanos.add(elapsedNanos);
+            latencyBuckets.incrementAndGet(bucket(elapsedNanos));
+            long max = maxNanos.get();
+            while (elapsedNanos > max && !maxNanos.compareAndSet(max, elapsedNanos)) {
+                max = maxNanos.get();
+            }
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        public long getLatencyBucket(int bucket) {
+            return latencyBuckets.get(bucket);
+        }
+    }
+}
@@ -16,6 +16,10 @@
 
 package org.wildfly.extension.nosql.driver.mongodb;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * ConfigurationBuilder
  *
@@ -31,9 +35,37 @@ public class ConfigurationBuilder {
             defaultModuleName;
     private String writeConcern;
     private String readConcern;
+    private String readPreference;
+    private String readPreferenceTags;
+    private Long maxStaleness;
+    private Integer localThreshold;
+    private Integer connectTimeout;
+    private Integer socketTimeout;
+    private Boolean socketKeepAlive;
+    private Integer serverSelectionTimeout;
+    private Integer heartbeatFrequency;
+    private Integer minHeartbeatFrequency;
     private String securityDomain;
     private AuthType authType;
     private boolean SSL;
+    private boolean asyncStart;
+    private boolean lazyConnect;
+    private Integer minConnectionsPerHost;
+    private Integer connectionsPerHost;
+    private Integer threadsAllowedToBlockMultiplier;
+    private Integer maxWaitTime;
+    private Integer maxConnectionIdleTime;
+    private Integer maxConnectionLifeTime;
+    private String databases;
+    private Integer bulkWriteBatchSize;
+    private Integer bulkWriteFlushInterval;
+    private boolean rawBson;
+    private String transport;
+    private String clientType;
+    private Long queryCacheMaxSize;
+    private Long queryCacheExpireAfterWrite;
+    private boolean oplogTailer;
+    private String oplogNamespaces;
 
     public AuthType getAuthType() {
         return authType;
@@ -108,6 +140,96 @@ public class ConfigurationBuilder {
         return this;
     }
 
+    public String getReadPreference() {
+        return readPreference;
+    }
+
+    public ConfigurationBuilder setReadPreference(String readPreference) {
+        this.readPreference = readPreference;
+        return this;
+    }
+
+    public String getReadPreferenceTags() {
+        return readPreferenceTags;
+    }
+
+    public ConfigurationBuilder setReadPreferenceTags(String readPreferenceTags) {
+        this.readPreferenceTags = readPreferenceTags;
+        return this;
+    }
+
+    public Long getMaxStaleness() {
+        return maxStaleness;
+    }
+
+    public ConfigurationBuilder setMaxStaleness(Long maxStaleness) {
+        this.maxStaleness = maxStaleness;
+        return this;
+    }
+
+    public Integer getLocalThreshold() {
+        return localThreshold;
+    }
+
+    public ConfigurationBuilder setLocalThreshold(Integer localThreshold) {
+        this.localThreshold = localThreshold;
+        return this;
+    }
+
+    public Integer getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public ConfigurationBuilder setConnectTimeout(Integer connectTimeout) {
+        this.connectTimeout = connectTimeout;
+        return this;
+    }
+
+    public Integer getSocketTimeout() {
+        return socketTimeout;
+    }
+
+    public ConfigurationBuilder setSocketTimeout(Integer socketTimeout) {
+        this.socketTimeout = socketTimeout;
+        return this;
+    }
+
+    public Boolean getSocketKeepAlive() {
+        return socketKeepAlive;
+    }
+
+    public ConfigurationBuilder setSocketKeepAlive(Boolean socketKeepAlive) {
+        this.socketKeepAlive = socketKeepAlive;
+        return this;
+    }
+
+    public Integer getServerSelectionTimeout() {
+        return serverSelectionTimeout;
+    }
+
+    public ConfigurationBuilder setServerSelectionTimeout(Integer serverSelectionTimeout) {
+        this.serverSelectionTimeout = serverSelectionTimeout;
+        return this;
+    }
+
+    public Integer getHeartbeatFrequency() {
+        return heartbeatFrequency;
+    }
+
+    public ConfigurationBuilder setHeartbeatFrequency(Integer heartbeatFrequency) {
+        this.heartbeatFrequency = heartbeatFrequency;
+        return this;
+    }
+
+    public Integer getMinHeartbeatFrequency() {
+        return minHeartbeatFrequency;
+    }
+
+    public ConfigurationBuilder setMinHeartbeatFrequency(Integer minHeartbeatFrequency) {
+        this.minHeartbeatFrequency = minHeartbeatFrequency;
+        return this;
+    }
+
     public void setSSL(boolean SSL) {
         this.SSL = SSL;
     }
@@ -116,4 +238,164 @@ public class ConfigurationBuilder {
         return SSL;
     }
 
+    public void setAsyncStart(boolean asyncStart) {
+        this.asyncStart = asyncStart;
+    }
+
+    public boolean isAsyncStart() {
+        return asyncStart;
+    }
+
+    public boolean isLazyConnect() {
+        return lazyConnect;
+    }
+
+    public void setLazyConnect(boolean lazyConnect) {
+        this.lazyConnect = lazyConnect;
+    }
+
+    public Integer getMinConnectionsPerHost() {
+        return minConnectionsPerHost;
+    }
+
+    public void setMinConnectionsPerHost(Integer minConnectionsPerHost) {
+        this.minConnectionsPerHost = minConnectionsPerHost;
+    }
+
+    public Integer getConnectionsPerHost() {
+        return connectionsPerHost;
+    }
+
+    public void setConnectionsPerHost(Integer connectionsPerHost) {
+        this.connectionsPerHost = connectionsPerHost;
+    }
+
+    public Integer getThreadsAllowedToBlockMultiplier() {
+        return threadsAllowedToBlockMultiplier;
+    }
+
+    public void setThreadsAllowedToBlockMultiplier(Integer threadsAllowedToBlockMultiplier) {
+        this.threadsAllowedToBlockMultiplier = threadsAllowedToBlockMultiplier;
+    }
+
+    public Integer getMaxWaitTime() {
+        return maxWaitTime;
+    }
+
+    public void setMaxWaitTime(Integer maxWaitTime) {
+        this.maxWaitTime = maxWaitTime;
+    }
+
+    public Integer getMaxConnectionIdleTime() {
+        return maxConnectionIdleTime;
+    }
+
+    public void setMaxConnectionIdleTime(Integer maxConnectionIdleTime) {
+        this.maxConnectionIdleTime = maxConnectionIdleTime;
+    }
+
+    public Integer getMaxConnectionLifeTime() {
+        return maxConnectionLifeTime;
+    }
+
+    public void setMaxConnectionLifeTime(Integer maxConnectionLifeTime) {
+        this.maxConnectionLifeTime = maxConnectionLifeTime;
+    }
+
+    public String getDatabases() {
+        return databases;
+    }
+
+    public void setDatabases(String databases) {
+        this.databases = databases;
+    }
+
+    /**
+     * @return the database names of the comma separated databases attribute
+     */
+    public List<String> getDatabaseNames() {
+        if (databases == null) {
+            return Collections.emptyList();
+        }
+        List<String> result = new ArrayList<>();
+        for (String name : databases.split(",")) {
+            if (!name.trim().isEmpty()) {
+                result.add(name.trim());
+            }
+        }
+        return result;
+    }
+
+    public Integer getBulkWriteBatchSize() {
+        return bulkWriteBatchSize;
+    }
+
+    public void setBulkWriteBatchSize(Integer bulkWriteBatchSize) {
+        this.bulkWriteBatchSize = bulkWriteBatchSize;
+    }
+
+    public Integer getBulkWriteFlushInterval() {
+        return bulkWriteFlushInterval;
+    }
+
+    public void setBulkWriteFlushInterval(Integer bulkWriteFlushInterval) {
+        this.bulkWriteFlushInterval = bulkWriteFlushInterval;
+    }
+
+    public boolean isRawBson() {
+        return rawBson;
+    }
+
+    public void setRawBson(boolean rawBson) {
+        this.rawBson = rawBson;
+    }
+
+    public String getTransport() {
+        return transport;
+    }
+
+    public void setTransport(String transport) {
+        this.transport = transport;
+    }
+
+    public String getClientType() {
+        return clientType;
+    }
+
+    public void setClientType(String clientType) {
+        this.clientType = clientType;
+    }
+
+    public Long getQueryCacheMaxSize() {
+        return queryCacheMaxSize;
+    }
+
+    public void setQueryCacheMaxSize(Long queryCacheMaxSize) {
+        this.queryCacheMaxSize = queryCacheMaxSize;
+    }
+
+    public Long getQueryCacheExpireAfterWrite() {
+        return queryCacheExpireAfterWrite;
+    }
+
+    public void setQueryCacheExpireAfterWrite(Long queryCacheExpireAfterWrite) {
+        this.queryCacheExpireAfterWrite = queryCacheExpireAfterWrite;
+    }
+
+    public boolean isOplogTailer() {
+        return oplogTailer;
+    }
+
+    public void setOplogTailer(boolean oplogTailer) {
+        this.oplogTailer = oplogTailer;
+    }
+
+    public String getOplogNamespaces() {
+        return oplogNamespaces;
+    }
+
+    public void setOplogNamespaces(String oplogNamespaces) {
+        this.oplogNamespaces = oplogNamespaces;
+    }
+
 }
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.nosql.driver.mongodb;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ConnectionPoolMetrics counts the connection pool events of the MongoClient, via a
+ * com.mongodb.event.ConnectionPoolListener.  The counts are the sum over the connection pools of each MongoDB server.
+ *
+ * The checkout wait time is measured between the wait queue entered + exited events, which the synchronous driver
+ * sends from the thread that is checking out the connection.  The async driver may send the exited event from
+ * another thread, so the wait time isn't measured for async profiles (only the checkouts are counted).
+ *
+ * @author Scott Marlow
+ */
+public class ConnectionPoolMetrics implements InvocationHandler {
+
+    // gauges are AtomicLong, so that each high water mark is fed the exact value reached by the event
+    private final AtomicLong checkedOut = new AtomicLong();
+    private final AtomicLong checkedOutHighWaterMark = new AtomicLong();
+    private final AtomicLong waitQueueSize = new AtomicLong();
+    private final AtomicLong waitQueueHighWaterMark = new AtomicLong();
+    private final LongAdder connectionsCreated = new LongAdder();
+    private final LongAdder connectionsClosed = new LongAdder();
+    private final LongAdder checkoutCount = new LongAdder();
+    private final LongAdder checkoutWaitNanos = new LongAdder();
+    private final AtomicLong maxCheckoutWaitNanos = new AtomicLong();
+    private final ThreadLocal<long[]> waitQueueEnteredTime;  // null if the wait time isn't measured
+
+    /**
+     * @param measureWaitTime is true if the wait queue events of a checkout are sent from the same thread
+     */
+    ConnectionPoolMetrics(boolean measureWaitTime) {
+        waitQueueEnteredTime = measureWaitTime ? ThreadLocal.withInitial(() -> new long[1]) : null;
+    }
+
+    /**
+     * @param connectionPoolListenerClass is the com.mongodb.event.ConnectionPoolListener class
+     * @return ConnectionPoolListener that records into this ConnectionPoolMetrics
+     */
+    Object /* ConnectionPoolListener */ listener(Class connectionPoolListenerClass) {
+        return Proxy.newProxyInstance(connectionPoolListenerClass.getClassLoader(), new Class[]{connectionPoolListenerClass}, this);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "connectionCheckedOut":
+                highWaterMark(checkedOutHighWaterMark, checkedOut.incrementAndGet());
+                return null;
+            case "connectionCheckedIn":
+                checkedOut.decrementAndGet();
+                return null;
+            case "waitQueueEntered":
+                if (waitQueueEnteredTime != null) {
+                    waitQueueEnteredTime.get()[0] = System.nanoTime();
+                }
+                highWaterMark(waitQueueHighWaterMark, waitQueueSize.incrementAndGet());
+                return null;
+            case "waitQueueExited":
+                waitQueueSize.decrementAndGet();
+                checkoutCount.increment();
+                if (waitQueueEnteredTime != null) {
+                    final long waitNanos = System.nanoTime() - waitQueueEnteredTime.get()[0];
+                    checkoutWaitNanos.add(waitNanos);
+                    highWaterMark(maxCheckoutWaitNanos, waitNanos);
+                }
+                return null;
+            case "connectionAdded":
+                connectionsCreated.increment();
+                return null;
+            case "connectionRemoved":
+                connectionsClosed.increment();
+                return null;
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return getClass().getSimpleName();
+            default:  // connectionPoolOpened, connectionPoolClosed
+                return null;
+        }
+    }
+
+    private static void highWaterMark(AtomicLong highWaterMark, long value) {
+        long current = highWaterMark.get();
+        while (value > current && !highWaterMark.compareAndSet(current, value)) {
+            current = highWaterMark.get();
+        }
+    }
+
+    /**
+     * reset the high water marks to the current number of checked out connections + wait queue size, and the
+     * max checkout wait time to zero.
+     */
+    public void resetHighWaterMarks() {
+        checkedOutHighWaterMark.set(checkedOut.get());
+        waitQueueHighWaterMark.set(waitQueueSize.get());
+        maxCheckoutWaitNanos.set(0);
+    }
+
+    public long getCheckedOut() {
+        return checkedOut.get();
+    }
+
+    public long getCheckedOutHighWaterMark() {
+        return checkedOutHighWaterMark.get();
+    }
+
+    public long getWaitQueueSize() {
+        return waitQueueSize.get();
+    }
+
+    public long getWaitQueueHighWaterMark() {
+        return waitQueueHighWaterMark.get();
+    }
+
+    public long getConnectionsCreated() {
+        return connectionsCreated.sum();
+    }
+
+    public long getConnectionsClosed() {
+        return connectionsClosed.sum();
+    }
+
+    public long getCheckoutCount() {
+        return checkoutCount.sum();
+    }
+
+    public long getCheckoutWaitNanos() {
+        return checkoutWaitNanos.sum();
+    }
+
+    public long getMaxCheckoutWaitNanos() {
+        return maxCheckoutWaitNanos.get();
+    }
+}
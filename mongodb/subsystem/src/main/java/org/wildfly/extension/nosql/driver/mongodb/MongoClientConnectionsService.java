@@ -20,6 +20,8 @@ import static org.wildfly.nosql.common.NoSQLLogger.ROOT_LOGGER;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.jboss.as.network.OutboundSocketBinding;
 import org.jboss.msc.inject.Injector;
@@ -31,6 +33,8 @@ import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
 import org.jboss.security.SubjectFactory;
 import org.wildfly.extension.nosql.subsystem.mongodb.MongoSubsystemService;
+import org.wildfly.nosql.common.ConnectionServiceAccess;
+import org.wildfly.nosql.common.ConnectionServiceStarter;
 import org.wildfly.nosql.common.spi.NoSQLConnection;
 
 /**
@@ -42,9 +46,17 @@ public class MongoClientConnectionsService implements Service<MongoClientConnect
     final ConfigurationBuilder configurationBuilder;
     // standard application server way to obtain target hostname + port for target NoSQL database server(s)
     private Map<String, OutboundSocketBinding> outboundSocketBindings = new HashMap<String, OutboundSocketBinding>();
-    private Object /* MongoClient */ client;
-    private Object /* MongoDatabase */ database;
+    private volatile Object /* MongoClient */ client;
+    private volatile Object /* MongoDatabase */ database;
+    // MongoDatabase/MongoCollection instances by name, replaced each time that the client is created
+    private volatile ConcurrentMap<String, Object> databases;
+    private volatile ConcurrentMap<String, Object> collections;
+    private boolean started;  // guarded by this, client is only created between start + stop
     private MongoInteraction mongoInteraction;
+    private BulkWriteCoalescer bulkWriteCoalescer;  // guarded by this, created on first use
+    private RawBsonStreams rawBsonStreams;  // guarded by this, created on first use
+    private QueryCache queryCache;  // guarded by this, created on first use
+    private OplogTailer oplogTailer;  // guarded by this, created on start if oplog-tailer is enabled
     private final InjectedValue<SubjectFactory> subjectFactory = new InjectedValue<>();
 
     public InjectedValue<SubjectFactory> getSubjectFactoryInjector() {
@@ -68,10 +80,16 @@ public class MongoClientConnectionsService implements Service<MongoClientConnect
 
     @Override
     public void start(StartContext startContext) throws StartException {
+        ConnectionServiceStarter.start(startContext, configurationBuilder.getDescription(), configurationBuilder.isAsyncStart(), this::startClient);
+    }
+
+    private void startClient() {
         // maintain a mapping from JNDI name to NoSQL module name, that we will use during deployment time to
         // identify the static module name to add to the deployment.
         mongoSubsystemServiceInjectedValue.getValue().addModuleNameFromJndi(configurationBuilder.getJNDIName(), configurationBuilder.getModuleName());
         mongoSubsystemServiceInjectedValue.getValue().addModuleNameFromProfile(configurationBuilder.getDescription(), configurationBuilder.getModuleName());
+        mongoSubsystemServiceInjectedValue.getValue().addDatabaseNamesFromProfile(configurationBuilder.getDescription(), configurationBuilder.getDatabaseNames());
+        mongoSubsystemServiceInjectedValue.getValue().addClientTypeFromProfile(configurationBuilder.getDescription(), getClientType());
         for (OutboundSocketBinding target : outboundSocketBindings.values()) {
             try {
                 mongoInteraction.hostPort(target.getUnresolvedDestinationAddress(), target.getDestinationPort());
@@ -82,32 +100,144 @@ public class MongoClientConnectionsService implements Service<MongoClientConnect
         if (subjectFactory.getOptionalValue() != null) {
             mongoInteraction.subjectFactory(subjectFactory.getOptionalValue());
         }
-        try {
-            client = mongoInteraction.mongoClient();
-        } catch (Throwable throwable) {
-            throw new RuntimeException("could not setup connection to " + configurationBuilder.getDescription(),throwable);
+        if (configurationBuilder.isOplogTailer() && getClientType() == ClientType.ASYNC) {
+            throw new IllegalStateException("oplog tailer is not available for async MongoDB profile " + configurationBuilder.getDescription());
         }
-
-        if (configurationBuilder.getDatabase() != null) {
+        synchronized (this) {
+            started = true;
+        }
+        if (!configurationBuilder.isLazyConnect()) {
             try {
-                database = mongoInteraction.getDB();
-            } catch (Throwable throwable) {
-                throw new RuntimeException("could not use database " + configurationBuilder.getDatabase(),throwable);
+                connect();
+            } catch (RuntimeException connectFailure) {
+                // stop() isn't called for a service that failed to start
+                synchronized (this) {
+                    started = false;
+                }
+                mongoSubsystemServiceInjectedValue.getValue().removeModuleNameFromJndi(configurationBuilder.getJNDIName());
+                mongoSubsystemServiceInjectedValue.getValue().removeModuleNameFromProfile(configurationBuilder.getDescription());
+                throw connectFailure;
+            }
+        }
+        if (configurationBuilder.isOplogTailer()) {
+            final OplogTailer tailer = new OplogTailer(this, configurationBuilder);
+            synchronized (this) {
+                oplogTailer = tailer;
             }
+            tailer.start();
         }
+        ConnectionServiceAccess.started(configurationBuilder.getDescription(), this);
+    }
 
+    /**
+     * create the MongoClient (and MongoDatabase), if not already created.
+     */
+    private void connect() {
+        if (client != null) {
+            return;
+        }
+        synchronized (this) {
+            if (client != null) {
+                return;
+            }
+            if (!started) {
+                throw new IllegalStateException("MongoDB profile " + configurationBuilder.getDescription() + " is not started");
+            }
+            final Object mongoClient;
+            final ConcurrentMap<String, Object> databaseMap = new ConcurrentHashMap<>();
+            try {
+                try {
+                    mongoClient = mongoInteraction.mongoClient();
+                } catch (Throwable throwable) {
+                    throw new RuntimeException("could not setup connection to " + configurationBuilder.getDescription(),throwable);
+                }
+                if (configurationBuilder.getDatabase() != null) {
+                    try {
+                        database = mongoInteraction.getDB();
+                        databaseMap.put(configurationBuilder.getDatabase(), database);
+                    } catch (Throwable throwable) {
+                        throw new RuntimeException("could not use database " + configurationBuilder.getDatabase(),throwable);
+                    }
+                }
+                for (String databaseName : configurationBuilder.getDatabaseNames()) {
+                    databaseMap.computeIfAbsent(databaseName, this::createDatabase);
+                }
+            } catch (RuntimeException connectFailure) {
+                // don't leak the MongoClient (connection pool, threads + Netty transport) of the failed attempt, a
+                // later lookup connects again
+                try {
+                    mongoInteraction.close();
+                } catch (Throwable closeFailure) {
+                    connectFailure.addSuppressed(closeFailure);
+                }
+                database = null;
+                throw connectFailure;
+            }
+            databases = databaseMap;
+            collections = new ConcurrentHashMap<>();
+            // client is published last, so that readers that see the client also see the database
+            client = mongoClient;
+        }
     }
 
     @Override
     public void stop(StopContext stopContext) {
+        ConnectionServiceAccess.stopped(configurationBuilder.getDescription(), this);
         try {
             mongoSubsystemServiceInjectedValue.getValue().removeModuleNameFromJndi(configurationBuilder.getJNDIName());
             mongoSubsystemServiceInjectedValue.getValue().removeModuleNameFromProfile(configurationBuilder.getDescription());
-            mongoInteraction.close();
+            closeBulkWriteCoalescer();
+            closeOplogTailer();
+            disconnect();
         } catch (Throwable throwable) {
             ROOT_LOGGER.driverFailedToStop(throwable);
         }
-        client = null;
+    }
+
+    /**
+     * flush the queued bulk writes while the client is still open.  The coalescer is closed without holding the
+     * service lock, as the flushing threads may need it to create the client.
+     */
+    private void closeBulkWriteCoalescer() {
+        final BulkWriteCoalescer coalescer;
+        synchronized (this) {
+            coalescer = bulkWriteCoalescer;
+            bulkWriteCoalescer = null;
+        }
+        if (coalescer != null) {
+            coalescer.close();
+        }
+    }
+
+    /**
+     * stop tailing the oplog while the client is still open, without holding the service lock, as the tailing
+     * thread may need it to create the client.
+     */
+    private void closeOplogTailer() {
+        final OplogTailer tailer;
+        synchronized (this) {
+            tailer = oplogTailer;
+            oplogTailer = null;
+        }
+        if (tailer != null) {
+            tailer.close();
+        }
+    }
+
+    private synchronized void disconnect() throws Throwable {
+        started = false;
+        try {
+            mongoInteraction.close();
+        } finally {
+            client = null;
+            database = null;
+            databases = null;
+            collections = null;
+            if (queryCache != null) {
+                queryCache.close();
+                queryCache = null;
+            }
+        }
     }
 
     @Override
@@ -116,13 +246,182 @@ public class MongoClientConnectionsService implements Service<MongoClientConnect
     }
 
     public Object /* MongoClient */ getClient() {
+        connect();
         return client;
     }
 
     public Object /* MongoDatabase */ getDatabase() {
+        connect();
         return database;
     }
 
+    /**
+     * get the MongoDatabase with the specified name, which is only created once per MongoClient.
+     *
+     * @param databaseName is the database name
+     * @return MongoDatabase
+     */
+    public Object /* MongoDatabase */ getDatabase(String databaseName) {
+        connect();
+        final ConcurrentMap<String, Object> databaseMap = databases;
+        if (databaseMap == null) {
+            throw new IllegalStateException("MongoDB profile " + configurationBuilder.getDescription() + " is not started");
+        }
+        Object result = databaseMap.get(databaseName);
+        if (result == null) {
+            result = databaseMap.computeIfAbsent(databaseName, this::createDatabase);
+        }
+        return result;
+    }
+
+    /**
+     * get the MongoCollection with the specified name, which is only created once per MongoClient.
+     *
+     * @param databaseName is the database name or null for the profile database
+     * @param collectionName is the collection name
+     * @param documentClass is the collection document class or null for org.bson.Document
+     * @return MongoCollection
+     */
+    public Object /* MongoCollection */ getCollection(String databaseName, String collectionName, Class documentClass) {
+        if (databaseName == null) {
+            if (configurationBuilder.getDatabase() == null) {
+                throw new IllegalArgumentException("MongoDB profile " + configurationBuilder.getDescription() +
+                        " doesn't specify a database, the database name of collection " + collectionName + " is required");
+            }
+            databaseName = configurationBuilder.getDatabase();
+        }
+        final Object mongoDatabase = getDatabase(databaseName);
+        final ConcurrentMap<String, Object> collectionMap = collections;
+        if (collectionMap == null) {
+            throw new IllegalStateException("MongoDB profile " + configurationBuilder.getDescription() + " is not started");
+        }
+        final String key = documentClass == null ? databaseName + '/' + collectionName :
+                databaseName + '/' + collectionName + '/' + documentClass.getName();
+        Object result = collectionMap.get(key);
+        if (result == null) {
+            final String name = databaseName;
+            result = collectionMap.computeIfAbsent(key, ignore -> {
+                try {
+                    return mongoInteraction.getCollection(mongoDatabase, collectionName, documentClass);
+                } catch (Throwable throwable) {
+                    throw new RuntimeException("could not use collection " + collectionName + " in database " + name, throwable);
+                }
+            });
+        }
+        return result;
+    }
+
+    private Object createDatabase(String databaseName) {
+        try {
+            return mongoInteraction.getDatabase(databaseName);
+        } catch (Throwable throwable) {
+            throw new RuntimeException("could not use database " + databaseName, throwable);
+        }
+    }
+
+    public CommandMetrics getCommandMetrics() {
+        return mongoInteraction.getCommandMetrics();
+    }
+
+    public ConnectionPoolMetrics getConnectionPoolMetrics() {
+        return mongoInteraction.getConnectionPoolMetrics();
+    }
+
+    /**
+     * @return the bulk write coalescer of this profile, which is created on first use
+     */
+    public synchronized BulkWriteCoalescer getBulkWriteCoalescer() {
+        if (!started) {
+            throw new IllegalStateException("MongoDB profile " + configurationBuilder.getDescription() + " is not started");
+        }
+        if (getClientType() == ClientType.ASYNC) {
+            throw new IllegalStateException("bulk write coalescing is not available for async MongoDB profile " + configurationBuilder.getDescription());
+        }
+        if (bulkWriteCoalescer == null) {
+            bulkWriteCoalescer = new BulkWriteCoalescer(this, configurationBuilder);
+        }
+        return bulkWriteCoalescer;
+    }
+
+    /**
+     * @return the bulk write coalescer or null if bulk writes were not used
+     */
+    public synchronized BulkWriteCoalescer getBulkWriteCoalescerIfCreated() {
+        return bulkWriteCoalescer;
+    }
+
+    /**
+     * @return the query cache of this profile, which is created on first use
+     */
+    public synchronized QueryCache getQueryCache() {
+        if (!started) {
+            throw new IllegalStateException("MongoDB profile " + configurationBuilder.getDescription() + " is not started");
+        }
+        if (getClientType() == ClientType.ASYNC) {
+            throw new IllegalStateException("query cache is not available for async MongoDB profile " + configurationBuilder.getDescription());
+        }
+        if (configurationBuilder.getQueryCacheMaxSize() == null) {
+            throw new IllegalStateException("query-cache-max-size is not specified for MongoDB profile " + configurationBuilder.getDescription());
+        }
+        if (queryCache == null) {
+            queryCache = new QueryCache(this, configurationBuilder);
+        }
+        return queryCache;
+    }
+
+    /**
+     * @return the query cache or null if the query cache was not used
+     */
+    public synchronized QueryCache getQueryCacheIfCreated() {
+        return queryCache;
+    }
+
+    /**
+     * @return the oplog tailer of this profile
+     */
+    public synchronized OplogTailer getOplogTailer() {
+        if (oplogTailer == null) {
+            throw new IllegalStateException("oplog-tailer is not enabled for MongoDB profile " + configurationBuilder.getDescription());
+        }
+        return oplogTailer;
+    }
+
+    /**
+     * @return the oplog tailer or null if oplog-tailer is not enabled
+     */
+    public synchronized OplogTailer getOplogTailerIfCreated() {
+        return oplogTailer;
+    }
+
+    /**
+     * get the cached view of the MongoCollection with the specified name.
+     *
+     * @param databaseName is the database name or null for the profile database
+     * @param collectionName is the collection name
+     * @param documentClass is the collection document class or null for org.bson.Document
+     * @return CachedCollection
+     */
+    public CachedCollection getCachedCollection(String databaseName, String collectionName, Class documentClass) {
+        return getQueryCache().getCollection(databaseName, collectionName, documentClass);
+    }
+
+    /**
+     * @return the helper that copies RawBsonDocument results to an OutputStream, which is created on first use
+     */
+    public synchronized RawBsonStreams getRawBsonStreams() {
+        if (rawBsonStreams == null) {
+            rawBsonStreams = new RawBsonStreams(configurationBuilder);
+        }
+        return rawBsonStreams;
+    }
+
+    /**
+     * @return the client API of this profile
+     */
+    public ClientType getClientType() {
+        return configurationBuilder.getClientType() != null ? ClientType.fromName(configurationBuilder.getClientType()) : ClientType.SYNC;
+    }
+
     private Class getMongoClientClass() {
         return mongoInteraction.getMongoClientClass();
     }
@@ -134,11 +433,45 @@ public class MongoClientConnectionsService implements Service<MongoClientConnect
     @Override
     public <T> T unwrap(Class<T> clazz) {
 
+        if (BulkWriteCoalescer.class.equals(clazz)) {
+            return (T) getBulkWriteCoalescer();
+        }
+        if (RawBsonStreams.class.equals(clazz)) {
+            return (T) getRawBsonStreams();
+        }
+        if (QueryCache.class.equals(clazz)) {
+            return (T) getQueryCache();
+        }
+        if (OplogTailer.class.equals(clazz)) {
+            return (T) getOplogTailer();
+        }
         if ( getMongoClientClass().isAssignableFrom( clazz ) ) {
-            return (T) client;
+            return (T) getClient();
         }
-        if ( database != null && getMongoDatabaseClass().isAssignableFrom( clazz)) {
-            return (T) database;
+        if ( configurationBuilder.getDatabase() != null && getMongoDatabaseClass().isAssignableFrom( clazz)) {
+            return (T) getDatabase();
+        }
+        throw ROOT_LOGGER.unassignable(clazz);
+    }
+
+    /**
+     * unwrap a MongoDatabase by database name or a MongoCollection (or CachedCollection) by "database/collection" name.
+     * The collection name may be used without the database name, for collections in the profile database.
+     */
+    @Override
+    public <T> T unwrap(Class<T> clazz, String name) {
+        if (CachedCollection.class.equals(clazz)) {
+            return (T) getQueryCache().getCollection(name);
+        }
+        if (getMongoDatabaseClass().isAssignableFrom(clazz)) {
+            return (T) getDatabase(name);
+        }
+        if (mongoInteraction.getMongoCollectionClass().isAssignableFrom(clazz)) {
+            final int separator = name.indexOf('/');
+            if (separator > 0) {
+                return (T) getCollection(name.substring(0, separator), name.substring(separator + 1), null);
+            }
+            return (T) getCollection(null, name, null);
         }
         throw ROOT_LOGGER.unassignable(clazz);
     }
@@ -21,8 +21,12 @@ import static org.wildfly.nosql.common.NoSQLLogger.ROOT_LOGGER;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodType;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import javax.resource.spi.security.PasswordCredential;
 import javax.security.auth.Subject;
@@ -42,9 +46,14 @@ public class MongoInteraction {
     private final ArrayList serverAddressArrayList = new ArrayList(); // List<ServerAddress>
     private final ConfigurationBuilder configurationBuilder;
     private Object clientInstance;
+    private NettyTransport nettyTransport;  // acquired while the client is open, for transport="netty"
+    private final AsyncMongoClientFactory asyncMongoClientFactory;  // null unless client-type="async"
 
     private final Class mongoClientClass;
     private final Class mongoDatabaseClass;
+    private final Class mongoCollectionClass;
+    private final MethodHandle getCollectionMethod;
+    private final MethodHandle getCollectionWithDocumentClassMethod;
     private final MethodHandle closeMethod;
     private final MethodHandle getDatabaseMethod;
     private final MethodHandle mongoClientCtorMethod;
@@ -54,13 +63,47 @@ public class MongoInteraction {
     private final MethodHandle descriptionMethod;
     private final MethodHandle writeConcernMethod;
     private final MethodHandle readConcernMethod;
+    private final MethodHandle readPreferenceMethod;
+    private final MethodHandle localThresholdMethod;
+    private final MethodHandle connectTimeoutMethod;
+    private final MethodHandle socketTimeoutMethod;
+    private final MethodHandle socketKeepAliveMethod;  // null for MongoDB drivers that removed socketKeepAlive
+    private final MethodHandle serverSelectionTimeoutMethod;
+    private final MethodHandle heartbeatFrequencyMethod;
+    private final MethodHandle minHeartbeatFrequencyMethod;
     private final MethodHandle sslEnabledMethod;
+    private final MethodHandle minConnectionsPerHostMethod;
+    private final MethodHandle connectionsPerHostMethod;
+    private final MethodHandle threadsAllowedToBlockForConnectionMultiplierMethod;
+    private final MethodHandle maxWaitTimeMethod;
+    private final MethodHandle maxConnectionIdleTimeMethod;
+    private final MethodHandle maxConnectionLifeTimeMethod;
+    private final MethodHandle addCommandListenerMethod;
+    private final MethodHandle addConnectionPoolListenerMethod;  // null for MongoDB drivers older than 3.5
+    private final MethodHandle codecRegistryMethod;
+    private final MethodHandle streamFactoryFactoryMethod;
     private final MethodHandle buildMethod;
 
     private final MethodHandle writeConcernValueOfMethod;
     private final MethodHandle readConcernCtorMethod;
     private final MethodHandle readConcernLevelFromStringMethod;
 
+    private final MethodHandle readPreferenceValueOfMethod;
+    private final MethodHandle readPreferenceTagsValueOfMethod;
+    private final MethodHandle readPreferenceMaxStalenessValueOfMethod;  // null for MongoDB drivers older than 3.4
+    private final MethodHandle tagCtor;
+    private final MethodHandle tagSetCtor;
+
+    private final MethodHandle getDefaultCodecRegistryMethod;
+    private final MethodHandle fromCodecsMethod;
+    private final MethodHandle fromRegistriesMethod;
+    private final MethodHandle rawBsonDocumentCodecCtor;
+
+    private final CommandMetrics commandMetrics;
+    private final Object /* CommandListener */ commandListener;
+    private final ConnectionPoolMetrics connectionPoolMetrics;
+    private final Object /* ConnectionPoolListener */ connectionPoolListener;
+
     private final MethodHandle serverAddressHostCtor;
     private final MethodHandle serverAddressHostPortCtor;
 
@@ -82,67 +125,141 @@ public class MongoInteraction {
         // get MongoClientOptions class for creating MongoClient constructor
         Class mongoClientOptionsClass = methodHandleBuilder.className(NoSQLConstants.MONGOCLIENTOPTIONSCLASS).getTargetClass();
         // save MongoClient class  so getter method can return it
-        mongoClientClass = methodHandleBuilder.className(NoSQLConstants.MONGOCLIENTCLASS).getTargetClass();
-        closeMethod = methodHandleBuilder.method("close");
-        getDatabaseMethod = methodHandleBuilder.declaredMethod("getDatabase", String.class);
-        mongoClientCtorMethod = methodHandleBuilder.declaredConstructor(List.class, mongoClientOptionsClass);
+        Class codecRegistryClass = methodHandleBuilder.className(NoSQLConstants.MONGOCODECREGISTRYCLASS).getTargetClass();
+        methodHandleBuilder.className(NoSQLConstants.MONGOCODECREGISTRIESCLASS);
+        // public static CodecRegistry fromCodecs(List<? extends Codec<?>> codecs)
+        fromCodecsMethod = MethodHandleBuilder.erase(methodHandleBuilder.staticMethod
+                ("fromCodecs", MethodType.methodType(codecRegistryClass, List.class)));
+        // public static CodecRegistry fromRegistries(List<? extends CodecRegistry> registries)
+        fromRegistriesMethod = MethodHandleBuilder.erase(methodHandleBuilder.staticMethod
+                ("fromRegistries", MethodType.methodType(codecRegistryClass, List.class)));
+        methodHandleBuilder.className(NoSQLConstants.MONGORAWBSONDOCUMENTCODECCLASS);
+        rawBsonDocumentCodecCtor = MethodHandleBuilder.erase(methodHandleBuilder.constructor(MethodType.methodType(void.class)));
+
+        methodHandleBuilder.className(NoSQLConstants.MONGOCLIENTCLASS);
+        getDefaultCodecRegistryMethod = MethodHandleBuilder.erase(methodHandleBuilder.staticMethod
+                ("getDefaultCodecRegistry", MethodType.methodType(codecRegistryClass)));
+        mongoClientCtorMethod = MethodHandleBuilder.erase(methodHandleBuilder.declaredConstructor(List.class, mongoClientOptionsClass));
         // MongoClient(final List<ServerAddress> seeds, final List<MongoCredential> credentialsList, final MongoClientOptions options)
-        mongoClientSecurityCtorMethod = methodHandleBuilder.declaredConstructor(List.class, List.class, mongoClientOptionsClass);
+        mongoClientSecurityCtorMethod = MethodHandleBuilder.erase(methodHandleBuilder.declaredConstructor(List.class, List.class, mongoClientOptionsClass));
+        // the async client profile uses the com.mongodb.async.client MongoClient/MongoDatabase/MongoCollection interfaces
+        final boolean async = configurationBuilder.getClientType() != null &&
+                ClientType.ASYNC == ClientType.fromName(configurationBuilder.getClientType());
+        mongoClientClass = methodHandleBuilder.className(async ? NoSQLConstants.MONGOASYNCCLIENTCLASS : NoSQLConstants.MONGOCLIENTCLASS).getTargetClass();
+        closeMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("close"));
+        getDatabaseMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("getDatabase", String.class));
 
         Class mongoWriteConcernClass = methodHandleBuilder.className(NoSQLConstants.MONGOWRITECONCERNCLASS).getTargetClass();
-        writeConcernValueOfMethod = methodHandleBuilder.method("valueOf", String.class);
+        writeConcernValueOfMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("valueOf", String.class));
 
         Class mongoReadConcernLevelClass = methodHandleBuilder.className(NoSQLConstants.MONGOREADCONCERNLEVELCLASS).getTargetClass();
-        readConcernLevelFromStringMethod = methodHandleBuilder.method("fromString", String.class);
+        readConcernLevelFromStringMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("fromString", String.class));
 
         Class mongoReadConcernClass = methodHandleBuilder.className(NoSQLConstants.MONGOREADCONCERNCLASS).getTargetClass();
-        readConcernCtorMethod = methodHandleBuilder.declaredConstructor(mongoReadConcernLevelClass);
+        readConcernCtorMethod = MethodHandleBuilder.erase(methodHandleBuilder.declaredConstructor(mongoReadConcernLevelClass));
+
+        Class mongoReadPreferenceClass = methodHandleBuilder.className(NoSQLConstants.MONGOREADPREFERENCECLASS).getTargetClass();
+        // public static ReadPreference valueOf(final String name)
+        readPreferenceValueOfMethod = MethodHandleBuilder.erase(methodHandleBuilder.staticMethod
+                ("valueOf", MethodType.methodType(mongoReadPreferenceClass, String.class)));
+        // public static TaggableReadPreference valueOf(final String name, final List<TagSet> tagSetList)
+        readPreferenceTagsValueOfMethod = MethodHandleBuilder.erase(methodHandleBuilder.staticMethod
+                ("valueOf", MethodType.methodType(mongoReadPreferenceClass, String.class, List.class)));
+        readPreferenceMaxStalenessValueOfMethod = readPreferenceMaxStalenessValueOf(methodHandleBuilder, mongoReadPreferenceClass);
+
+        methodHandleBuilder.className(NoSQLConstants.MONGOTAGCLASS);
+        tagCtor = MethodHandleBuilder.erase(methodHandleBuilder.constructor(MethodType.methodType(void.class, String.class, String.class)));
+        methodHandleBuilder.className(NoSQLConstants.MONGOTAGSETCLASS);
+        tagSetCtor = MethodHandleBuilder.erase(methodHandleBuilder.constructor(MethodType.methodType(void.class, List.class)));
+
+        commandMetrics = new CommandMetrics(methodHandleBuilder);
+        commandListener = commandMetrics.listener();
+        Class mongoCommandListenerClass = methodHandleBuilder.className(NoSQLConstants.MONGOCOMMANDLISTENERCLASS).getTargetClass();
+        Class mongoConnectionPoolListenerClass = methodHandleBuilder.className(NoSQLConstants.MONGOCONNECTIONPOOLLISTENERCLASS).getTargetClass();
+        Class mongoStreamFactoryFactoryClass = methodHandleBuilder.className(NoSQLConstants.MONGOSTREAMFACTORYFACTORYCLASS).getTargetClass();
+        // the async driver doesn't send the wait queue events of a checkout from the same thread
+        connectionPoolMetrics = new ConnectionPoolMetrics(!async);
+        connectionPoolListener = connectionPoolMetrics.listener(mongoConnectionPoolListenerClass);
 
         methodHandleBuilder.className(NoSQLConstants.MONGOBUILDERCLASS);
-        builderCtorMethod = methodHandleBuilder.constructor(MethodType.methodType(void.class));
-        descriptionMethod = methodHandleBuilder.declaredMethod("description", String.class);
-        writeConcernMethod = methodHandleBuilder.method("writeConcern", mongoWriteConcernClass);
-        readConcernMethod = methodHandleBuilder.method("readConcern", mongoReadConcernClass);
-        sslEnabledMethod = methodHandleBuilder.method("sslEnabled", boolean.class);
-        buildMethod = methodHandleBuilder.method("build");
+        builderCtorMethod = MethodHandleBuilder.erase(methodHandleBuilder.constructor(MethodType.methodType(void.class)));
+        descriptionMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.declaredMethod("description", String.class));
+        writeConcernMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("writeConcern", mongoWriteConcernClass));
+        readConcernMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("readConcern", mongoReadConcernClass));
+        readPreferenceMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("readPreference", mongoReadPreferenceClass));
+        localThresholdMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("localThreshold", int.class));
+        connectTimeoutMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("connectTimeout", int.class));
+        socketTimeoutMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("socketTimeout", int.class));
+        socketKeepAliveMethod = socketKeepAlive(methodHandleBuilder);
+        serverSelectionTimeoutMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("serverSelectionTimeout", int.class));
+        heartbeatFrequencyMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("heartbeatFrequency", int.class));
+        minHeartbeatFrequencyMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("minHeartbeatFrequency", int.class));
+        sslEnabledMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("sslEnabled", boolean.class));
+        minConnectionsPerHostMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("minConnectionsPerHost", int.class));
+        connectionsPerHostMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("connectionsPerHost", int.class));
+        threadsAllowedToBlockForConnectionMultiplierMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("threadsAllowedToBlockForConnectionMultiplier", int.class));
+        maxWaitTimeMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("maxWaitTime", int.class));
+        maxConnectionIdleTimeMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("maxConnectionIdleTime", int.class));
+        maxConnectionLifeTimeMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("maxConnectionLifeTime", int.class));
+        addCommandListenerMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("addCommandListener", mongoCommandListenerClass));
+        addConnectionPoolListenerMethod = addConnectionPoolListener(methodHandleBuilder, mongoConnectionPoolListenerClass);
+        codecRegistryMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("codecRegistry", codecRegistryClass));
+        streamFactoryFactoryMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("streamFactoryFactory", mongoStreamFactoryFactoryClass));
+        buildMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("build"));
 
         methodHandleBuilder.className(NoSQLConstants.MONGOSERVERADDRESSCLASS);
-        serverAddressHostCtor = methodHandleBuilder.constructor(MethodType.methodType(void.class, String.class));
-        serverAddressHostPortCtor = methodHandleBuilder.constructor(MethodType.methodType(void.class, String.class, int.class));
+        serverAddressHostCtor = MethodHandleBuilder.erase(methodHandleBuilder.constructor(MethodType.methodType(void.class, String.class)));
+        serverAddressHostPortCtor = MethodHandleBuilder.erase(methodHandleBuilder.constructor(MethodType.methodType(void.class, String.class, int.class)));
 
-        mongoDatabaseClass = methodHandleBuilder.className(NoSQLConstants.MONGODATABASECLASS).getTargetClass();
+        mongoDatabaseClass = methodHandleBuilder.className(async ? NoSQLConstants.MONGOASYNCDATABASECLASS : NoSQLConstants.MONGODATABASECLASS).getTargetClass();
+        // MongoCollection<Document> getCollection(String collectionName)
+        getCollectionMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("getCollection", String.class));
+        // <TDocument> MongoCollection<TDocument> getCollection(String collectionName, Class<TDocument> documentClass)
+        getCollectionWithDocumentClassMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("getCollection", String.class, Class.class));
+        mongoCollectionClass = methodHandleBuilder.className(async ? NoSQLConstants.MONGOASYNCCOLLECTIONCLASS : NoSQLConstants.MONGOCOLLECTIONCLASS).getTargetClass();
+        asyncMongoClientFactory = async ? new AsyncMongoClientFactory(methodHandleBuilder, this) : null;
 
         mongoCredentialClass = methodHandleBuilder.className(NoSQLConstants.MONGOCREDENTIALCLASS).getTargetClass();
         // public static MongoCredential createCredential(final String userName, final String database, final char[] password) {
-        mongoCredentialCreateCredential = methodHandleBuilder.staticMethod
-                ("createCredential", MethodType.methodType(mongoCredentialClass, String.class, String.class, char[].class));
+        mongoCredentialCreateCredential = MethodHandleBuilder.erase(methodHandleBuilder.staticMethod
+                ("createCredential", MethodType.methodType(mongoCredentialClass, String.class, String.class, char[].class)));
         // public static MongoCredential createGSSAPICredential(final String userName) {
-        mongoCredentialGSSAPICreateCredential = methodHandleBuilder.staticMethod
-                ( "createGSSAPICredential", MethodType.methodType(mongoCredentialClass, String.class));
+        mongoCredentialGSSAPICreateCredential = MethodHandleBuilder.erase(methodHandleBuilder.staticMethod
+                ( "createGSSAPICredential", MethodType.methodType(mongoCredentialClass, String.class)));
         // public static MongoCredential createMongoCRCredential(final String userName, final String database, final char[] password) {
-        mongoCredentialMongoCRCreateCredential = methodHandleBuilder.staticMethod
-                ("createMongoCRCredential", MethodType.methodType(mongoCredentialClass, String.class, String.class, char[].class));
+        mongoCredentialMongoCRCreateCredential = MethodHandleBuilder.erase(methodHandleBuilder.staticMethod
+                ("createMongoCRCredential", MethodType.methodType(mongoCredentialClass, String.class, String.class, char[].class)));
         // public static MongoCredential createMongoX509Credential(final String userName) {
-        mongoCredentialX509CreateCredential = methodHandleBuilder.staticMethod
-                ( "createMongoX509Credential", MethodType.methodType(mongoCredentialClass, String.class));
+        mongoCredentialX509CreateCredential = MethodHandleBuilder.erase(methodHandleBuilder.staticMethod
+                ( "createMongoX509Credential", MethodType.methodType(mongoCredentialClass, String.class)));
         // public static MongoCredential createPlainCredential(final String userName, final String database, final char[] password) {
-        mongoCredentialPlainCreateCredential = methodHandleBuilder.staticMethod
-                ("createPlainCredential", MethodType.methodType(mongoCredentialClass, String.class, String.class, char[].class));
+        mongoCredentialPlainCreateCredential = MethodHandleBuilder.erase(methodHandleBuilder.staticMethod
+                ("createPlainCredential", MethodType.methodType(mongoCredentialClass, String.class, String.class, char[].class)));
         // public static MongoCredential createScramSha1Credential(final String userName, final String database, final char[] password) {
-        mongoCredentialScramSha1CreateCredential = methodHandleBuilder.staticMethod
-                ("createScramSha1Credential", MethodType.methodType(mongoCredentialClass, String.class, String.class, char[].class));
+        mongoCredentialScramSha1CreateCredential = MethodHandleBuilder.erase(methodHandleBuilder.staticMethod
+                ("createScramSha1Credential", MethodType.methodType(mongoCredentialClass, String.class, String.class, char[].class)));
     }
 
     public void hostPort(String host, int port) throws Throwable {
         if (port > 0) {
-            serverAddressArrayList.add(serverAddressHostPortCtor.invoke(host, port));
+            serverAddressArrayList.add((Object) serverAddressHostPortCtor.invokeExact(host, port));
         } else {
-            serverAddressArrayList.add(serverAddressHostCtor.invoke(host));
+            serverAddressArrayList.add((Object) serverAddressHostCtor.invokeExact(host));
         }
     }
 
     public Object /*MongoClient*/ mongoClient() throws Throwable {
-        return mongoClient(serverAddressArrayList, mongoClientOptions(), mongoCredential());
+        try {
+            if (asyncMongoClientFactory != null) {
+                clientInstance = asyncMongoClientFactory.mongoClient(serverAddressArrayList, mongoCredential());
+                return clientInstance;
+            }
+            return mongoClient(serverAddressArrayList, mongoClientOptions(), mongoCredential());
+        } catch (Throwable throwable) {
+            // the client wasn't created, so closing it won't release the Netty transport that was acquired for it
+            releaseNettyTransport();
+            throw throwable;
+        }
     }
 
     public Object getDB() throws Throwable {
@@ -154,30 +271,186 @@ public class MongoInteraction {
     }
 
     public Object /* MongoClientOptions */ mongoClientOptions() throws Throwable {
-        Object builder = builderCtorMethod.invoke();
+        Object builder = (Object) builderCtorMethod.invokeExact();
         // builder.description(configurationBuilder.getDescription());
-        //descriptionMethod.invokeExact(builder, configurationBuilder.getDescription());
-        descriptionMethod.invoke(builder, configurationBuilder.getDescription());
-        String writeConcernName = configurationBuilder.getWriteConcern();
-        if (writeConcernName != null) {
-            // public static WriteConcern valueOf(final String name)
-            Object writeConcernValue = writeConcernValueOfMethod.invoke(writeConcernName);
-            writeConcernMethod.invoke(builder, writeConcernValue);
+        descriptionMethod.invokeExact(builder, configurationBuilder.getDescription());
+        if (configurationBuilder.getWriteConcern() != null) {
+            writeConcernMethod.invokeExact(builder, writeConcern());
         }
         if (configurationBuilder.getReadConcern() != null) {
-            Object readConcernLevelValue = readConcernLevelFromStringMethod.invoke(configurationBuilder.getReadConcern());
-            Object readConcernValue = readConcernCtorMethod.invoke(readConcernLevelValue);
-            readConcernMethod.invoke(builder, readConcernValue);
+            readConcernMethod.invokeExact(builder, readConcern());
+        }
+        if (hasReadPreference()) {
+            readPreferenceMethod.invokeExact(builder, readPreference());
+        }
+        if (configurationBuilder.getLocalThreshold() != null) {
+            localThresholdMethod.invokeExact(builder, configurationBuilder.getLocalThreshold().intValue());
+        }
+        // socket + server monitoring timeouts, in milliseconds
+        if (configurationBuilder.getConnectTimeout() != null) {
+            connectTimeoutMethod.invokeExact(builder, configurationBuilder.getConnectTimeout().intValue());
+        }
+        if (configurationBuilder.getSocketTimeout() != null) {
+            socketTimeoutMethod.invokeExact(builder, configurationBuilder.getSocketTimeout().intValue());
+        }
+        if (configurationBuilder.getSocketKeepAlive() != null) {
+            if (socketKeepAliveMethod == null) {
+                throw new RuntimeException("socketKeepAlive is not supported by the MongoDB Java driver, keep alive is always enabled");
+            }
+            socketKeepAliveMethod.invokeExact(builder, configurationBuilder.getSocketKeepAlive().booleanValue());
+        }
+        if (configurationBuilder.getServerSelectionTimeout() != null) {
+            serverSelectionTimeoutMethod.invokeExact(builder, configurationBuilder.getServerSelectionTimeout().intValue());
+        }
+        if (configurationBuilder.getHeartbeatFrequency() != null) {
+            heartbeatFrequencyMethod.invokeExact(builder, configurationBuilder.getHeartbeatFrequency().intValue());
+        }
+        if (configurationBuilder.getMinHeartbeatFrequency() != null) {
+            minHeartbeatFrequencyMethod.invokeExact(builder, configurationBuilder.getMinHeartbeatFrequency().intValue());
         }
         if (configurationBuilder.isSSL()) {
-            sslEnabledMethod.invoke(builder,true);
+            sslEnabledMethod.invokeExact(builder, true);
+        }
+        // connection pool settings, the MongoDB driver defaults are used for unspecified settings
+        if (configurationBuilder.getMinConnectionsPerHost() != null) {
+            minConnectionsPerHostMethod.invokeExact(builder, configurationBuilder.getMinConnectionsPerHost().intValue());
+        }
+        if (configurationBuilder.getConnectionsPerHost() != null) {
+            connectionsPerHostMethod.invokeExact(builder, configurationBuilder.getConnectionsPerHost().intValue());
+        }
+        if (configurationBuilder.getThreadsAllowedToBlockMultiplier() != null) {
+            threadsAllowedToBlockForConnectionMultiplierMethod.invokeExact(builder, configurationBuilder.getThreadsAllowedToBlockMultiplier().intValue());
+        }
+        if (configurationBuilder.getMaxWaitTime() != null) {
+            maxWaitTimeMethod.invokeExact(builder, configurationBuilder.getMaxWaitTime().intValue());
+        }
+        if (configurationBuilder.getMaxConnectionIdleTime() != null) {
+            maxConnectionIdleTimeMethod.invokeExact(builder, configurationBuilder.getMaxConnectionIdleTime().intValue());
+        }
+        if (configurationBuilder.getMaxConnectionLifeTime() != null) {
+            maxConnectionLifeTimeMethod.invokeExact(builder, configurationBuilder.getMaxConnectionLifeTime().intValue());
+        }
+        if (isNettyTransport()) {
+            streamFactoryFactoryMethod.invokeExact(builder, nettyStreamFactoryFactory());
+        }
+        if (configurationBuilder.isRawBson()) {
+            codecRegistryMethod.invokeExact(builder, rawBsonCodecRegistry());
+        }
+        // the same listener is used for each MongoClient, so the command metrics are kept if the client is recreated
+        addCommandListenerMethod.invokeExact(builder, commandListener);
+        if (addConnectionPoolListenerMethod != null) {
+            addConnectionPoolListenerMethod.invokeExact(builder, connectionPoolListener);
         }
         // MongoClientOptions mongoClientOptions = builder.build();
-        // Object mongoClientOptions = buildMethod.invokeExact(builder);
-        Object mongoClientOptions = buildMethod.invoke(builder);
+        Object mongoClientOptions = (Object) buildMethod.invokeExact(builder);
         return mongoClientOptions;
     }
 
+    Object /* WriteConcern */ writeConcern() throws Throwable {
+        // public static WriteConcern valueOf(final String name)
+        return (Object) writeConcernValueOfMethod.invokeExact(configurationBuilder.getWriteConcern());
+    }
+
+    Object /* ReadConcern */ readConcern() throws Throwable {
+        Object readConcernLevelValue = (Object) readConcernLevelFromStringMethod.invokeExact(configurationBuilder.getReadConcern());
+        return (Object) readConcernCtorMethod.invokeExact(readConcernLevelValue);
+    }
+
+    boolean hasReadPreference() {
+        return configurationBuilder.getReadPreference() != null
+                || configurationBuilder.getReadPreferenceTags() != null
+                || configurationBuilder.getMaxStaleness() != null;
+    }
+
+    boolean isNettyTransport() {
+        return configurationBuilder.getTransport() != null &&
+                TransportType.NETTY == TransportType.fromName(configurationBuilder.getTransport());
+    }
+
+    /**
+     * @return the StreamFactoryFactory of the shared Netty transport, which is released when the client is closed
+     */
+    Object /* StreamFactoryFactory */ nettyStreamFactoryFactory() {
+        if (nettyTransport == null) {
+            nettyTransport = NettyTransport.acquire(configurationBuilder.getModuleName());
+        }
+        return nettyTransport.getStreamFactoryFactory();
+    }
+
+    Object /* CommandListener */ getCommandListener() {
+        return commandListener;
+    }
+
+    Object /* ConnectionPoolListener */ getConnectionPoolListener() {
+        return connectionPoolListener;
+    }
+
+    Object /* ReadPreference */ readPreference() throws Throwable {
+        // tags + max staleness require a non primary read preference, which the properties validator checks
+        String name = configurationBuilder.getReadPreference() != null ? configurationBuilder.getReadPreference() : ReadPreferenceType.PRIMARY.getDriverName();
+        if (configurationBuilder.getMaxStaleness() != null) {
+            if (readPreferenceMaxStalenessValueOfMethod == null) {
+                throw new RuntimeException("maxStaleness requires MongoDB Java driver 3.4 or later");
+            }
+            // public static TaggableReadPreference valueOf(String name, List<TagSet> tagSetList, long maxStaleness, TimeUnit timeUnit)
+            return (Object) readPreferenceMaxStalenessValueOfMethod.invokeExact(name, tagSets(), configurationBuilder.getMaxStaleness().longValue(), TimeUnit.SECONDS);
+        }
+        if (configurationBuilder.getReadPreferenceTags() != null) {
+            return (Object) readPreferenceTagsValueOfMethod.invokeExact(name, tagSets());
+        }
+        return (Object) readPreferenceValueOfMethod.invokeExact(name);
+    }
+
+    /**
+     * @return the default codec registry, preceded by the RawBsonDocument codec
+     */
+    Object /* CodecRegistry */ rawBsonCodecRegistry() throws Throwable {
+        // CodecRegistries.fromRegistries(CodecRegistries.fromCodecs(new RawBsonDocumentCodec()), MongoClient.getDefaultCodecRegistry())
+        Object rawBsonCodecs = (Object) fromCodecsMethod.invokeExact((List) Collections.singletonList((Object) rawBsonDocumentCodecCtor.invokeExact()));
+        return (Object) fromRegistriesMethod.invokeExact((List) Arrays.asList(rawBsonCodecs, (Object) getDefaultCodecRegistryMethod.invokeExact()));
+    }
+
+    private List /* TagSet */ tagSets() throws Throwable {
+        List tagSetList = new ArrayList();
+        for (Map<String, String> tags : ReadPreferenceType.parseTagSets(configurationBuilder.getReadPreferenceTags())) {
+            List tagList = new ArrayList();
+            for (Map.Entry<String, String> tag : tags.entrySet()) {
+                tagList.add((Object) tagCtor.invokeExact(tag.getKey(), tag.getValue()));
+            }
+            tagSetList.add((Object) tagSetCtor.invokeExact(tagList));
+        }
+        return tagSetList;
+    }
+
+    private MethodHandle addConnectionPoolListener(MethodHandleBuilder methodHandleBuilder, Class mongoConnectionPoolListenerClass) {
+        try {
+            return MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("addConnectionPoolListener", mongoConnectionPoolListenerClass));
+        } catch (RuntimeException olderDriver) {
+            // MongoClientOptions.Builder.addConnectionPoolListener was introduced in MongoDB Java driver 3.5
+            ROOT_LOGGER.debugf("connection pool metrics are not available for MongoDB profile %s", configurationBuilder.getDescription());
+            return null;
+        }
+    }
+
+    private static MethodHandle socketKeepAlive(MethodHandleBuilder methodHandleBuilder) {
+        try {
+            return MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("socketKeepAlive", boolean.class));
+        } catch (RuntimeException newerDriver) {
+            // MongoClientOptions.Builder.socketKeepAlive was deprecated in MongoDB Java driver 3.5 and later removed
+            return null;
+        }
+    }
+
+    private static MethodHandle readPreferenceMaxStalenessValueOf(MethodHandleBuilder methodHandleBuilder, Class mongoReadPreferenceClass) {
+        try {
+            return MethodHandleBuilder.erase(methodHandleBuilder.staticMethod
+                    ("valueOf", MethodType.methodType(mongoReadPreferenceClass, String.class, List.class, long.class, TimeUnit.class)));
+        } catch (RuntimeException olderDriver) {
+            // ReadPreference max staleness was introduced in MongoDB Java driver 3.4
+            return null;
+        }
+    }
+
     // public <U> Class<? extends U> asSubclass(Class<U> clazz) {
     public List /* MongoCredential */ mongoCredential() throws Throwable {
 
@@ -189,28 +462,28 @@ public class MongoInteraction {
                 // public static MongoCredential createCredential(final String userName, final String database, final char[] password) {
                 List resultList = new ArrayList();
                 if(configurationBuilder.getAuthType() == null || AuthType.DEFAULT.equals(configurationBuilder.getAuthType())) {
-                    resultList.add(mongoCredentialCreateCredential.invoke(passwordCredential.getUserName(), configurationBuilder.getDatabase(), passwordCredential.getPassword()));
+                    resultList.add((Object) mongoCredentialCreateCredential.invokeExact(passwordCredential.getUserName(), configurationBuilder.getDatabase(), passwordCredential.getPassword()));
                     return resultList;
                 }
                 else if(AuthType.GSSAPI.equals(configurationBuilder.getAuthType())) {
                     // createGSSAPICredential( final String username )
-                    resultList.add(mongoCredentialGSSAPICreateCredential.invoke(passwordCredential.getUserName()));
+                    resultList.add((Object) mongoCredentialGSSAPICreateCredential.invokeExact(passwordCredential.getUserName()));
                     return resultList;
                 }
                 else if(AuthType.MONGODB_CR.equals(configurationBuilder.getAuthType())) {
-                    resultList.add(mongoCredentialMongoCRCreateCredential.invoke(passwordCredential.getUserName(), configurationBuilder.getDatabase(), passwordCredential.getPassword()));
+                    resultList.add((Object) mongoCredentialMongoCRCreateCredential.invokeExact(passwordCredential.getUserName(), configurationBuilder.getDatabase(), passwordCredential.getPassword()));
                     return resultList;
                 }
                 else if(AuthType.MONGODB_X509.equals(configurationBuilder.getAuthType())) {
-                    resultList.add(mongoCredentialX509CreateCredential.invoke(passwordCredential.getUserName()));
+                    resultList.add((Object) mongoCredentialX509CreateCredential.invokeExact(passwordCredential.getUserName()));
                     return resultList;
                 }
                 else if(AuthType.PLAIN_SASL.equals(configurationBuilder.getAuthType())) {
-                    resultList.add(mongoCredentialPlainCreateCredential.invoke(passwordCredential.getUserName(), configurationBuilder.getDatabase(), passwordCredential.getPassword()));
+                    resultList.add((Object) mongoCredentialPlainCreateCredential.invokeExact(passwordCredential.getUserName(), configurationBuilder.getDatabase(), passwordCredential.getPassword()));
                     return resultList;
                 }
                 else if(AuthType.SCRAM_SHA_1.equals(configurationBuilder.getAuthType())) {
-                    resultList.add(mongoCredentialScramSha1CreateCredential.invoke(passwordCredential.getUserName(), configurationBuilder.getDatabase(), passwordCredential.getPassword()));
+                    resultList.add((Object) mongoCredentialScramSha1CreateCredential.invokeExact(passwordCredential.getUserName(), configurationBuilder.getDatabase(), passwordCredential.getPassword()));
                     return resultList;
                 }
                 else {
@@ -232,11 +505,10 @@ public class MongoInteraction {
     public Object mongoClient(Object serverAddressList, Object mongoClientOptions, List mongoCredential) throws Throwable {
 
         if (mongoCredential != null && mongoCredential.size() > 0) {
-            clientInstance = mongoClientSecurityCtorMethod.invoke(serverAddressList, castCollection(mongoCredential, mongoCredentialClass), mongoClientOptions);
+            clientInstance = (Object) mongoClientSecurityCtorMethod.invokeExact((List) serverAddressList, (List) castCollection(mongoCredential, mongoCredentialClass), mongoClientOptions);
         }
         else {
-            // return mongoClientCtorMethod.invokeExact(serverAddressList, mongoClientOptions);
-            clientInstance = mongoClientCtorMethod.invoke(serverAddressList, mongoClientOptions);
+            clientInstance = (Object) mongoClientCtorMethod.invokeExact((List) serverAddressList, mongoClientOptions);
         }
         return clientInstance;
     }
@@ -244,23 +516,41 @@ public class MongoInteraction {
     public Object getDatabase(String databaseName) throws Throwable {
         Object result = null;
         if(clientInstance != null) {
-            // result = getDatabaseMethod.invokeExact(clientInstance, databaseName);
-            result = getDatabaseMethod.invoke(clientInstance, databaseName);
+            result = (Object) getDatabaseMethod.invokeExact(clientInstance, databaseName);
         }
         return result;
     }
 
+    public Object /* MongoCollection */ getCollection(Object /* MongoDatabase */ database, String collectionName, Class documentClass) throws Throwable {
+        if (documentClass != null) {
+            return (Object) getCollectionWithDocumentClassMethod.invokeExact(database, collectionName, documentClass);
+        }
+        return (Object) getCollectionMethod.invokeExact(database, collectionName);
+    }
+
     public void underlyingClose() throws Throwable {
         try {
             if (clientInstance != null) {
-                // closeMethod.invokeExact(clientInstance);
-                closeMethod.invoke(clientInstance);
+                closeMethod.invokeExact(clientInstance);
             }
         } finally {
             clientInstance = null;
+            // after the client is closed, as the client channels use the event loop
+            releaseNettyTransport();
         }
     }
 
+    private void releaseNettyTransport() {
+        if (nettyTransport != null) {
+            nettyTransport.release();
+            nettyTransport = null;
+        }
+    }
+
+    ConfigurationBuilder getConfigurationBuilder() {
+        return configurationBuilder;
+    }
+
     public Class getMongoClientClass() {
         return mongoClientClass;
     }
@@ -269,6 +559,18 @@ public class MongoInteraction {
         return mongoDatabaseClass;
     }
 
+    public Class getMongoCollectionClass() {
+        return mongoCollectionClass;
+    }
+
+    public CommandMetrics getCommandMetrics() {
+        return commandMetrics;
+    }
+
+    public ConnectionPoolMetrics getConnectionPoolMetrics() {
+        return connectionPoolMetrics;
+    }
+
     public void subjectFactory(SubjectFactory subjectFactory) {
         this.subjectFactory = subjectFactory;
     }
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.nosql.driver.mongodb;
+
+import static org.wildfly.nosql.common.NoSQLLogger.ROOT_LOGGER;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.jboss.modules.ModuleIdentifier;
+import org.wildfly.nosql.common.MethodHandleBuilder;
+import org.wildfly.nosql.common.NoSQLConstants;
+
+/**
+ * NettyTransport is the Netty EventLoopGroup + StreamFactoryFactory that is shared by the MongoDB profiles that use
+ * transport="netty" with the same driver module, so that thousands of connections are served by a few event loop
+ * threads instead of one thread per connection.
+ *
+ * Native epoll is used when it is available (Linux with the netty native transport) and supported by the MongoDB
+ * driver (NettyStreamFactoryFactory.Builder.socketChannelClass), otherwise NIO is used.  The event loop is shut
+ * down when the last profile that uses it is stopped.
+ *
+ * @author Scott Marlow
+ */
+final class NettyTransport {
+
+    // guarded by NettyTransport.class
+    private static final Map<String, NettyTransport> sharedByModule = new HashMap<>();
+
+    private final String moduleName;
+    private final Object /* EventLoopGroup */ eventLoopGroup;
+    private final Object /* StreamFactoryFactory */ streamFactoryFactory;
+    private final MethodHandle shutdownGracefullyMethod;
+    private final boolean epoll;
+    private int references;  // guarded by NettyTransport.class
+
+    /**
+     * get the shared transport of the driver module, which is created by the first caller.
+     * Each call must be paired with a call to {@link #release()}.
+     */
+    static synchronized NettyTransport acquire(String moduleName) {
+        NettyTransport transport = sharedByModule.get(moduleName);
+        if (transport == null) {
+            try {
+                transport = new NettyTransport(moduleName);
+            } catch (RuntimeException | Error rethrow) {
+                throw rethrow;
+            } catch (Throwable throwable) {
+                throw new RuntimeException("could not create the Netty transport for MongoDB driver module " + moduleName, throwable);
+            }
+            sharedByModule.put(moduleName, transport);
+            ROOT_LOGGER.debugf("created %s Netty event loop for MongoDB driver module %s", transport.epoll ? "epoll" : "NIO", moduleName);
+        }
+        transport.references++;
+        return transport;
+    }
+
+    private NettyTransport(String moduleName) throws Throwable {
+        this.moduleName = moduleName;
+        MethodHandleBuilder methodHandleBuilder = new MethodHandleBuilder();
+        methodHandleBuilder.classLoader(ModuleIdentifier.fromString(moduleName));
+        Class eventLoopGroupClass = methodHandleBuilder.className(NoSQLConstants.NETTYEVENTLOOPGROUPCLASS).getTargetClass();
+        // the returned termination Future is not waited for, the event loop threads are daemon threads
+        shutdownGracefullyMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("shutdownGracefully"));
+
+        // NettyStreamFactoryFactory.Builder was introduced in MongoDB Java driver 3.3
+        Class builderClass = optional(() -> methodHandleBuilder.className(NoSQLConstants.MONGONETTYSTREAMFACTORYFACTORYBUILDERCLASS).getTargetClass());
+        Object builder = null;
+        MethodHandle socketChannelClassMethod = null;
+        if (builderClass != null) {
+            // the Builder socketChannelClass was introduced after the Builder, epoll is only used if it is available
+            socketChannelClassMethod = optional(() -> MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("socketChannelClass", Class.class)));
+            methodHandleBuilder.className(NoSQLConstants.MONGONETTYSTREAMFACTORYFACTORYCLASS);
+            MethodHandle builderMethod = MethodHandleBuilder.erase(methodHandleBuilder.staticMethod("builder", MethodType.methodType(builderClass)));
+            builder = (Object) builderMethod.invokeExact();
+        }
+
+        final ThreadFactory threadFactory = threadFactory();
+        Object group = null;
+        if (socketChannelClassMethod != null && epollAvailable(methodHandleBuilder)) {
+            methodHandleBuilder.className(NoSQLConstants.NETTYEPOLLEVENTLOOPGROUPCLASS);
+            MethodHandle epollEventLoopGroupCtor = MethodHandleBuilder.erase(methodHandleBuilder.constructor(MethodType.methodType(void.class, int.class, ThreadFactory.class)));
+            Class epollSocketChannelClass = methodHandleBuilder.className(NoSQLConstants.NETTYEPOLLSOCKETCHANNELCLASS).getTargetClass();
+            group = (Object) epollEventLoopGroupCtor.invokeExact(0, threadFactory);  // 0 is the Netty default thread count
+            socketChannelClassMethod.invokeExact(builder, epollSocketChannelClass);
+        }
+        epoll = group != null;
+        if (group == null) {
+            methodHandleBuilder.className(NoSQLConstants.NETTYNIOEVENTLOOPGROUPCLASS);
+            MethodHandle nioEventLoopGroupCtor = MethodHandleBuilder.erase(methodHandleBuilder.constructor(MethodType.methodType(void.class, int.class, ThreadFactory.class)));
+            group = (Object) nioEventLoopGroupCtor.invokeExact(0, threadFactory);
+        }
+        eventLoopGroup = group;
+
+        if (builder != null) {
+            methodHandleBuilder.className(NoSQLConstants.MONGONETTYSTREAMFACTORYFACTORYBUILDERCLASS);
+            MethodHandle eventLoopGroupMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("eventLoopGroup", eventLoopGroupClass));
+            MethodHandle buildMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("build"));
+            eventLoopGroupMethod.invokeExact(builder, eventLoopGroup);
+            streamFactoryFactory = (Object) buildMethod.invokeExact(builder);
+        } else {
+            // MongoDB Java driver 3.1 + 3.2: NettyStreamFactoryFactory(EventLoopGroup eventLoopGroup, ByteBufAllocator allocator)
+            Class byteBufAllocatorClass = methodHandleBuilder.className(NoSQLConstants.NETTYBYTEBUFALLOCATORCLASS).getTargetClass();
+            methodHandleBuilder.className(NoSQLConstants.NETTYPOOLEDBYTEBUFALLOCATORCLASS);
+            Object allocator = (Object) MethodHandleBuilder.erase(methodHandleBuilder.staticField("DEFAULT")).invokeExact();
+            methodHandleBuilder.className(NoSQLConstants.MONGONETTYSTREAMFACTORYFACTORYCLASS);
+            MethodHandle streamFactoryFactoryCtor = MethodHandleBuilder.erase(methodHandleBuilder.constructor(
+                    MethodType.methodType(void.class, eventLoopGroupClass, byteBufAllocatorClass)));
+            streamFactoryFactory = (Object) streamFactoryFactoryCtor.invokeExact(eventLoopGroup, allocator);
+        }
+    }
+
+    private static boolean epollAvailable(MethodHandleBuilder methodHandleBuilder) throws Throwable {
+        MethodHandle isAvailableMethod = optional(() -> {
+            methodHandleBuilder.className(NoSQLConstants.NETTYEPOLLCLASS);
+            return methodHandleBuilder.staticMethod("isAvailable", MethodType.methodType(boolean.class));
+        });
+        // Epoll.isAvailable() is false if the native library could not be loaded (e.g. not Linux)
+        return isAvailableMethod != null && (boolean) isAvailableMethod.invokeExact();
+    }
+
+    private static <T> T optional(Supplier<T> lookup) {
+        try {
+            return lookup.get();
+        } catch (RuntimeException notAvailable) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory threadFactory() {
+        final AtomicInteger threadNumber = new AtomicInteger(1);
+        return runnable -> {
+            Thread thread = new Thread(runnable, "MongoDB Netty event loop " + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * @return the StreamFactoryFactory that is passed to MongoClientOptions.Builder.streamFactoryFactory
+     */
+    Object getStreamFactoryFactory() {
+        return streamFactoryFactory;
+    }
+
+    /**
+     * release the transport, the event loop is shut down when the last profile releases it.
+     */
+    void release() {
+        synchronized (NettyTransport.class) {
+            if (--references > 0) {
+                return;
+            }
+            sharedByModule.remove(moduleName);
+        }
+        try {
+            shutdownGracefullyMethod.invokeExact(eventLoopGroup);
+        } catch (Throwable throwable) {
+            ROOT_LOGGER.debugf(throwable, "could not shut down the Netty event loop of MongoDB driver module %s", moduleName);
+        }
+    }
+}
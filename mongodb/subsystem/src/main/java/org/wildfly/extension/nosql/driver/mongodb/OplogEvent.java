@@ -0,0 +1,98 @@
+/*
+ * Copyright 2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wildfly.extension.nosql.driver.mongodb;
+
+import java.util.Map;
+
+/**
+ * OplogEvent is an insert, update or delete entry of the replica set oplog, delivered by the {@link OplogTailer}
+ * to the {@link OplogListener}s and as an asynchronous CDI event (qualified by &#064;Named profile).
+ *
+ * Ex:
+ * <pre>
+ *   void invalidate(&#064;ObservesAsync &#064;Named("MyMongoDB") OplogEvent event) {
+ *       if ("mydb.countries".equals(event.getNamespace())) {
+ *           cache.remove(event.getDocumentId());
+ *       }
+ *   }
+ * </pre>
+ *
+ * @author Scott Marlow
+ */
+public class OplogEvent {
+
+    private final String profile;
+    private final String namespace;
+    private final OplogOperation operation;
+    private final Object documentId;
+    private final long timestamp;
+    private final Map<String, Object> entry;
+
+    OplogEvent(String profile, String namespace, OplogOperation operation, Object documentId, long timestamp, Map<String, Object> entry) {
+        this.profile = profile;
+        this.namespace = namespace;
+        this.operation = operation;
+        this.documentId = documentId;
+        this.timestamp = timestamp;
+        this.entry = entry;
+    }
+
+    /**
+     * @return MongoDB profile id
+     */
+    public String getProfile() {
+        return profile;
+    }
+
+    /**
+     * @return "database.collection" namespace of the written document
+     */
+    public String getNamespace() {
+        return namespace;
+    }
+
+    public OplogOperation getOperation() {
+        return operation;
+    }
+
+    /**
+     * @return _id of the inserted, updated or deleted document
+     */
+    public Object getDocumentId() {
+        return documentId;
+    }
+
+    /**
+     * @return time of the write (milliseconds since the epoch, with second precision)
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return the complete oplog entry (org.bson.Document), which should not be modified
+     */
+    public Map<String, Object> getEntry() {
+        return entry;
+    }
+
+    @Override
+    public String toString() {
+        return "OplogEvent{" + operation + " " + namespace + " " + documentId + "}";
+    }
+}
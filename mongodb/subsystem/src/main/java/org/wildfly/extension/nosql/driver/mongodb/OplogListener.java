@@ -0,0 +1,35 @@
+/*
+ * Copyright 2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wildfly.extension.nosql.driver.mongodb;
+
+/**
+ * OplogListener is notified of the insert, update and delete oplog entries of a MongoDB profile.
+ *
+ * Listeners are called by the oplog tailing thread, in oplog order, so should return quickly (e.g. evict a cache
+ * entry or hand off the event).
+ *
+ * @author Scott Marlow
+ */
+@FunctionalInterface
+public interface OplogListener {
+
+    /**
+     * @param event is the oplog entry
+     */
+    void onOplogEvent(OplogEvent event);
+}
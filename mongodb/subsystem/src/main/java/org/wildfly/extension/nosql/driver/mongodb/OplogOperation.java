@@ -0,0 +1,52 @@
+/*
+ * Copyright 2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wildfly.extension.nosql.driver.mongodb;
+
+/**
+ * OplogOperation is the operation of a replica set oplog entry, that is delivered by the {@link OplogTailer}.
+ *
+ * @author Scott Marlow
+ */
+public enum OplogOperation {
+    INSERT("i"),
+    UPDATE("u"),
+    DELETE("d");
+
+    private final String code;  // oplog entry "op" field
+
+    OplogOperation(String code) {
+        this.code = code;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * @param code is the oplog entry "op" field
+     * @return the operation or null for the other oplog entries (e.g. commands and no-ops)
+     */
+    public static OplogOperation fromCode(String code) {
+        for (OplogOperation operation : values()) {
+            if (operation.code.equals(code)) {
+                return operation;
+            }
+        }
+        return null;
+    }
+}
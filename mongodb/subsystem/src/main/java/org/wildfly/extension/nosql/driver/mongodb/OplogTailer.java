@@ -0,0 +1,437 @@
+/*
+ * Copyright 2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wildfly.extension.nosql.driver.mongodb;
+
+import static org.wildfly.nosql.common.NoSQLLogger.ROOT_LOGGER;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jboss.modules.ModuleIdentifier;
+import org.wildfly.nosql.common.MethodHandleBuilder;
+import org.wildfly.nosql.common.NoSQLConstants;
+
+/**
+ * OplogTailer follows the replica set oplog (local.oplog.rs) of a MongoDB profile with a tailable await cursor,
+ * and delivers the insert, update and delete entries to the registered {@link OplogListener}s, so that application
+ * caches can evict exactly the documents that were written by other services.
+ *
+ * The tailer is started by oplog-tailer="true" and only delivers the oplog-namespaces entries (all if not specified).
+ * Obtain the tailer of a MongoDB profile via NoSQLConnection.unwrap(OplogTailer.class), or observe the asynchronous
+ * CDI OplogEvent events.
+ *
+ * Ex:
+ * <pre>
+ *   OplogTailer tailer = ConnectionServiceAccess.connection("MyMongoDB").unwrap(OplogTailer.class);
+ *   tailer.addListener("mydb.countries", event -> cache.remove(event.getDocumentId()));
+ * </pre>
+ *
+ * The timestamp of the last delivered entry is checkpointed to the server data directory, after which the tailer
+ * resumes after a restart (or a failure).  Entries are delivered at least once, so an entry may be delivered again
+ * after a restart.
+ *
+ * If the oplog can't be read, because local.oplog.rs doesn't exist (the server isn't a replica set member) or the
+ * profile user isn't authorized to read it, the problem is logged once and the tailer retries with an increasing
+ * delay, until the oplog can be read.
+ *
+ * @author Scott Marlow
+ */
+public class OplogTailer {
+
+    private static final String LOCAL_DATABASE = "local";
+    private static final String OPLOG_COLLECTION = "oplog.rs";
+    private static final long RETRY_MILLIS = 5000;
+    private static final long MAX_RETRY_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final int UNAUTHORIZED_CODE = 13;
+    private static final long CHECKPOINT_INTERVAL_MILLIS = 1000;
+    private static final long JOIN_MILLIS = 5000;
+
+    private final MongoClientConnectionsService connectionsService;
+    private final String profile;
+    private final List<String> namespaces;  // empty for all namespaces
+    private final Path checkpointFile;  // null if the server data directory is not known
+    private final List<Registration> registrations = new CopyOnWriteArrayList<>();
+    private final Thread thread;
+    private volatile boolean closed;
+
+    // timestamp of the last delivered entry, as seconds << 32 | increment (same as BsonTimestamp.getValue())
+    private volatile long lastTimestamp;
+    private long checkpointedTimestamp;  // only used by the tailing thread
+    private long lastCheckpointMillis;   // only used by the tailing thread
+    private long unavailableRetryMillis; // only used by the tailing thread, 0 if the oplog can be read
+
+    // metrics
+    private final LongAdder entries = new LongAdder();
+    private volatile long lagMillis;
+
+    private final MethodHandle documentCtor;
+    private final MethodHandle bsonTimestampCtor;
+    private final MethodHandle getTimeMethod;
+    private final MethodHandle getIncMethod;
+    private final MethodHandle findMethod;
+    private final MethodHandle cursorTypeMethod;
+    private final MethodHandle noCursorTimeoutMethod;
+    private final MethodHandle oplogReplayMethod;
+    private final MethodHandle iteratorMethod;
+    private final MethodHandle tryNextMethod;
+    private final MethodHandle getServerCursorMethod;
+    private final MethodHandle closeMethod;
+    private final MethodHandle listCollectionNamesMethod;
+    private final MethodHandle intoMethod;
+    private final Class serverExceptionClass;
+    private final Class securityExceptionClass;
+    private final MethodHandle getCodeMethod;
+    private final Object /* CursorType */ tailableAwait;
+
+    OplogTailer(MongoClientConnectionsService connectionsService, ConfigurationBuilder configurationBuilder) {
+        this.connectionsService = connectionsService;
+        this.profile = configurationBuilder.getDescription();
+        final List<String> namespaceList = new ArrayList<>();
+        if (configurationBuilder.getOplogNamespaces() != null) {
+            for (String namespace : configurationBuilder.getOplogNamespaces().split(",")) {
+                if (!namespace.trim().isEmpty()) {
+                    namespaceList.add(namespace.trim());
+                }
+            }
+        }
+        this.namespaces = Collections.unmodifiableList(namespaceList);
+        final String dataDir = System.getProperty("jboss.server.data.dir");
+        this.checkpointFile = dataDir != null ? Paths.get(dataDir, "mongodb", profile + ".oplog-checkpoint") : null;
+
+        MethodHandleBuilder methodHandleBuilder = new MethodHandleBuilder();
+        methodHandleBuilder.classLoader(ModuleIdentifier.fromString(configurationBuilder.getModuleName()));
+        Class bsonClass = methodHandleBuilder.className(NoSQLConstants.MONGOBSONCLASS).getTargetClass();
+        Class cursorTypeClass = methodHandleBuilder.className(NoSQLConstants.MONGOCURSORTYPECLASS).getTargetClass();
+        MethodHandle tailableAwaitField = MethodHandleBuilder.erase(methodHandleBuilder.staticField("TailableAwait"));
+        methodHandleBuilder.className(NoSQLConstants.MONGODOCUMENTCLASS);
+        documentCtor = MethodHandleBuilder.erase(methodHandleBuilder.constructor(MethodType.methodType(void.class, Map.class)));
+        methodHandleBuilder.className(NoSQLConstants.MONGOBSONTIMESTAMPCLASS);
+        bsonTimestampCtor = MethodHandleBuilder.erase(methodHandleBuilder.constructor(MethodType.methodType(void.class, int.class, int.class)));
+        getTimeMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("getTime"));
+        getIncMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("getInc"));
+        methodHandleBuilder.className(NoSQLConstants.MONGOCOLLECTIONCLASS);
+        findMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("find", bsonClass));
+        methodHandleBuilder.className(NoSQLConstants.MONGOFINDITERABLECLASS);
+        cursorTypeMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("cursorType", cursorTypeClass));
+        noCursorTimeoutMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("noCursorTimeout", boolean.class));
+        oplogReplayMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("oplogReplay", boolean.class));
+        methodHandleBuilder.className(NoSQLConstants.MONGOITERABLECLASS);
+        iteratorMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("iterator"));
+        intoMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("into", Collection.class));
+        methodHandleBuilder.className(NoSQLConstants.MONGODATABASECLASS);
+        listCollectionNamesMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("listCollectionNames"));
+        securityExceptionClass = methodHandleBuilder.className(NoSQLConstants.MONGOSECURITYEXCEPTIONCLASS).getTargetClass();
+        serverExceptionClass = methodHandleBuilder.className(NoSQLConstants.MONGOSERVEREXCEPTIONCLASS).getTargetClass();
+        getCodeMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("getCode"));
+        methodHandleBuilder.className(NoSQLConstants.MONGOCURSORCLASS);
+        tryNextMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("tryNext"));
+        getServerCursorMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("getServerCursor"));
+        closeMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("close"));
+        try {
+            tailableAwait = (Object) tailableAwaitField.invokeExact();
+        } catch (Throwable throwable) {
+            throw new RuntimeException("could not get CursorType.TailableAwait for " + profile, throwable);
+        }
+
+        lastTimestamp = readCheckpoint();
+        checkpointedTimestamp = lastTimestamp;
+        thread = new Thread(this::run, "MongoDB oplog tailer " + profile);
+        thread.setDaemon(true);
+    }
+
+    /**
+     * start tailing, called by the MongoDB profile service once the tailer is published.
+     */
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * register a listener for the entries of a namespace.
+     *
+     * @param namespace is "database.collection", "database" (all collections of the database) or null for all entries
+     * @param listener is called by the tailing thread
+     */
+    public void addListener(String namespace, OplogListener listener) {
+        registrations.add(new Registration(namespace, listener));
+    }
+
+    public void removeListener(OplogListener listener) {
+        registrations.removeIf(registration -> registration.listener == listener);
+    }
+
+    /**
+     * @return number of oplog entries that were delivered
+     */
+    public long getEntryCount() {
+        return entries.sum();
+    }
+
+    /**
+     * @return milliseconds that the tailer is behind the oplog (0 when the tailer is waiting for new entries)
+     */
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    private void run() {
+        while (!closed) {
+            long retryMillis = RETRY_MILLIS;
+            try {
+                tail();
+            } catch (Throwable throwable) {
+                if (closed) {
+                    break;
+                }
+                final String unavailable = unavailable(throwable);
+                if (unavailable != null) {
+                    retryMillis = oplogUnavailable(unavailable);
+                } else {
+                    ROOT_LOGGER.oplogTailerFailed(profile, RETRY_MILLIS, throwable);
+                }
+                saveCheckpoint();
+                try {
+                    Thread.sleep(retryMillis);
+                } catch (InterruptedException e) {
+                    break;
+                }
+            }
+        }
+        saveCheckpoint();
+    }
+
+    /**
+     * @return the reason that the oplog can't be read, or null for other (e.g. network) failures
+     */
+    private String unavailable(Throwable throwable) {
+        if (throwable instanceof OplogMissingException) {
+            return throwable.getMessage();
+        }
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (securityExceptionClass.isInstance(cause) || isUnauthorized(cause)) {
+                return cause.getMessage();
+            }
+        }
+        return null;
+    }
+
+    private boolean isUnauthorized(Throwable throwable) {
+        if (!serverExceptionClass.isInstance(throwable)) {
+            return false;
+        }
+        try {
+            return (int) getCodeMethod.invokeExact((Object) throwable) == UNAUTHORIZED_CODE;
+        } catch (Throwable unexpected) {
+            return false;
+        }
+    }
+
+    /**
+     * log the first failure (the oplog can't be read) and double the retry delay for each following failure.
+     *
+     * @return milliseconds to wait before the next try
+     */
+    private long oplogUnavailable(String reason) {
+        if (unavailableRetryMillis == 0) {
+            ROOT_LOGGER.oplogUnavailable(profile, reason, MAX_RETRY_MILLIS);
+            unavailableRetryMillis = RETRY_MILLIS;
+        } else {
+            ROOT_LOGGER.debugf("Oplog tailer of NoSQL profile %s still cannot read the oplog (%s)", profile, reason);
+            unavailableRetryMillis = Math.min(unavailableRetryMillis * 2, MAX_RETRY_MILLIS);
+        }
+        return unavailableRetryMillis;
+    }
+
+    private void tail() throws Throwable {
+        final Object local = connectionsService.getDatabase(LOCAL_DATABASE);
+        final List<String> collectionNames = (List<String>) (Object) intoMethod.invokeExact(
+                (Object) listCollectionNamesMethod.invokeExact(local), (Collection) new ArrayList<>());
+        if (!collectionNames.contains(OPLOG_COLLECTION)) {
+            // a tailable cursor of a missing collection is closed without an error, so check first
+            throw new OplogMissingException(LOCAL_DATABASE + "." + OPLOG_COLLECTION + " does not exist, the MongoDB server is not a replica set member");
+        }
+        final Object oplog = connectionsService.getCollection(LOCAL_DATABASE, OPLOG_COLLECTION, null);
+        // { ts: { $gt: lastTimestamp }, op: { $in: [ "i", "u", "d" ] } }
+        final Map<String, Object> filter = new LinkedHashMap<>();
+        filter.put("ts", document(Collections.singletonMap("$gt",
+                (Object) bsonTimestampCtor.invokeExact((int) (lastTimestamp >>> 32), (int) lastTimestamp))));
+        filter.put("op", document(Collections.singletonMap("$in", Arrays.asList(
+                OplogOperation.INSERT.getCode(), OplogOperation.UPDATE.getCode(), OplogOperation.DELETE.getCode()))));
+        Object iterable = (Object) findMethod.invokeExact(oplog, document(filter));
+        iterable = (Object) cursorTypeMethod.invokeExact(iterable, tailableAwait);
+        iterable = (Object) noCursorTimeoutMethod.invokeExact(iterable, true);
+        iterable = (Object) oplogReplayMethod.invokeExact(iterable, true);
+        final Object cursor = (Object) iteratorMethod.invokeExact(iterable);
+        if (unavailableRetryMillis != 0) {
+            ROOT_LOGGER.debugf("Oplog tailer of NoSQL profile %s can read the oplog again", profile);
+            unavailableRetryMillis = 0;
+        }
+        try {
+            // tryNext waits (on the server) up to the await time for new entries, so closed is checked regularly
+            while (!closed) {
+                final Map<String, Object> entry = (Map<String, Object>) (Object) tryNextMethod.invokeExact(cursor);
+                if (entry != null) {
+                    deliver(entry);
+                } else {
+                    lagMillis = 0;
+                    if ((Object) getServerCursorMethod.invokeExact(cursor) == null) {
+                        // the server closed the cursor (e.g. the oplog was empty), query again
+                        Thread.sleep(CHECKPOINT_INTERVAL_MILLIS);
+                        break;
+                    }
+                }
+                if (System.currentTimeMillis() - lastCheckpointMillis >= CHECKPOINT_INTERVAL_MILLIS) {
+                    saveCheckpoint();
+                }
+            }
+        } finally {
+            closeMethod.invokeExact(cursor);
+        }
+    }
+
+    private Object document(Map<String, ?> map) throws Throwable {
+        return (Object) documentCtor.invokeExact((Map) map);
+    }
+
+    private void deliver(Map<String, Object> entry) throws Throwable {
+        final Object ts = entry.get("ts");
+        final int time = (int) getTimeMethod.invokeExact(ts);
+        final int inc = (int) getIncMethod.invokeExact(ts);
+        final String namespace = (String) entry.get("ns");
+        if (namespace != null && matches(namespace)) {
+            final OplogOperation operation = OplogOperation.fromCode((String) entry.get("op"));
+            // updates identify the document in "o2", inserts + deletes in "o"
+            final Map<String, Object> document = (Map<String, Object>) entry.get(operation == OplogOperation.UPDATE ? "o2" : "o");
+            final OplogEvent event = new OplogEvent(profile, namespace, operation,
+                    document != null ? document.get("_id") : null, TimeUnit.SECONDS.toMillis(time), entry);
+            for (Registration registration : registrations) {
+                if (registration.matches(namespace)) {
+                    try {
+                        registration.listener.onOplogEvent(event);
+                    } catch (RuntimeException e) {
+                        ROOT_LOGGER.oplogListenerFailed(registration.listener, profile, event, e);
+                    }
+                }
+            }
+            entries.increment();
+        }
+        lagMillis = Math.max(0L, System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(time));
+        lastTimestamp = ((long) time << 32) | (inc & 0xFFFFFFFFL);
+    }
+
+    private boolean matches(String namespace) {
+        if (namespaces.isEmpty()) {
+            return true;
+        }
+        for (String filter : namespaces) {
+            if (matches(filter, namespace)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param filter is "database.collection", "database" or null for all namespaces
+     * @param namespace is the oplog entry "database.collection" namespace
+     */
+    static boolean matches(String filter, String namespace) {
+        return filter == null || namespace.equals(filter) ||
+                (namespace.startsWith(filter) && namespace.charAt(filter.length()) == '.' && filter.indexOf('.') < 0);
+    }
+
+    /**
+     * @return the checkpointed timestamp or the current time if there is no checkpoint
+     */
+    private long readCheckpoint() {
+        if (checkpointFile != null && Files.exists(checkpointFile)) {
+            try {
+                return Long.parseLong(new String(Files.readAllBytes(checkpointFile), StandardCharsets.US_ASCII).trim());
+            } catch (IOException | NumberFormatException e) {
+                ROOT_LOGGER.oplogCheckpointFailed(profile, checkpointFile.toString(), e);
+            }
+        }
+        return TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) << 32;
+    }
+
+    private void saveCheckpoint() {
+        lastCheckpointMillis = System.currentTimeMillis();
+        final long timestamp = lastTimestamp;
+        if (checkpointFile == null || timestamp == checkpointedTimestamp) {
+            return;
+        }
+        try {
+            Files.createDirectories(checkpointFile.getParent());
+            final Path temporaryFile = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+            Files.write(temporaryFile, Long.toString(timestamp).getBytes(StandardCharsets.US_ASCII));
+            Files.move(temporaryFile, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            checkpointedTimestamp = timestamp;
+        } catch (IOException e) {
+            ROOT_LOGGER.oplogCheckpointFailed(profile, checkpointFile.toString(), e);
+        }
+    }
+
+    /**
+     * stop tailing, which waits for the current tryNext call to return and saves the checkpoint.
+     */
+    void close() {
+        closed = true;
+        thread.interrupt();
+        try {
+            thread.join(JOIN_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class OplogMissingException extends Exception {
+        private OplogMissingException(String message) {
+            super(message);
+        }
+    }
+
+    private static final class Registration {
+        private final String namespace;
+        private final OplogListener listener;
+
+        private Registration(String namespace, OplogListener listener) {
+            this.namespace = namespace;
+            this.listener = listener;
+        }
+
+        private boolean matches(String namespace) {
+            return OplogTailer.matches(this.namespace, namespace);
+        }
+    }
+}
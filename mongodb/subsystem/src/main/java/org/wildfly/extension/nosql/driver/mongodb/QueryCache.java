@@ -0,0 +1,359 @@
+/*
+ * Copyright 2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wildfly.extension.nosql.driver.mongodb;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheWriter;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.jboss.modules.ModuleIdentifier;
+import org.wildfly.nosql.common.MethodHandleBuilder;
+import org.wildfly.nosql.common.NoSQLConstants;
+
+/**
+ * QueryCache is the read-through query result cache of a MongoDB profile, that is enabled by the
+ * query-cache-max-size attribute.  Results are cached by (collection, filter, projection, sort, limit) and are
+ * evicted when the query-cache-max-size is reached, after the query-cache-expire-after-write time or when a write
+ * is made through a {@link CachedCollection} of the same collection.
+ *
+ * Obtain the query cache of a MongoDB profile via NoSQLConnection.unwrap(QueryCache.class) or inject a
+ * CachedCollection via &#064;MongoCollectionRef.  Collections are named "collection" (in the profile database) or
+ * "database/collection".
+ *
+ * Ex:
+ * <pre>
+ *   QueryCache queryCache = ConnectionServiceAccess.connection("MyMongoDB").unwrap(QueryCache.class);
+ *   CachedCollection&lt;Document&gt; countries = queryCache.getCollection("countries");
+ *   List&lt;Document&gt; europe = countries.find(Filters.eq("continent", "Europe"));
+ * </pre>
+ *
+ * Writes made without the CachedCollection (e.g. by other applications) are not seen until the cached result
+ * expires, so only enable the query cache for collections that can tolerate query-cache-expire-after-write
+ * staleness.
+ *
+ * @author Scott Marlow
+ */
+public class QueryCache {
+
+    private final MongoClientConnectionsService connectionsService;
+    private final String profile;
+    private final String profileDatabase;
+    private final Cache<QueryKey, List<Object>> cache;
+    // write generation + cached query keys, by "database/collection" name
+    private final ConcurrentMap<String, Namespace> namespaces = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CachedCollection> collections = new ConcurrentHashMap<>();
+
+    // MongoCollection
+    private final MethodHandle findMethod;
+    private final MethodHandle findWithFilterMethod;
+    private final MethodHandle getDocumentClassMethod;
+    private final MethodHandle getCodecRegistryMethod;
+    final MethodHandle insertOneMethod;
+    final MethodHandle insertManyMethod;
+    final MethodHandle updateOneMethod;
+    final MethodHandle updateManyMethod;
+    final MethodHandle replaceOneMethod;
+    final MethodHandle deleteOneMethod;
+    final MethodHandle deleteManyMethod;
+    // FindIterable + MongoIterable
+    private final MethodHandle projectionMethod;
+    private final MethodHandle sortMethod;
+    private final MethodHandle limitMethod;
+    private final MethodHandle intoMethod;
+    // Bson + BsonDocument
+    private final MethodHandle toBsonDocumentMethod;
+    private final MethodHandle toJsonMethod;
+
+    QueryCache(MongoClientConnectionsService connectionsService, ConfigurationBuilder configurationBuilder) {
+        this.connectionsService = connectionsService;
+        this.profile = configurationBuilder.getDescription();
+        this.profileDatabase = configurationBuilder.getDatabase();
+
+        Caffeine<Object, Object> caffeine = Caffeine.newBuilder()
+                .maximumSize(configurationBuilder.getQueryCacheMaxSize())
+                .writer(new KeyIndexWriter())
+                .recordStats();
+        if (configurationBuilder.getQueryCacheExpireAfterWrite() != null) {
+            caffeine.expireAfterWrite(configurationBuilder.getQueryCacheExpireAfterWrite(), TimeUnit.MILLISECONDS);
+        }
+        cache = caffeine.build();
+
+        MethodHandleBuilder methodHandleBuilder = new MethodHandleBuilder();
+        methodHandleBuilder.classLoader(ModuleIdentifier.fromString(configurationBuilder.getModuleName()));
+        Class bsonClass = methodHandleBuilder.className(NoSQLConstants.MONGOBSONCLASS).getTargetClass();
+        Class codecRegistryClass = methodHandleBuilder.className(NoSQLConstants.MONGOCODECREGISTRYCLASS).getTargetClass();
+        methodHandleBuilder.className(NoSQLConstants.MONGOBSONCLASS);
+        // <TDocument> BsonDocument toBsonDocument(Class<TDocument> documentClass, CodecRegistry codecRegistry)
+        toBsonDocumentMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("toBsonDocument", Class.class, codecRegistryClass));
+        methodHandleBuilder.className(NoSQLConstants.MONGOBSONDOCUMENTCLASS);
+        toJsonMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("toJson"));
+        methodHandleBuilder.className(NoSQLConstants.MONGOCOLLECTIONCLASS);
+        findMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("find"));
+        findWithFilterMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("find", bsonClass));
+        getDocumentClassMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("getDocumentClass"));
+        getCodecRegistryMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("getCodecRegistry"));
+        insertOneMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("insertOne", Object.class));
+        insertManyMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("insertMany", List.class));
+        updateOneMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("updateOne", bsonClass, bsonClass));
+        updateManyMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("updateMany", bsonClass, bsonClass));
+        replaceOneMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("replaceOne", bsonClass, Object.class));
+        deleteOneMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("deleteOne", bsonClass));
+        deleteManyMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("deleteMany", bsonClass));
+        methodHandleBuilder.className(NoSQLConstants.MONGOFINDITERABLECLASS);
+        projectionMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("projection", bsonClass));
+        sortMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("sort", bsonClass));
+        limitMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("limit", int.class));
+        methodHandleBuilder.className(NoSQLConstants.MONGOITERABLECLASS);
+        // <A extends Collection<? super TResult>> A into(A target)
+        intoMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("into", Collection.class));
+    }
+
+    /**
+     * get the cached view of a collection of org.bson.Document, which is only created once per profile.
+     *
+     * @param collectionName is "collection" or "database/collection"
+     * @return CachedCollection
+     */
+    public <TDocument> CachedCollection<TDocument> getCollection(String collectionName) {
+        final int separator = collectionName.indexOf('/');
+        if (separator > 0) {
+            return getCollection(collectionName.substring(0, separator), collectionName.substring(separator + 1), null);
+        }
+        return getCollection(null, collectionName, null);
+    }
+
+    /**
+     * get the cached view of a collection, which is only created once per profile.
+     *
+     * @param databaseName is the database name or null for the profile database
+     * @param collectionName is the collection name
+     * @param documentClass is the collection document class or null for org.bson.Document
+     * @return CachedCollection
+     */
+    public <TDocument> CachedCollection<TDocument> getCollection(String databaseName, String collectionName, Class<TDocument> documentClass) {
+        final String namespace = (databaseName != null ? databaseName : profileDatabase) + '/' + collectionName;
+        final String key = documentClass == null ? namespace : namespace + '/' + documentClass.getName();
+        CachedCollection result = collections.get(key);
+        if (result == null) {
+            result = collections.computeIfAbsent(key, ignore -> {
+                final Object collection = connectionsService.getCollection(databaseName, collectionName, documentClass);
+                try {
+                    return new CachedCollection(this, namespace, collection,
+                            (Class) getDocumentClassMethod.invokeExact(collection), (Object) getCodecRegistryMethod.invokeExact(collection));
+                } catch (Throwable throwable) {
+                    throw new RuntimeException("could not use collection " + namespace + " of " + profile, throwable);
+                }
+            });
+        }
+        return result;
+    }
+
+    List<Object> find(CachedCollection collection, Object /* Bson */ filter, Object /* Bson */ projection, Object /* Bson */ sort, int limit) {
+        final QueryKey key = new QueryKey(collection.getNamespace(), collection.documentClass,
+                json(collection, filter), json(collection, projection), json(collection, sort), limit);
+        final List<Object> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        final Namespace namespace = namespace(collection.getNamespace());
+        final long before = namespace.generation.get();
+        // the query runs outside of the cache, so that the server round trip doesn't block the other keys of the bin
+        final List<Object> result = query(collection, filter, projection, sort, limit);
+        if (namespace.generation.get() != before) {
+            // a write through the CachedCollection raced with the query, which may have read the old
+            // documents, so the result is returned without caching it
+            return result;
+        }
+        final List<Object> concurrent = cache.asMap().putIfAbsent(key, result);
+        if (concurrent != null) {
+            return concurrent;
+        }
+        // the key is indexed after the result is published and before the generation is checked again, so a write
+        // that increments the generation after the check finds the key in the index and evicts the result.
+        namespace.keys.add(key);
+        if (namespace.generation.get() != before) {
+            cache.asMap().remove(key, result);
+        }
+        return result;
+    }
+
+    private List<Object> query(CachedCollection collection, Object filter, Object projection, Object sort, int limit) {
+        try {
+            Object iterable = filter != null ?
+                    (Object) findWithFilterMethod.invokeExact(collection.getCollection(), filter) :
+                    (Object) findMethod.invokeExact(collection.getCollection());
+            if (projection != null) {
+                iterable = (Object) projectionMethod.invokeExact(iterable, projection);
+            }
+            if (sort != null) {
+                iterable = (Object) sortMethod.invokeExact(iterable, sort);
+            }
+            if (limit > 0) {
+                iterable = (Object) limitMethod.invokeExact(iterable, limit);
+            }
+            final Collection result = (Collection) intoMethod.invokeExact(iterable, (Collection) new ArrayList<>());
+            return Collections.unmodifiableList((List<Object>) result);
+        } catch (Throwable throwable) {
+            throw propagate(throwable);
+        }
+    }
+
+    /**
+     * the Bson query parts are compared by their (field order preserving) JSON form, as Bson instances
+     * (e.g. Filters.eq) don't implement equals.
+     */
+    private String json(CachedCollection collection, Object /* Bson */ bson) {
+        if (bson == null) {
+            return null;
+        }
+        try {
+            final Object bsonDocument = (Object) toBsonDocumentMethod.invokeExact(bson, collection.documentClass, collection.codecRegistry);
+            return (String) toJsonMethod.invokeExact(bsonDocument);
+        } catch (Throwable throwable) {
+            throw propagate(throwable);
+        }
+    }
+
+    /**
+     * evict the cached results of the collection, after it was written to.
+     *
+     * @param namespace is "database/collection"
+     */
+    void invalidate(String namespace) {
+        final Namespace entry = namespace(namespace);
+        entry.generation.incrementAndGet();
+        // the KeyIndexWriter removes the invalidated keys from the index
+        cache.invalidateAll(new ArrayList<>(entry.keys));
+    }
+
+    private Namespace namespace(String namespace) {
+        Namespace result = namespaces.get(namespace);
+        if (result == null) {
+            result = namespaces.computeIfAbsent(namespace, ignore -> new Namespace());
+        }
+        return result;
+    }
+
+    void close() {
+        collections.clear();
+        cache.invalidateAll();
+    }
+
+    static RuntimeException propagate(Throwable throwable) {
+        if (throwable instanceof RuntimeException) {
+            return (RuntimeException) throwable;
+        }
+        if (throwable instanceof Error) {
+            throw (Error) throwable;
+        }
+        return new RuntimeException(throwable);
+    }
+
+    public long getSize() {
+        return cache.estimatedSize();
+    }
+
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    private static final class Namespace {
+        // incremented by each write through a CachedCollection
+        private final AtomicLong generation = new AtomicLong();
+        // keys of the cached results, so that a write only evicts the results of its collection
+        private final Set<QueryKey> keys = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * KeyIndexWriter removes the evicted, expired and invalidated keys from the Namespace key index.  Caffeine calls
+     * the writer atomically with the removal, so the index can't lose a key that a concurrent load adds.
+     */
+    private final class KeyIndexWriter implements CacheWriter<QueryKey, List<Object>> {
+        @Override
+        public void write(QueryKey key, List<Object> value) {
+            // results are only added by find, which indexes the key
+        }
+
+        @Override
+        public void delete(QueryKey key, List<Object> value, RemovalCause cause) {
+            namespace(key.namespace).keys.remove(key);
+        }
+    }
+
+    private static final class QueryKey {
+        private final String namespace;
+        private final Class documentClass;
+        private final String filter;
+        private final String projection;
+        private final String sort;
+        private final int limit;
+        private final int hashCode;
+
+        private QueryKey(String namespace, Class documentClass, String filter, String projection, String sort, int limit) {
+            this.namespace = namespace;
+            this.documentClass = documentClass;
+            this.filter = filter;
+            this.projection = projection;
+            this.sort = sort;
+            this.limit = limit;
+            this.hashCode = Objects.hash(namespace, documentClass, filter, projection, sort, limit);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof QueryKey)) {
+                return false;
+            }
+            final QueryKey key = (QueryKey) other;
+            return limit == key.limit &&
+                    namespace.equals(key.namespace) &&
+                    documentClass == key.documentClass &&
+                    Objects.equals(filter, key.filter) &&
+                    Objects.equals(projection, key.projection) &&
+                    Objects.equals(sort, key.sort);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.nosql.driver.mongodb;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.jboss.modules.ModuleIdentifier;
+import org.wildfly.nosql.common.MethodHandleBuilder;
+import org.wildfly.nosql.common.NoSQLConstants;
+
+/**
+ * RawBsonStreams copies RawBsonDocument query results straight to an OutputStream, as BSON or as JSON, so that
+ * read-heavy endpoints don't decode each result into a Document that is then serialized again.
+ *
+ * Obtain the helper of a MongoDB profile via NoSQLConnection.unwrap(RawBsonStreams.class), the profile should
+ * set raw-bson="true" so that collections can be read with the RawBsonDocument document class.
+ *
+ * Ex (JAX-RS):
+ * <pre>
+ *   MongoCollection&lt;RawBsonDocument&gt; orders = database.getCollection("orders", RawBsonDocument.class);
+ *   StreamingOutput output = out -&gt; rawBsonStreams.writeJson(orders.find(filter), out);
+ *   return Response.ok(output, MediaType.APPLICATION_JSON).build();
+ * </pre>
+ *
+ * The cursor of the passed MongoIterable is closed when the copy completes or fails.  The passed OutputStream is
+ * flushed but not closed.
+ *
+ * @author Scott Marlow
+ */
+public class RawBsonStreams {
+
+    private static final int BUFFER_SIZE = 32 * 1024;
+    // output buffers are shared by all profiles, so that concurrent responses don't each allocate a new buffer
+    private static final BlockingQueue<byte[]> BUFFER_POOL = new ArrayBlockingQueue<>(32);
+
+    private final Class rawBsonDocumentClass;
+    private final MethodHandle getByteBufferMethod;
+    private final MethodHandle asNIOMethod;
+    private final MethodHandle bsonBinaryReaderCtor;
+    private final MethodHandle readerCloseMethod;
+    private final MethodHandle jsonWriterCtor;
+    private final MethodHandle pipeMethod;
+    private final Object /* JsonWriterSettings */ jsonWriterSettings;
+
+    RawBsonStreams(ConfigurationBuilder configurationBuilder) {
+        MethodHandleBuilder methodHandleBuilder = new MethodHandleBuilder();
+        methodHandleBuilder.classLoader(ModuleIdentifier.fromString(configurationBuilder.getModuleName()));
+        Class bsonReaderClass = methodHandleBuilder.className(NoSQLConstants.MONGOBSONREADERCLASS).getTargetClass();
+        Class jsonWriterSettingsClass = methodHandleBuilder.className(NoSQLConstants.MONGOJSONWRITERSETTINGSCLASS).getTargetClass();
+        Class jsonModeClass = methodHandleBuilder.className(NoSQLConstants.MONGOJSONMODECLASS).getTargetClass();
+        methodHandleBuilder.className(NoSQLConstants.MONGOJSONWRITERSETTINGSCLASS);
+        MethodHandle jsonWriterSettingsCtor = MethodHandleBuilder.erase(methodHandleBuilder.constructor(MethodType.methodType(void.class, jsonModeClass)));
+        rawBsonDocumentClass = methodHandleBuilder.className(NoSQLConstants.MONGORAWBSONDOCUMENTCLASS).getTargetClass();
+        // public ByteBuf getByteBuffer()
+        getByteBufferMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("getByteBuffer"));
+        methodHandleBuilder.className(NoSQLConstants.MONGOBYTEBUFCLASS);
+        // ByteBuffer asNIO()
+        asNIOMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("asNIO"));
+        methodHandleBuilder.className(NoSQLConstants.MONGOBSONBINARYREADERCLASS);
+        bsonBinaryReaderCtor = MethodHandleBuilder.erase(methodHandleBuilder.constructor(MethodType.methodType(void.class, ByteBuffer.class)));
+        readerCloseMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("close"));
+        methodHandleBuilder.className(NoSQLConstants.MONGOJSONWRITERCLASS);
+        jsonWriterCtor = MethodHandleBuilder.erase(methodHandleBuilder.constructor(MethodType.methodType(void.class, Writer.class, jsonWriterSettingsClass)));
+        // public void pipe(BsonReader reader)
+        pipeMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("pipe", bsonReaderClass));
+        try {
+            jsonWriterSettings = (Object) jsonWriterSettingsCtor.invokeExact((Object) jsonMode(jsonModeClass));
+        } catch (Throwable throwable) {
+            throw new RuntimeException("could not create JsonWriterSettings for " + configurationBuilder.getDescription(), throwable);
+        }
+    }
+
+    /**
+     * @return JsonMode.RELAXED (MongoDB Java driver 3.5+) or JsonMode.STRICT for older drivers
+     */
+    private static Object /* JsonMode */ jsonMode(Class jsonModeClass) {
+        try {
+            return Enum.valueOf(jsonModeClass, "RELAXED");
+        } catch (IllegalArgumentException olderDriver) {
+            return Enum.valueOf(jsonModeClass, "STRICT");
+        }
+    }
+
+    /**
+     * copy the RawBsonDocument results as a stream of BSON documents (the format of mongodump/bsondump).
+     *
+     * @param results is the MongoIterable&lt;RawBsonDocument&gt; (e.g. FindIterable) to copy
+     * @param out is the target stream
+     * @throws IOException if writing to the target stream fails
+     */
+    public void writeBson(Iterable<?> results, OutputStream out) throws IOException {
+        final Iterator<?> cursor = results.iterator();
+        try (PooledBufferOutputStream buffered = new PooledBufferOutputStream(out)) {
+            while (cursor.hasNext()) {
+                buffered.write(rawBytes(cursor.next()));
+            }
+        } finally {
+            close(cursor);
+        }
+    }
+
+    /**
+     * copy the RawBsonDocument results as a JSON array, in relaxed extended JSON (strict mode for MongoDB Java
+     * drivers older than 3.5).  The BSON bytes are piped into the JSON writer, without creating Document instances.
+     *
+     * @param results is the MongoIterable&lt;RawBsonDocument&gt; (e.g. FindIterable) to copy
+     * @param out is the target stream, the JSON is UTF-8 encoded
+     * @throws IOException if writing to the target stream fails
+     */
+    public void writeJson(Iterable<?> results, OutputStream out) throws IOException {
+        final Iterator<?> cursor = results.iterator();
+        try (PooledBufferOutputStream buffered = new PooledBufferOutputStream(out);
+             Writer writer = new OutputStreamWriter(buffered, StandardCharsets.UTF_8)) {
+            writer.write('[');
+            boolean first = true;
+            while (cursor.hasNext()) {
+                if (!first) {
+                    writer.write(',');
+                }
+                first = false;
+                writeJson(cursor.next(), writer);
+            }
+            writer.write(']');
+        } finally {
+            close(cursor);
+        }
+    }
+
+    private void writeJson(Object rawBsonDocument, Writer writer) throws IOException {
+        final ByteBuffer bytes = rawBytes(rawBsonDocument);
+        try {
+            // a JsonWriter only writes one top level document
+            final Object jsonWriter = (Object) jsonWriterCtor.invokeExact(writer, jsonWriterSettings);
+            final Object reader = (Object) bsonBinaryReaderCtor.invokeExact(bytes);
+            try {
+                pipeMethod.invokeExact(jsonWriter, reader);
+            } finally {
+                readerCloseMethod.invokeExact(reader);
+            }
+        } catch (IOException | RuntimeException | Error rethrow) {
+            throw rethrow;
+        } catch (Throwable throwable) {
+            throw new RuntimeException(throwable);
+        }
+    }
+
+    private ByteBuffer rawBytes(Object rawBsonDocument) {
+        if (!rawBsonDocumentClass.isInstance(rawBsonDocument)) {
+            throw new IllegalArgumentException("expected RawBsonDocument results but got " +
+                    (rawBsonDocument != null ? rawBsonDocument.getClass().getName() : "null") +
+                    ", use the RawBsonDocument document class to get the collection");
+        }
+        try {
+            return (ByteBuffer) asNIOMethod.invokeExact((Object) getByteBufferMethod.invokeExact(rawBsonDocument));
+        } catch (RuntimeException | Error rethrow) {
+            throw rethrow;
+        } catch (Throwable throwable) {
+            throw new RuntimeException(throwable);
+        }
+    }
+
+    private static void close(Iterator<?> cursor) throws IOException {
+        // MongoCursor is Closeable, closing it releases the server cursor if not all results were read
+        if (cursor instanceof Closeable) {
+            ((Closeable) cursor).close();
+        }
+    }
+
+    /**
+     * Buffers the output in a pooled buffer, that is returned to the pool on close.  The target stream is flushed
+     * but not closed.
+     */
+    private static final class PooledBufferOutputStream extends OutputStream {
+        private final OutputStream target;
+        private byte[] buffer;
+        private int count;
+
+        private PooledBufferOutputStream(OutputStream target) {
+            this.target = target;
+            byte[] pooled = BUFFER_POOL.poll();
+            this.buffer = pooled != null ? pooled : new byte[BUFFER_SIZE];
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (count == buffer.length) {
+                drain();
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                if (count == buffer.length) {
+                    drain();
+                }
+                final int chunk = Math.min(length, buffer.length - count);
+                System.arraycopy(bytes, offset, buffer, count, chunk);
+                count += chunk;
+                offset += chunk;
+                length -= chunk;
+            }
+        }
+
+        private void write(ByteBuffer bytes) throws IOException {
+            while (bytes.hasRemaining()) {
+                if (count == buffer.length) {
+                    drain();
+                }
+                final int chunk = Math.min(bytes.remaining(), buffer.length - count);
+                bytes.get(buffer, count, chunk);
+                count += chunk;
+            }
+        }
+
+        private void drain() throws IOException {
+            if (count > 0) {
+                target.write(buffer, 0, count);
+                count = 0;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            drain();
+            target.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (buffer == null) {
+                return;
+            }
+            try {
+                flush();
+            } finally {
+                BUFFER_POOL.offer(buffer);
+                buffer = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.nosql.driver.mongodb;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ReadPreference names that are passed to com.mongodb.ReadPreference.valueOf(String)
+ *
+ * @author Scott Marlow
+ */
+public enum ReadPreferenceType {
+
+    PRIMARY("primary"),
+    PRIMARY_PREFERRED("primaryPreferred"),
+    SECONDARY("secondary"),
+    SECONDARY_PREFERRED("secondaryPreferred"),
+    NEAREST("nearest");
+
+    // upper case names, as compared by the properties validator
+    public static final List<String> NAMES = Arrays.asList("PRIMARY", "PRIMARYPREFERRED", "SECONDARY", "SECONDARYPREFERRED", "NEAREST");
+
+    private final String driverName;
+
+    ReadPreferenceType(String driverName) {
+        this.driverName = driverName;
+    }
+
+    public String getDriverName() {
+        return driverName;
+    }
+
+    public static ReadPreferenceType fromName(String name) {
+        for (ReadPreferenceType type : values()) {
+            if (type.driverName.equalsIgnoreCase(name) || type.name().equalsIgnoreCase(name)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("unknown read preference " + name);
+    }
+
+    /**
+     * Parse the tag sets, which are separated by ';' and are tried in order.  Each tag set contains ',' separated
+     * name:value tags, an empty tag set matches any server.
+     * Ex: "dc:ny,rack:1;dc:ny;" prefers rack 1 in ny, then any server in ny, then any server.
+     *
+     * @param tagSets is the tag sets to parse
+     * @return list of tag sets, each tag set is an ordered map of tag name to tag value
+     */
+    public static List<Map<String, String>> parseTagSets(String tagSets) {
+        if (tagSets == null) {
+            return Collections.emptyList();
+        }
+        List<Map<String, String>> result = new ArrayList<>();
+        // -1 limit to keep a trailing empty tag set
+        for (String tagSet : tagSets.split(";", -1)) {
+            Map<String, String> tags = new LinkedHashMap<>();
+            if (!tagSet.trim().isEmpty()) {
+                for (String tag : tagSet.split(",")) {
+                    int separator = tag.indexOf(':');
+                    if (separator <= 0 || separator == tag.length() - 1) {
+                        throw new IllegalArgumentException("tag '" + tag + "' is not in name:value format");
+                    }
+                    tags.put(tag.substring(0, separator).trim(), tag.substring(separator + 1).trim());
+                }
+            }
+            result.add(tags);
+        }
+        return result;
+    }
+
+}
@@ -33,7 +33,58 @@ public interface CommonAttributes {
     String PROPERTY = "property";
     String WRITE_CONCERN = "writeConcern";
     String READ_CONCERN = "readConcern";
+    String COMMAND_METRICS = "command-metrics";
+    String POOL_CHECKED_OUT = "pool-checked-out";
+    String POOL_CHECKED_OUT_HIGH_WATER_MARK = "pool-checked-out-high-water-mark";
+    String POOL_WAIT_QUEUE_SIZE = "pool-wait-queue-size";
+    String POOL_WAIT_QUEUE_HIGH_WATER_MARK = "pool-wait-queue-high-water-mark";
+    String POOL_CONNECTIONS_CREATED = "pool-connections-created";
+    String POOL_CONNECTIONS_CLOSED = "pool-connections-closed";
+    String POOL_CHECKOUT_COUNT = "pool-checkout-count";
+    String POOL_AVERAGE_CHECKOUT_WAIT_TIME = "pool-average-checkout-wait-time";
+    String POOL_MAX_CHECKOUT_WAIT_TIME = "pool-max-checkout-wait-time";
+    String RESET_POOL_HIGH_WATER_MARKS = "reset-pool-high-water-marks";
+    String BULK_WRITE_QUEUE_DEPTH = "bulk-write-queue-depth";
+    String BULK_WRITE_FLUSH_COUNT = "bulk-write-flush-count";
+    String BULK_WRITE_AVERAGE_FLUSH_SIZE = "bulk-write-average-flush-size";
+    String BULK_WRITE_AVERAGE_FLUSH_TIME = "bulk-write-average-flush-time";
+    String BULK_WRITE_MAX_FLUSH_TIME = "bulk-write-max-flush-time";
+    String QUERY_CACHE_SIZE = "query-cache-size";
+    String QUERY_CACHE_HIT_COUNT = "query-cache-hit-count";
+    String QUERY_CACHE_MISS_COUNT = "query-cache-miss-count";
+    String QUERY_CACHE_HIT_RATIO = "query-cache-hit-ratio";
+    String QUERY_CACHE_EVICTION_COUNT = "query-cache-eviction-count";
+    String OPLOG_TAILER_LAG = "oplog-tailer-lag";
+    String OPLOG_TAILER_ENTRY_COUNT = "oplog-tailer-entry-count";
+    String READ_PREFERENCE = "readPreference";
+    String READ_PREFERENCE_TAGS = "readPreferenceTags";
+    String MAX_STALENESS = "maxStaleness";
+    String LOCAL_THRESHOLD = "localThreshold";
+    String CONNECT_TIMEOUT = "connectTimeout";
+    String SOCKET_TIMEOUT = "socketTimeout";
+    String SOCKET_KEEP_ALIVE = "socketKeepAlive";
+    String SERVER_SELECTION_TIMEOUT = "serverSelectionTimeout";
+    String HEARTBEAT_FREQUENCY = "heartbeatFrequency";
+    String MIN_HEARTBEAT_FREQUENCY = "minHeartbeatFrequency";
     String SECURITY_DOMAIN = "security-domain";
     String AUTH_TYPE = "auth-type";
     String SSL = "ssl";
+    String ASYNC_START = "async-start";
+    String LAZY_CONNECT = "lazy-connect";
+    String MIN_CONNECTIONS_PER_HOST = "min-connections-per-host";
+    String CONNECTIONS_PER_HOST = "connections-per-host";
+    String THREADS_ALLOWED_TO_BLOCK_MULTIPLIER = "threads-allowed-to-block-multiplier";
+    String MAX_WAIT_TIME = "max-wait-time";
+    String MAX_CONNECTION_IDLE_TIME = "max-connection-idle-time";
+    String MAX_CONNECTION_LIFE_TIME = "max-connection-life-time";
+    String DATABASES = "databases";
+    String BULK_WRITE_BATCH_SIZE = "bulk-write-batch-size";
+    String BULK_WRITE_FLUSH_INTERVAL = "bulk-write-flush-interval";
+    String RAW_BSON = "raw-bson";
+    String TRANSPORT = "transport";
+    String CLIENT_TYPE = "client-type";
+    String QUERY_CACHE_MAX_SIZE = "query-cache-max-size";
+    String QUERY_CACHE_EXPIRE_AFTER_WRITE = "query-cache-expire-after-write";
+    String OPLOG_TAILER = "oplog-tailer";
+    String OPLOG_NAMESPACES = "oplog-namespaces";
 }
@@ -31,14 +31,20 @@ import java.util.Set;
 import org.jboss.as.controller.AbstractAddStepHandler;
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationDefinition;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PersistentResourceDefinition;
 import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.operations.validation.EnumValidator;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.naming.ServiceBasedNamingStore;
 import org.jboss.as.naming.ValueManagedReferenceFactory;
@@ -55,12 +61,14 @@ import org.jboss.msc.inject.Injector;
 import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
-import org.jboss.msc.value.ImmediateValue;
 import org.jboss.security.SubjectFactory;
 import org.wildfly.extension.nosql.driver.mongodb.AuthType;
+import org.wildfly.extension.nosql.driver.mongodb.ClientType;
 import org.wildfly.extension.nosql.driver.mongodb.ConfigurationBuilder;
 import org.wildfly.extension.nosql.driver.mongodb.MongoClientConnectionsService;
 import org.wildfly.extension.nosql.driver.mongodb.ReadConcernType;
+import org.wildfly.extension.nosql.driver.mongodb.ReadPreferenceType;
+import org.wildfly.extension.nosql.driver.mongodb.TransportType;
 import org.wildfly.extension.nosql.driver.mongodb.WriteConcernType;
 import org.wildfly.nosql.common.ConnectionServiceAccess;
 
@@ -124,6 +132,139 @@ public class MongoDefinition extends PersistentResourceDefinition {
                     .setAllowExpression(true)
                     .build();
 
+    protected static final SimpleAttributeDefinition ASYNC_START =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.ASYNC_START, ModelType.BOOLEAN, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setDefaultValue(new ModelNode(false))
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition LAZY_CONNECT =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.LAZY_CONNECT, ModelType.BOOLEAN, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setDefaultValue(new ModelNode(false))
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition MIN_CONNECTIONS_PER_HOST =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.MIN_CONNECTIONS_PER_HOST, ModelType.INT, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setValidator(new IntRangeValidator(0, true, true))
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition CONNECTIONS_PER_HOST =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.CONNECTIONS_PER_HOST, ModelType.INT, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setValidator(new IntRangeValidator(1, true, true))
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition THREADS_ALLOWED_TO_BLOCK_MULTIPLIER =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.THREADS_ALLOWED_TO_BLOCK_MULTIPLIER, ModelType.INT, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setValidator(new IntRangeValidator(1, true, true))
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition MAX_WAIT_TIME =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.MAX_WAIT_TIME, ModelType.INT, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setValidator(new IntRangeValidator(0, true, true))
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition MAX_CONNECTION_IDLE_TIME =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.MAX_CONNECTION_IDLE_TIME, ModelType.INT, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setValidator(new IntRangeValidator(0, true, true))
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition MAX_CONNECTION_LIFE_TIME =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.MAX_CONNECTION_LIFE_TIME, ModelType.INT, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setValidator(new IntRangeValidator(0, true, true))
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition DATABASES =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.DATABASES, ModelType.STRING, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition BULK_WRITE_BATCH_SIZE =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.BULK_WRITE_BATCH_SIZE, ModelType.INT, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setValidator(new IntRangeValidator(1, true, true))
+                    .setDefaultValue(new ModelNode(1000))
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition BULK_WRITE_FLUSH_INTERVAL =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.BULK_WRITE_FLUSH_INTERVAL, ModelType.INT, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setValidator(new IntRangeValidator(1, true, true))
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .setDefaultValue(new ModelNode(10))
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition RAW_BSON =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.RAW_BSON, ModelType.BOOLEAN, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setDefaultValue(new ModelNode(false))
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition TRANSPORT =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.TRANSPORT, ModelType.STRING, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setValidator(new EnumValidator<>(TransportType.class, true, true))
+                    .setDefaultValue(new ModelNode(TransportType.SOCKET.toString()))
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition CLIENT_TYPE =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.CLIENT_TYPE, ModelType.STRING, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setValidator(new EnumValidator<>(ClientType.class, true, true))
+                    .setDefaultValue(new ModelNode(ClientType.SYNC.toString()))
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition QUERY_CACHE_MAX_SIZE =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.QUERY_CACHE_MAX_SIZE, ModelType.LONG, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setValidator(new LongRangeValidator(1, true, true))
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition QUERY_CACHE_EXPIRE_AFTER_WRITE =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.QUERY_CACHE_EXPIRE_AFTER_WRITE, ModelType.LONG, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setValidator(new LongRangeValidator(1, true, true))
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition OPLOG_TAILER =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.OPLOG_TAILER, ModelType.BOOLEAN, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setDefaultValue(new ModelNode(false))
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition OPLOG_NAMESPACES =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.OPLOG_NAMESPACES, ModelType.STRING, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setAllowExpression(true)
+                    .build();
+
     protected static List<SimpleAttributeDefinition> ATTRIBUTES = Arrays.asList(
             ID_NAME,
             JNDI_NAME,
@@ -131,7 +272,87 @@ public class MongoDefinition extends PersistentResourceDefinition {
             MODULE,
             SECURITY_DOMAIN,
             AUTH_TYPE,
-            SSL);
+            SSL,
+            ASYNC_START,
+            LAZY_CONNECT,
+            MIN_CONNECTIONS_PER_HOST,
+            CONNECTIONS_PER_HOST,
+            THREADS_ALLOWED_TO_BLOCK_MULTIPLIER,
+            MAX_WAIT_TIME,
+            MAX_CONNECTION_IDLE_TIME,
+            MAX_CONNECTION_LIFE_TIME,
+            DATABASES,
+            BULK_WRITE_BATCH_SIZE,
+            BULK_WRITE_FLUSH_INTERVAL,
+            RAW_BSON,
+            TRANSPORT,
+            CLIENT_TYPE,
+            QUERY_CACHE_MAX_SIZE,
+            QUERY_CACHE_EXPIRE_AFTER_WRITE,
+            OPLOG_TAILER,
+            OPLOG_NAMESPACES);
+
+    // attributes added in the 1.1 namespace and model version
+    static final AttributeDefinition[] ATTRIBUTES_1_1 = {
+            ASYNC_START,
+            LAZY_CONNECT,
+            MIN_CONNECTIONS_PER_HOST,
+            CONNECTIONS_PER_HOST,
+            THREADS_ALLOWED_TO_BLOCK_MULTIPLIER,
+            MAX_WAIT_TIME,
+            MAX_CONNECTION_IDLE_TIME,
+            MAX_CONNECTION_LIFE_TIME,
+            DATABASES,
+            BULK_WRITE_BATCH_SIZE,
+            BULK_WRITE_FLUSH_INTERVAL,
+            RAW_BSON,
+            TRANSPORT,
+            CLIENT_TYPE,
+            QUERY_CACHE_MAX_SIZE,
+            QUERY_CACHE_EXPIRE_AFTER_WRITE,
+            OPLOG_TAILER,
+            OPLOG_NAMESPACES};
+
+    // runtime metrics, in microseconds
+    static final AttributeDefinition COMMAND_METRICS =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.COMMAND_METRICS, ModelType.OBJECT, true)
+                    .setStorageRuntime()
+                    .build();
+
+    static final List<SimpleAttributeDefinition> POOL_METRICS = Arrays.asList(
+            runtimeMetric(CommonAttributes.POOL_CHECKED_OUT, MeasurementUnit.NONE),
+            runtimeMetric(CommonAttributes.POOL_CHECKED_OUT_HIGH_WATER_MARK, MeasurementUnit.NONE),
+            runtimeMetric(CommonAttributes.POOL_WAIT_QUEUE_SIZE, MeasurementUnit.NONE),
+            runtimeMetric(CommonAttributes.POOL_WAIT_QUEUE_HIGH_WATER_MARK, MeasurementUnit.NONE),
+            runtimeMetric(CommonAttributes.POOL_CONNECTIONS_CREATED, MeasurementUnit.NONE),
+            runtimeMetric(CommonAttributes.POOL_CONNECTIONS_CLOSED, MeasurementUnit.NONE),
+            runtimeMetric(CommonAttributes.POOL_CHECKOUT_COUNT, MeasurementUnit.NONE),
+            runtimeMetric(CommonAttributes.POOL_AVERAGE_CHECKOUT_WAIT_TIME, MeasurementUnit.MICROSECONDS),
+            runtimeMetric(CommonAttributes.POOL_MAX_CHECKOUT_WAIT_TIME, MeasurementUnit.MICROSECONDS));
+
+    static final List<SimpleAttributeDefinition> BULK_WRITE_METRICS = Arrays.asList(
+            runtimeMetric(CommonAttributes.BULK_WRITE_QUEUE_DEPTH, MeasurementUnit.NONE),
+            runtimeMetric(CommonAttributes.BULK_WRITE_FLUSH_COUNT, MeasurementUnit.NONE),
+            runtimeMetric(CommonAttributes.BULK_WRITE_AVERAGE_FLUSH_SIZE, MeasurementUnit.NONE),
+            runtimeMetric(CommonAttributes.BULK_WRITE_AVERAGE_FLUSH_TIME, MeasurementUnit.MICROSECONDS),
+            runtimeMetric(CommonAttributes.BULK_WRITE_MAX_FLUSH_TIME, MeasurementUnit.MICROSECONDS));
+
+    static final List<SimpleAttributeDefinition> QUERY_CACHE_METRICS = Arrays.asList(
+            runtimeMetric(CommonAttributes.QUERY_CACHE_SIZE, MeasurementUnit.NONE),
+            runtimeMetric(CommonAttributes.QUERY_CACHE_HIT_COUNT, MeasurementUnit.NONE),
+            runtimeMetric(CommonAttributes.QUERY_CACHE_MISS_COUNT, MeasurementUnit.NONE),
+            runtimeMetric(CommonAttributes.QUERY_CACHE_HIT_RATIO, MeasurementUnit.PERCENTAGE),
+            runtimeMetric(CommonAttributes.QUERY_CACHE_EVICTION_COUNT, MeasurementUnit.NONE));
+
+    static final List<SimpleAttributeDefinition> OPLOG_TAILER_METRICS = Arrays.asList(
+            runtimeMetric(CommonAttributes.OPLOG_TAILER_LAG, MeasurementUnit.MILLISECONDS),
+            runtimeMetric(CommonAttributes.OPLOG_TAILER_ENTRY_COUNT, MeasurementUnit.NONE));
+
+    static final OperationDefinition RESET_POOL_HIGH_WATER_MARKS =
+            new SimpleOperationDefinitionBuilder(CommonAttributes.RESET_POOL_HIGH_WATER_MARKS,
+                    MongoDriverExtension.getResolver(CommonAttributes.PROFILE))
+                    .setRuntimeOnly()
+                    .build();
 
     static final Map<String, AttributeDefinition> ATTRIBUTES_MAP = new HashMap<>();
 
@@ -149,6 +370,37 @@ public class MongoDefinition extends PersistentResourceDefinition {
         return ATTRIBUTES_MAP.values();
     }
 
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        resourceRegistration.registerReadOnlyAttribute(COMMAND_METRICS, ProfileMetricsHandler.INSTANCE);
+        for (SimpleAttributeDefinition metric : POOL_METRICS) {
+            resourceRegistration.registerMetric(metric, ProfileMetricsHandler.INSTANCE);
+        }
+        for (SimpleAttributeDefinition metric : BULK_WRITE_METRICS) {
+            resourceRegistration.registerMetric(metric, ProfileMetricsHandler.INSTANCE);
+        }
+        for (SimpleAttributeDefinition metric : QUERY_CACHE_METRICS) {
+            resourceRegistration.registerMetric(metric, ProfileMetricsHandler.INSTANCE);
+        }
+        for (SimpleAttributeDefinition metric : OPLOG_TAILER_METRICS) {
+            resourceRegistration.registerMetric(metric, ProfileMetricsHandler.INSTANCE);
+        }
+    }
+
+    @Override
+    public void registerOperations(ManagementResourceRegistration resourceRegistration) {
+        super.registerOperations(resourceRegistration);
+        resourceRegistration.registerOperationHandler(RESET_POOL_HIGH_WATER_MARKS, ProfileMetricsHandler.RESET_POOL_HIGH_WATER_MARKS);
+    }
+
+    private static SimpleAttributeDefinition runtimeMetric(String name, MeasurementUnit measurementUnit) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.LONG, true)
+                .setStorageRuntime()
+                .setMeasurementUnit(measurementUnit)
+                .build();
+    }
+
     @Override
     public List<? extends PersistentResourceDefinition> getChildren() {
         return CHILDREN;
@@ -196,6 +448,60 @@ public class MongoDefinition extends PersistentResourceDefinition {
             if (profileEntry.hasDefined(CommonAttributes.SSL)) {
                 builder.setSSL(profileEntry.get(CommonAttributes.SSL).asBoolean());
             }
+            if (profileEntry.hasDefined(CommonAttributes.ASYNC_START)) {
+                builder.setAsyncStart(profileEntry.get(CommonAttributes.ASYNC_START).asBoolean());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.LAZY_CONNECT)) {
+                builder.setLazyConnect(profileEntry.get(CommonAttributes.LAZY_CONNECT).asBoolean());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.MIN_CONNECTIONS_PER_HOST)) {
+                builder.setMinConnectionsPerHost(profileEntry.get(CommonAttributes.MIN_CONNECTIONS_PER_HOST).asInt());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.CONNECTIONS_PER_HOST)) {
+                builder.setConnectionsPerHost(profileEntry.get(CommonAttributes.CONNECTIONS_PER_HOST).asInt());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.THREADS_ALLOWED_TO_BLOCK_MULTIPLIER)) {
+                builder.setThreadsAllowedToBlockMultiplier(profileEntry.get(CommonAttributes.THREADS_ALLOWED_TO_BLOCK_MULTIPLIER).asInt());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.MAX_WAIT_TIME)) {
+                builder.setMaxWaitTime(profileEntry.get(CommonAttributes.MAX_WAIT_TIME).asInt());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.MAX_CONNECTION_IDLE_TIME)) {
+                builder.setMaxConnectionIdleTime(profileEntry.get(CommonAttributes.MAX_CONNECTION_IDLE_TIME).asInt());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.MAX_CONNECTION_LIFE_TIME)) {
+                builder.setMaxConnectionLifeTime(profileEntry.get(CommonAttributes.MAX_CONNECTION_LIFE_TIME).asInt());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.DATABASES)) {
+                builder.setDatabases(profileEntry.get(CommonAttributes.DATABASES).asString());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.BULK_WRITE_BATCH_SIZE)) {
+                builder.setBulkWriteBatchSize(profileEntry.get(CommonAttributes.BULK_WRITE_BATCH_SIZE).asInt());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.BULK_WRITE_FLUSH_INTERVAL)) {
+                builder.setBulkWriteFlushInterval(profileEntry.get(CommonAttributes.BULK_WRITE_FLUSH_INTERVAL).asInt());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.RAW_BSON)) {
+                builder.setRawBson(profileEntry.get(CommonAttributes.RAW_BSON).asBoolean());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.TRANSPORT)) {
+                builder.setTransport(profileEntry.get(CommonAttributes.TRANSPORT).asString());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.CLIENT_TYPE)) {
+                builder.setClientType(profileEntry.get(CommonAttributes.CLIENT_TYPE).asString());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.QUERY_CACHE_MAX_SIZE)) {
+                builder.setQueryCacheMaxSize(profileEntry.get(CommonAttributes.QUERY_CACHE_MAX_SIZE).asLong());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.QUERY_CACHE_EXPIRE_AFTER_WRITE)) {
+                builder.setQueryCacheExpireAfterWrite(profileEntry.get(CommonAttributes.QUERY_CACHE_EXPIRE_AFTER_WRITE).asLong());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.OPLOG_TAILER)) {
+                builder.setOplogTailer(profileEntry.get(CommonAttributes.OPLOG_TAILER).asBoolean());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.OPLOG_NAMESPACES)) {
+                builder.setOplogNamespaces(profileEntry.get(CommonAttributes.OPLOG_NAMESPACES).asString());
+            }
 
             if (profileEntry.hasDefined(CommonAttributes.HOST_DEF)) {
                 ModelNode hostModels = profileEntry.get(CommonAttributes.HOST_DEF);
@@ -217,6 +523,26 @@ public class MongoDefinition extends PersistentResourceDefinition {
                                     builder.setWriteConcern(WriteConcernType.valueOf(property.getValue().asString()).name());
                                 } else if (property.getName().equals(CommonAttributes.READ_CONCERN)) {
                                     builder.setReadConcern(ReadConcernType.valueOf(property.getValue().asString()).name());
+                                } else if (property.getName().equals(CommonAttributes.READ_PREFERENCE)) {
+                                    builder.setReadPreference(ReadPreferenceType.fromName(property.getValue().asString()).getDriverName());
+                                } else if (property.getName().equals(CommonAttributes.READ_PREFERENCE_TAGS)) {
+                                    builder.setReadPreferenceTags(property.getValue().asString());
+                                } else if (property.getName().equals(CommonAttributes.MAX_STALENESS)) {
+                                    builder.setMaxStaleness(property.getValue().asLong());
+                                } else if (property.getName().equals(CommonAttributes.LOCAL_THRESHOLD)) {
+                                    builder.setLocalThreshold(property.getValue().asInt());
+                                } else if (property.getName().equals(CommonAttributes.CONNECT_TIMEOUT)) {
+                                    builder.setConnectTimeout(property.getValue().asInt());
+                                } else if (property.getName().equals(CommonAttributes.SOCKET_TIMEOUT)) {
+                                    builder.setSocketTimeout(property.getValue().asInt());
+                                } else if (property.getName().equals(CommonAttributes.SOCKET_KEEP_ALIVE)) {
+                                    builder.setSocketKeepAlive(property.getValue().asBoolean());
+                                } else if (property.getName().equals(CommonAttributes.SERVER_SELECTION_TIMEOUT)) {
+                                    builder.setServerSelectionTimeout(property.getValue().asInt());
+                                } else if (property.getName().equals(CommonAttributes.HEARTBEAT_FREQUENCY)) {
+                                    builder.setHeartbeatFrequency(property.getValue().asInt());
+                                } else if (property.getName().equals(CommonAttributes.MIN_HEARTBEAT_FREQUENCY)) {
+                                    builder.setMinHeartbeatFrequency(property.getValue().asInt());
                                 }
                             }
                         }
@@ -241,7 +567,8 @@ public class MongoDefinition extends PersistentResourceDefinition {
                             @Override
                             public void inject(final MongoClientConnectionsService value) throws
                                     InjectionException {
-                                binderService.getManagedObjectInjector().inject(new ValueManagedReferenceFactory(new ImmediateValue<>(value.getDatabase() != null ? value.getDatabase() : value.getClient())));
+                                // the client is obtained on each lookup, as it might not be created yet (lazy-connect)
+                                binderService.getManagedObjectInjector().inject(new ValueManagedReferenceFactory(() -> value.getDatabase() != null ? value.getDatabase() : value.getClient()));
                             }
 
                             @Override
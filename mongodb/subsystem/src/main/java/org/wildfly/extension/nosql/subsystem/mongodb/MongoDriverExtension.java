@@ -26,6 +26,11 @@ import org.jboss.as.controller.descriptions.StandardResourceDescriptionResolver;
 import org.jboss.as.controller.operations.common.GenericSubsystemDescribeHandler;
 import org.jboss.as.controller.parsing.ExtensionParsingContext;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.transform.description.DiscardAttributeChecker;
+import org.jboss.as.controller.transform.description.RejectAttributeChecker;
+import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
+import org.jboss.as.controller.transform.description.TransformationDescription;
+import org.jboss.as.controller.transform.description.TransformationDescriptionBuilder;
 
 /**
  * MongoDriverExtension
@@ -39,8 +44,8 @@ public class MongoDriverExtension implements Extension {
     protected static final PathElement HOST_PATH = PathElement.pathElement(CommonAttributes.HOST_DEF);
     protected static final PathElement PROPERTIES_PATH = PathElement.pathElement(CommonAttributes.PROPERTIES);
 
-    public static final String NAMESPACE = "urn:jboss:domain:mongodb:1.0";
-    public static final Namespace CURRENT = Namespace.MONGODB_1_0;
+    public static final String NAMESPACE = "urn:jboss:domain:mongodb:1.1";
+    public static final Namespace CURRENT = Namespace.MONGODB_1_1;
     public static final String RESOURCE_NAME = MongoDriverExtension.class.getPackage().getName() + ".LocalDescriptions";
 
     static StandardResourceDescriptionResolver getResourceDescriptionResolver(final String... keyPrefix) {
@@ -53,7 +58,9 @@ public class MongoDriverExtension implements Extension {
 
     private static final MongoDriverSubsystemParser parser = MongoDriverSubsystemParser.INSTANCE;
 
-    private static final ModelVersion CURRENT_MODEL_VERSION = ModelVersion.create(1, 0, 0);
+    private static final ModelVersion CURRENT_MODEL_VERSION = ModelVersion.create(1, 1, 0);
+
+    private static final ModelVersion MODEL_VERSION_1_0_0 = ModelVersion.create(1, 0, 0);
 
     static ResourceDescriptionResolver getResourceDescriptionResolver(final String keyPrefix) {
         return new StandardResourceDescriptionResolver(keyPrefix, RESOURCE_NAME, MongoDriverExtension.class.getClassLoader(), true, false);
@@ -68,6 +75,20 @@ public class MongoDriverExtension implements Extension {
         final ManagementResourceRegistration registration = subsystem.registerSubsystemModel(MongoDriverDefinition.INSTANCE);
         registration.registerOperationHandler(GenericSubsystemDescribeHandler.DEFINITION, GenericSubsystemDescribeHandler.INSTANCE);
         subsystem.registerXMLElementWriter(parser);
+        if (context.isRegisterTransformers()) {
+            registerTransformers(subsystem);
+        }
+    }
+
+    // legacy (1.0.0) hosts only know the original profile attributes, so the ones added in 1.1.0 can only be
+    // dropped when they are not set
+    private static void registerTransformers(SubsystemRegistration subsystem) {
+        ResourceTransformationDescriptionBuilder builder = TransformationDescriptionBuilder.Factory.createSubsystemInstance();
+        builder.addChildResource(PROFILE_PATH).getAttributeBuilder()
+                .setDiscard(DiscardAttributeChecker.UNDEFINED, MongoDefinition.ATTRIBUTES_1_1)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, MongoDefinition.ATTRIBUTES_1_1)
+                .end();
+        TransformationDescription.Tools.register(builder.build(), subsystem, MODEL_VERSION_1_0_0);
     }
 
     /**
@@ -75,6 +96,7 @@ public class MongoDriverExtension implements Extension {
      */
     @Override
     public void initializeParsers(ExtensionParsingContext context) {
+        context.setSubsystemXmlMapping(SUBSYSTEM_NAME, Namespace.MONGODB_1_0.getUriString(), MongoDriverSubsystemParser.INSTANCE_1_0);
         context.setSubsystemXmlMapping(SUBSYSTEM_NAME, NAMESPACE, parser);
     }
 
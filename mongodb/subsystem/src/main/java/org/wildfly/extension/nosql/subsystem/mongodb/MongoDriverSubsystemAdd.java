@@ -22,6 +22,7 @@ import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.operations.validation.ParametersValidator;
 import org.wildfly.nosql.common.DriverDependencyProcessor;
 import org.wildfly.nosql.common.DriverScanDependencyProcessor;
+import org.wildfly.nosql.common.NoSQLConstants;
 import org.jboss.as.server.AbstractDeploymentChainStep;
 import org.jboss.as.server.DeploymentProcessorTarget;
 import org.jboss.as.server.deployment.Phase;
@@ -38,10 +39,17 @@ public class MongoDriverSubsystemAdd extends AbstractBoottimeAddStepHandler {
     public static final MongoDriverSubsystemAdd INSTANCE = new MongoDriverSubsystemAdd();
 
     private final ParametersValidator runtimeValidator = new ParametersValidator();
+    // kept across reloads, so that the deployment scan metrics of the subsystem are not reset
+    private final DriverScanDependencyProcessor scanDependencyProcessor = new DriverScanDependencyProcessor("mongodbsubsystem",
+            NoSQLConstants.MONGOCOLLECTIONREFANNOTATION);
 
     private MongoDriverSubsystemAdd() {
     }
 
+    DriverScanDependencyProcessor getScanDependencyProcessor() {
+        return scanDependencyProcessor;
+    }
+
     protected void populateModel(ModelNode operation, ModelNode model) throws OperationFailedException {
         for (AttributeDefinition def : MongoDriverDefinition.INSTANCE.getAttributes()) {
             def.validateAndSet(operation, model);
@@ -57,7 +65,7 @@ public class MongoDriverSubsystemAdd extends AbstractBoottimeAddStepHandler {
                 final int PARSE_MONGO_DRIVER                          = 0x4C03;
                 final int DEPENDENCIES_MONGO_DRIVER                   = 0x1F13;
                 // TODO: use Phase.PARSE_MONGO_DRIVER
-                processorTarget.addDeploymentProcessor(MongoDriverExtension.SUBSYSTEM_NAME, Phase.PARSE, PARSE_MONGO_DRIVER, new DriverScanDependencyProcessor("mongodbsubsystem"));
+                processorTarget.addDeploymentProcessor(MongoDriverExtension.SUBSYSTEM_NAME, Phase.PARSE, PARSE_MONGO_DRIVER, scanDependencyProcessor);
                 // TODO: use Phase.DEPENDENCIES_MONGO_DRIVER
                 processorTarget.addDeploymentProcessor(MongoDriverExtension.SUBSYSTEM_NAME, Phase.DEPENDENCIES, DEPENDENCIES_MONGO_DRIVER, DriverDependencyProcessor.getInstance());
             }
@@ -29,22 +29,28 @@ import org.jboss.as.controller.PersistentResourceXMLParser;
  * @author Scott Marlow
  */
 final class MongoDriverSubsystemParser extends PersistentResourceXMLParser {
-    protected static final MongoDriverSubsystemParser INSTANCE = new MongoDriverSubsystemParser();
-    private static final PersistentResourceXMLDescription xmlDescription;
+    protected static final MongoDriverSubsystemParser INSTANCE = new MongoDriverSubsystemParser(MongoDriverExtension.CURRENT);
+    static final MongoDriverSubsystemParser INSTANCE_1_0 = new MongoDriverSubsystemParser(Namespace.MONGODB_1_0);
 
-    static {
-        xmlDescription = builder(MongoDriverDefinition.INSTANCE, MongoDriverExtension.CURRENT.getUriString()).
+    private final PersistentResourceXMLDescription xmlDescription;
+
+    private MongoDriverSubsystemParser(Namespace namespace) {
+        PersistentResourceXMLDescription.PersistentResourceXMLBuilder profile = builder(MongoDefinition.INSTANCE)
+                .addAttributes(
+                        MongoDefinition.ID_NAME,
+                        MongoDefinition.JNDI_NAME,
+                        MongoDefinition.DATABASE,
+                        MongoDefinition.MODULE,
+                        MongoDefinition.SECURITY_DOMAIN,
+                        MongoDefinition.AUTH_TYPE,
+                        MongoDefinition.SSL
+                );
+        if (namespace != Namespace.MONGODB_1_0) {
+            profile.addAttributes(MongoDefinition.ATTRIBUTES_1_1);
+        }
+        xmlDescription = builder(MongoDriverDefinition.INSTANCE, namespace.getUriString()).
                 addChild(
-                        builder(MongoDefinition.INSTANCE)
-                                .addAttributes(
-                                        MongoDefinition.ID_NAME,
-                                        MongoDefinition.JNDI_NAME,
-                                        MongoDefinition.DATABASE,
-                                        MongoDefinition.MODULE,
-                                        MongoDefinition.SECURITY_DOMAIN,
-                                        MongoDefinition.AUTH_TYPE,
-                                        MongoDefinition.SSL
-                                )
+                        profile
                                 .addChild(builder(HostDefinition.INSTANCE)
                                         .addAttributes(
                                                 HostDefinition.OUTBOUND_SOCKET_BINDING_REF
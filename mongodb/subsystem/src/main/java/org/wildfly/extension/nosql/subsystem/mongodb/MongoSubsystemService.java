@@ -17,9 +17,13 @@
 package org.wildfly.extension.nosql.subsystem.mongodb;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.wildfly.extension.nosql.driver.mongodb.ClientType;
+import org.wildfly.nosql.common.MethodHandleCache;
 import org.wildfly.nosql.common.SubsystemService;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceName;
@@ -42,6 +46,12 @@ public class MongoSubsystemService implements Service<SubsystemService>, Subsyst
 
     private final Map<String, String> profileNameToModuleName = new ConcurrentHashMap<>();
 
+    // additional database names (from the databases attribute) of each profile
+    private final Map<String, List<String>> profileNameToDatabaseNames = new ConcurrentHashMap<>();
+
+    // client API of each profile, for registering the CDI beans with the sync or async driver types
+    private final Map<String, ClientType> profileNameToClientType = new ConcurrentHashMap<>();
+
     public MongoSubsystemService() {
     }
 
@@ -62,7 +72,25 @@ public class MongoSubsystemService implements Service<SubsystemService>, Subsyst
     }
 
     public void removeModuleNameFromProfile(String profile) {
-        profileNameToModuleName.remove(profile);
+        MethodHandleCache.evictUnused(profileNameToModuleName.remove(profile), profileNameToModuleName.values());
+        profileNameToDatabaseNames.remove(profile);
+        profileNameToClientType.remove(profile);
+    }
+
+    public void addClientTypeFromProfile(String profile, ClientType clientType) {
+        profileNameToClientType.put(profile, clientType);
+    }
+
+    public ClientType clientTypeFromProfile(String profile) {
+        return profileNameToClientType.getOrDefault(profile, ClientType.SYNC);
+    }
+
+    public void addDatabaseNamesFromProfile(String profile, List<String> databaseNames) {
+        profileNameToDatabaseNames.put(profile, Collections.unmodifiableList(databaseNames));
+    }
+
+    public List<String> databaseNamesFromProfile(String profile) {
+        return profileNameToDatabaseNames.getOrDefault(profile, Collections.emptyList());
     }
 
     @Override
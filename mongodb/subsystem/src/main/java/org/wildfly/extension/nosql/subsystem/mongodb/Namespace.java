@@ -25,7 +25,8 @@ import java.util.Map;
 enum Namespace {
     // must be first
     UNKNOWN(null),
-    MONGODB_1_0("urn:jboss:domain:mongodb:1.0"),;
+    MONGODB_1_0("urn:jboss:domain:mongodb:1.0"),
+    MONGODB_1_1("urn:jboss:domain:mongodb:1.1"),;
 
     private final String name;
 
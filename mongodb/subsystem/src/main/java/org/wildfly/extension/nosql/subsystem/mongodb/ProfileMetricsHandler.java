@@ -0,0 +1,206 @@
+/*
+ * Copyright 2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.nosql.subsystem.mongodb;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+import org.wildfly.extension.nosql.driver.mongodb.BulkWriteCoalescer;
+import org.wildfly.extension.nosql.driver.mongodb.CommandMetrics;
+import org.wildfly.extension.nosql.driver.mongodb.ConnectionPoolMetrics;
+import org.wildfly.extension.nosql.driver.mongodb.MongoClientConnectionsService;
+import org.wildfly.extension.nosql.driver.mongodb.OplogTailer;
+import org.wildfly.extension.nosql.driver.mongodb.QueryCache;
+import org.wildfly.nosql.common.ConnectionServiceAccess;
+
+/**
+ * ProfileMetricsHandler reads the runtime metrics of a started MongoDB profile.  The result is undefined if the
+ * profile is not started.
+ *
+ * @author Scott Marlow
+ */
+class ProfileMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+    static final ProfileMetricsHandler INSTANCE = new ProfileMetricsHandler();
+
+    static final AbstractRuntimeOnlyHandler RESET_POOL_HIGH_WATER_MARKS = new AbstractRuntimeOnlyHandler() {
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final MongoClientConnectionsService service = connectionsService(context);
+            if (service != null) {
+                service.getConnectionPoolMetrics().resetHighWaterMarks();
+            }
+            context.stepCompleted();
+        }
+    };
+
+    private ProfileMetricsHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final MongoClientConnectionsService service = connectionsService(context);
+        if (service != null) {
+            final String attributeName = operation.require(NAME).asString();
+            if (CommonAttributes.COMMAND_METRICS.equals(attributeName)) {
+                context.getResult().set(commandMetrics(service.getCommandMetrics()));
+            } else if (attributeName.startsWith("bulk-write-")) {
+                context.getResult().set(bulkWriteMetric(service.getBulkWriteCoalescerIfCreated(), attributeName));
+            } else if (attributeName.startsWith("query-cache-")) {
+                context.getResult().set(queryCacheMetric(service.getQueryCacheIfCreated(), attributeName));
+            } else if (attributeName.startsWith("oplog-tailer-")) {
+                context.getResult().set(oplogTailerMetric(service.getOplogTailerIfCreated(), attributeName));
+            } else {
+                context.getResult().set(poolMetric(service.getConnectionPoolMetrics(), attributeName));
+            }
+        }
+        context.stepCompleted();
+    }
+
+    static MongoClientConnectionsService connectionsService(OperationContext context) {
+        final ModelNode model = context.readResource(PathAddress.EMPTY_ADDRESS).getModel();
+        if (!model.hasDefined(CommonAttributes.ID_NAME)) {
+            return null;
+        }
+        final ServiceController<?> controller = context.getServiceRegistry(false)
+                .getService(ConnectionServiceAccess.serviceName(model.get(CommonAttributes.ID_NAME).asString()));
+        if (controller == null || controller.getState() != ServiceController.State.UP) {
+            return null;
+        }
+        return (MongoClientConnectionsService) controller.getValue();
+    }
+
+    private static long poolMetric(ConnectionPoolMetrics metrics, String attributeName) {
+        switch (attributeName) {
+            case CommonAttributes.POOL_CHECKED_OUT:
+                return metrics.getCheckedOut();
+            case CommonAttributes.POOL_CHECKED_OUT_HIGH_WATER_MARK:
+                return metrics.getCheckedOutHighWaterMark();
+            case CommonAttributes.POOL_WAIT_QUEUE_SIZE:
+                return metrics.getWaitQueueSize();
+            case CommonAttributes.POOL_WAIT_QUEUE_HIGH_WATER_MARK:
+                return metrics.getWaitQueueHighWaterMark();
+            case CommonAttributes.POOL_CONNECTIONS_CREATED:
+                return metrics.getConnectionsCreated();
+            case CommonAttributes.POOL_CONNECTIONS_CLOSED:
+                return metrics.getConnectionsClosed();
+            case CommonAttributes.POOL_CHECKOUT_COUNT:
+                return metrics.getCheckoutCount();
+            case CommonAttributes.POOL_AVERAGE_CHECKOUT_WAIT_TIME:
+                final long count = metrics.getCheckoutCount();
+                return count > 0 ? TimeUnit.NANOSECONDS.toMicros(metrics.getCheckoutWaitNanos() / count) : 0L;
+            case CommonAttributes.POOL_MAX_CHECKOUT_WAIT_TIME:
+                return TimeUnit.NANOSECONDS.toMicros(metrics.getMaxCheckoutWaitNanos());
+            default:
+                throw new IllegalArgumentException(attributeName);
+        }
+    }
+
+    private static long bulkWriteMetric(BulkWriteCoalescer coalescer, String attributeName) {
+        if (coalescer == null) {
+            return 0L;  // no bulk writes yet
+        }
+        switch (attributeName) {
+            case CommonAttributes.BULK_WRITE_QUEUE_DEPTH:
+                return coalescer.getQueueDepth();
+            case CommonAttributes.BULK_WRITE_FLUSH_COUNT:
+                return coalescer.getFlushCount();
+            case CommonAttributes.BULK_WRITE_AVERAGE_FLUSH_SIZE:
+                final long flushes = coalescer.getFlushCount();
+                return flushes > 0 ? coalescer.getFlushedWrites() / flushes : 0L;
+            case CommonAttributes.BULK_WRITE_AVERAGE_FLUSH_TIME:
+                final long count = coalescer.getFlushCount();
+                return count > 0 ? TimeUnit.NANOSECONDS.toMicros(coalescer.getFlushNanos() / count) : 0L;
+            case CommonAttributes.BULK_WRITE_MAX_FLUSH_TIME:
+                return TimeUnit.NANOSECONDS.toMicros(coalescer.getMaxFlushNanos());
+            default:
+                throw new IllegalArgumentException(attributeName);
+        }
+    }
+
+    private static long queryCacheMetric(QueryCache queryCache, String attributeName) {
+        if (queryCache == null) {
+            return 0L;  // query cache not enabled or not used yet
+        }
+        switch (attributeName) {
+            case CommonAttributes.QUERY_CACHE_SIZE:
+                return queryCache.getSize();
+            case CommonAttributes.QUERY_CACHE_HIT_COUNT:
+                return queryCache.getHitCount();
+            case CommonAttributes.QUERY_CACHE_MISS_COUNT:
+                return queryCache.getMissCount();
+            case CommonAttributes.QUERY_CACHE_HIT_RATIO:
+                final long hits = queryCache.getHitCount();
+                final long requests = hits + queryCache.getMissCount();
+                return requests > 0 ? hits * 100 / requests : 0L;
+            case CommonAttributes.QUERY_CACHE_EVICTION_COUNT:
+                return queryCache.getEvictionCount();
+            default:
+                throw new IllegalArgumentException(attributeName);
+        }
+    }
+
+    private static long oplogTailerMetric(OplogTailer oplogTailer, String attributeName) {
+        if (oplogTailer == null) {
+            return 0L;  // oplog tailer not enabled
+        }
+        switch (attributeName) {
+            case CommonAttributes.OPLOG_TAILER_LAG:
+                return oplogTailer.getLagMillis();
+            case CommonAttributes.OPLOG_TAILER_ENTRY_COUNT:
+                return oplogTailer.getEntryCount();
+            default:
+                throw new IllegalArgumentException(attributeName);
+        }
+    }
+
+    private static ModelNode commandMetrics(CommandMetrics commandMetrics) {
+        final ModelNode result = new ModelNode();
+        result.setEmptyObject();
+        for (Map.Entry<String, CommandMetrics.CommandStatistics> entry : commandMetrics.getCommands().entrySet()) {
+            final CommandMetrics.CommandStatistics statistics = entry.getValue();
+            final ModelNode command = result.get(entry.getKey());
+            final long count = statistics.getCount();
+            command.get("count").set(count);
+            command.get("failures").set(statistics.getFailures());
+            command.get("average-time").set(count > 0 ? TimeUnit.NANOSECONDS.toMicros(statistics.getTotalNanos() / count) : 0L);
+            command.get("max-time").set(TimeUnit.NANOSECONDS.toMicros(statistics.getMaxNanos()));
+            final ModelNode histogram = command.get("latency-histogram").setEmptyList();
+            for (int bucket = 0; bucket < CommandMetrics.BUCKETS; bucket++) {
+                final long bucketCount = statistics.getLatencyBucket(bucket);
+                if (bucketCount > 0) {
+                    final ModelNode entryNode = new ModelNode();
+                    final long upperBound = CommandMetrics.bucketUpperBoundMicros(bucket);
+                    if (upperBound > 0) {
+                        entryNode.get("less-than").set(upperBound);
+                    }
+                    entryNode.get("count").set(bucketCount);
+                    histogram.add(entryNode);
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -21,8 +21,11 @@ import org.jboss.as.controller.operations.validation.ParameterValidator;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.Property;
 import org.wildfly.extension.nosql.driver.mongodb.ReadConcernType;
+import org.wildfly.extension.nosql.driver.mongodb.ReadPreferenceType;
 import org.wildfly.extension.nosql.driver.mongodb.WriteConcernType;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -37,11 +40,54 @@ class PropertiesValidator implements ParameterValidator {
     static {
         VALID_PROPERTIES.put(CommonAttributes.WRITE_CONCERN, WriteConcernType.NAMES);
         VALID_PROPERTIES.put(CommonAttributes.READ_CONCERN, ReadConcernType.NAMES);
+        VALID_PROPERTIES.put(CommonAttributes.READ_PREFERENCE, ReadPreferenceType.NAMES);
     }
 
+    // properties with a non-negative numeric value
+    private static final List<String> NUMERIC_PROPERTIES = Arrays.asList(CommonAttributes.LOCAL_THRESHOLD,
+            CommonAttributes.CONNECT_TIMEOUT, CommonAttributes.SOCKET_TIMEOUT, CommonAttributes.SERVER_SELECTION_TIMEOUT);
+
+    // properties with a positive numeric value (the driver rejects zero)
+    private static final List<String> POSITIVE_NUMERIC_PROPERTIES = Arrays.asList(CommonAttributes.HEARTBEAT_FREQUENCY,
+            CommonAttributes.MIN_HEARTBEAT_FREQUENCY);
+
+    private static final List<String> BOOLEAN_PROPERTIES = Collections.singletonList(CommonAttributes.SOCKET_KEEP_ALIVE);
+
+    // the driver rejects a maxStaleness (seconds) below 90 seconds
+    static final long MIN_MAX_STALENESS = 90;
+
     @Override
     public void validateParameter(String parameterName, ModelNode values) throws OperationFailedException {
+        String readPreference = null;
+        String primaryOnly = null;  // property that requires a non primary readPreference
         for (Property property : values.asPropertyList()) {
+            if (CommonAttributes.MAX_STALENESS.equals(property.getName())) {
+                validateNumeric(property, MIN_MAX_STALENESS);
+                primaryOnly = property.getName();
+                continue;
+            }
+            if (NUMERIC_PROPERTIES.contains(property.getName())) {
+                validateNumeric(property, 0);
+                continue;
+            }
+            if (POSITIVE_NUMERIC_PROPERTIES.contains(property.getName())) {
+                validateNumeric(property, 1);
+                continue;
+            }
+            if (BOOLEAN_PROPERTIES.contains(property.getName())) {
+                validateBoolean(property);
+                continue;
+            }
+            if (CommonAttributes.READ_PREFERENCE_TAGS.equals(property.getName())) {
+                try {
+                    ReadPreferenceType.parseTagSets(property.getValue().asString());
+                } catch (IllegalArgumentException e) {
+                    throw new OperationFailedException(
+                            "Invalid value of property " + property.getName() + ": " + property.getValue() + " (" + e.getMessage() + ")");
+                }
+                primaryOnly = property.getName();
+                continue;
+            }
             if (!VALID_PROPERTIES.containsKey(property.getName())) {
                 throw new OperationFailedException("Invalid property name: " + property.getName());
             }
@@ -50,6 +96,36 @@ class PropertiesValidator implements ParameterValidator {
                 throw new OperationFailedException(
                         "Invalid value of property " + property.getName() + ": " + property.getValue());
             }
+            if (CommonAttributes.READ_PREFERENCE.equals(property.getName())) {
+                readPreference = property.getValue().asString();
+            }
+        }
+        // the driver only accepts tag sets + max staleness for the non primary read preferences
+        if (primaryOnly != null &&
+                (readPreference == null || ReadPreferenceType.fromName(readPreference) == ReadPreferenceType.PRIMARY)) {
+            throw new OperationFailedException(
+                    "Property " + primaryOnly + " requires a " + CommonAttributes.READ_PREFERENCE + " other than primary");
+        }
+    }
+
+    private void validateNumeric(Property property, long min) throws OperationFailedException {
+        long value;
+        try {
+            value = Long.parseLong(property.getValue().asString());
+        } catch (NumberFormatException e) {
+            value = -1;
+        }
+        if (value < min || value > Integer.MAX_VALUE) {
+            throw new OperationFailedException(
+                    "Invalid value of property " + property.getName() + ": " + property.getValue());
+        }
+    }
+
+    private void validateBoolean(Property property) throws OperationFailedException {
+        final String value = property.getValue().asString();
+        if (!"true".equalsIgnoreCase(value) && !"false".equalsIgnoreCase(value)) {
+            throw new OperationFailedException(
+                    "Invalid value of property " + property.getName() + ": " + property.getValue());
         }
     }
 
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wildfly.extension.nosql.driver.mongodb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * CommandMetricsTestCase
+ *
+ * @author Scott Marlow
+ */
+public class CommandMetricsTestCase {
+
+    private static int bucket(long micros) {
+        return CommandMetrics.bucket(TimeUnit.MICROSECONDS.toNanos(micros));
+    }
+
+    @Test
+    public void testSmallLatencies() {
+        assertEquals(0, CommandMetrics.bucket(-1));
+        assertEquals(0, CommandMetrics.bucket(999));
+        assertEquals(0, bucket(0));
+        assertEquals(1, bucket(1));
+        assertEquals(3, bucket(3));
+    }
+
+    @Test
+    public void testLinearSubBuckets() {
+        // [4, 8) is split in buckets of one microsecond
+        assertEquals(4, bucket(4));
+        assertEquals(7, bucket(7));
+        assertEquals(8, CommandMetrics.bucketUpperBoundMicros(bucket(7)));
+        // [8, 16) is split in buckets of two microseconds
+        assertEquals(8, bucket(8));
+        assertEquals(8, bucket(9));
+        assertEquals(9, bucket(10));
+        assertEquals(11, bucket(15));
+        assertEquals(10, CommandMetrics.bucketUpperBoundMicros(bucket(8)));
+        assertEquals(16, CommandMetrics.bucketUpperBoundMicros(bucket(15)));
+        // [1024, 2048) is split in buckets of 256 microseconds
+        assertEquals(1280, CommandMetrics.bucketUpperBoundMicros(bucket(1024)));
+        assertEquals(1536, CommandMetrics.bucketUpperBoundMicros(bucket(1280)));
+        assertEquals(2048, CommandMetrics.bucketUpperBoundMicros(bucket(2047)));
+    }
+
+    @Test
+    public void testBucketBoundsAreContiguous() {
+        long lowerBound = 0;
+        for (int bucket = 0; bucket < CommandMetrics.BUCKETS - 1; bucket++) {
+            final long upperBound = CommandMetrics.bucketUpperBoundMicros(bucket);
+            assertTrue("bucket " + bucket + " is empty", upperBound > lowerBound);
+            assertEquals(bucket, bucket(lowerBound));
+            assertEquals(bucket, bucket(upperBound - 1));
+            lowerBound = upperBound;
+        }
+        assertEquals(1L << 22, lowerBound);
+    }
+
+    @Test
+    public void testLastBucketIsUnbounded() {
+        assertEquals(CommandMetrics.BUCKETS - 1, bucket(1L << 22));
+        assertEquals(CommandMetrics.BUCKETS - 1, bucket(TimeUnit.HOURS.toMicros(1)));
+        assertEquals(CommandMetrics.BUCKETS - 1, CommandMetrics.bucket(Long.MAX_VALUE));
+        assertEquals(-1, CommandMetrics.bucketUpperBoundMicros(CommandMetrics.BUCKETS - 1));
+    }
+}
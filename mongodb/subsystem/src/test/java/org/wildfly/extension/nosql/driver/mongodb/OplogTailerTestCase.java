@@ -0,0 +1,59 @@
+/*
+ * Copyright 2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wildfly.extension.nosql.driver.mongodb;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * OplogTailerTestCase
+ *
+ * @author Scott Marlow
+ */
+public class OplogTailerTestCase {
+
+    @Test
+    public void testMatchesAll() {
+        assertTrue(OplogTailer.matches(null, "sales.orders"));
+    }
+
+    @Test
+    public void testMatchesCollection() {
+        assertTrue(OplogTailer.matches("sales.orders", "sales.orders"));
+        assertFalse(OplogTailer.matches("sales.orders", "sales.ordersArchive"));
+        assertFalse(OplogTailer.matches("sales.orders", "sales.customers"));
+        assertFalse(OplogTailer.matches("sales.orders", "sales"));
+    }
+
+    @Test
+    public void testMatchesDatabase() {
+        assertTrue(OplogTailer.matches("sales", "sales.orders"));
+        assertTrue(OplogTailer.matches("sales", "sales.orders.archive"));
+        assertTrue(OplogTailer.matches("sales", "sales"));
+        assertFalse(OplogTailer.matches("sales", "salesArchive.orders"));
+        assertFalse(OplogTailer.matches("sales", "inventory.sales"));
+    }
+
+    @Test
+    public void testCollectionFilterDoesNotMatchSubCollections() {
+        // only a database filter matches the collections under it
+        assertFalse(OplogTailer.matches("sales.orders", "sales.orders.archive"));
+    }
+}
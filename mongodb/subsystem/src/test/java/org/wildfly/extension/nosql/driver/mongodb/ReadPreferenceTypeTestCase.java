@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wildfly.extension.nosql.driver.mongodb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * ReadPreferenceTypeTestCase
+ *
+ * @author Scott Marlow
+ */
+public class ReadPreferenceTypeTestCase {
+
+    @Test
+    public void testFromName() {
+        assertEquals(ReadPreferenceType.SECONDARY_PREFERRED, ReadPreferenceType.fromName("secondaryPreferred"));
+        assertEquals(ReadPreferenceType.SECONDARY_PREFERRED, ReadPreferenceType.fromName("SECONDARY_PREFERRED"));
+        assertEquals(ReadPreferenceType.NEAREST, ReadPreferenceType.fromName("NEAREST"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromUnknownName() {
+        ReadPreferenceType.fromName("closest");
+    }
+
+    @Test
+    public void testParseNullTagSets() {
+        assertTrue(ReadPreferenceType.parseTagSets(null).isEmpty());
+    }
+
+    @Test
+    public void testParseTagSets() {
+        List<Map<String, String>> tagSets = ReadPreferenceType.parseTagSets("dc:ny, rack:1;dc:ny;");
+        assertEquals(3, tagSets.size());
+        assertEquals(2, tagSets.get(0).size());
+        assertEquals("ny", tagSets.get(0).get("dc"));
+        assertEquals("1", tagSets.get(0).get("rack"));
+        // tag order is kept, as it is passed to the driver in that order
+        assertEquals("dc", tagSets.get(0).keySet().iterator().next());
+        assertEquals(Collections.singletonMap("dc", "ny"), tagSets.get(1));
+        // the trailing empty tag set matches any server
+        assertTrue(tagSets.get(2).isEmpty());
+    }
+
+    @Test
+    public void testParseSingleTagSet() {
+        List<Map<String, String>> tagSets = ReadPreferenceType.parseTagSets("use:reporting");
+        assertEquals(1, tagSets.size());
+        assertEquals(Collections.singletonMap("use", "reporting"), tagSets.get(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseTagWithoutValue() {
+        ReadPreferenceType.parseTagSets("dc:");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseTagWithoutName() {
+        ReadPreferenceType.parseTagSets("dc:ny;:1");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseTagWithoutSeparator() {
+        ReadPreferenceType.parseTagSets("dc:ny,rack");
+    }
+}
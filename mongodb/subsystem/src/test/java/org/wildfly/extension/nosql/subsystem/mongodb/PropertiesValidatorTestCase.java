@@ -0,0 +1,107 @@
+/*
+ * Copyright 2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wildfly.extension.nosql.subsystem.mongodb;
+
+import static org.junit.Assert.fail;
+
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * PropertiesValidatorTestCase
+ *
+ * @author Scott Marlow
+ */
+public class PropertiesValidatorTestCase {
+
+    private final PropertiesValidator validator = new PropertiesValidator();
+
+    private static ModelNode properties(String... nameValues) {
+        final ModelNode properties = new ModelNode();
+        for (int i = 0; i < nameValues.length; i += 2) {
+            properties.get(nameValues[i]).set(nameValues[i + 1]);
+        }
+        return properties;
+    }
+
+    private void valid(String... nameValues) throws OperationFailedException {
+        validator.validateParameter(CommonAttributes.PROPERTIES, properties(nameValues));
+    }
+
+    private void invalid(String... nameValues) {
+        try {
+            validator.validateParameter(CommonAttributes.PROPERTIES, properties(nameValues));
+            fail("expected properties to be rejected");
+        } catch (OperationFailedException expected) {
+        }
+    }
+
+    @Test
+    public void testEnumProperties() throws OperationFailedException {
+        valid(CommonAttributes.WRITE_CONCERN, "ACKNOWLEDGED", CommonAttributes.READ_CONCERN, "local");
+        valid(CommonAttributes.READ_PREFERENCE, "secondaryPreferred");
+        invalid(CommonAttributes.WRITE_CONCERN, "SOMETIMES");
+        invalid(CommonAttributes.READ_PREFERENCE, "closest");
+    }
+
+    @Test
+    public void testUnknownProperty() {
+        invalid("readPreferenceTag", "dc:ny");
+    }
+
+    @Test
+    public void testNumericProperties() throws OperationFailedException {
+        valid(CommonAttributes.LOCAL_THRESHOLD, "0", CommonAttributes.CONNECT_TIMEOUT, "10000");
+        valid(CommonAttributes.HEARTBEAT_FREQUENCY, "1");
+        invalid(CommonAttributes.SOCKET_TIMEOUT, "-1");
+        invalid(CommonAttributes.SOCKET_TIMEOUT, "ten");
+        invalid(CommonAttributes.SERVER_SELECTION_TIMEOUT, "4294967296");
+        invalid(CommonAttributes.MIN_HEARTBEAT_FREQUENCY, "0");
+    }
+
+    @Test
+    public void testBooleanProperties() throws OperationFailedException {
+        valid(CommonAttributes.SOCKET_KEEP_ALIVE, "TRUE");
+        invalid(CommonAttributes.SOCKET_KEEP_ALIVE, "yes");
+    }
+
+    @Test
+    public void testReadPreferenceTags() throws OperationFailedException {
+        valid(CommonAttributes.READ_PREFERENCE, "nearest", CommonAttributes.READ_PREFERENCE_TAGS, "dc:ny,rack:1;dc:ny;");
+        // the order of the properties does not matter
+        valid(CommonAttributes.READ_PREFERENCE_TAGS, "dc:ny", CommonAttributes.READ_PREFERENCE, "SECONDARY");
+        invalid(CommonAttributes.READ_PREFERENCE, "nearest", CommonAttributes.READ_PREFERENCE_TAGS, "dc");
+    }
+
+    @Test
+    public void testReadPreferenceTagsRequireNonPrimaryReadPreference() {
+        invalid(CommonAttributes.READ_PREFERENCE_TAGS, "dc:ny");
+        invalid(CommonAttributes.READ_PREFERENCE, "primary", CommonAttributes.READ_PREFERENCE_TAGS, "dc:ny");
+    }
+
+    @Test
+    public void testMaxStaleness() throws OperationFailedException {
+        valid(CommonAttributes.READ_PREFERENCE, "secondary",
+                CommonAttributes.MAX_STALENESS, Long.toString(PropertiesValidator.MIN_MAX_STALENESS));
+        invalid(CommonAttributes.READ_PREFERENCE, "secondary",
+                CommonAttributes.MAX_STALENESS, Long.toString(PropertiesValidator.MIN_MAX_STALENESS - 1));
+        invalid(CommonAttributes.MAX_STALENESS, "120");
+        invalid(CommonAttributes.READ_PREFERENCE, "PRIMARY", CommonAttributes.MAX_STALENESS, "120");
+    }
+}
@@ -32,6 +32,8 @@ public class ConfigurationBuilder {
             defaultModuleName;
     private TransactionEnlistmentType transactionEnlistment;
     private String securityDomain;
+    private boolean asyncStart;
+    private boolean lazyConnect;
 
     public void setDescription(String description) {
         this.description = description;
@@ -72,4 +74,21 @@ public class ConfigurationBuilder {
     public String getSecurityDomain() {
         return securityDomain;
     }
+
+    public boolean isAsyncStart() {
+        return asyncStart;
+    }
+
+    public void setAsyncStart(boolean asyncStart) {
+        this.asyncStart = asyncStart;
+    }
+
+    public boolean isLazyConnect() {
+        return lazyConnect;
+    }
+
+    public void setLazyConnect(boolean lazyConnect) {
+        this.lazyConnect = lazyConnect;
+    }
+
 }
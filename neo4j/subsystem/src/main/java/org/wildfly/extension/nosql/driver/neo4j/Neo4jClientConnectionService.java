@@ -37,6 +37,8 @@ import org.jboss.security.SubjectFactory;
 import org.wildfly.extension.nosql.driver.neo4j.transaction.DriverProxy;
 import org.wildfly.extension.nosql.driver.neo4j.transaction.TransactionEnlistmentType;
 import org.wildfly.extension.nosql.subsystem.neo4j.Neo4jSubsystemService;
+import org.wildfly.nosql.common.ConnectionServiceAccess;
+import org.wildfly.nosql.common.ConnectionServiceStarter;
 import org.wildfly.nosql.common.spi.NoSQLConnection;
 
 /**
@@ -50,7 +52,8 @@ public class Neo4jClientConnectionService implements Service<Neo4jClientConnecti
     // standard application server way to obtain target hostname + port for target NoSQL database server(s)
     private Map<String, OutboundSocketBinding> outboundSocketBindings = new HashMap<String, OutboundSocketBinding>();
     private final Neo4jInteraction neo4jInteraction;
-    private Object /* Driver */ driver;  // Driver is thread safe but Session is not
+    private volatile Object /* Driver */ driver;  // Driver is thread safe but Session is not
+    private boolean started;  // guarded by this, driver is only created between start + stop
     private final InjectedValue<Neo4jSubsystemService> neo4jSubsystemServiceInjectedValue = new InjectedValue<>();
     private final InjectedValue<SubjectFactory> subjectFactory = new InjectedValue<>();
 
@@ -73,7 +76,10 @@ public class Neo4jClientConnectionService implements Service<Neo4jClientConnecti
 
     @Override
     public void start(StartContext startContext) throws StartException {
+        ConnectionServiceStarter.start(startContext, configurationBuilder.getDescription(), configurationBuilder.isAsyncStart(), this::startDriver);
+    }
 
+    private void startDriver() {
         // maintain a mapping from JNDI name to NoSQL module name, that we will use during deployment time to
         // identify the static module name to add to the deployment.
         neo4jSubsystemServiceInjectedValue.getValue().addModuleNameFromJndi(configurationBuilder.getJNDIName(), configurationBuilder.getModuleName());
@@ -94,19 +100,44 @@ public class Neo4jClientConnectionService implements Service<Neo4jClientConnecti
         //if (configurationBuilder.getDescription() != null) {
             // neo4jInteraction.withClusterName(configurationBuilder.getDescription());
         // }
-        try {
-            driver = neo4jInteraction.build();
-        } catch (Throwable throwable) {
-            throw new RuntimeException("could not setup ServerAddress for " + configurationBuilder.getDescription(), throwable);
+        synchronized (this) {
+            started = true;
         }
+        if (!configurationBuilder.isLazyConnect()) {
+            connect();
+        }
+        ConnectionServiceAccess.started(configurationBuilder.getDescription(), this);
+    }
 
-        if (TransactionEnlistmentType.ONEPHASECOMMIT.equals(configurationBuilder.getTransactionEnlistment())) {
-            driver = onePhaseCommitWrapper(
-                driver,
-                neo4jSubsystemServiceInjectedValue.getValue().transactionManager(),
-                neo4jSubsystemServiceInjectedValue.getValue().transactionSynchronizationRegistry());
+    /**
+     * create the Driver, if not already created.
+     */
+    private void connect() {
+        if (driver != null) {
+            return;
         }
+        synchronized (this) {
+            if (driver != null) {
+                return;
+            }
+            if (!started) {
+                throw new IllegalStateException("Neo4j profile " + configurationBuilder.getDescription() + " is not started");
+            }
+            Object newDriver;
+            try {
+                newDriver = neo4jInteraction.build();
+            } catch (Throwable throwable) {
+                throw new RuntimeException("could not setup ServerAddress for " + configurationBuilder.getDescription(), throwable);
+            }
 
+            if (TransactionEnlistmentType.ONEPHASECOMMIT.equals(configurationBuilder.getTransactionEnlistment())) {
+                newDriver = onePhaseCommitWrapper(
+                    newDriver,
+                    neo4jSubsystemServiceInjectedValue.getValue().transactionManager(),
+                    neo4jSubsystemServiceInjectedValue.getValue().transactionSynchronizationRegistry());
+            }
+            driver = newDriver;
+        }
     }
 
     private Object /* Driver */ onePhaseCommitWrapper(Object driver, TransactionManager transactionManager, TransactionSynchronizationRegistry transactionSynchronizationRegistry) {
@@ -118,30 +149,42 @@ public class Neo4jClientConnectionService implements Service<Neo4jClientConnecti
 
     @Override
     public void stop(StopContext stopContext) {
+        ConnectionServiceAccess.stopped(configurationBuilder.getDescription(), this);
         try {
             neo4jSubsystemServiceInjectedValue.getValue().removeModuleNameFromJndi(configurationBuilder.getJNDIName());
             neo4jSubsystemServiceInjectedValue.getValue().removeModuleNameFromProfile(configurationBuilder.getDescription());
 
-            neo4jInteraction.driverClose(driver);
-            driver = null;
+            disconnect();
         } catch (Throwable throwable) {
             ROOT_LOGGER.driverFailedToStop(throwable);
         }
     }
 
+    private synchronized void disconnect() throws Throwable {
+        started = false;
+        try {
+            if (driver != null) {
+                neo4jInteraction.driverClose(driver);
+            }
+        } finally {
+            driver = null;
+        }
+    }
+
     @Override
     public Neo4jClientConnectionService getValue() throws IllegalStateException, IllegalArgumentException {
         return this;
     }
 
     public Object getDriver() {
+        connect();
         return driver;
     }
 
     @Override
     public <T> T unwrap(Class<T> clazz) {
         if ( neo4jInteraction.getDriverClass().isAssignableFrom( clazz ) ) {
-            return (T) driver;
+            return (T) getDriver();
         }
         //if ( Session.class.isAssignableFrom( clazz)) {
         //    return (T) session;
@@ -55,14 +55,14 @@ public class Neo4jInteraction {
         // auth handling
         Class authTokenClass = methodHandleBuilder.className(NoSQLConstants.NEO4JAUTHTOKENCLASS).getTargetClass();
         methodHandleBuilder.className(NoSQLConstants.NEO4JAUTHTOKENSCLASS).getTargetClass();
-        basicAuthMethod = methodHandleBuilder.staticMethod( "basic", MethodType.methodType(authTokenClass, String.class,String.class));
+        basicAuthMethod = MethodHandleBuilder.erase(methodHandleBuilder.staticMethod( "basic", MethodType.methodType(authTokenClass, String.class,String.class)));
 
         driverClass = methodHandleBuilder.className(NoSQLConstants.NEO4JDRIVERCLASS).getTargetClass();
-        closeDriverMethod = methodHandleBuilder.method("close");
+        closeDriverMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("close"));
         methodHandleBuilder.className(NoSQLConstants.NEO4JGRAPHDATABASECLASS);
-        buildMethod = methodHandleBuilder.staticMethod("driver", MethodType.methodType(driverClass, String.class));
+        buildMethod = MethodHandleBuilder.erase(methodHandleBuilder.staticMethod("driver", MethodType.methodType(driverClass, String.class)));
         // builder with auth
-        buildWithAuthMethod = methodHandleBuilder.staticMethod("driver", MethodType.methodType(driverClass, String.class, authTokenClass));
+        buildWithAuthMethod = MethodHandleBuilder.erase(methodHandleBuilder.staticMethod("driver", MethodType.methodType(driverClass, String.class, authTokenClass)));
         securityDomain = configurationBuilder.getSecurityDomain();
     }
 
@@ -77,8 +77,8 @@ public class Neo4jInteraction {
                 Set<PasswordCredential> passwordCredentials = subject.getPrivateCredentials(PasswordCredential.class);
                 PasswordCredential passwordCredential = passwordCredentials.iterator().next();
                 // driver( String url, AuthToken authToken)
-                return buildWithAuthMethod.invoke(builder.toString(),
-                        basicAuthMethod.invoke(passwordCredential.getUserName(), new String(passwordCredential.getPassword())));
+                return (Object) buildWithAuthMethod.invokeExact(builder.toString(),
+                        (Object) basicAuthMethod.invokeExact(passwordCredential.getUserName(), new String(passwordCredential.getPassword())));
             } catch(Throwable problem) {
                 if (ROOT_LOGGER.isTraceEnabled()) {
                     ROOT_LOGGER.tracef(problem,"could not create subject for security domain '%s'",
@@ -89,7 +89,7 @@ public class Neo4jInteraction {
         }
         else
             // driver( String url)
-            return buildMethod.invoke(builder.toString());
+            return (Object) buildMethod.invokeExact(builder.toString());
     }
 
     protected void withPort(int port) throws StartException {
@@ -109,7 +109,7 @@ public class Neo4jInteraction {
     }
 
     protected void driverClose(Object driver) throws Throwable {
-        closeDriverMethod.invoke(driver);
+        closeDriverMethod.invokeExact(driver);
     }
 
     protected Class getDriverClass() {
@@ -30,4 +30,6 @@ public interface CommonAttributes {
     String PROFILE = "neo4j";
     String TRANSACTION = "transaction";
     String SECURITY_DOMAIN = "security-domain";
+    String ASYNC_START = "async-start";
+    String LAZY_CONNECT = "lazy-connect";
 }
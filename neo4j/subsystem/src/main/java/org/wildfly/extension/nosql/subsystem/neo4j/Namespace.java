@@ -26,7 +26,8 @@ import java.util.Map;
 enum Namespace {
     // must be first
     UNKNOWN(null),
-    NEO4J_1_0("urn:jboss:domain:neo4jdriver:1.0"),;
+    NEO4J_1_0("urn:jboss:domain:neo4jdriver:1.0"),
+    NEO4J_1_1("urn:jboss:domain:neo4jdriver:1.1"),;
 
     private final String name;
 
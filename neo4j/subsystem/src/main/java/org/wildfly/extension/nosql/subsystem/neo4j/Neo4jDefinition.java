@@ -54,7 +54,6 @@ import org.jboss.msc.inject.Injector;
 import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
-import org.jboss.msc.value.ImmediateValue;
 import org.jboss.security.SubjectFactory;
 import org.wildfly.extension.nosql.driver.neo4j.ConfigurationBuilder;
 import org.wildfly.extension.nosql.driver.neo4j.Neo4jClientConnectionService;
@@ -124,12 +123,33 @@ public class Neo4jDefinition extends PersistentResourceDefinition {
                     .setAllowExpression(false)
                     .build();
 
+    protected static final SimpleAttributeDefinition ASYNC_START =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.ASYNC_START, ModelType.BOOLEAN, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setDefaultValue(new ModelNode(false))
+                    .setAllowExpression(true)
+                    .build();
+
+    protected static final SimpleAttributeDefinition LAZY_CONNECT =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.LAZY_CONNECT, ModelType.BOOLEAN, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setDefaultValue(new ModelNode(false))
+                    .setAllowExpression(true)
+                    .build();
+
     protected static List<SimpleAttributeDefinition> ATTRIBUTES = Arrays.asList(
             ID_NAME,
             JNDI_NAME,
             MODULE,
             TRANSACTION,
-            SECURITY_DOMAIN);
+            SECURITY_DOMAIN,
+            ASYNC_START,
+            LAZY_CONNECT);
+
+    // attributes added in the 1.1 namespace and model version
+    static final AttributeDefinition[] ATTRIBUTES_1_1 = {
+            ASYNC_START,
+            LAZY_CONNECT};
 
     static final Map<String, AttributeDefinition> ATTRIBUTES_MAP = new HashMap<>();
 
@@ -199,6 +219,12 @@ public class Neo4jDefinition extends PersistentResourceDefinition {
             if (profileEntry.hasDefined(CommonAttributes.SECURITY_DOMAIN)) {
                 builder.setSecurityDomain(profileEntry.get(CommonAttributes.SECURITY_DOMAIN).asString());
             }
+            if (profileEntry.hasDefined(CommonAttributes.ASYNC_START)) {
+                builder.setAsyncStart(profileEntry.get(CommonAttributes.ASYNC_START).asBoolean());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.LAZY_CONNECT)) {
+                builder.setLazyConnect(profileEntry.get(CommonAttributes.LAZY_CONNECT).asBoolean());
+            }
             startNeo4jDriverService(context, builder, outboundSocketBindings);
         }
 
@@ -216,7 +242,8 @@ public class Neo4jDefinition extends PersistentResourceDefinition {
                             @Override
                             public void inject(final Neo4jClientConnectionService value) throws
                                     InjectionException {
-                                binderService.getManagedObjectInjector().inject(new ValueManagedReferenceFactory(new ImmediateValue<>(value.getDriver())));
+                                // the driver is obtained on each lookup, as it might not be created yet (lazy-connect)
+                                binderService.getManagedObjectInjector().inject(new ValueManagedReferenceFactory(() -> value.getDriver()));
                             }
 
                             @Override
@@ -28,6 +28,8 @@ import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.capability.RuntimeCapability;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.wildfly.nosql.common.SubsystemMetricsHandler;
 
 /**
  * Neo4J client driver subsystem ResourceDefinition
@@ -59,6 +61,12 @@ public class Neo4jDriverDefinition extends PersistentResourceDefinition {
         return Collections.emptySet();
     }
 
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        SubsystemMetricsHandler.registerMetrics(resourceRegistration, Neo4jDriverSubsystemAdd.INSTANCE.getScanDependencyProcessor());
+    }
+
     @Override
     protected List<? extends PersistentResourceDefinition> getChildren() {
         return Arrays.asList(CHILDREN);
@@ -43,11 +43,17 @@ public class Neo4jDriverSubsystemAdd extends AbstractBoottimeAddStepHandler {
 
     public static final Neo4jDriverSubsystemAdd INSTANCE = new Neo4jDriverSubsystemAdd();
     private final ParametersValidator runtimeValidator = new ParametersValidator();
+    // kept across reloads, so that the deployment scan metrics of the subsystem are not reset
+    private final DriverScanDependencyProcessor scanDependencyProcessor = new DriverScanDependencyProcessor("neo4jsubsystem");
 
     private Neo4jDriverSubsystemAdd() {
 
     }
 
+    DriverScanDependencyProcessor getScanDependencyProcessor() {
+        return scanDependencyProcessor;
+    }
+
     protected void populateModel(ModelNode operation, ModelNode model) throws OperationFailedException {
         for (AttributeDefinition def : Neo4jDriverDefinition.INSTANCE.getAttributes()) {
             def.validateAndSet(operation, model);
@@ -63,7 +69,7 @@ public class Neo4jDriverSubsystemAdd extends AbstractBoottimeAddStepHandler {
                 final int PARSE_NEO4J_DRIVER                          = 0x4C00;
                 final int DEPENDENCIES_NEO4J_DRIVER                   = 0x1F10;
                 // TODO: use Phase.PARSE_NEO4J_DRIVER
-                processorTarget.addDeploymentProcessor(Neo4jDriverExtension.SUBSYSTEM_NAME, Phase.PARSE, PARSE_NEO4J_DRIVER, new DriverScanDependencyProcessor("neo4jsubsystem"));
+                processorTarget.addDeploymentProcessor(Neo4jDriverExtension.SUBSYSTEM_NAME, Phase.PARSE, PARSE_NEO4J_DRIVER, scanDependencyProcessor);
                 // TODO: use Phase.DEPENDENCIES_NEO4J_DRIVER
                 processorTarget.addDeploymentProcessor(Neo4jDriverExtension.SUBSYSTEM_NAME, Phase.DEPENDENCIES, DEPENDENCIES_NEO4J_DRIVER, DriverDependencyProcessor.getInstance());
             }
@@ -27,19 +27,25 @@ import org.jboss.as.controller.PersistentResourceXMLParser;
  * @author Scott Marlow
  */
 final class Neo4jDriverSubsystemParser extends PersistentResourceXMLParser {
-    protected static final Neo4jDriverSubsystemParser INSTANCE = new Neo4jDriverSubsystemParser();
-    private static final PersistentResourceXMLDescription xmlDescription;
+    protected static final Neo4jDriverSubsystemParser INSTANCE = new Neo4jDriverSubsystemParser(Neo4jDriverExtension.CURRENT);
+    static final Neo4jDriverSubsystemParser INSTANCE_1_0 = new Neo4jDriverSubsystemParser(Namespace.NEO4J_1_0);
 
-    static {
-        xmlDescription = builder(Neo4jDriverDefinition.INSTANCE, Neo4jDriverExtension.CURRENT.getUriString()).
+    private final PersistentResourceXMLDescription xmlDescription;
+
+    private Neo4jDriverSubsystemParser(Namespace namespace) {
+        PersistentResourceXMLDescription.PersistentResourceXMLBuilder profile = builder(Neo4jDefinition.INSTANCE)
+                .addAttributes(
+                        Neo4jDefinition.ID_NAME,
+                        Neo4jDefinition.JNDI_NAME,
+                        Neo4jDefinition.MODULE,
+                        Neo4jDefinition.TRANSACTION
+                );
+        if (namespace != Namespace.NEO4J_1_0) {
+            profile.addAttributes(Neo4jDefinition.ATTRIBUTES_1_1);
+        }
+        xmlDescription = builder(Neo4jDriverDefinition.INSTANCE, namespace.getUriString()).
                 addChild(
-                        builder(Neo4jDefinition.INSTANCE)
-                                .addAttributes(
-                                        Neo4jDefinition.ID_NAME,
-                                        Neo4jDefinition.JNDI_NAME,
-                                        Neo4jDefinition.MODULE,
-                                        Neo4jDefinition.TRANSACTION
-                                )
+                        profile
                                 .addChild(builder(HostDefinition.INSTANCE)
                                         .addAttributes(
                                                 HostDefinition.OUTBOUND_SOCKET_BINDING_REF
@@ -25,6 +25,7 @@ import javax.transaction.TransactionSynchronizationRegistry;
 
 import org.jboss.msc.inject.Injector;
 import org.jboss.msc.value.InjectedValue;
+import org.wildfly.nosql.common.MethodHandleCache;
 import org.wildfly.nosql.common.SubsystemService;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceName;
@@ -96,7 +97,7 @@ public class Neo4jSubsystemService implements Service<SubsystemService>, Subsyst
     }
 
     public void removeModuleNameFromProfile(String profile) {
-        profileNameToModuleName.remove(profile);
+        MethodHandleCache.evictUnused(profileNameToModuleName.remove(profile), profileNameToModuleName.values());
     }
 
     @Override
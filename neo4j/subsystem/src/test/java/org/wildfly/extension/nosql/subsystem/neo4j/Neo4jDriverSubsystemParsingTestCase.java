@@ -0,0 +1,61 @@
+/*
+ * Copyright 2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wildfly.extension.nosql.subsystem.neo4j;
+
+import java.io.IOException;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.subsystem.test.AbstractSubsystemBaseTest;
+import org.jboss.as.subsystem.test.AdditionalInitialization;
+import org.junit.Test;
+
+/**
+ * Parses and marshals the subsystem XML (the current namespace is tested by {@link #testSubsystem()}).
+ *
+ * @author Scott Marlow
+ */
+public class Neo4jDriverSubsystemParsingTestCase extends AbstractSubsystemBaseTest {
+
+    public Neo4jDriverSubsystemParsingTestCase() {
+        super(Neo4jDriverExtension.SUBSYSTEM_NAME, new Neo4jDriverExtension());
+    }
+
+    @Override
+    protected String getSubsystemXml() throws IOException {
+        return readResource("neo4j-1.1.xml");
+    }
+
+    @Override
+    protected AdditionalInitialization createAdditionalInitialization() {
+        return AdditionalInitialization.withCapabilities(RuntimeCapability.buildDynamicCapabilityName(
+                Neo4jDriverDefinition.OUTBOUND_SOCKET_BINDING_CAPABILITY_NAME, "neo4jtesthost"));
+    }
+
+    @Test
+    public void testParseSubsystem_1_0() throws Exception {
+        // the 1.0 configuration is marshalled with the current namespace, so the XML is not compared
+        standardSubsystemTest("neo4j-1.0.xml", false);
+    }
+
+    @Test(expected = XMLStreamException.class)
+    public void testNewAttributeRejectedBy_1_0() throws Exception {
+        parse(readResource("neo4j-1.0.xml").replace("<neo4j ", "<neo4j lazy-connect=\"true\" "));
+    }
+}
@@ -41,6 +41,10 @@ public class Configuration {
 
     private String profileName = "";
 
+    private boolean asyncStart;
+
+    private boolean lazyConnect;
+
     private Configuration() {
 
     }
@@ -55,6 +59,8 @@ public class Configuration {
         this.moduleName = configuration.getModuleName();
         this.profileName = configuration.getProfileName();
         this.remote = configuration.isRemote();
+        this.asyncStart = configuration.isAsyncStart();
+        this.lazyConnect = configuration.isLazyConnect();
     }
 
     public String getDatabaseUrl() {
@@ -93,6 +99,14 @@ public class Configuration {
         return profileName;
     }
 
+    public boolean isAsyncStart() {
+        return asyncStart;
+    }
+
+    public boolean isLazyConnect() {
+        return lazyConnect;
+    }
+
     public void setDatabaseUrl(String databaseUrl) {
         this.databaseUrl = databaseUrl;
     }
@@ -154,6 +168,16 @@ public class Configuration {
             return this;
         }
 
+        public Builder asyncStart(boolean asyncStart) {
+            configuration.asyncStart = asyncStart;
+            return this;
+        }
+
+        public Builder lazyConnect(boolean lazyConnect) {
+            configuration.lazyConnect = lazyConnect;
+            return this;
+        }
+
         public Configuration build() {
             return new Configuration(configuration);
         }
@@ -26,6 +26,8 @@ import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
 import org.jboss.security.SubjectFactory;
 import org.wildfly.extension.nosql.subsystem.orientdb.OrientSubsystemService;
+import org.wildfly.nosql.common.ConnectionServiceAccess;
+import org.wildfly.nosql.common.ConnectionServiceStarter;
 import org.wildfly.nosql.common.spi.NoSQLConnection;
 
 /**
@@ -45,6 +47,8 @@ public class OrientClientConnectionsService implements Service<OrientClientConne
 
     private volatile Object databasePool;
 
+    private boolean started;  // guarded by this, databasePool is only created between start + stop
+
     public OrientClientConnectionsService(Configuration configuration, OrientInteraction orientInteraction) {
         this.configuration = configuration;
         this.orientInteraction = orientInteraction;
@@ -52,19 +56,56 @@ public class OrientClientConnectionsService implements Service<OrientClientConne
 
     @Override
     public void start(StartContext startContext) throws StartException {
+        ConnectionServiceStarter.start(startContext, configuration.getProfileName(), configuration.isAsyncStart(), this::startDatabasePool);
+    }
+
+    private void startDatabasePool() {
         initOrientSubsystemService();
         initDatabaseUrl();
-        databasePool = orientInteraction.getDatabasePool();
+        synchronized (this) {
+            started = true;
+        }
+        if (!configuration.isLazyConnect()) {
+            connect();
+        }
+        ConnectionServiceAccess.started(configuration.getProfileName(), this);
+    }
+
+    /**
+     * create the database pool, if not already created.
+     */
+    private Object connect() {
+        Object result = databasePool;
+        if (result != null) {
+            return result;
+        }
+        synchronized (this) {
+            if (databasePool == null) {
+                if (!started) {
+                    throw new IllegalStateException("OrientDB profile " + configuration.getProfileName() + " is not started");
+                }
+                databasePool = orientInteraction.getDatabasePool();
+            }
+            return databasePool;
+        }
     }
 
     @Override
     public void stop(StopContext stopContext) {
+        ConnectionServiceAccess.stopped(configuration.getProfileName(), this);
         orientSubsystemServiceInjectedValue.getValue().removeModuleNameFromJndi(configuration.getJndiName());
         orientSubsystemServiceInjectedValue.getValue().removeModuleNameFromProfile(configuration.getProfileName());
         try {
-            orientInteraction.close(databasePool);
+            disconnect();
         } catch (Throwable throwable) {
             ROOT_LOGGER.driverFailedToStop(throwable);
+        }
+    }
+
+    private synchronized void disconnect() throws Throwable {
+        started = false;
+        try {
+            orientInteraction.close(databasePool);
         } finally {
             databasePool = null;
         }
@@ -79,7 +120,7 @@ public class OrientClientConnectionsService implements Service<OrientClientConne
     @Override
     public <T> T unwrap(Class<T> clazz) {
         if (orientInteraction.getDatabasePoolClass().isAssignableFrom(clazz)) {
-            return (T) databasePool;
+            return (T) connect();
         }
         throw ROOT_LOGGER.unassignable(clazz);
     }
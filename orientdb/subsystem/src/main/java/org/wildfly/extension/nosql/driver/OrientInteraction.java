@@ -47,18 +47,18 @@ public class OrientInteraction {
         methodHandleBuilder.classLoader(ModuleIdentifier.fromString(configuration.getModuleName()));
         oPartitionedDatabasePool = methodHandleBuilder.className(NoSQLConstants.ORIENTDBPARTIONEDDBPOOLCLASS).getTargetClass();
         // OPartitionedDatabasePool(String url, String userName, String password, int maxPartitionSize, int maxPoolSize)
-        oPartitionedDatabasePoolCtorMethod = methodHandleBuilder.declaredConstructor(
-                String.class, String.class, String.class, int.class, int.class);
-        oPartitionedDatabasePoolDefaultSizeCtorMethod = methodHandleBuilder.declaredConstructor(
-                        String.class, String.class, String.class);
-        oPartitionedDatabasePoolCloseMethod = methodHandleBuilder.method("close");
+        oPartitionedDatabasePoolCtorMethod = MethodHandleBuilder.erase(methodHandleBuilder.declaredConstructor(
+                String.class, String.class, String.class, int.class, int.class));
+        oPartitionedDatabasePoolDefaultSizeCtorMethod = MethodHandleBuilder.erase(methodHandleBuilder.declaredConstructor(
+                        String.class, String.class, String.class));
+        oPartitionedDatabasePoolCloseMethod = MethodHandleBuilder.erase(methodHandleBuilder.method("close"));
         methodHandleBuilder.className(NoSQLConstants.ORIENTDBDATABASERECORDTHREADLOCALCLASS);
-        MethodHandle oDatabaseRecordThreadLocalInstanceField = methodHandleBuilder.staticField("INSTANCE");
-        MethodHandle isDefinedMethod = methodHandleBuilder.method("isDefined");
+        MethodHandle oDatabaseRecordThreadLocalInstanceField = MethodHandleBuilder.erase(methodHandleBuilder.staticField("INSTANCE"));
+        MethodHandle isDefinedMethod = MethodHandleBuilder.eraseToVoid(methodHandleBuilder.method("isDefined"));
         try {
             // call ODatabaseRecordThreadLocal.INSTANCE.isDefined(), which seems to be a bug. Needs call on INSTANCE to work later.
             // TODO: does this leak anything on the deployment thread?
-            isDefinedMethod.invoke(oDatabaseRecordThreadLocalInstanceField.invoke());
+            isDefinedMethod.invokeExact((Object) oDatabaseRecordThreadLocalInstanceField.invokeExact());
         } catch (Throwable throwable) {
             throw new RuntimeException("could not reference " +methodHandleBuilder.getTargetClass().getName() + " INSTANCE field", throwable);
         }
@@ -87,10 +87,10 @@ public class OrientInteraction {
         }
         try {
             if(configuration.getMaxPartitionSize() > 0 || configuration.getMaxPoolSize() > 0)
-                return (T)oPartitionedDatabasePoolCtorMethod.invoke(configuration.getDatabaseUrl(), username,
+                return (T) (Object) oPartitionedDatabasePoolCtorMethod.invokeExact(configuration.getDatabaseUrl(), username,
                     password, configuration.getMaxPartitionSize(), configuration.getMaxPoolSize());
             else
-                return (T)oPartitionedDatabasePoolDefaultSizeCtorMethod.invoke(configuration.getDatabaseUrl(), username,
+                return (T) (Object) oPartitionedDatabasePoolDefaultSizeCtorMethod.invokeExact(configuration.getDatabaseUrl(), username,
                                     password);
         } catch (Throwable throwable) {
             username = password = null;
@@ -100,7 +100,7 @@ public class OrientInteraction {
 
     void close(Object databasePool) throws Throwable {
         if(databasePool != null) {
-            oPartitionedDatabasePoolCloseMethod.invoke(databasePool);
+            oPartitionedDatabasePoolCloseMethod.invokeExact(databasePool);
         }
     }
 
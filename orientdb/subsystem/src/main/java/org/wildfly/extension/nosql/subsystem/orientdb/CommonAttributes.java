@@ -32,4 +32,6 @@ interface CommonAttributes {
     String MAX_PARTITION_SIZE = "max-partition-size";
     String MAX_POOL_SIZE = "max-pool-size";
     String REMOTE = "remote";
+    String ASYNC_START = "async-start";
+    String LAZY_CONNECT = "lazy-connect";
 }
@@ -25,7 +25,8 @@ import java.util.Map;
 enum Namespace {
     // must be first
     UNKNOWN(null),
-    ORIENTDB_1_0("urn:jboss:domain:orientdb:1.0"),;
+    ORIENTDB_1_0("urn:jboss:domain:orientdb:1.0"),
+    ORIENTDB_1_1("urn:jboss:domain:orientdb:1.1"),;
 
     private final String name;
 
@@ -41,7 +41,6 @@ import org.jboss.msc.inject.Injector;
 import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
-import org.jboss.msc.value.ImmediateValue;
 import org.jboss.security.SubjectFactory;
 import org.wildfly.extension.nosql.driver.Configuration;
 import org.wildfly.extension.nosql.driver.OrientClientConnectionsService;
@@ -108,9 +107,29 @@ final class OrientDefinition extends PersistentResourceDefinition {
                     .setAllowExpression(true)
                     .build();
 
+    private static final SimpleAttributeDefinition ASYNC_START =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.ASYNC_START, ModelType.BOOLEAN, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setDefaultValue(new ModelNode(false))
+                    .setAllowExpression(true)
+                    .build();
+
+    private static final SimpleAttributeDefinition LAZY_CONNECT =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.LAZY_CONNECT, ModelType.BOOLEAN, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setDefaultValue(new ModelNode(false))
+                    .setAllowExpression(true)
+                    .build();
+
     static final AttributeDefinition[] ATTRIBUTES = { ID, DATABASE, REMOTE, JNDI_NAME, MODULE , SECURITY_DOMAIN,
+            MAX_PARTITION_SIZE, MAX_POOL_SIZE, ASYNC_START, LAZY_CONNECT };
+
+    static final AttributeDefinition[] ATTRIBUTES_1_0 = { ID, DATABASE, REMOTE, JNDI_NAME, MODULE , SECURITY_DOMAIN,
             MAX_PARTITION_SIZE, MAX_POOL_SIZE };
 
+    // attributes added in the 1.1 namespace and model version
+    static final AttributeDefinition[] ATTRIBUTES_1_1 = { ASYNC_START, LAZY_CONNECT };
+
     static final OrientDefinition INSTANCE = new OrientDefinition();
 
     private OrientDefinition() {
@@ -183,8 +202,9 @@ final class OrientDefinition extends PersistentResourceDefinition {
                             new Injector<OrientClientConnectionsService>() {
                                 @Override
                                 public void inject(final OrientClientConnectionsService value) throws InjectionException {
+                                    // the pool is obtained on each lookup, as it might not be created yet (lazy-connect)
                                     binderService.getManagedObjectInjector().inject(
-                                            new ValueManagedReferenceFactory(new ImmediateValue<>(value.unwrap(clazz))));
+                                            new ValueManagedReferenceFactory(() -> value.unwrap(clazz)));
                                 }
 
                                 @Override
@@ -222,6 +242,12 @@ final class OrientDefinition extends PersistentResourceDefinition {
             if (profileEntry.hasDefined(CommonAttributes.MAX_POOL_SIZE)) {
                 builder.maxPoolSize(profileEntry.get(CommonAttributes.MAX_POOL_SIZE).asInt());
             }
+            if (profileEntry.hasDefined(CommonAttributes.ASYNC_START)) {
+                builder.asyncStart(profileEntry.get(CommonAttributes.ASYNC_START).asBoolean());
+            }
+            if (profileEntry.hasDefined(CommonAttributes.LAZY_CONNECT)) {
+                builder.lazyConnect(profileEntry.get(CommonAttributes.LAZY_CONNECT).asBoolean());
+            }
 
             return builder.build();
         }
@@ -23,6 +23,8 @@ import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.capability.RuntimeCapability;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.wildfly.nosql.common.SubsystemMetricsHandler;
 
 import java.util.Arrays;
 import java.util.Collection;
@@ -50,6 +52,12 @@ final class OrientDriverDefinition extends PersistentResourceDefinition {
         return Collections.emptyList();
     }
 
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        SubsystemMetricsHandler.registerMetrics(resourceRegistration, OrientDriverSubsystemAdd.INSTANCE.getScanDependencyProcessor());
+    }
+
     private OrientDriverDefinition() {
         super(new SimpleResourceDefinition.Parameters(
                 PathElement.pathElement(ModelDescriptionConstants.SUBSYSTEM, OrientDriverExtension.SUBSYSTEM_NAME),
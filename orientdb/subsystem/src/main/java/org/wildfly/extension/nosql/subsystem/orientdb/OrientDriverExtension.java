@@ -25,6 +25,11 @@ import org.jboss.as.controller.descriptions.StandardResourceDescriptionResolver;
 import org.jboss.as.controller.operations.common.GenericSubsystemDescribeHandler;
 import org.jboss.as.controller.parsing.ExtensionParsingContext;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.transform.description.DiscardAttributeChecker;
+import org.jboss.as.controller.transform.description.RejectAttributeChecker;
+import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
+import org.jboss.as.controller.transform.description.TransformationDescription;
+import org.jboss.as.controller.transform.description.TransformationDescriptionBuilder;
 
 /**
  * @author <a href="mailto:gytis@redhat.com">Gytis Trikleris</a>
@@ -33,7 +38,7 @@ public final class OrientDriverExtension implements Extension {
 
     static final String SUBSYSTEM_NAME = "orientdb";
 
-    static final Namespace CURRENT = Namespace.ORIENTDB_1_0;
+    static final Namespace CURRENT = Namespace.ORIENTDB_1_1;
 
     static final PathElement ORIENT_PATH = PathElement.pathElement(CommonAttributes.ORIENT);
 
@@ -41,7 +46,9 @@ public final class OrientDriverExtension implements Extension {
 
     private static final String RESOURCE_NAME = OrientDriverExtension.class.getPackage().getName() + ".LocalDescriptions";
 
-    private static final ModelVersion CURRENT_MODEL_VERSION = ModelVersion.create(1, 0, 0);
+    private static final ModelVersion CURRENT_MODEL_VERSION = ModelVersion.create(1, 1, 0);
+
+    private static final ModelVersion MODEL_VERSION_1_0_0 = ModelVersion.create(1, 0, 0);
 
     static StandardResourceDescriptionResolver getResourceDescriptionResolver(String... keyPrefix) {
         StringBuilder prefix = new StringBuilder(SUBSYSTEM_NAME);
@@ -58,10 +65,26 @@ public final class OrientDriverExtension implements Extension {
         managementResource.registerOperationHandler(GenericSubsystemDescribeHandler.DEFINITION,
                 GenericSubsystemDescribeHandler.INSTANCE);
         subsystem.registerXMLElementWriter(OrientDriverSubsystemParser.INSTANCE);
+        if (context.isRegisterTransformers()) {
+            registerTransformers(subsystem);
+        }
     }
 
     public void initializeParsers(ExtensionParsingContext context) {
+        context.setSubsystemXmlMapping(SUBSYSTEM_NAME, Namespace.ORIENTDB_1_0.getUriString(),
+                OrientDriverSubsystemParser.INSTANCE_1_0);
         context.setSubsystemXmlMapping(SUBSYSTEM_NAME, CURRENT.getUriString(), OrientDriverSubsystemParser.INSTANCE);
     }
 
+    // legacy (1.0.0) hosts only know the original orient attributes, so the ones added in 1.1.0 can only be
+    // dropped when they are not set
+    private static void registerTransformers(SubsystemRegistration subsystem) {
+        ResourceTransformationDescriptionBuilder builder = TransformationDescriptionBuilder.Factory.createSubsystemInstance();
+        builder.addChildResource(ORIENT_PATH).getAttributeBuilder()
+                .setDiscard(DiscardAttributeChecker.UNDEFINED, OrientDefinition.ATTRIBUTES_1_1)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, OrientDefinition.ATTRIBUTES_1_1)
+                .end();
+        TransformationDescription.Tools.register(builder.build(), subsystem, MODEL_VERSION_1_0_0);
+    }
+
 }
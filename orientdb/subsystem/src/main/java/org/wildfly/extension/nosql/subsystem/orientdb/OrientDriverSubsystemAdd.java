@@ -36,10 +36,16 @@ final class OrientDriverSubsystemAdd extends AbstractBoottimeAddStepHandler {
     static final OrientDriverSubsystemAdd INSTANCE = new OrientDriverSubsystemAdd();
 
     private final ParametersValidator runtimeValidator = new ParametersValidator();
+    // kept across reloads, so that the deployment scan metrics of the subsystem are not reset
+    private final DriverScanDependencyProcessor scanDependencyProcessor = new DriverScanDependencyProcessor("orientdbsubsystem");
 
     private OrientDriverSubsystemAdd() {
     }
 
+    DriverScanDependencyProcessor getScanDependencyProcessor() {
+        return scanDependencyProcessor;
+    }
+
     protected void performBoottime(final OperationContext context, final ModelNode operation, final ModelNode model)
             throws OperationFailedException {
         runtimeValidator.validate(operation.resolve());
@@ -49,7 +55,7 @@ final class OrientDriverSubsystemAdd extends AbstractBoottimeAddStepHandler {
                 final int DEPENDENCIES_ORIENT_DRIVER                  = 0x1F11;
                 // TODO: use Phase.PARSE_ORIENT_DRIVER
                 processorTarget.addDeploymentProcessor(OrientDriverExtension.SUBSYSTEM_NAME, Phase.PARSE,
-                        PARSE_ORIENT_DRIVER, new DriverScanDependencyProcessor("orientdbsubsystem"));
+                        PARSE_ORIENT_DRIVER, scanDependencyProcessor);
                 // TODO: use Phase.DEPENDENCIES_ORIENT_DRIVER
                 processorTarget.addDeploymentProcessor(OrientDriverExtension.SUBSYSTEM_NAME, Phase.DEPENDENCIES,
                         DEPENDENCIES_ORIENT_DRIVER, DriverDependencyProcessor.getInstance());
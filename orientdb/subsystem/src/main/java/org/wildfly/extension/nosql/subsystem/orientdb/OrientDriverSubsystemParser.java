@@ -26,20 +26,26 @@ import org.jboss.as.controller.PersistentResourceXMLParser;
  */
 final class OrientDriverSubsystemParser extends PersistentResourceXMLParser {
 
-    static final OrientDriverSubsystemParser INSTANCE = new OrientDriverSubsystemParser();
+    static final OrientDriverSubsystemParser INSTANCE = new OrientDriverSubsystemParser(OrientDriverExtension.CURRENT);
 
-    private static final PersistentResourceXMLDescription XML_DESCRIPTION =
-            builder(OrientDriverDefinition.INSTANCE, OrientDriverExtension.CURRENT.getUriString())
-                    .addChild(builder(OrientDefinition.INSTANCE)
-                            .addAttributes(OrientDefinition.ATTRIBUTES)
-                            .addChild(builder(HostDefinition.INSTANCE)
-                                    .addAttributes(HostDefinition.ATTRIBUTES)
-                            )
-                    ).build();
+    static final OrientDriverSubsystemParser INSTANCE_1_0 = new OrientDriverSubsystemParser(Namespace.ORIENTDB_1_0);
+
+    private final PersistentResourceXMLDescription xmlDescription;
+
+    private OrientDriverSubsystemParser(Namespace namespace) {
+        xmlDescription = builder(OrientDriverDefinition.INSTANCE, namespace.getUriString())
+                .addChild(builder(OrientDefinition.INSTANCE)
+                        .addAttributes(namespace == Namespace.ORIENTDB_1_0
+                                ? OrientDefinition.ATTRIBUTES_1_0 : OrientDefinition.ATTRIBUTES)
+                        .addChild(builder(HostDefinition.INSTANCE)
+                                .addAttributes(HostDefinition.ATTRIBUTES)
+                        )
+                ).build();
+    }
 
     @Override
     public PersistentResourceXMLDescription getParserDescription() {
-        return XML_DESCRIPTION;
+        return xmlDescription;
     }
 
 }
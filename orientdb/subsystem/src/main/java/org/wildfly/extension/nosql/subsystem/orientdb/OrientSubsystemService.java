@@ -21,6 +21,7 @@ import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
+import org.wildfly.nosql.common.MethodHandleCache;
 import org.wildfly.nosql.common.SubsystemService;
 
 import java.util.Collection;
@@ -92,7 +93,7 @@ public class OrientSubsystemService implements Service<SubsystemService>, Subsys
     }
 
     public void removeModuleNameFromProfile(String profile) {
-        profileNameToModuleName.remove(profile);
+        MethodHandleCache.evictUnused(profileNameToModuleName.remove(profile), profileNameToModuleName.values());
     }
 
 